@@ -2,6 +2,8 @@ package org.openstreetmap.atlas.checks.base;
 
 import java.io.Serializable;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
@@ -11,11 +13,16 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
+import org.openstreetmap.atlas.checks.event.MetricEvent;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
 import org.openstreetmap.atlas.checks.maproulette.data.Challenge;
 import org.openstreetmap.atlas.checks.maproulette.data.ChallengeDifficulty;
 import org.openstreetmap.atlas.checks.maproulette.serializer.ChallengeDeserializer;
+import org.openstreetmap.atlas.checks.utility.AtlasInclusionIndex;
+import org.openstreetmap.atlas.checks.utility.CompiledTaggableFilters;
+import org.openstreetmap.atlas.checks.utility.ConcurrentLongSet;
 import org.openstreetmap.atlas.geography.Location;
 import org.openstreetmap.atlas.geography.atlas.Atlas;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
@@ -27,8 +34,7 @@ import org.openstreetmap.atlas.utilities.collections.MultiIterable;
 import org.openstreetmap.atlas.utilities.collections.OptionalIterable;
 import org.openstreetmap.atlas.utilities.configuration.Configuration;
 import org.openstreetmap.atlas.utilities.filters.AtlasEntityPolygonsFilter;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.openstreetmap.atlas.utilities.scalars.Duration;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -46,28 +52,113 @@ public abstract class BaseCheck<T> implements Check, Serializable
 {
     public static final String PARAMETER_ACCEPT_PIERS = "accept.piers";
     public static final String PARAMETER_BLACKLIST_COUNTRIES = "countries.blacklist";
+    public static final String PARAMETER_BUDGET_CHECK = "budget.check.milliseconds";
+    public static final String PARAMETER_BUDGET_OBJECT = "budget.object.milliseconds";
     public static final String PARAMETER_CHALLENGE = "challenge";
+    public static final String PARAMETER_ERRORS_BREAKER_MINIMUM = "errors.breaker.minimum";
+    public static final String PARAMETER_ERRORS_BREAKER_RATE = "errors.breaker.rate";
+    public static final String PARAMETER_ERRORS_TRACES = "errors.traces.maximum";
     public static final String PARAMETER_FLAG = "flags";
     public static final String PARAMETER_WHITELIST_COUNTRIES = "countries.whitelist";
     public static final String PARAMETER_WHITELIST_TAGS = "tags.filter";
     private static final Locale DEFAULT_LOCALE = Locale.ENGLISH;
+    private static final long DEFAULT_BUDGET_CHECK = 0L;
+    private static final long DEFAULT_BUDGET_OBJECT = 0L;
+    private static final long DEFAULT_ERRORS_BREAKER_MINIMUM = 1000L;
+    private static final double DEFAULT_ERRORS_BREAKER_RATE = 0.0;
+    private static final long DEFAULT_ERRORS_TRACES = 10L;
+    private static final String ERRORS_STATE = "errors";
+    private static final String SKIPPED_SLOW_OBJECTS_STATE = "skippedSlowObjects";
+    private static final String FLAGGED_IDENTIFIERS_STATE = "flaggedIdentifiers";
+    private static final String FLAGGED_LONG_IDENTIFIERS_STATE = "flaggedLongIdentifiers";
+    private static final String FLAGGED_OBJECT_IDENTIFIERS_STATE = "flaggedObjectIdentifiers";
+    private static final String FLAGGED_OTHER_OBJECTS_STATE = "flaggedOtherObjects";
+    private static final String GLOBAL_POLYGON_FILTER_PREFIX = "polygons:";
+    private static final String TAG_FILTER_PREFIX = "tags:";
+    // Typed identifiers keep the item type in the top 3 bits, and the OSM identifier in the others
+    private static final int ITEM_TYPE_SHIFT = 61;
+    private static final long MAXIMUM_TYPED_IDENTIFIER = 1L << (ITEM_TYPE_SHIFT - 1);
+    private static final long TYPED_IDENTIFIER_MASK = (1L << ITEM_TYPE_SHIFT) - 1;
     private static final String PARAMETER_LOCALE_KEY = "locale";
-    private static final Logger logger = LoggerFactory.getLogger(BaseCheck.class);
     private static final long serialVersionUID = 4427673331949586822L;
     private final boolean acceptPiers;
     private final List<String> blacklistCountries;
+    // Time limit of a run in milliseconds, 0 when runs have no limit
+    private final long budgetCheck;
+    // Time budget per object in milliseconds, 0 when objects have no budget
+    private final long budgetObject;
     private final Challenge challenge;
+    private final long errorsBreakerMinimum;
+    private final double errorsBreakerRate;
+    private final int errorsTraces;
     private final List<String> countries;
     private final Map<String, List<String>> flagLanguageMap;
     // OSM Identifiers are used to keep track of flagged features
     private transient Set<T> flaggedIdentifiers = null;
+    // Long identifiers, and typed identifiers of flagged objects, are kept unboxed
+    private transient ConcurrentLongSet flaggedLongIdentifiers = null;
+    private transient ConcurrentLongSet flaggedObjectIdentifiers = null;
+    private transient Set<String> flaggedOtherObjects = null;
+    // Any other state a check keeps while running, see getRunState
+    private transient Map<String, Object> runStates = null;
     private final Locale locale;
     private final String name = this.getClass().getSimpleName();
     // geo filter specific to this check
     private final AtlasEntityPolygonsFilter checkPolygonFilter;
     // geo filter for all checks
     private final AtlasEntityPolygonsFilter globalPolygonFilter;
-    private TaggableFilter tagFilter = null;
+    // Keys of the filter definitions in the shared inclusion bitsets, null when the filter is empty
+    private final String globalPolygonFilterKey;
+    private final String tagFilterKey;
+    private CompiledTaggableFilters tagFilter = null;
+
+    /**
+     * Builds the key of the global polygon filter definition, so that checks with the same global
+     * polygons share their inclusion bitsets
+     *
+     * @return the key, or null if the configuration has no global polygons
+     */
+    private static String globalPolygonFilterKey(final Configuration configuration)
+    {
+        final StringBuilder key = new StringBuilder(GLOBAL_POLYGON_FILTER_PREFIX);
+        boolean empty = true;
+        for (final String polygonsKey : Arrays.asList(
+                AtlasEntityPolygonsFilter.INCLUDED_POLYGONS_KEY,
+                AtlasEntityPolygonsFilter.INCLUDED_MULTIPOLYGONS_KEY,
+                AtlasEntityPolygonsFilter.EXCLUDED_POLYGONS_KEY,
+                AtlasEntityPolygonsFilter.EXCLUDED_MULTIPOLYGONS_KEY))
+        {
+            final Map<String, Object> polygons = configuration
+                    .get(polygonsKey, Collections.emptyMap()).value();
+            empty &= polygons.isEmpty();
+            key.append(polygonsKey).append(polygons);
+        }
+        return empty ? null : key.toString();
+    }
+
+    /**
+     * Encodes the type and OSM identifier of an {@link AtlasEntity} in a single long, the type
+     * ordinal plus one in the top 3 bits so that an encoded identifier is never 0
+     *
+     * @param object
+     *            the {@link AtlasObject} to encode
+     * @return the typed identifier, or 0 if the object is not an {@link AtlasEntity} or its OSM
+     *         identifier does not fit in 61 bits
+     */
+    private static long typedIdentifier(final AtlasObject object)
+    {
+        if (!(object instanceof AtlasEntity))
+        {
+            return 0L;
+        }
+        final long osmIdentifier = object.getOsmIdentifier();
+        if (osmIdentifier >= MAXIMUM_TYPED_IDENTIFIER || osmIdentifier < -MAXIMUM_TYPED_IDENTIFIER)
+        {
+            return 0L;
+        }
+        return ((long) (((AtlasEntity) object).getType().ordinal() + 1) << ITEM_TYPE_SHIFT)
+                | (osmIdentifier & TYPED_IDENTIFIER_MASK);
+    }
 
     /**
      * Default constructor
@@ -83,8 +174,22 @@ public abstract class BaseCheck<T> implements Check, Serializable
                 PARAMETER_WHITELIST_COUNTRIES, Collections.EMPTY_LIST));
         this.blacklistCountries = Collections.unmodifiableList(configurationValue(configuration,
                 PARAMETER_BLACKLIST_COUNTRIES, Collections.EMPTY_LIST));
-        this.tagFilter = TaggableFilter
-                .forDefinition(configurationValue(configuration, PARAMETER_WHITELIST_TAGS, ""));
+        this.budgetCheck = configurationValue(configuration, PARAMETER_BUDGET_CHECK,
+                DEFAULT_BUDGET_CHECK);
+        this.budgetObject = configurationValue(configuration, PARAMETER_BUDGET_OBJECT,
+                DEFAULT_BUDGET_OBJECT);
+        this.errorsTraces = configurationValue(configuration, PARAMETER_ERRORS_TRACES,
+                DEFAULT_ERRORS_TRACES, Long::intValue);
+        this.errorsBreakerRate = configurationValue(configuration, PARAMETER_ERRORS_BREAKER_RATE,
+                DEFAULT_ERRORS_BREAKER_RATE, Double::doubleValue);
+        this.errorsBreakerMinimum = configurationValue(configuration,
+                PARAMETER_ERRORS_BREAKER_MINIMUM, DEFAULT_ERRORS_BREAKER_MINIMUM);
+        final String tagFilterDefinition = configurationValue(configuration,
+                PARAMETER_WHITELIST_TAGS, "");
+        this.tagFilter = CompiledTaggableFilters
+                .compile(TaggableFilter.forDefinition(tagFilterDefinition));
+        this.tagFilterKey = tagFilterDefinition.isEmpty() ? null
+                : TAG_FILTER_PREFIX + tagFilterDefinition;
         final Map<String, String> challengeMap = configurationValue(configuration,
                 PARAMETER_CHALLENGE, Collections.EMPTY_MAP);
         this.flagLanguageMap = configurationValue(configuration, PARAMETER_FLAG,
@@ -103,6 +208,7 @@ public abstract class BaseCheck<T> implements Check, Serializable
             this.challenge = gson.fromJson(gson.toJson(challengeMap), Challenge.class);
         }
         this.globalPolygonFilter = AtlasEntityPolygonsFilter.forConfiguration(configuration);
+        this.globalPolygonFilterKey = globalPolygonFilterKey(configuration);
         this.checkPolygonFilter = AtlasEntityPolygonsFilter.forConfigurationValues(
                 configurationValue(configuration, AtlasEntityPolygonsFilter.INCLUDED_POLYGONS_KEY,
                         Collections.emptyMap()),
@@ -119,17 +225,38 @@ public abstract class BaseCheck<T> implements Check, Serializable
     @Override
     public Optional<CheckFlag> check(final AtlasObject object)
     {
+        final CheckErrors errors = this.getErrors();
+        if (errors.isDisabled())
+        {
+            return Optional.empty();
+        }
+        final ObjectTimeBudget budget = this.budgetObject > 0
+                ? ObjectTimeBudget.start(this.budgetObject)
+                : null;
         try
         {
             if (this.checkObjectFilter().test(object))
             {
+                // Only the objects the check looks at count towards its failure rate
+                errors.checking();
                 return this.flag(object);
             }
         }
+        catch (final TimeBudgetExceededException slow)
+        {
+            this.getSkippedSlowObjects().record(object, slow.getElapsed());
+        }
         catch (final Exception oops)
         {
-            logger.error(String.format("%s failed on feature %s (%s).", this.getCheckName(),
-                    object.getIdentifier(), object.getOsmIdentifier()), oops);
+            // Logged with its stack trace for the first failures only, and counted
+            errors.record(object, oops);
+        }
+        finally
+        {
+            if (budget != null)
+            {
+                budget.stop();
+            }
         }
 
         return Optional.empty();
@@ -137,10 +264,9 @@ public abstract class BaseCheck<T> implements Check, Serializable
 
     public final Predicate<AtlasObject> checkObjectFilter()
     {
-        return object -> this.validCheckForObject(object) && this.tagFilter.test(object)
-                && (!(object instanceof AtlasEntity)
-                        || this.checkPolygonFilter.test((AtlasEntity) object)
-                                && this.globalPolygonFilter.test((AtlasEntity) object))
+        return object -> this.validCheckForObject(object)
+                && (object instanceof AtlasEntity ? this.passesEntityFilters((AtlasEntity) object)
+                        : this.tagFilter.test(object))
                 && (this.acceptPier() || !ManMadeTag.isPier(object));
     }
 
@@ -152,6 +278,7 @@ public abstract class BaseCheck<T> implements Check, Serializable
     public void clear()
     {
         clearFlaggedIdentifiers();
+        this.getRunStates().clear();
     }
 
     @Override
@@ -194,6 +321,15 @@ public abstract class BaseCheck<T> implements Check, Serializable
         return this.countries;
     }
 
+    /**
+     * @return the failures of this check during the current run
+     */
+    public CheckErrors getErrors()
+    {
+        return this.getRunState(ERRORS_STATE, () -> new CheckErrors(this.getCheckName(),
+                this.errorsTraces, this.errorsBreakerRate, this.errorsBreakerMinimum));
+    }
+
     public AtlasEntityPolygonsFilter getGlobalPolygonFilter()
     {
         return this.globalPolygonFilter;
@@ -244,11 +380,40 @@ public abstract class BaseCheck<T> implements Check, Serializable
         return this.formatInstruction(instructionFormat, objects);
     }
 
+    /**
+     * @return the objects this check skipped during the current run because they took longer
+     *         than its time budget
+     */
+    public SkippedSlowObjects getSkippedSlowObjects()
+    {
+        return this.getRunState(SKIPPED_SLOW_OBJECTS_STATE,
+                () -> new SkippedSlowObjects(this.getCheckName()));
+    }
+
+    @Override
+    public Optional<Duration> getTimeLimit()
+    {
+        return this.budgetCheck > 0 ? Optional.of(Duration.milliseconds(this.budgetCheck))
+                : Optional.empty();
+    }
+
     @Override
     public void logStatus()
     {
     }
 
+    /**
+     * @return the failure counters and the skipped slow objects of this check during the current
+     *         run
+     */
+    @Override
+    public List<MetricEvent> metrics()
+    {
+        final List<MetricEvent> metrics = new ArrayList<>(this.getErrors().metrics());
+        metrics.addAll(this.getSkippedSlowObjects().metrics());
+        return metrics;
+    }
+
     /**
      * The country check will first check the country whitelist and if the country is contained in
      * the whitelist it is allowed, after that the country is checked it against blacklist and if
@@ -289,6 +454,9 @@ public abstract class BaseCheck<T> implements Check, Serializable
     protected void clearFlaggedIdentifiers()
     {
         this.getFlaggedIdentifiers().clear();
+        this.getFlaggedLongIdentifiers().clear();
+        this.getFlaggedObjectIdentifiers().clear();
+        this.getFlaggedOtherObjects().clear();
     }
 
     protected final String configurationKey(final Class type, final String key)
@@ -385,8 +553,20 @@ public abstract class BaseCheck<T> implements Check, Serializable
         return Collections.emptyList();
     }
 
+    /**
+     * Gets the flagged identifiers that are not {@link Long}s. {@link Long} identifiers, and
+     * objects flagged with {@link #markAsFlagged(AtlasObject)}, are kept in primitive sets instead.
+     *
+     * @return the flagged identifiers
+     */
     protected Set<T> getFlaggedIdentifiers()
     {
+        final Optional<CheckRunScope> scope = CheckRunScope.current();
+        if (scope.isPresent())
+        {
+            return scope.get().state(this, FLAGGED_IDENTIFIERS_STATE,
+                    ConcurrentHashMap::newKeySet);
+        }
         if (this.flaggedIdentifiers == null)
         {
             this.flaggedIdentifiers = ConcurrentHashMap.newKeySet();
@@ -394,6 +574,31 @@ public abstract class BaseCheck<T> implements Check, Serializable
         return this.flaggedIdentifiers;
     }
 
+    /**
+     * Gets state that a check keeps while it runs, other than its flagged identifiers. Like
+     * flagged identifiers, it is dropped by {@link #clear()} and isolated per caller when a
+     * {@link CheckRunScope} is open. Checks should keep mutable run state here rather than in
+     * fields, so that a single check instance can be shared.
+     *
+     * @param key
+     *            key identifying the state within this check
+     * @param initializer
+     *            supplies the initial (thread-safe) state
+     * @param <S>
+     *            the state type
+     * @return the state for this key
+     */
+    @SuppressWarnings("unchecked")
+    protected final <S> S getRunState(final String key, final Supplier<S> initializer)
+    {
+        final Optional<CheckRunScope> scope = CheckRunScope.current();
+        if (scope.isPresent())
+        {
+            return scope.get().state(this, key, initializer);
+        }
+        return (S) this.getRunStates().computeIfAbsent(key, value -> initializer.get());
+    }
+
     protected String getTaskIdentifier(final AtlasObject object)
     {
         return new TaskIdentifier(object).toString();
@@ -456,14 +661,74 @@ public abstract class BaseCheck<T> implements Check, Serializable
         }
     }
 
+    /**
+     * Checks whether an object was flagged with {@link #markAsFlagged(AtlasObject)}. This is
+     * equivalent to flagging {@link #getUniqueOSMIdentifier(AtlasObject)}, without building a
+     * string for each lookup.
+     *
+     * @param object
+     *            the {@link AtlasObject} to look up
+     * @return {@code true} if the object was flagged
+     */
+    protected final boolean isFlagged(final AtlasObject object)
+    {
+        final long typedIdentifier = typedIdentifier(object);
+        if (typedIdentifier == 0L)
+        {
+            return this.getFlaggedOtherObjects().contains(this.getUniqueOSMIdentifier(object));
+        }
+        return this.getFlaggedObjectIdentifiers().contains(typedIdentifier);
+    }
+
+    protected final boolean isFlagged(final long identifier)
+    {
+        return this.getFlaggedLongIdentifiers().contains(identifier);
+    }
+
     protected final boolean isFlagged(final T identifier)
     {
+        if (identifier instanceof Long)
+        {
+            return this.isFlagged(((Long) identifier).longValue());
+        }
         return this.getFlaggedIdentifiers().contains(identifier);
     }
 
+    /**
+     * Flags an object, identified by its type and OSM identifier like
+     * {@link #getUniqueOSMIdentifier(AtlasObject)}
+     *
+     * @param object
+     *            the {@link AtlasObject} to flag
+     */
+    protected final void markAsFlagged(final AtlasObject object)
+    {
+        final long typedIdentifier = typedIdentifier(object);
+        if (typedIdentifier == 0L)
+        {
+            this.getFlaggedOtherObjects().add(this.getUniqueOSMIdentifier(object));
+        }
+        else
+        {
+            this.getFlaggedObjectIdentifiers().add(typedIdentifier);
+        }
+    }
+
+    protected final void markAsFlagged(final long identifier)
+    {
+        this.getFlaggedLongIdentifiers().add(identifier);
+    }
+
     protected final void markAsFlagged(final T identifier)
     {
-        this.getFlaggedIdentifiers().add(identifier);
+        if (identifier instanceof Long)
+        {
+            this.markAsFlagged(((Long) identifier).longValue());
+        }
+        else
+        {
+            this.getFlaggedIdentifiers().add(identifier);
+        }
     }
 
     /**
@@ -489,4 +754,90 @@ public abstract class BaseCheck<T> implements Check, Serializable
     {
         return String.format("%s.%s", name, key);
     }
+
+    private ConcurrentLongSet getFlaggedLongIdentifiers()
+    {
+        final Optional<CheckRunScope> scope = CheckRunScope.current();
+        if (scope.isPresent())
+        {
+            return scope.get().state(this, FLAGGED_LONG_IDENTIFIERS_STATE,
+                    ConcurrentLongSet::new);
+        }
+        if (this.flaggedLongIdentifiers == null)
+        {
+            this.initializeFlaggedObjects();
+        }
+        return this.flaggedLongIdentifiers;
+    }
+
+    private ConcurrentLongSet getFlaggedObjectIdentifiers()
+    {
+        final Optional<CheckRunScope> scope = CheckRunScope.current();
+        if (scope.isPresent())
+        {
+            return scope.get().state(this, FLAGGED_OBJECT_IDENTIFIERS_STATE,
+                    ConcurrentLongSet::new);
+        }
+        if (this.flaggedObjectIdentifiers == null)
+        {
+            this.initializeFlaggedObjects();
+        }
+        return this.flaggedObjectIdentifiers;
+    }
+
+    private Set<String> getFlaggedOtherObjects()
+    {
+        final Optional<CheckRunScope> scope = CheckRunScope.current();
+        if (scope.isPresent())
+        {
+            return scope.get().state(this, FLAGGED_OTHER_OBJECTS_STATE,
+                    ConcurrentHashMap::newKeySet);
+        }
+        if (this.flaggedOtherObjects == null)
+        {
+            this.initializeFlaggedObjects();
+        }
+        return this.flaggedOtherObjects;
+    }
+
+    private synchronized Map<String, Object> getRunStates()
+    {
+        if (this.runStates == null)
+        {
+            this.runStates = new ConcurrentHashMap<>();
+        }
+        return this.runStates;
+    }
+
+    private synchronized void initializeFlaggedObjects()
+    {
+        if (this.flaggedOtherObjects == null)
+        {
+            this.flaggedLongIdentifiers = new ConcurrentLongSet();
+            this.flaggedObjectIdentifiers = new ConcurrentLongSet();
+            this.flaggedOtherObjects = ConcurrentHashMap.newKeySet();
+        }
+    }
+
+    /**
+     * Tests an entity with the tag and polygon filters. Filters shared by several checks are
+     * looked up in the inclusion bitsets of the entity's {@link Atlas}, so they are evaluated only
+     * once per entity.
+     */
+    private boolean passesEntityFilters(final AtlasEntity entity)
+    {
+        if (this.tagFilterKey == null && this.globalPolygonFilterKey == null)
+        {
+            return this.tagFilter.test(entity) && this.checkPolygonFilter.test(entity)
+                    && this.globalPolygonFilter.test(entity);
+        }
+        final AtlasInclusionIndex inclusionIndex = AtlasInclusionIndex
+                .forAtlas(entity.getAtlas());
+        return (this.tagFilterKey == null ? this.tagFilter.test(entity)
+                : inclusionIndex.test(entity, this.tagFilterKey, this.tagFilter))
+                && this.checkPolygonFilter.test(entity)
+                && (this.globalPolygonFilterKey == null ? this.globalPolygonFilter.test(entity)
+                        : inclusionIndex.test(entity, this.globalPolygonFilterKey,
+                                this.globalPolygonFilter));
+    }
 }
@@ -1,8 +1,11 @@
 package org.openstreetmap.atlas.checks.base;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
+import org.openstreetmap.atlas.checks.event.MetricEvent;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
 import org.openstreetmap.atlas.checks.maproulette.data.Challenge;
 import org.openstreetmap.atlas.geography.atlas.Atlas;
@@ -11,6 +14,7 @@ import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
 import org.openstreetmap.atlas.geography.atlas.items.Relation;
 import org.openstreetmap.atlas.geography.atlas.items.complex.ComplexEntity;
 import org.openstreetmap.atlas.geography.atlas.items.complex.Finder;
+import org.openstreetmap.atlas.utilities.scalars.Duration;
 
 /**
  * The check interface has one method that will execute the check against an atlas entity and return
@@ -72,11 +76,33 @@ public interface Check extends Serializable
      */
     String getCheckName();
 
+    /**
+     * Gets the time this check can run on an atlas. Runners stop the check between two objects once
+     * the limit is reached, keeping the flags found before.
+     *
+     * @return the time limit, empty if the check can run as long as it needs
+     */
+    default Optional<Duration> getTimeLimit()
+    {
+        return Optional.empty();
+    }
+
     /**
      * Helper for debugging. Implement in check to log info after check is run.
      */
     void logStatus();
 
+    /**
+     * Gets the metrics the check collected while running, like its failure counts. Runners post
+     * them with the run time of the check, before clearing it.
+     *
+     * @return the {@link MetricEvent}s of the check
+     */
+    default List<MetricEvent> metrics()
+    {
+        return Collections.emptyList();
+    }
+
     /**
      * Checks to see whether the check is valid for the given country.
      *
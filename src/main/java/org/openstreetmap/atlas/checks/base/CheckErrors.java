@@ -0,0 +1,184 @@
+package org.openstreetmap.atlas.checks.base;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openstreetmap.atlas.checks.event.MetricEvent;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Aggregates the failures of a check on single objects during a run. The first failures are logged
+ * with their stack trace, the following ones are only counted by exception type and call site, so
+ * that a systematic failure does not flood the logs. The counts are reported as
+ * {@link MetricEvent}s once the check is done.
+ * <p>
+ * With a breaker threshold, the check is disabled for the rest of the run once its failure rate
+ * reaches the threshold, after a minimum number of checked objects.
+ *
+ * @author lucylu
+ */
+public final class CheckErrors
+{
+    // Failures beyond that many distinct exception types and call sites are counted together
+    private static final int MAXIMUM_FAILURE_KINDS = 100;
+    private static final String OTHER_FAILURES = "other";
+    private static final String CHECKS_PACKAGE = "org.openstreetmap.atlas.checks";
+    private static final Logger logger = LoggerFactory.getLogger(BaseCheck.class);
+
+    private final String checkName;
+    private final int maximumTraces;
+    private final double breakerRate;
+    private final long breakerMinimum;
+    private final LongAdder checked = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicInteger traces = new AtomicInteger();
+    private final Map<String, LongAdder> failureKinds = new ConcurrentHashMap<>();
+    private final AtomicBoolean disabled = new AtomicBoolean();
+
+    /**
+     * @param exception
+     *            a failure
+     * @return the type of the failure and where it was thrown, preferably in the checks code
+     */
+    private static String failureKind(final Exception exception)
+    {
+        final StackTraceElement[] stackTrace = exception.getStackTrace();
+        StackTraceElement site = stackTrace.length == 0 ? null : stackTrace[0];
+        for (final StackTraceElement element : stackTrace)
+        {
+            if (element.getClassName().startsWith(CHECKS_PACKAGE))
+            {
+                site = element;
+                break;
+            }
+        }
+        return site == null ? exception.getClass().getSimpleName()
+                : String.format("%s at %s.%s:%d", exception.getClass().getSimpleName(),
+                        site.getClassName(), site.getMethodName(), site.getLineNumber());
+    }
+
+    /**
+     * @param checkName
+     *            the name of the check
+     * @param maximumTraces
+     *            the number of failures logged with their stack trace
+     * @param breakerRate
+     *            the failure rate disabling the check, 0 or less to never disable it
+     * @param breakerMinimum
+     *            the number of objects to check before the check can be disabled
+     */
+    public CheckErrors(final String checkName, final int maximumTraces, final double breakerRate,
+            final long breakerMinimum)
+    {
+        this.checkName = checkName;
+        this.maximumTraces = maximumTraces;
+        this.breakerRate = breakerRate;
+        this.breakerMinimum = breakerMinimum;
+    }
+
+    /**
+     * Counts an object about to be checked
+     */
+    public void checking()
+    {
+        this.checked.increment();
+    }
+
+    /**
+     * @return the number of objects checked
+     */
+    public long getChecked()
+    {
+        return this.checked.sum();
+    }
+
+    /**
+     * @return the number of objects the check failed on
+     */
+    public long getFailed()
+    {
+        return this.failed.sum();
+    }
+
+    /**
+     * @return {@code true} if the check was disabled by the breaker
+     */
+    public boolean isDisabled()
+    {
+        return this.disabled.get();
+    }
+
+    /**
+     * @return the failure counters of the check, none if it did not fail
+     */
+    public List<MetricEvent> metrics()
+    {
+        final List<MetricEvent> metrics = new ArrayList<>();
+        final long failures = this.getFailed();
+        if (failures == 0)
+        {
+            return metrics;
+        }
+        metrics.add(new MetricEvent(this.checkName + " failures", failures));
+        this.failureKinds.forEach((kind, count) -> metrics
+                .add(new MetricEvent(this.checkName + " failures " + kind, count.sum())));
+        if (this.isDisabled())
+        {
+            metrics.add(new MetricEvent(this.checkName + " disabled", 1));
+        }
+        return metrics;
+    }
+
+    /**
+     * Records a failure of the check
+     *
+     * @param object
+     *            the object the check failed on
+     * @param exception
+     *            the failure
+     */
+    public void record(final AtlasObject object, final Exception exception)
+    {
+        this.failed.increment();
+        final String kind = failureKind(exception);
+        LongAdder count = this.failureKinds.get(kind);
+        if (count == null)
+        {
+            count = this.failureKinds.size() < MAXIMUM_FAILURE_KINDS
+                    ? this.failureKinds.computeIfAbsent(kind, value -> new LongAdder())
+                    : this.failureKinds.computeIfAbsent(OTHER_FAILURES, value -> new LongAdder());
+        }
+        count.increment();
+
+        if (this.traces.get() < this.maximumTraces)
+        {
+            final int trace = this.traces.incrementAndGet();
+            if (trace <= this.maximumTraces)
+            {
+                logger.error(String.format("%s failed on feature %s (%s).", this.checkName,
+                        object.getIdentifier(), object.getOsmIdentifier()), exception);
+            }
+            if (trace == this.maximumTraces)
+            {
+                logger.warn("{} logged {} failures, further failures are only counted.",
+                        this.checkName, trace);
+            }
+        }
+
+        final long checkedObjects = this.getChecked();
+        if (this.breakerRate > 0 && checkedObjects >= this.breakerMinimum
+                && this.getFailed() >= this.breakerRate * checkedObjects
+                && this.disabled.compareAndSet(false, true))
+        {
+            logger.error("{} disabled after failing on {} of {} features.", this.checkName,
+                    this.getFailed(), checkedObjects);
+        }
+    }
+}
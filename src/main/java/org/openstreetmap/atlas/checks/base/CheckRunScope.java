@@ -0,0 +1,89 @@
+package org.openstreetmap.atlas.checks.base;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * A scope, bound to the current thread, that isolates the run state of {@link BaseCheck}s (like
+ * their flagged identifiers) from the state kept in the check instances. This allows a single set
+ * of check instances, with their already parsed configuration and filters, to be run concurrently
+ * by several callers, each one seeing only its own de-duplication state.
+ *
+ * <pre>
+ * try (CheckRunScope scope = CheckRunScope.open())
+ * {
+ *     check.check(object);
+ * }
+ * </pre>
+ *
+ * @author lucylu
+ */
+public final class CheckRunScope implements AutoCloseable
+{
+    private static final ThreadLocal<CheckRunScope> CURRENT = new ThreadLocal<>();
+
+    private final CheckRunScope parent;
+    private final Map<Check, Map<String, Object>> states = new IdentityHashMap<>();
+
+    /**
+     * @return the scope open on the current thread, if any
+     */
+    public static Optional<CheckRunScope> current()
+    {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Opens a new scope on the current thread. It has to be closed by the same thread.
+     *
+     * @return the new {@link CheckRunScope}
+     */
+    public static CheckRunScope open()
+    {
+        final CheckRunScope scope = new CheckRunScope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    private CheckRunScope(final CheckRunScope parent)
+    {
+        this.parent = parent;
+    }
+
+    @Override
+    public void close()
+    {
+        this.states.clear();
+        if (this.parent == null)
+        {
+            CURRENT.remove();
+        }
+        else
+        {
+            CURRENT.set(this.parent);
+        }
+    }
+
+    /**
+     * Get the state stored under a key for a check, creating it if needed.
+     *
+     * @param check
+     *            the {@link Check} owning the state
+     * @param key
+     *            the state key
+     * @param initializer
+     *            supplies the initial state
+     * @param <S>
+     *            the state type
+     * @return the state for this check and key in this scope
+     */
+    @SuppressWarnings("unchecked")
+    <S> S state(final Check check, final String key, final Supplier<S> initializer)
+    {
+        return (S) this.states.computeIfAbsent(check, value -> new HashMap<>())
+                .computeIfAbsent(key, value -> initializer.get());
+    }
+}
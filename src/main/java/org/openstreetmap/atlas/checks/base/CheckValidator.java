@@ -0,0 +1,165 @@
+package org.openstreetmap.atlas.checks.base;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.AtlasCache;
+import org.openstreetmap.atlas.checks.utility.LatencyRecorder;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlasBuilder;
+import org.openstreetmap.atlas.utilities.collections.MultiIterable;
+import org.openstreetmap.atlas.utilities.configuration.Configuration;
+
+/**
+ * Library entry point to run checks synchronously over small, in-memory {@link Atlas}es, for
+ * example an {@link Atlas} built on the fly with a {@link PackedAtlasBuilder} from a few hundred
+ * edited entities. Flags are returned directly, without {@link org.openstreetmap.atlas.event}
+ * services, files or Spark.
+ * <p>
+ * A validator holds a pre-built set of checks, with their configuration and filters parsed once,
+ * and is safe to share between threads: each call runs inside its own {@link CheckRunScope}, so
+ * the de-duplication state of the checks is isolated per call. Latencies of the most recent calls
+ * are recorded, overall and per check.
+ *
+ * @author lucylu
+ */
+public class CheckValidator
+{
+    private static final int LATENCY_SAMPLES = 1024;
+
+    private final List<Check> checks;
+    private final LatencyRecorder latency = new LatencyRecorder(LATENCY_SAMPLES);
+    private final Map<String, LatencyRecorder> checkLatencies;
+
+    /**
+     * Loads the checks enabled by a {@link Configuration}
+     *
+     * @param configuration
+     *            the {@link Configuration} for the checks
+     * @return a new {@link CheckValidator}
+     */
+    public static CheckValidator forConfiguration(final Configuration configuration)
+    {
+        return new CheckValidator(new CheckResourceLoader(configuration).loadChecks());
+    }
+
+    /**
+     * Loads the checks enabled by a {@link Configuration} for a country, applying the country
+     * specific overrides
+     *
+     * @param configuration
+     *            the {@link Configuration} for the checks
+     * @param country
+     *            country ISO3 code
+     * @return a new {@link CheckValidator}
+     */
+    public static CheckValidator forCountry(final Configuration configuration,
+            final String country)
+    {
+        return new CheckValidator(
+                new CheckResourceLoader(configuration).loadChecksForCountry(country));
+    }
+
+    /**
+     * @param checks
+     *            the {@link Check}s to run on each call
+     */
+    public CheckValidator(final Collection<? extends Check> checks)
+    {
+        this.checks = Collections.unmodifiableList(new ArrayList<>(checks));
+        this.checkLatencies = Collections.unmodifiableMap(this.checks.stream().collect(
+                Collectors.toMap(Check::getCheckName, check -> new LatencyRecorder(LATENCY_SAMPLES),
+                        (first, second) -> first, LinkedHashMap::new)));
+    }
+
+    /**
+     * @return the latencies of the checks, keyed by check name
+     */
+    public Map<String, LatencyRecorder> getCheckLatencies()
+    {
+        return this.checkLatencies;
+    }
+
+    /**
+     * @return the {@link Check}s run on each call
+     */
+    public List<Check> getChecks()
+    {
+        return this.checks;
+    }
+
+    /**
+     * @return the latencies of the {@link #validate(Atlas)} calls
+     */
+    public LatencyRecorder getLatency()
+    {
+        return this.latency;
+    }
+
+    /**
+     * Runs all the checks over all the entities of an {@link Atlas}, and the complex entities found
+     * by their {@link org.openstreetmap.atlas.geography.atlas.items.complex.Finder}s. The values
+     * derived from the {@link Atlas} by the checks are released once it is validated.
+     *
+     * @param atlas
+     *            the {@link Atlas} to validate
+     * @return the {@link CheckFlag}s, keyed by check name. Checks without flags are omitted.
+     */
+    public Map<String, List<CheckFlag>> validate(final Atlas atlas)
+    {
+        final long start = System.nanoTime();
+        final Map<String, List<CheckFlag>> flags = new HashMap<>();
+        try (CheckRunScope scope = CheckRunScope.open())
+        {
+            for (final Check check : this.checks)
+            {
+                final long checkStart = System.nanoTime();
+                final List<CheckFlag> checkFlags = new ArrayList<>();
+                for (final AtlasObject object : objectsToCheck(atlas, check))
+                {
+                    check.check(object).ifPresent(checkFlags::add);
+                }
+                if (!checkFlags.isEmpty())
+                {
+                    flags.put(check.getCheckName(), checkFlags);
+                }
+                this.checkLatencies.get(check.getCheckName())
+                        .record(System.nanoTime() - checkStart);
+            }
+        }
+        finally
+        {
+            // Do not keep the atlas in the caches shared by the checks once it is validated
+            AtlasCache.releaseAll(atlas);
+        }
+        this.latency.record(System.nanoTime() - start);
+        return flags;
+    }
+
+    /**
+     * Runs all the checks over an {@link Atlas}, returning the flags in a single list.
+     *
+     * @param atlas
+     *            the {@link Atlas} to validate
+     * @return all the {@link CheckFlag}s
+     */
+    public List<CheckFlag> validateToList(final Atlas atlas)
+    {
+        return this.validate(atlas).values().stream().flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    private Iterable<AtlasObject> objectsToCheck(final Atlas atlas, final Check check)
+    {
+        return new MultiIterable<>(atlas.entities(), check.finder()
+                .map(finder -> finder.find(atlas)).orElse(Collections.emptyList()));
+    }
+}
@@ -0,0 +1,120 @@
+package org.openstreetmap.atlas.checks.base;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.openstreetmap.atlas.utilities.scalars.Duration;
+
+/**
+ * The time budget of a check on a single object, so that a few pathological objects, like giant
+ * multipolygons, can not keep a check busy for minutes. {@link BaseCheck} starts the budget of the
+ * current thread before checking an object, and the long loops of heavy checks call
+ * {@link #check()}, which throws a {@link TimeBudgetExceededException} once the budget is spent.
+ * The object is then skipped and reported, see {@link SkippedSlowObjects}.
+ * <p>
+ * The budget is measured in CPU time of the current thread when the JVM supports it, and in wall
+ * time otherwise. The clock is only read every {@link #CLOCK_INTERVAL} calls to {@link #check()},
+ * so calling it in tight loops is cheap. Loops where each iteration is itself expensive, like
+ * geometry operations on pairs of polygons, call {@link #check(int)} with a smaller interval.
+ *
+ * @author lucylu
+ */
+public final class ObjectTimeBudget
+{
+    /**
+     * The number of calls to {@link #check()} between two reads of the clock
+     */
+    public static final int CLOCK_INTERVAL = 256;
+
+    private static final ThreadLocal<ObjectTimeBudget> CURRENT = ThreadLocal
+            .withInitial(ObjectTimeBudget::new);
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported()
+            && THREADS.isThreadCpuTimeEnabled();
+    private static final long NANOSECONDS_PER_MILLISECOND = 1_000_000L;
+
+    // The budget in nanoseconds, 0 when no budget is running
+    private long budget;
+    private long start;
+    private int calls;
+
+    /**
+     * Checks the budget of the current thread, if any
+     *
+     * @throws TimeBudgetExceededException
+     *             if the budget is spent
+     */
+    public static void check()
+    {
+        check(CLOCK_INTERVAL);
+    }
+
+    /**
+     * Checks the budget of the current thread, if any, reading the clock every {@code interval}
+     * calls
+     *
+     * @param interval
+     *            the number of calls between two reads of the clock, 1 to read it on every call
+     * @throws TimeBudgetExceededException
+     *             if the budget is spent
+     */
+    public static void check(final int interval)
+    {
+        final ObjectTimeBudget current = CURRENT.get();
+        if (current.budget > 0 && ++current.calls % interval == 0)
+        {
+            final long elapsed = current.elapsedNanoseconds();
+            if (elapsed > current.budget)
+            {
+                throw new TimeBudgetExceededException(
+                        Duration.milliseconds(elapsed / NANOSECONDS_PER_MILLISECOND));
+            }
+        }
+    }
+
+    /**
+     * Starts a budget on the current thread
+     *
+     * @param milliseconds
+     *            the budget, in milliseconds
+     * @return the running budget, to stop once the object is checked
+     */
+    static ObjectTimeBudget start(final long milliseconds)
+    {
+        final ObjectTimeBudget current = CURRENT.get();
+        current.budget = Math.max(1L, milliseconds * NANOSECONDS_PER_MILLISECOND);
+        current.calls = 0;
+        current.start = now();
+        return current;
+    }
+
+    private static long now()
+    {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private ObjectTimeBudget()
+    {
+    }
+
+    /**
+     * @return the time spent since the budget started
+     */
+    Duration elapsed()
+    {
+        return Duration.milliseconds(this.elapsedNanoseconds() / NANOSECONDS_PER_MILLISECOND);
+    }
+
+    /**
+     * Stops the budget
+     */
+    void stop()
+    {
+        this.budget = 0;
+    }
+
+    private long elapsedNanoseconds()
+    {
+        return now() - this.start;
+    }
+}
@@ -0,0 +1,85 @@
+package org.openstreetmap.atlas.checks.base;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openstreetmap.atlas.checks.event.MetricEvent;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
+import org.openstreetmap.atlas.utilities.scalars.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The objects a check skipped during a run because they took longer than its
+ * {@link ObjectTimeBudget}. Each skipped object is logged with the time spent on it, and the
+ * metrics of the check only get their count, so they keep one row per check.
+ *
+ * @author lucylu
+ */
+public final class SkippedSlowObjects
+{
+    private static final Logger logger = LoggerFactory.getLogger(BaseCheck.class);
+
+    private final String checkName;
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    /**
+     * @param object
+     *            an object
+     * @return the type and identifier of the object
+     */
+    private static String describe(final AtlasObject object)
+    {
+        return object instanceof AtlasEntity
+                ? ((AtlasEntity) object).getType() + " " + object.getIdentifier()
+                : object.getClass().getSimpleName() + " " + object.getIdentifier();
+    }
+
+    /**
+     * @param checkName
+     *            the name of the check
+     */
+    public SkippedSlowObjects(final String checkName)
+    {
+        this.checkName = checkName;
+    }
+
+    /**
+     * @return the number of skipped objects
+     */
+    public int getSkipped()
+    {
+        return this.skipped.get();
+    }
+
+    /**
+     * @return the count of skipped objects, if any
+     */
+    public List<MetricEvent> metrics()
+    {
+        final List<MetricEvent> metrics = new ArrayList<>();
+        if (this.getSkipped() > 0)
+        {
+            metrics.add(new MetricEvent(this.checkName + " skipped slow objects",
+                    this.getSkipped()));
+        }
+        return metrics;
+    }
+
+    /**
+     * Records a skipped object
+     *
+     * @param object
+     *            the object
+     * @param elapsed
+     *            the time spent on the object
+     */
+    public void record(final AtlasObject object, final Duration elapsed)
+    {
+        this.skipped.incrementAndGet();
+        logger.warn("{} skipped slow feature {} ({}) after {}.", this.checkName, describe(object),
+                object.getOsmIdentifier(), elapsed);
+    }
+}
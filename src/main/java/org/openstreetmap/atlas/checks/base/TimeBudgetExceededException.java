@@ -0,0 +1,30 @@
+package org.openstreetmap.atlas.checks.base;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.utilities.scalars.Duration;
+
+/**
+ * Thrown by {@link ObjectTimeBudget#check()} when a check spent its time budget on an object
+ *
+ * @author lucylu
+ */
+public class TimeBudgetExceededException extends CoreException
+{
+    private static final long serialVersionUID = -1712263529018413457L;
+
+    private final Duration elapsed;
+
+    public TimeBudgetExceededException(final Duration elapsed)
+    {
+        super("Time budget exceeded after {}", elapsed);
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * @return the time spent on the object when the budget was checked
+     */
+    public Duration getElapsed()
+    {
+        return this.elapsed;
+    }
+}
@@ -0,0 +1,175 @@
+package org.openstreetmap.atlas.checks.commands;
+
+import static org.openstreetmap.atlas.checks.constants.CommonConstants.COMMA;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.openstreetmap.atlas.checks.base.Check;
+import org.openstreetmap.atlas.checks.base.CheckResourceLoader;
+import org.openstreetmap.atlas.checks.configuration.ConfigurationResolver;
+import org.openstreetmap.atlas.checks.utility.AtlasCache;
+import org.openstreetmap.atlas.checks.utility.EntityOrder;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.AtlasResourceLoader;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
+import org.openstreetmap.atlas.streaming.resource.File;
+import org.openstreetmap.atlas.utilities.collections.MultiIterable;
+import org.openstreetmap.atlas.utilities.command.abstractcommand.AbstractAtlasShellToolsCommand;
+import org.openstreetmap.atlas.utilities.command.abstractcommand.CommandOutputDelegate;
+import org.openstreetmap.atlas.utilities.command.abstractcommand.OptionAndArgumentDelegate;
+import org.openstreetmap.atlas.utilities.command.parsing.OptionOptionality;
+
+/**
+ * Benchmarks the {@link EntityOrder}s: runs the enabled checks over an {@link Atlas} visiting its
+ * entities in each order, and reports the wall-clock time per check and order. Hardware counters,
+ * like cache misses, can't be read from the JVM; to compare them run one order at a time under a
+ * profiler, for example {@code perf stat -e cache-misses}.
+ *
+ * @author lucylu
+ */
+public class EntityOrderBenchmarkSubCommand extends AbstractAtlasShellToolsCommand
+{
+    private static final String ATLAS_OPTION = "atlas";
+    private static final String CONFIGURATION_OPTION = "config";
+    private static final String ORDERS_OPTION = "orders";
+    private static final String ITERATIONS_OPTION = "iterations";
+    private static final String DEFAULT_ITERATIONS = "3";
+    private static final double NANOSECONDS_PER_MILLISECOND = 1_000_000.0;
+    private final OptionAndArgumentDelegate optionAndArgumentDelegate;
+    private final CommandOutputDelegate outputDelegate;
+
+    public static void main(final String[] args)
+    {
+        new EntityOrderBenchmarkSubCommand().runSubcommandAndExit(args);
+    }
+
+    public EntityOrderBenchmarkSubCommand()
+    {
+        this.optionAndArgumentDelegate = this.getOptionAndArgumentDelegate();
+        this.outputDelegate = this.getCommandOutputDelegate();
+    }
+
+    @Override
+    @SuppressWarnings("squid:S3655")
+    public int execute()
+    {
+        final Atlas atlas = new AtlasResourceLoader().load(
+                new File(this.optionAndArgumentDelegate.getOptionArgument(ATLAS_OPTION).get()));
+        final Set<Check> checks = new CheckResourceLoader(ConfigurationResolver.loadConfiguration(
+                Arrays.asList(this.optionAndArgumentDelegate
+                        .getOptionArgument(CONFIGURATION_OPTION).get().split(COMMA)),
+                Collections.emptyList())).loadChecks();
+        final List<EntityOrder> orders = this.optionAndArgumentDelegate
+                .getOptionArgument(ORDERS_OPTION)
+                .map(value -> Arrays.stream(value.split(COMMA))
+                        .map(order -> EntityOrder.valueOf(order.trim().toUpperCase()))
+                        .collect(Collectors.toList()))
+                .orElse(Arrays.asList(EntityOrder.values()));
+        final int iterations = Integer.parseInt(this.optionAndArgumentDelegate
+                .getOptionArgument(ITERATIONS_OPTION).orElse(DEFAULT_ITERATIONS));
+        if (checks.isEmpty())
+        {
+            this.outputDelegate.printlnStderr("No checks enabled by the configuration");
+            return 1;
+        }
+
+        final Map<EntityOrder, long[]> totals = new EnumMap<>(EntityOrder.class);
+        final List<Check> sortedChecks = new ArrayList<>(checks);
+        sortedChecks.sort((first, second) -> first.getCheckName()
+                .compareTo(second.getCheckName()));
+        for (final EntityOrder order : orders)
+        {
+            // Compute the order once, outside of the check timings
+            final long start = System.nanoTime();
+            final Iterable<AtlasEntity> entities = order.entities(atlas);
+            this.outputDelegate.printlnStdout(String.format("%s order computed in %.1f ms", order,
+                    (System.nanoTime() - start) / NANOSECONDS_PER_MILLISECOND));
+            final long[] checkTotals = new long[sortedChecks.size()];
+            for (int iteration = 0; iteration < iterations; iteration++)
+            {
+                for (int index = 0; index < sortedChecks.size(); index++)
+                {
+                    checkTotals[index] += this.run(atlas, sortedChecks.get(index), entities);
+                }
+            }
+            totals.put(order, checkTotals);
+        }
+        AtlasCache.releaseAll(atlas);
+
+        this.outputDelegate.printlnStdout(String.format("Check,%s",
+                orders.stream().map(order -> order + " (ms)").collect(Collectors.joining(COMMA))));
+        for (int index = 0; index < sortedChecks.size(); index++)
+        {
+            final int checkIndex = index;
+            this.outputDelegate.printlnStdout(String.format("%s,%s",
+                    sortedChecks.get(index).getCheckName(),
+                    orders.stream()
+                            .map(order -> String.format("%.1f", totals.get(order)[checkIndex]
+                                    / NANOSECONDS_PER_MILLISECOND / iterations))
+                            .collect(Collectors.joining(COMMA))));
+        }
+        return 0;
+    }
+
+    @Override
+    public String getCommandName()
+    {
+        return "entity-order-benchmark";
+    }
+
+    @Override
+    public String getSimpleDescription()
+    {
+        return "compare the run time of checks visiting atlas entities in different orders";
+    }
+
+    @Override
+    public void registerManualPageSections()
+    {
+        this.addManualPageSection("DESCRIPTION", EntityOrderBenchmarkSubCommand.class
+                .getResourceAsStream("EntityOrderBenchmarkSubCommandDescriptionSection.txt"));
+        this.addManualPageSection("EXAMPLES", EntityOrderBenchmarkSubCommand.class
+                .getResourceAsStream("EntityOrderBenchmarkSubCommandExamplesSection.txt"));
+    }
+
+    @Override
+    public void registerOptionsAndArguments()
+    {
+        this.registerOptionWithRequiredArgument(ATLAS_OPTION, 'a', "The atlas file to check.",
+                OptionOptionality.REQUIRED, ATLAS_OPTION);
+        this.registerOptionWithRequiredArgument(CONFIGURATION_OPTION, 'c',
+                "A comma separated list of configuration URIs enabling the checks to run.",
+                OptionOptionality.REQUIRED, CONFIGURATION_OPTION);
+        this.registerOptionWithRequiredArgument(ORDERS_OPTION, 'r',
+                "A comma separated list of orders to compare: index,hilbert,z_order",
+                OptionOptionality.OPTIONAL, ORDERS_OPTION);
+        this.registerOptionWithRequiredArgument(ITERATIONS_OPTION, 'n',
+                "The number of runs of each check per order, defaults to 3.",
+                OptionOptionality.OPTIONAL, ITERATIONS_OPTION);
+        super.registerOptionsAndArguments();
+    }
+
+    /**
+     * Runs a check over the entities of an {@link Atlas}, and the objects found by its finder
+     *
+     * @return the run time in nanoseconds
+     */
+    private long run(final Atlas atlas, final Check check, final Iterable<AtlasEntity> entities)
+    {
+        final Iterable<AtlasObject> objects = new MultiIterable<>(entities, check.finder()
+                .map(finder -> finder.find(atlas)).orElse(Collections.emptyList()));
+        final long start = System.nanoTime();
+        objects.forEach(check::check);
+        final long runTime = System.nanoTime() - start;
+        check.clear();
+        return runTime;
+    }
+}
@@ -129,19 +129,37 @@ public final class ConfigurationResolver
      */
     public static Configuration loadConfiguration(final CommandMap commandMap,
             final Command.Switch<StringList> keyFiles, final Command.Switch<String> keyJson)
+    {
+        final List<String> files = new ArrayList<>();
+        commandMap.getOption(keyFiles).ifPresent(value -> ((StringList) value).forEach(files::add));
+        final List<String> inlineConfigurations = new ArrayList<>();
+        commandMap.getOption(keyJson)
+                .ifPresent(value -> inlineConfigurations.add(value.toString()));
+        return loadConfiguration(files, inlineConfigurations);
+    }
+
+    /**
+     * Resolves a {@link Configuration} from configuration URIs and inline JSON configurations.
+     * Sources are merged in order on top of the classpath {@code application.json}, so inline
+     * configurations override the files and later sources override earlier ones.
+     *
+     * @param files
+     *            URIs of configuration files
+     * @param inlineConfigurations
+     *            inline JSON configurations
+     * @return a new {@link Configuration}
+     */
+    public static Configuration loadConfiguration(final Iterable<String> files,
+            final Iterable<String> inlineConfigurations)
     {
         final List<InputStream> configurationSources = new ArrayList<>();
 
         ConfigurationResolver.getResourceAsStream("application.json")
                 .ifPresent(configurationSources::add);
-        commandMap.getOption(keyFiles)
-                .ifPresent(files -> ((StringList) files)
-                        .forEach(uri -> ConfigurationResolver.getResourceAsStream(URI.create(uri))
-                                .ifPresent(configurationSources::add)));
-        commandMap.getOption(keyJson)
-                .map(value -> new ByteArrayInputStream(
-                        value.toString().getBytes(StandardCharsets.UTF_8)))
-                .ifPresent(configurationSources::add);
+        files.forEach(uri -> ConfigurationResolver.getResourceAsStream(URI.create(uri))
+                .ifPresent(configurationSources::add));
+        inlineConfigurations.forEach(value -> configurationSources
+                .add(new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8))));
 
         final List<Resource> configurationResources = configurationSources.stream()
                 .map(inputStream -> new InputStreamResource(() -> inputStream))
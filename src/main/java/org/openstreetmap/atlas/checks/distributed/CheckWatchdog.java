@@ -0,0 +1,122 @@
+package org.openstreetmap.atlas.checks.distributed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.openstreetmap.atlas.checks.base.Check;
+import org.openstreetmap.atlas.checks.event.MetricEvent;
+import org.openstreetmap.atlas.utilities.scalars.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the run of a {@link Check} over the objects of an atlas, and stops it between two
+ * objects once its time limit, see {@link Check#getTimeLimit()}, is reached. The flags produced
+ * before are kept, so a check that hangs on a country only loses the objects it did not get to.
+ * Runners report the run as {@link MetricEvent}s: the number of objects processed, and a timed-out
+ * marker with the run time when the check was stopped.
+ *
+ * @author lucylu
+ */
+final class CheckWatchdog
+{
+    private static final Logger logger = LoggerFactory.getLogger(CheckWatchdog.class);
+    private static final long NANOSECONDS_PER_MILLISECOND = 1_000_000L;
+
+    private final String checkName;
+    private final long start = System.nanoTime();
+    // Long.MAX_VALUE when the check has no time limit
+    private final long limit;
+    private long processed;
+    private boolean timedOut;
+
+    /**
+     * Starts watching a check
+     *
+     * @param check
+     *            the {@link Check}
+     */
+    CheckWatchdog(final Check check)
+    {
+        this.checkName = check.getCheckName();
+        final Optional<Duration> timeLimit = check.getTimeLimit();
+        this.limit = timeLimit.isPresent()
+                ? timeLimit.get().asMilliseconds() * NANOSECONDS_PER_MILLISECOND
+                : Long.MAX_VALUE;
+    }
+
+    /**
+     * Counts an object processed by the check
+     */
+    void processed()
+    {
+        this.processed++;
+    }
+
+    /**
+     * @return the number of objects processed by the check
+     */
+    long getProcessed()
+    {
+        return this.processed;
+    }
+
+    /**
+     * @return {@code true} if the check was stopped
+     */
+    boolean isTimedOut()
+    {
+        return this.timedOut;
+    }
+
+    /**
+     * @param runTime
+     *            the run time of the check
+     * @return the metrics of the run
+     */
+    List<MetricEvent> metrics(final Duration runTime)
+    {
+        final List<MetricEvent> metrics = new ArrayList<>();
+        metrics.add(new MetricEvent(this.checkName + " objects processed", this.processed));
+        if (this.timedOut)
+        {
+            metrics.add(new MetricEvent(this.checkName + " timed out", runTime));
+        }
+        return metrics;
+    }
+
+    /**
+     * Checks the time limit before the next object, against the time since the check started
+     *
+     * @return {@code true} if the check can go on with the next object
+     */
+    boolean proceed()
+    {
+        return this.proceed(System.nanoTime() - this.start);
+    }
+
+    /**
+     * Checks the time limit before the next object, against the time the check itself ran, for
+     * runners interleaving several checks
+     *
+     * @param elapsed
+     *            the run time of the check so far, in nanoseconds
+     * @return {@code true} if the check can go on with the next object
+     */
+    boolean proceed(final long elapsed)
+    {
+        if (this.timedOut)
+        {
+            return false;
+        }
+        if (elapsed >= this.limit)
+        {
+            this.timedOut = true;
+            logger.warn("{} timed out after {} objects, the remaining objects are not checked.",
+                    this.checkName, this.processed);
+            return false;
+        }
+        return true;
+    }
+}
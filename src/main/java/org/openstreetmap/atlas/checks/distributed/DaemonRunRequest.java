@@ -0,0 +1,107 @@
+package org.openstreetmap.atlas.checks.distributed;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.openstreetmap.atlas.checks.distributed.IntegrityChecksCommandArguments.OutputFormats;
+import org.openstreetmap.atlas.exception.CoreException;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+
+/**
+ * A single run request handled by the {@link IntegrityCheckDaemon}. Requests are read from JSON
+ * files dropped into the daemon's watch folder.
+ *
+ * @author lucylu
+ */
+public final class DaemonRunRequest
+{
+    private static final Gson GSON = new Gson();
+    private static final List<String> DEFAULT_OUTPUT_FORMATS = List.of("flags", "metrics");
+
+    private String input;
+    private String output;
+    private List<String> countries;
+    private List<String> outputFormats;
+    private List<String> checks;
+    private JsonObject configuration;
+    private boolean reload;
+
+    /**
+     * Parses a run request
+     *
+     * @param json
+     *            JSON representation of the request
+     * @return the parsed {@link DaemonRunRequest}
+     */
+    public static DaemonRunRequest fromJson(final String json)
+    {
+        final DaemonRunRequest request;
+        try
+        {
+            request = GSON.fromJson(json, DaemonRunRequest.class);
+        }
+        catch (final JsonSyntaxException exception)
+        {
+            throw new CoreException("Malformed run request", exception);
+        }
+        if (request == null || request.input == null || request.output == null
+                || request.countries == null || request.countries.isEmpty())
+        {
+            throw new CoreException("A run request requires input, output and countries");
+        }
+        return request;
+    }
+
+    /**
+     * @return the check names to restrict this run to, if any
+     */
+    public Optional<List<String>> getChecks()
+    {
+        return Optional.ofNullable(this.checks).filter(list -> !list.isEmpty());
+    }
+
+    /**
+     * @return inline JSON configuration overriding the daemon's base configuration, if any
+     */
+    public Optional<String> getConfiguration()
+    {
+        return Optional.ofNullable(this.configuration).map(JsonObject::toString);
+    }
+
+    public List<String> getCountries()
+    {
+        return Collections.unmodifiableList(this.countries);
+    }
+
+    public String getInput()
+    {
+        return this.input;
+    }
+
+    public String getOutput()
+    {
+        return this.output;
+    }
+
+    /**
+     * @return {@code true} if cached {@link org.openstreetmap.atlas.geography.atlas.Atlas}es for
+     *         this request's input should be dropped and loaded again
+     */
+    public boolean isReload()
+    {
+        return this.reload;
+    }
+
+    Set<OutputFormats> getOutputFormats()
+    {
+        return Optional.ofNullable(this.outputFormats).orElse(DEFAULT_OUTPUT_FORMATS).stream()
+                .map(format -> Enum.valueOf(OutputFormats.class, format.toUpperCase()))
+                .collect(Collectors.toSet());
+    }
+}
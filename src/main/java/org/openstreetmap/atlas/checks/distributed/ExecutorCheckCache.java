@@ -0,0 +1,107 @@
+package org.openstreetmap.atlas.checks.distributed;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.openstreetmap.atlas.checks.base.Check;
+import org.openstreetmap.atlas.checks.base.CheckResourceLoader;
+import org.openstreetmap.atlas.utilities.configuration.Configuration;
+
+/**
+ * Holds the resolved check {@link Configuration} of a Spark job, to be sent once to each executor
+ * using a {@link org.apache.spark.broadcast.Broadcast}, and caches the {@link Check}s instantiated
+ * from it on the executor. This keeps the configuration and the checks out of the task closures,
+ * which then only need to carry the country and shard to process.
+ * <p>
+ * Check instances keep run state, like their flagged identifiers, so a set of instances is never
+ * shared by concurrent tasks: a task borrows a set of checks for its country, and returns it once
+ * done so the next task on the same executor can reuse it instead of instantiating new checks.
+ * The idle sets are kept by the deserialized cache itself, which the executor shares between the
+ * tasks of a job, so they are released with the broadcast once the job is done.
+ *
+ * @author lucylu
+ */
+public final class ExecutorCheckCache implements Serializable
+{
+    private static final long serialVersionUID = -2458017496380135642L;
+
+    private final Configuration configuration;
+    private transient CheckResourceLoader checkLoader;
+    // Idle check sets of this executor, keyed by country
+    private transient Map<String, Queue<List<Check>>> idleChecks;
+
+    /**
+     * @param configuration
+     *            the resolved {@link Configuration} of the checks
+     */
+    public ExecutorCheckCache(final Configuration configuration)
+    {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Borrows a set of checks for a country, instantiating them if no idle set is available on
+     * this executor
+     *
+     * @param country
+     *            country ISO3 code
+     * @return the {@link Check}s enabled for this country
+     */
+    public List<Check> borrow(final String country)
+    {
+        final List<Check> idleChecks = this.idleChecks(country).poll();
+        if (idleChecks != null)
+        {
+            return idleChecks;
+        }
+        final Set<Check> checks = this.getCheckLoader().loadChecksForCountry(country);
+        return new ArrayList<>(checks);
+    }
+
+    /**
+     * @return the resolved {@link Configuration} of the checks
+     */
+    public Configuration getConfiguration()
+    {
+        return this.configuration;
+    }
+
+    /**
+     * Returns a set of checks borrowed with {@link #borrow(String)}, clearing their run state so
+     * they can be reused
+     *
+     * @param country
+     *            country ISO3 code the checks were borrowed for
+     * @param checks
+     *            the borrowed {@link Check}s
+     */
+    public void release(final String country, final List<Check> checks)
+    {
+        checks.forEach(Check::clear);
+        this.idleChecks(country).add(checks);
+    }
+
+    private synchronized CheckResourceLoader getCheckLoader()
+    {
+        if (this.checkLoader == null)
+        {
+            this.checkLoader = new CheckResourceLoader(this.configuration);
+        }
+        return this.checkLoader;
+    }
+
+    private synchronized Queue<List<Check>> idleChecks(final String country)
+    {
+        if (this.idleChecks == null)
+        {
+            this.idleChecks = new ConcurrentHashMap<>();
+        }
+        return this.idleChecks.computeIfAbsent(country, key -> new ConcurrentLinkedQueue<>());
+    }
+}
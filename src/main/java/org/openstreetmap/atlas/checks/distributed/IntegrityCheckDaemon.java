@@ -0,0 +1,440 @@
+package org.openstreetmap.atlas.checks.distributed;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openstreetmap.atlas.checks.base.BaseCheck;
+import org.openstreetmap.atlas.checks.base.CheckResourceLoader;
+import org.openstreetmap.atlas.checks.configuration.ConfigurationResolver;
+import org.openstreetmap.atlas.checks.distributed.IntegrityChecksCommandArguments.OutputFormats;
+import org.openstreetmap.atlas.checks.event.CheckFlagFileProcessor;
+import org.openstreetmap.atlas.checks.event.CheckFlagGeoJsonProcessor;
+import org.openstreetmap.atlas.checks.event.CheckFlagTippecanoeProcessor;
+import org.openstreetmap.atlas.checks.event.MetricFileGenerator;
+import org.openstreetmap.atlas.checks.utility.AtlasCache;
+import org.openstreetmap.atlas.event.EventService;
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.generator.tools.spark.utilities.SparkFileHelper;
+import org.openstreetmap.atlas.geography.Rectangle;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.utilities.collections.StringList;
+import org.openstreetmap.atlas.utilities.configuration.Configuration;
+import org.openstreetmap.atlas.utilities.configuration.MergedConfiguration;
+import org.openstreetmap.atlas.utilities.configuration.StandardConfiguration;
+import org.openstreetmap.atlas.utilities.conversion.StringConverter;
+import org.openstreetmap.atlas.utilities.runtime.Command;
+import org.openstreetmap.atlas.utilities.runtime.CommandMap;
+import org.openstreetmap.atlas.utilities.scalars.Duration;
+import org.openstreetmap.atlas.utilities.threads.Pool;
+import org.openstreetmap.atlas.utilities.time.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+
+/**
+ * A long running process that keeps resolved checks and recently used {@link Atlas}es resident
+ * between runs, so that repeated runs do not pay JVM startup, classpath scanning, configuration
+ * resolution and {@link Atlas} loading each time. Run requests are JSON files dropped into the
+ * watch folder:
+ *
+ * <pre>
+ * {
+ *   "input": "file:///path/to/atlas/",
+ *   "output": "file:///path/to/output/",
+ *   "countries": ["BLZ"],
+ *   "outputFormats": ["flags", "geojson", "metrics"],
+ *   "checks": ["EdgeCrossingEdgeCheck"],
+ *   "configuration": { "EdgeCrossingEdgeCheck": { "enabled": true } },
+ *   "reload": false
+ * }
+ * </pre>
+ *
+ * A claimed request is renamed with a {@code .running} suffix, and then {@code .done} or
+ * {@code .failed} once executed. Outputs are written to the same {@code flag}, {@code geojson},
+ * {@code metric} and {@code tippecanoe} sub folders as {@link IntegrityCheckSparkJob}. Dropping a
+ * file named {@code shutdown} into the watch folder stops the daemon once in-flight requests are
+ * done. Requests still {@code .running} when the daemon starts were interrupted by a previous
+ * daemon, and are renamed {@code .failed} without being executed again.
+ * <p>
+ * The values derived from an {@link Atlas} by the checks, see {@link AtlasCache}, are released
+ * when the {@link Atlas} leaves the cache, because it is evicted or reloaded, or when the daemon
+ * stops.
+ *
+ * @author lucylu
+ */
+public class IntegrityCheckDaemon extends Command
+{
+    private static final Switch<Path> WATCH_FOLDER = new Switch<>("watchFolder",
+            "Folder polled for run request files", value -> Paths.get(value),
+            Optionality.REQUIRED);
+    private static final Switch<Integer> THREADS = new Switch<>("threads",
+            "Number of run requests executed concurrently", Integer::valueOf,
+            Optionality.OPTIONAL, "2");
+    private static final Switch<Integer> ATLAS_CACHE_SIZE = new Switch<>("atlasCacheSize",
+            "Number of country atlases kept in memory between runs", Integer::valueOf,
+            Optionality.OPTIONAL, "2");
+    private static final Switch<Duration> POLL_INTERVAL = new Switch<>("pollInterval",
+            "Seconds between two polls of the watch folder",
+            value -> Duration.seconds(Double.valueOf(value)), Optionality.OPTIONAL, "1");
+    private static final Switch<StringList> CONFIGURATION_FILES = new Switch<>("configFiles",
+            "Comma-separated list of configuration datasources.",
+            value -> StringList.split(value, ","), Optionality.OPTIONAL);
+    private static final Switch<String> CONFIGURATION_JSON = new Switch<>("configJson",
+            "Json formatted configuration.", StringConverter.IDENTITY, Optionality.OPTIONAL);
+
+    private static final String REQUEST_SUFFIX = ".json";
+    private static final String RUNNING_SUFFIX = ".running";
+    private static final String DONE_SUFFIX = ".done";
+    private static final String FAILED_SUFFIX = ".failed";
+    private static final String SHUTDOWN_FILE = "shutdown";
+    private static final String EVENT_SERVICE_PREFIX = "IntegrityCheckDaemon_";
+    private static final String CHECK_WHITELIST_KEY = "CheckResourceLoader.checks.whitelist";
+    private static final Duration POOL_DURATION_BEFORE_KILL = Duration.minutes(300);
+    private static final Logger logger = LoggerFactory.getLogger(IntegrityCheckDaemon.class);
+
+    private final SparkFileHelper fileHelper = new SparkFileHelper(Collections.emptyMap());
+    // Resolved configurations and checks, keyed by configuration override, check filter and
+    // country
+    private final Map<String, Configuration> configurations = new ConcurrentHashMap<>();
+    private final Map<String, Set<BaseCheck>> checks = new ConcurrentHashMap<>();
+    // EventServices are never removed from their catalog, so the keys of completed runs are
+    // reused, keeping one EventService per concurrent run
+    private final Queue<String> eventServiceKeys = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger eventServiceCount = new AtomicInteger();
+    private Cache<String, Atlas> atlases;
+    private List<String> configurationFiles;
+    private List<String> inlineConfigurations;
+
+    public static void main(final String[] args)
+    {
+        new IntegrityCheckDaemon().run(args);
+    }
+
+    private static String configurationKey(final String configurationOverride,
+            final List<String> checkFilter)
+    {
+        return configurationOverride + "|" + checkFilter;
+    }
+
+    private static String outputFolder(final DaemonRunRequest request, final String folder,
+            final String country)
+    {
+        return SparkFileHelper.combine(request.getOutput(), folder, country);
+    }
+
+    @Override
+    protected int onRun(final CommandMap command)
+    {
+        final Path watchFolder = (Path) command.get(WATCH_FOLDER);
+        final int threads = (Integer) command.get(THREADS);
+        final Duration pollInterval = (Duration) command.get(POLL_INTERVAL);
+        final RemovalListener<String, Atlas> release = notification ->
+        {
+            if (notification.getValue() != null)
+            {
+                AtlasCache.releaseAll(notification.getValue());
+            }
+        };
+        this.atlases = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(1, (Integer) command.get(ATLAS_CACHE_SIZE)))
+                .removalListener(release).build();
+        this.configurationFiles = new ArrayList<>();
+        command.getOption(CONFIGURATION_FILES)
+                .ifPresent(files -> ((StringList) files).forEach(this.configurationFiles::add));
+        this.inlineConfigurations = new ArrayList<>();
+        command.getOption(CONFIGURATION_JSON)
+                .ifPresent(json -> this.inlineConfigurations.add(json.toString()));
+
+        // Resolve the base configuration and checks eagerly, so the first request is warm too
+        this.checksFor(null, null, null);
+        this.failInterruptedRequests(watchFolder);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        logger.info("Integrity check daemon watching {} with {} threads", watchFolder, threads);
+        try
+        {
+            while (!Files.exists(watchFolder.resolve(SHUTDOWN_FILE)))
+            {
+                // A failed poll is logged and retried, it does not stop the daemon
+                try
+                {
+                    for (final Path request : this.pendingRequests(watchFolder))
+                    {
+                        final Path claimed = this.rename(request, RUNNING_SUFFIX);
+                        executor.execute(() -> this.handle(claimed));
+                    }
+                }
+                catch (final RuntimeException exception)
+                {
+                    logger.error("Unable to poll {}", watchFolder, exception);
+                }
+                Thread.sleep(pollInterval.asMilliseconds());
+            }
+        }
+        catch (final InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            executor.shutdown();
+            try
+            {
+                executor.awaitTermination(POOL_DURATION_BEFORE_KILL.asMilliseconds(),
+                        TimeUnit.MILLISECONDS);
+            }
+            catch (final InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+            }
+            this.atlases.invalidateAll();
+        }
+        logger.info("Integrity check daemon stopped");
+        return 0;
+    }
+
+    @Override
+    protected SwitchList switches()
+    {
+        return new SwitchList().with(WATCH_FOLDER, THREADS, ATLAS_CACHE_SIZE, POLL_INTERVAL,
+                CONFIGURATION_FILES, CONFIGURATION_JSON);
+    }
+
+    private String acquireEventServiceKey()
+    {
+        final String key = this.eventServiceKeys.poll();
+        if (key == null)
+        {
+            return EVENT_SERVICE_PREFIX + this.eventServiceCount.incrementAndGet();
+        }
+        return key;
+    }
+
+    private Atlas atlasFor(final DaemonRunRequest request, final String country,
+            final Configuration configuration)
+    {
+        final String key = request.getInput() + "|" + country;
+        if (request.isReload())
+        {
+            this.atlases.invalidate(key);
+        }
+        try
+        {
+            return this.atlases.get(key, () ->
+            {
+                final Atlas atlas = new AtlasDataSource(Collections.emptyMap(), configuration,
+                        Rectangle.MAXIMUM).load(request.getInput(), country);
+                if (atlas == null)
+                {
+                    throw new CoreException("Could not find {} Atlas files in {}", country,
+                            request.getInput());
+                }
+                return atlas;
+            });
+        }
+        catch (final ExecutionException exception)
+        {
+            throw new CoreException("Unable to load {} Atlas", exception.getCause(), country);
+        }
+    }
+
+    /**
+     * Resolve (once) the checks for a configuration override, check filter and country.
+     */
+    private Set<BaseCheck> checksFor(final String configurationOverride,
+            final List<String> checkFilter, final String country)
+    {
+        final String configurationKey = configurationKey(configurationOverride, checkFilter);
+        final Configuration configuration = this.configurations.computeIfAbsent(configurationKey,
+                key -> this.configurationFor(configurationOverride, checkFilter));
+        return this.checks.computeIfAbsent(configurationKey + "|" + country, key ->
+        {
+            final CheckResourceLoader loader = new CheckResourceLoader(configuration);
+            if (country == null)
+            {
+                return loader.loadChecks();
+            }
+            return loader.loadChecksForCountry(country);
+        });
+    }
+
+    private Configuration configurationFor(final String configurationOverride,
+            final List<String> checkFilter)
+    {
+        final List<String> inline = new ArrayList<>(this.inlineConfigurations);
+        if (configurationOverride != null)
+        {
+            inline.add(configurationOverride);
+        }
+        final Configuration configuration = ConfigurationResolver
+                .loadConfiguration(this.configurationFiles, inline);
+        if (checkFilter == null)
+        {
+            return configuration;
+        }
+        return new MergedConfiguration(Stream.of(configuration,
+                new StandardConfiguration("WhiteListConfiguration",
+                        Collections.singletonMap(CHECK_WHITELIST_KEY, checkFilter)))
+                .collect(Collectors.toList()));
+    }
+
+    private void execute(final DaemonRunRequest request, final String requestName,
+            final String country)
+    {
+        final Time timer = Time.now();
+        final String configurationOverride = request.getConfiguration().orElse(null);
+        final List<String> checkFilter = request.getChecks().orElse(null);
+        final Set<BaseCheck> countryChecks = this.checksFor(configurationOverride, checkFilter,
+                country);
+        final Atlas atlas = this.atlasFor(request, country,
+                this.configurations.get(configurationKey(configurationOverride, checkFilter)));
+
+        // A key is used by a single run at a time, so requests with the same name or running
+        // concurrently never share processors
+        final String eventServiceKey = this.acquireEventServiceKey();
+        final EventService eventService = EventService.get(eventServiceKey);
+        try
+        {
+            this.register(eventService, request, country);
+
+            // Cached checks keep their flagged identifiers while running, so a check set is never
+            // run by two requests at the same time
+            synchronized (countryChecks)
+            {
+                try (Pool checkPool = new Pool(countryChecks.size(),
+                        "Daemon check execution pool", POOL_DURATION_BEFORE_KILL))
+                {
+                    countryChecks.forEach(check -> checkPool.queue(new RunnableCheck(country,
+                            check, IntegrityChecksCommandArguments.objectsToCheck(atlas, check),
+                            eventService)));
+                }
+            }
+        }
+        finally
+        {
+            eventService.complete();
+            this.eventServiceKeys.offer(eventServiceKey);
+        }
+        logger.info("[{}] Integrity checks finished in {} for {}.", requestName,
+                timer.elapsedSince(), country);
+    }
+
+    private void failInterruptedRequests(final Path watchFolder)
+    {
+        try (Stream<Path> files = Files.list(watchFolder))
+        {
+            files.filter(file -> file.getFileName().toString().endsWith(RUNNING_SUFFIX))
+                    .sorted().forEach(interrupted ->
+                    {
+                        logger.warn("Run request {} was interrupted, marking it failed.",
+                                interrupted.getFileName());
+                        this.rename(interrupted, FAILED_SUFFIX);
+                    });
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("Unable to list {}", exception, watchFolder);
+        }
+    }
+
+    private void handle(final Path claimed)
+    {
+        final String requestName = claimed.getFileName().toString().replace(RUNNING_SUFFIX, "");
+        try
+        {
+            final DaemonRunRequest request = DaemonRunRequest
+                    .fromJson(new String(Files.readAllBytes(claimed), StandardCharsets.UTF_8));
+            request.getCountries().forEach(country -> this.execute(request, requestName, country));
+            this.rename(claimed, DONE_SUFFIX);
+        }
+        catch (final Exception exception)
+        {
+            logger.error("Run request {} failed.", requestName, exception);
+            this.rename(claimed, FAILED_SUFFIX);
+        }
+    }
+
+    private List<Path> pendingRequests(final Path watchFolder)
+    {
+        try (Stream<Path> files = Files.list(watchFolder))
+        {
+            return files.filter(file -> file.getFileName().toString().endsWith(REQUEST_SUFFIX))
+                    .sorted().collect(Collectors.toList());
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("Unable to list {}", exception, watchFolder);
+        }
+    }
+
+    private void register(final EventService eventService, final DaemonRunRequest request,
+            final String country)
+    {
+        final Set<OutputFormats> outputFormats = request.getOutputFormats();
+        if (outputFormats.contains(OutputFormats.FLAGS))
+        {
+            eventService.register(new CheckFlagFileProcessor(this.fileHelper,
+                    outputFolder(request, IntegrityChecksCommandArguments.OUTPUT_FLAG_FOLDER,
+                            country)));
+        }
+        if (outputFormats.contains(OutputFormats.GEOJSON))
+        {
+            eventService.register(new CheckFlagGeoJsonProcessor(this.fileHelper,
+                    outputFolder(request, IntegrityChecksCommandArguments.OUTPUT_GEOJSON_FOLDER,
+                            country)));
+        }
+        if (outputFormats.contains(OutputFormats.METRICS))
+        {
+            final String metricFolder = outputFolder(request,
+                    IntegrityChecksCommandArguments.OUTPUT_METRIC_FOLDER, country);
+            eventService.register(new MetricFileGenerator(IntegrityCheckSparkJob.METRICS_FILENAME,
+                    this.fileHelper, metricFolder));
+            eventService.register(MetricFileGenerator
+                    .counters(IntegrityCheckSparkJob.COUNTERS_FILENAME, this.fileHelper,
+                            metricFolder));
+        }
+        if (outputFormats.contains(OutputFormats.TIPPECANOE))
+        {
+            eventService.register(new CheckFlagTippecanoeProcessor(this.fileHelper,
+                    outputFolder(request, IntegrityChecksCommandArguments.OUTPUT_TIPPECANOE_FOLDER,
+                            country)));
+        }
+    }
+
+    private Path rename(final Path file, final String suffix)
+    {
+        final String name = file.getFileName().toString();
+        final String baseName = name.substring(0, name.lastIndexOf('.'));
+        final Path target = file.resolveSibling(baseName + suffix);
+        try
+        {
+            return Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("Unable to rename {} to {}", exception, file, target);
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package org.openstreetmap.atlas.checks.distributed;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -14,7 +19,10 @@ import java.util.stream.Stream;
 
 import org.apache.spark.TaskContext;
 import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.broadcast.Broadcast;
 import org.openstreetmap.atlas.checks.base.BaseCheck;
+import org.openstreetmap.atlas.checks.base.Check;
 import org.openstreetmap.atlas.checks.base.CheckResourceLoader;
 import org.openstreetmap.atlas.checks.configuration.ConfigurationResolver;
 import org.openstreetmap.atlas.checks.constants.CommonConstants;
@@ -24,6 +32,8 @@ import org.openstreetmap.atlas.checks.event.CheckFlagTippecanoeProcessor;
 import org.openstreetmap.atlas.checks.event.MetricFileGenerator;
 import org.openstreetmap.atlas.checks.maproulette.MapRouletteClient;
 import org.openstreetmap.atlas.checks.maproulette.MapRouletteConfiguration;
+import org.openstreetmap.atlas.checks.utility.AtlasCache;
+import org.openstreetmap.atlas.checks.utility.EntityOrder;
 import org.openstreetmap.atlas.event.EventService;
 import org.openstreetmap.atlas.exception.CoreException;
 import org.openstreetmap.atlas.generator.tools.spark.SparkJob;
@@ -53,6 +63,11 @@ import scala.Tuple2;
 /**
  * Executes integrity checks as a {@link SparkJob}. The job parallelizes on the number of countries.
  * Each slave will process a country and run all enabled checks.
+ * <p>
+ * Several configuration variants can be run at once with the {@code configVariants} switch. Each
+ * variant gets its own check instances and output sub folder, while the {@link Atlas} of a country
+ * is loaded once and the instances of a check from all variants share the same pass over its
+ * objects.
  *
  * @author mgostintsev
  */
@@ -60,6 +75,15 @@ public class IntegrityCheckSparkJob extends IntegrityChecksCommandArguments
 {
 
     public static final String METRICS_FILENAME = "check-run-time.csv";
+    public static final String COUNTERS_FILENAME = "check-counts.csv";
+    private static final Switch<Map<String, String>> CONFIGURATION_VARIANTS = new Switch<>(
+            "configVariants",
+            "Semicolon-separated list of configuration variants, format <Name>=<ConfigurationURI>. "
+                    + "Each variant is merged on top of the base configuration and written to its "
+                    + "own output sub folder.",
+            IntegrityCheckSparkJob::parseVariants, Optionality.OPTIONAL);
+    // Variant name of a run without configuration variants, which writes to the usual folders
+    private static final String DEFAULT_VARIANT = CommonConstants.EMPTY_STRING;
     // Indicator key for ignored countries
     private static final String IGNORED_KEY = "Ignored";
     private static final String INTERMEDIATE_ATLAS_EXTENSION = FileSuffix.ATLAS.toString()
@@ -80,6 +104,45 @@ public class IntegrityCheckSparkJob extends IntegrityChecksCommandArguments
         new IntegrityCheckSparkJob().run(args);
     }
 
+    /**
+     * Parses the configuration variants switch
+     *
+     * @param value
+     *            semicolon-separated list of {@code <Name>=<ConfigurationURI>}
+     * @return the configuration URIs keyed by variant name, in the order supplied
+     */
+    static Map<String, String> parseVariants(final String value)
+    {
+        final Map<String, String> variants = new LinkedHashMap<>();
+        for (final String variant : StringList.split(value, CommonConstants.SEMI_COLON))
+        {
+            final int separator = variant.indexOf(CommonConstants.EQUALS_TO);
+            final String name = separator < 0 ? CommonConstants.EMPTY_STRING
+                    : variant.substring(0, separator).trim();
+            final String uri = separator < 0 ? CommonConstants.EMPTY_STRING
+                    : variant.substring(separator + 1).trim();
+            if (name.isEmpty() || uri.isEmpty())
+            {
+                throw new CoreException("Invalid configuration variant {}, expected <Name>=<URI>",
+                        variant);
+            }
+            if (variants.put(name, uri) != null)
+            {
+                throw new CoreException("Duplicate configuration variant {}", name);
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * @return the output folder of a variant, relative to the target output folder
+     */
+    static String variantFolder(final String variant, final String folder)
+    {
+        return DEFAULT_VARIANT.equals(variant) ? folder
+                : SparkFileHelper.combine(variant, folder);
+    }
+
     /**
      * Executes all {@link BaseCheck}s on the given {@link Atlas}. Each check runs in a separate
      * thread. The checks go over all {@link AtlasEntity}s and {@link Relation}s.
@@ -89,18 +152,58 @@ public class IntegrityCheckSparkJob extends IntegrityChecksCommandArguments
      * @param atlas
      *            the {@link Atlas} on which the checks will be run
      * @param checksToRun
-     *            the set of {@link BaseCheck}s to execute
+     *            the {@link Check}s to execute
      * @param configuration
      *            {@link MapRouletteConfiguration} to create a new {@link MapRouletteClient}s
+     * @param entityOrder
+     *            the {@link EntityOrder} in which the checks visit the entities
      */
     @SuppressWarnings("rawtypes")
     private static void executeChecks(final String country, final Atlas atlas,
-            final Set<BaseCheck> checksToRun, final MapRouletteConfiguration configuration)
+            final Collection<Check> checksToRun, final MapRouletteConfiguration configuration,
+            final EntityOrder entityOrder)
     {
         final Pool checkExecutionPool = new Pool(checksToRun.size(), "Check execution pool",
                 POOL_DURATION_BEFORE_KILL);
         checksToRun.forEach(check -> checkExecutionPool.queue(new RunnableCheck(country, check,
-                objectsToCheck(atlas, check), MapRouletteClient.instance(configuration))));
+                objectsToCheck(atlas, check, atlasEntity -> true, entityOrder),
+                MapRouletteClient.instance(configuration))));
+        checkExecutionPool.close();
+    }
+
+    /**
+     * Executes the {@link Check}s of several configuration variants on the given
+     * {@link Atlas}. The instances of a check from all the variants are grouped in a
+     * {@link RunnableCheckGroup}, so the objects of the {@link Atlas} are iterated once per check
+     * and not once per check and variant. Each group runs in a separate thread. The objects are
+     * found using the {@link Finder} of the first instance of each check.
+     *
+     * @param atlas
+     *            the {@link Atlas} on which the checks will be run
+     * @param variantChecks
+     *            the {@link Check}s to execute, keyed by variant name
+     * @param eventServices
+     *            the {@link EventService} of each variant, keyed by variant name
+     * @param entityOrder
+     *            the {@link EntityOrder} in which the checks visit the entities
+     */
+    private static void executeCheckVariants(final Atlas atlas,
+            final Map<String, List<Check>> variantChecks,
+            final Map<String, EventService> eventServices, final EntityOrder entityOrder)
+    {
+        final Map<String, RunnableCheckGroup> checkGroups = new LinkedHashMap<>();
+        variantChecks.forEach((variant, checks) -> checks.forEach(check -> checkGroups
+                .computeIfAbsent(check.getCheckName(),
+                        name -> new RunnableCheckGroup(
+                                objectsToCheck(atlas, check, atlasEntity -> true, entityOrder)))
+                .add(check, eventServices.get(variant))));
+        if (checkGroups.isEmpty())
+        {
+            return;
+        }
+        final Pool checkExecutionPool = new Pool(checkGroups.size(),
+                "Check variant execution pool", POOL_DURATION_BEFORE_KILL);
+        checkGroups.values().forEach(checkExecutionPool::queue);
         checkExecutionPool.close();
     }
 
@@ -118,6 +221,107 @@ public class IntegrityCheckSparkJob extends IntegrityChecksCommandArguments
         return new SparkFilePath(temporaryFilePath, targetFilePath);
     }
 
+    /**
+     * Reads the content of a configuration, so it can be merged on top of inline configurations
+     *
+     * @param uri
+     *            the location of the configuration
+     * @return the configuration JSON
+     */
+    private static String readConfiguration(final String uri)
+    {
+        try (InputStream input = ConfigurationResolver.getResourceAsStream(URI.create(uri))
+                .orElseThrow(() -> new CoreException("Unable to read configuration {}", uri)))
+        {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        catch (final IOException exception)
+        {
+            throw new CoreException("Unable to read configuration {}", exception, uri);
+        }
+    }
+
+    /**
+     * Registers the output processors of a variant with its {@link EventService}
+     *
+     * @return the output paths that will be committed if the checks complete
+     */
+    private static Set<SparkFilePath> registerOutputs(final EventService eventService,
+            final String variant, final String country, final Set<OutputFormats> outputFormats,
+            final SparkFileHelper fileHelper, final boolean compressOutput,
+            final String temporaryOutputFolder, final String targetOutputFolder)
+    {
+        final Set<SparkFilePath> outputs = new HashSet<>();
+        if (outputFormats.contains(OutputFormats.FLAGS))
+        {
+            // Initialize flag output processor
+            final SparkFilePath flagOutput = initializeOutput(
+                    variantFolder(variant, OUTPUT_FLAG_FOLDER), TaskContext.get(), country,
+                    temporaryOutputFolder, targetOutputFolder);
+            eventService.register(
+                    new CheckFlagFileProcessor(fileHelper, flagOutput.getTemporaryPath())
+                            .withCompression(compressOutput));
+            outputs.add(flagOutput);
+        }
+        if (outputFormats.contains(OutputFormats.GEOJSON))
+        {
+            // Initialize geojson output processor
+            final SparkFilePath geoJsonOutput = initializeOutput(
+                    variantFolder(variant, OUTPUT_GEOJSON_FOLDER), TaskContext.get(), country,
+                    temporaryOutputFolder, targetOutputFolder);
+            eventService.register(
+                    new CheckFlagGeoJsonProcessor(fileHelper, geoJsonOutput.getTemporaryPath())
+                            .withCompression(compressOutput));
+            outputs.add(geoJsonOutput);
+        }
+        if (outputFormats.contains(OutputFormats.METRICS))
+        {
+            // Initialize metric output processor
+            final SparkFilePath metricOutput = initializeOutput(
+                    variantFolder(variant, OUTPUT_METRIC_FOLDER), TaskContext.get(), country,
+                    temporaryOutputFolder, targetOutputFolder);
+            eventService.register(new MetricFileGenerator(METRICS_FILENAME, fileHelper,
+                    metricOutput.getTemporaryPath()));
+            eventService.register(MetricFileGenerator.counters(COUNTERS_FILENAME, fileHelper,
+                    metricOutput.getTemporaryPath()));
+            outputs.add(metricOutput);
+        }
+        if (outputFormats.contains(OutputFormats.TIPPECANOE))
+        {
+            final SparkFilePath tippecanoeOutput = initializeOutput(
+                    variantFolder(variant, OUTPUT_TIPPECANOE_FOLDER), TaskContext.get(), country,
+                    temporaryOutputFolder, targetOutputFolder);
+            eventService.register(new CheckFlagTippecanoeProcessor(fileHelper,
+                    tippecanoeOutput.getTemporaryPath()).withCompression(compressOutput));
+            outputs.add(tippecanoeOutput);
+        }
+        return outputs;
+    }
+
+    /**
+     * @return the {@link EventService} of a variant for a country
+     */
+    private static EventService variantEventService(final String country, final String variant)
+    {
+        return DEFAULT_VARIANT.equals(variant) ? EventService.get(country)
+                : EventService.get(String.format("%s_%s", country, variant));
+    }
+
+    /**
+     * Restricts a {@link Configuration} to the checks of the check filter, if any
+     */
+    private static Configuration withCheckFilter(final Configuration configuration,
+            final Optional<List<String>> checkFilter)
+    {
+        return new MergedConfiguration(Stream.of(configuration, checkFilter
+                .<Configuration> map(whitelist -> new StandardConfiguration(
+                        "WhiteListConfiguration",
+                        Collections.singletonMap("CheckResourceLoader.checks.whitelist",
+                                whitelist)))
+                .orElse(ConfigurationResolver.emptyConfiguration()))
+                .collect(Collectors.toList()));
+    }
+
     private static void writeAtlas(final Atlas atlas, final String country,
             final SparkFilePath output, final SparkFileHelper fileHelper)
     {
@@ -151,17 +355,20 @@ public class IntegrityCheckSparkJob extends IntegrityChecksCommandArguments
         final Optional<List<String>> checkFilter = (Optional<List<String>>) commandMap
                 .getOption(CHECK_FILTER);
 
-        final Configuration checksConfiguration = new MergedConfiguration(Stream
-                .concat(Stream.of(ConfigurationResolver.loadConfiguration(commandMap,
-                        CONFIGURATION_FILES, CONFIGURATION_JSON)),
-                        Stream.of(checkFilter
-                                .<Configuration> map(whitelist -> new StandardConfiguration(
-                                        "WhiteListConfiguration",
-                                        Collections.singletonMap(
-                                                "CheckResourceLoader.checks.whitelist", whitelist)))
-                                .orElse(ConfigurationResolver.emptyConfiguration())))
-                .collect(Collectors.toList()));
-
+        final List<String> configurationFiles = new ArrayList<>();
+        ((Optional<StringList>) commandMap.getOption(CONFIGURATION_FILES))
+                .ifPresent(files -> files.forEach(configurationFiles::add));
+        final List<String> inlineConfigurations = new ArrayList<>();
+        ((Optional<String>) commandMap.getOption(CONFIGURATION_JSON))
+                .ifPresent(inlineConfigurations::add);
+        final Configuration checksConfiguration = withCheckFilter(
+                ConfigurationResolver.loadConfiguration(configurationFiles,
+                        inlineConfigurations),
+                checkFilter);
+        final Map<String, String> variantConfigurations = ((Optional<Map<String, String>>)
+                commandMap.getOption(CONFIGURATION_VARIANTS)).orElse(Collections.emptyMap());
+
+        final EntityOrder entityOrder = (EntityOrder) commandMap.get(ENTITY_ORDER);
         final boolean saveIntermediateAtlas = (Boolean) commandMap.get(PBF_SAVE_INTERMEDIATE_ATLAS);
         @SuppressWarnings("unchecked")
         final Rectangle pbfBoundary = ((Optional<Rectangle>) commandMap.getOption(PBF_BOUNDING_BOX))
@@ -179,32 +386,55 @@ public class IntegrityCheckSparkJob extends IntegrityChecksCommandArguments
             return;
         }
 
+        // Each variant merges its configuration on top of the base configuration. The
+        // configurations are sent once to each executor, which instantiates the checks.
+        final Map<String, ExecutorCheckCache> variantChecksCaches = new LinkedHashMap<>();
+        if (variantConfigurations.isEmpty())
+        {
+            variantChecksCaches.put(DEFAULT_VARIANT, new ExecutorCheckCache(checksConfiguration));
+        }
+        else
+        {
+            variantConfigurations.forEach((variant, uri) ->
+            {
+                final List<String> variantInlineConfigurations = new ArrayList<>(
+                        inlineConfigurations);
+                variantInlineConfigurations.add(readConfiguration(uri));
+                variantChecksCaches.put(variant,
+                        new ExecutorCheckCache(withCheckFilter(
+                                ConfigurationResolver.loadConfiguration(configurationFiles,
+                                        variantInlineConfigurations),
+                                checkFilter)));
+            });
+            logger.info("Initialized configuration variants: {}", variantConfigurations);
+        }
+
         // Read priority countries from the configuration
         final List<String> priorityCountries = checksConfiguration
                 .get("priority.countries", Collections.EMPTY_LIST).value();
 
-        // Create a list of Country to Check tuples
+        // Create the list of countries to process, the checks are loaded by the executors
         // Add priority countries first if they are supplied by parameter
-        final List<Tuple2<String, Set<BaseCheck>>> countryCheckTuples = new ArrayList<>();
-        countries.stream().filter(priorityCountries::contains).forEach(country -> countryCheckTuples
-                .add(new Tuple2<>(country, checkLoader.loadChecksForCountry(country))));
+        final List<String> countriesToProcess = new ArrayList<>();
+        countries.stream().filter(priorityCountries::contains)
+                .forEach(countriesToProcess::add);
 
         // Then add the rest of the countries
         countries.stream().filter(country -> !priorityCountries.contains(country))
-                .forEach(country -> countryCheckTuples
-                        .add(new Tuple2<>(country, checkLoader.loadChecksForCountry(country))));
+                .forEach(countriesToProcess::add);
 
         // Log countries and integrity
-        final String infoMessage1 = countryCheckTuples.stream().map(tuple -> tuple._1)
-                .collect(Collectors.joining(","));
+        final String infoMessage1 = String.join(",", countriesToProcess);
         final String infoMessage2 = preOverriddenChecks.stream().map(BaseCheck::getCheckName)
                 .collect(Collectors.joining(","));
         logger.info("Initialized countries: {}", infoMessage1);
         logger.info("Initialized checks: {}", infoMessage2);
 
         // Parallelize on the countries
-        final JavaPairRDD<String, Set<BaseCheck>> countryCheckRDD = getContext()
-                .parallelizePairs(countryCheckTuples, countryCheckTuples.size());
+        final JavaRDD<String> countryRDD = getContext().parallelize(countriesToProcess,
+                countriesToProcess.size());
+        final Broadcast<Map<String, ExecutorCheckCache>> checksBroadcast = getContext()
+                .broadcast(variantChecksCaches);
 
         // Set target and temporary folders
         final String targetOutputFolder = SparkFileHelper.parentPath(output);
@@ -219,129 +449,113 @@ public class IntegrityCheckSparkJob extends IntegrityChecksCommandArguments
                 checksConfiguration, pbfBoundary);
 
         // Create target folders
-        fileHelper.mkdir(SparkFileHelper.combine(targetOutputFolder, OUTPUT_FLAG_FOLDER));
-        fileHelper.mkdir(SparkFileHelper.combine(targetOutputFolder, OUTPUT_GEOJSON_FOLDER));
-        fileHelper.mkdir(SparkFileHelper.combine(targetOutputFolder, OUTPUT_METRIC_FOLDER));
+        variantChecksCaches.keySet().forEach(variant -> Stream
+                .of(OUTPUT_FLAG_FOLDER, OUTPUT_GEOJSON_FOLDER, OUTPUT_METRIC_FOLDER)
+                .forEach(folder -> fileHelper.mkdir(SparkFileHelper.combine(targetOutputFolder,
+                        variantFolder(variant, folder)))));
 
         // Run the set of flags per country per check. The output will be an RDD pair mapping each
         // country with a set of SparkFilePaths to flags, geojson and metrics generated.
-        final JavaPairRDD<String, Set<SparkFilePath>> resultRDD = countryCheckRDD.mapToPair(tuple ->
+        final JavaPairRDD<String, Set<SparkFilePath>> resultRDD = countryRDD.mapToPair(country ->
         {
             final Time timer = Time.now();
 
-            final String country = tuple._1();
-            final Set<BaseCheck> checks = tuple._2();
+            final Map<String, List<Check>> variantChecks = new LinkedHashMap<>();
+            checksBroadcast.getValue().forEach((variant, checksCache) -> variantChecks
+                    .put(variant, checksCache.borrow(country)));
 
-            logger.info("Initialized checks for {}: {}", country,
-                    checks.stream().map(BaseCheck::getCheckName).collect(Collectors.joining(",")));
-
-            final Set<SparkFilePath> resultingFiles = new HashSet<>();
-
-            final SparkFilePath flagOutput;
-            if (outputFormats.contains(OutputFormats.FLAGS))
-            {
-                // Initialize flag output processor
-                flagOutput = initializeOutput(OUTPUT_FLAG_FOLDER, TaskContext.get(), country,
-                        temporaryOutputFolder, targetOutputFolder);
-                EventService.get(country).register(
-                        new CheckFlagFileProcessor(fileHelper, flagOutput.getTemporaryPath())
-                                .withCompression(compressOutput));
-            }
-            else
-            {
-                flagOutput = null;
-            }
-            final SparkFilePath geoJsonOutput;
-            if (outputFormats.contains(OutputFormats.GEOJSON))
-            {
-                // Initialize geojson output processor
-                geoJsonOutput = initializeOutput(OUTPUT_GEOJSON_FOLDER, TaskContext.get(), country,
-                        temporaryOutputFolder, targetOutputFolder);
-                EventService.get(country).register(
-                        new CheckFlagGeoJsonProcessor(fileHelper, geoJsonOutput.getTemporaryPath())
-                                .withCompression(compressOutput));
-            }
-            else
-            {
-                geoJsonOutput = null;
-            }
-
-            final SparkFilePath metricOutput;
-            if (outputFormats.contains(OutputFormats.METRICS))
-            {
-                // Initialize metric output processor
-                metricOutput = initializeOutput(OUTPUT_METRIC_FOLDER, TaskContext.get(), country,
-                        temporaryOutputFolder, targetOutputFolder);
-                EventService.get(country).register(new MetricFileGenerator(METRICS_FILENAME,
-                        fileHelper, metricOutput.getTemporaryPath()));
-            }
-            else
-            {
-                metricOutput = null;
-            }
-
-            final SparkFilePath tippecanoeOutput;
-            if (outputFormats.contains(OutputFormats.TIPPECANOE))
-            {
-                tippecanoeOutput = initializeOutput(OUTPUT_TIPPECANOE_FOLDER, TaskContext.get(),
-                        country, temporaryOutputFolder, targetOutputFolder);
-                EventService.get(country)
-                        .register(new CheckFlagTippecanoeProcessor(fileHelper,
-                                tippecanoeOutput.getTemporaryPath())
-                                        .withCompression(compressOutput));
-            }
-            else
-            {
-                tippecanoeOutput = null;
-            }
-
-            final Consumer<Atlas> intermediateAtlasHandler;
-            if (saveIntermediateAtlas)
-            {
-                final SparkFilePath atlasOutput = initializeOutput(OUTPUT_ATLAS_FOLDER,
-                        TaskContext.get(), country, temporaryOutputFolder, targetOutputFolder);
-                intermediateAtlasHandler = atlas ->
-                {
-                    writeAtlas(atlas, country, atlasOutput, fileHelper);
-                    resultingFiles.add(atlasOutput);
-                };
-            }
-            else
-            {
-                intermediateAtlasHandler = atlas ->
-                {
-                    // no-op
-                };
-            }
             try
             {
-                final Atlas atlas = atlasLoader.load(input, country, intermediateAtlasHandler);
-                if (atlas == null)
+                variantChecks.forEach((variant, checks) -> logger.info(
+                        "Initialized checks for {}{}: {}", country,
+                        DEFAULT_VARIANT.equals(variant) ? "" : String.format(" (%s)", variant),
+                        checks.stream().map(Check::getCheckName)
+                                .collect(Collectors.joining(","))));
+
+                final Set<SparkFilePath> resultingFiles = new HashSet<>();
+
+                // Initialize the output processors of each variant
+                final Map<String, EventService> eventServices = new LinkedHashMap<>();
+                final Set<SparkFilePath> variantOutputs = new HashSet<>();
+                variantChecks.keySet().forEach(variant ->
+                {
+                    final EventService eventService = variantEventService(country, variant);
+                    eventServices.put(variant, eventService);
+                    variantOutputs.addAll(registerOutputs(eventService, variant, country,
+                            outputFormats, fileHelper, compressOutput, temporaryOutputFolder,
+                            targetOutputFolder));
+                });
+
+                final Consumer<Atlas> intermediateAtlasHandler;
+                if (saveIntermediateAtlas)
                 {
-                    logger.error("Could not find {} Atlas files. Skipping country!", country);
+                    final SparkFilePath atlasOutput = initializeOutput(OUTPUT_ATLAS_FOLDER,
+                            TaskContext.get(), country, temporaryOutputFolder, targetOutputFolder);
+                    intermediateAtlasHandler = atlas ->
+                    {
+                        writeAtlas(atlas, country, atlasOutput, fileHelper);
+                        resultingFiles.add(atlasOutput);
+                    };
                 }
                 else
                 {
-                    executeChecks(country, atlas, checks, mapRouletteConfiguration);
-                    // Add output folders for handling later
-                    Stream.of(flagOutput, metricOutput, geoJsonOutput, tippecanoeOutput)
-                            .filter(Objects::nonNull).forEach(resultingFiles::add);
+                    intermediateAtlasHandler = atlas ->
+                    {
+                        // no-op
+                    };
+                }
+                try
+                {
+                    final Atlas atlas = atlasLoader.load(input, country, intermediateAtlasHandler);
+                    if (atlas == null)
+                    {
+                        logger.error("Could not find {} Atlas files. Skipping country!", country);
+                    }
+                    else
+                    {
+                        try
+                        {
+                            if (variantChecks.containsKey(DEFAULT_VARIANT))
+                            {
+                                executeChecks(country, atlas, variantChecks.get(DEFAULT_VARIANT),
+                                        mapRouletteConfiguration, entityOrder);
+                            }
+                            else
+                            {
+                                executeCheckVariants(atlas, variantChecks, eventServices,
+                                        entityOrder);
+                            }
+                        }
+                        finally
+                        {
+                            // Drop the values derived from this atlas and shared by the checks
+                            AtlasCache.releaseAll(atlas);
+                        }
+                        // Add output folders for handling later
+                        resultingFiles.addAll(variantOutputs);
+                    }
+
+                    eventServices.values().forEach(EventService::complete);
+                    return new Tuple2<>(country, resultingFiles);
+                }
+                catch (final CoreException e)
+                {
+                    logger.error("Exception running integrity checks on {}", country, e);
+                }
+                finally
+                {
+                    logger.info("Integrity checks finished in {} to execute for {}.",
+                            timer.elapsedSince(), country);
                 }
 
-                EventService.get(country).complete();
-                return new Tuple2<>(country, resultingFiles);
-            }
-            catch (final CoreException e)
-            {
-                logger.error("Exception running integrity checks on {}", country, e);
+                return new Tuple2<>(IGNORED_KEY, null);
             }
             finally
             {
-                logger.info("Integrity checks finished in {} to execute for {}.",
-                        timer.elapsedSince(), country);
+                // Return the checks to the executor, for the next country
+                variantChecks.forEach((variant, checks) -> checksBroadcast.getValue().get(variant)
+                        .release(country, checks));
             }
-
-            return new Tuple2<>(IGNORED_KEY, null);
         }).filter(tuple -> !tuple._1().equals(IGNORED_KEY));
 
         // Commit results
@@ -382,9 +596,22 @@ public class IntegrityCheckSparkJob extends IntegrityChecksCommandArguments
         staticPaths.add(getAlternateSubFolderOutput(output, OUTPUT_FLAG_FOLDER));
         staticPaths.add(getAlternateSubFolderOutput(output, OUTPUT_GEOJSON_FOLDER));
         staticPaths.add(getAlternateSubFolderOutput(output, OUTPUT_ATLAS_FOLDER));
+        @SuppressWarnings("unchecked")
+        final Optional<Map<String, String>> variants = (Optional<Map<String, String>>) command
+                .getOption(CONFIGURATION_VARIANTS);
+        variants.ifPresent(variantConfigurations -> variantConfigurations.keySet()
+                .forEach(variant -> Stream.of(OUTPUT_FLAG_FOLDER, OUTPUT_GEOJSON_FOLDER)
+                        .forEach(folder -> staticPaths.add(getAlternateSubFolderOutput(output,
+                                variantFolder(variant, folder))))));
         return staticPaths;
     }
 
+    @Override
+    protected SwitchList switches()
+    {
+        return super.switches().with(CONFIGURATION_VARIANTS);
+    }
+
     /**
      * Basic sanity check to ensure we aren't processing an empty list of countries or integrity
      * checks
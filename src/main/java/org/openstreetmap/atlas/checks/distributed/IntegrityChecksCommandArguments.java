@@ -15,6 +15,7 @@ import org.openstreetmap.atlas.checks.atlas.CountrySpecificAtlasFilePathFilter;
 import org.openstreetmap.atlas.checks.base.Check;
 import org.openstreetmap.atlas.checks.constants.CommonConstants;
 import org.openstreetmap.atlas.checks.maproulette.MapRouletteConfiguration;
+import org.openstreetmap.atlas.checks.utility.EntityOrder;
 import org.openstreetmap.atlas.generator.tools.filesystem.FileSystemHelper;
 import org.openstreetmap.atlas.generator.tools.spark.SparkJob;
 import org.openstreetmap.atlas.geography.Rectangle;
@@ -75,6 +76,10 @@ public abstract class IntegrityChecksCommandArguments extends SparkJob
     static final Switch<String> COUNTRIES = new Switch<>("countries",
             "Comma-separated list of country ISO3 codes to be processed", StringConverter.IDENTITY,
             Optionality.REQUIRED);
+    static final Switch<EntityOrder> ENTITY_ORDER = new Switch<>("entityOrder",
+            "Order in which the checks visit the atlas entities (index, hilbert, z_order). "
+                    + "Spatial orders improve the locality of spatial queries.",
+            order -> EntityOrder.valueOf(order.toUpperCase()), Optionality.OPTIONAL, "index");
     static final Switch<MapRouletteConfiguration> MAP_ROULETTE = new Switch<>("maproulette",
             "Map roulette server information, format <Host>:<Port>:<ProjectName>:<ApiKey>, projectName is optional.",
             MapRouletteConfiguration::parse, Optionality.OPTIONAL);
@@ -168,7 +173,13 @@ public abstract class IntegrityChecksCommandArguments extends SparkJob
     protected static Iterable<AtlasObject> objectsToCheck(final Atlas atlas, final Check check,
             final Predicate<AtlasEntity> geoFilter)
     {
-        return new MultiIterable<>(Iterables.filter(atlas.entities(), geoFilter),
+        return objectsToCheck(atlas, check, geoFilter, EntityOrder.INDEX);
+    }
+
+    protected static Iterable<AtlasObject> objectsToCheck(final Atlas atlas, final Check check,
+            final Predicate<AtlasEntity> geoFilter, final EntityOrder entityOrder)
+    {
+        return new MultiIterable<>(Iterables.filter(entityOrder.entities(atlas), geoFilter),
                 check.finder().map(finder -> finder.find(atlas)).orElse(Collections.emptyList()));
     }
 
@@ -194,6 +205,6 @@ public abstract class IntegrityChecksCommandArguments extends SparkJob
     {
         return super.switches().with(ATLAS_FOLDER, MAP_ROULETTE, COUNTRIES, CONFIGURATION_FILES,
                 CONFIGURATION_JSON, PBF_BOUNDING_BOX, PBF_SAVE_INTERMEDIATE_ATLAS, OUTPUT_FORMATS,
-                CHECK_FILTER);
+                CHECK_FILTER, ENTITY_ORDER);
     }
 }
@@ -17,7 +17,9 @@ import org.slf4j.LoggerFactory;
 /**
  * Runs a {@link Check} over {@link AtlasObject}s in a separate thread. {@link CheckFlag}s that
  * result from checking an {@link AtlasObject} are posted to the
- * {@link RunnableCheckBase#eventService} along with {@link MapRouletteClient} for handling.
+ * {@link RunnableCheckBase#eventService} along with {@link MapRouletteClient} for handling. A
+ * check running past its time limit is stopped by a {@link CheckWatchdog}, keeping the
+ * {@link CheckFlag}s already posted.
  *
  * @author mkalender
  * @author bbreithaupt
@@ -72,20 +74,28 @@ public final class RunnableCheck extends RunnableCheckBase<Check> implements Run
         try
         {
             final Time timer = Time.now();
-            this.getObjects().forEach(object ->
+            final CheckWatchdog watchdog = new CheckWatchdog(this.getCheck());
+            for (final AtlasObject object : this.getObjects())
             {
+                if (!watchdog.proceed())
+                {
+                    break;
+                }
                 final Optional<CheckFlag> flag = this.getCheck().check(object);
+                watchdog.processed();
                 if (flag.isPresent())
                 {
                     this.addTask(flag.get());
                     this.getEventService().post(new CheckFlagEvent(this.getName(), flag.get()));
                 }
-            });
+            }
 
+            this.getCheck().metrics().forEach(this.getEventService()::post);
             this.getCheck().clear();
             final Duration checkRunTime = timer.elapsedSince();
             logger.info("{} completed in {}.", this.getName(), checkRunTime);
             this.getEventService().post(new MetricEvent(this.getName(), checkRunTime));
+            watchdog.metrics(checkRunTime).forEach(this.getEventService()::post);
 
             this.uploadTasks();
         }
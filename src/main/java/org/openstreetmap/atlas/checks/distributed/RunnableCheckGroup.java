@@ -0,0 +1,120 @@
+package org.openstreetmap.atlas.checks.distributed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.openstreetmap.atlas.checks.base.Check;
+import org.openstreetmap.atlas.checks.event.CheckFlagEvent;
+import org.openstreetmap.atlas.checks.event.MetricEvent;
+import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.event.EventService;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
+import org.openstreetmap.atlas.utilities.scalars.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs several instances of the same {@link Check}, each one built from a different configuration
+ * variant, in a single pass over the {@link AtlasObject}s. Each instance posts its
+ * {@link CheckFlag}s and run time to its own {@link EventService}, so variants produce separate
+ * outputs while sharing the iteration over the objects. Each instance has its own
+ * {@link CheckWatchdog}, an instance past its time limit is skipped for the remaining objects.
+ *
+ * @author lucylu
+ */
+public final class RunnableCheckGroup implements Runnable
+{
+    private static final Logger logger = LoggerFactory.getLogger(RunnableCheckGroup.class);
+    private static final double NANOSECONDS_PER_MILLISECOND = 1_000_000.0;
+
+    private final List<Check> checks = new ArrayList<>();
+    private final List<EventService> eventServices = new ArrayList<>();
+    private final Iterable<AtlasObject> objects;
+
+    /**
+     * Default constructor
+     *
+     * @param objects
+     *            {@link AtlasObject}s that are going to be checked by all the instances
+     */
+    public RunnableCheckGroup(final Iterable<AtlasObject> objects)
+    {
+        this.objects = objects;
+    }
+
+    /**
+     * Adds a check instance to the group
+     *
+     * @param check
+     *            the {@link Check} instance of one variant
+     * @param eventService
+     *            {@link EventService} this instance posts its results to
+     * @return this {@link RunnableCheckGroup}
+     */
+    public RunnableCheckGroup add(final Check check, final EventService eventService)
+    {
+        this.checks.add(check);
+        this.eventServices.add(eventService);
+        return this;
+    }
+
+    @Override
+    public void run()
+    {
+        final long[] runTimes = new long[this.checks.size()];
+        final List<CheckWatchdog> watchdogs = new ArrayList<>();
+        this.checks.forEach(check -> watchdogs.add(new CheckWatchdog(check)));
+        try
+        {
+            for (final AtlasObject object : this.objects)
+            {
+                boolean proceeding = false;
+                for (int index = 0; index < this.checks.size(); index++)
+                {
+                    final CheckWatchdog watchdog = watchdogs.get(index);
+                    if (!watchdog.proceed(runTimes[index]))
+                    {
+                        continue;
+                    }
+                    proceeding = true;
+                    final long start = System.nanoTime();
+                    final Check check = this.checks.get(index);
+                    final EventService eventService = this.eventServices.get(index);
+                    final Optional<CheckFlag> flag = check.check(object);
+                    watchdog.processed();
+                    flag.ifPresent(checkFlag -> this.post(check, eventService, checkFlag));
+                    runTimes[index] += System.nanoTime() - start;
+                }
+                // All the instances timed out
+                if (!proceeding && !this.checks.isEmpty())
+                {
+                    break;
+                }
+            }
+            for (int index = 0; index < this.checks.size(); index++)
+            {
+                final Check check = this.checks.get(index);
+                check.metrics().forEach(this.eventServices.get(index)::post);
+                check.clear();
+                final Duration checkRunTime = Duration
+                        .milliseconds(runTimes[index] / NANOSECONDS_PER_MILLISECOND);
+                logger.info("{} completed in {}.", check.getCheckName(), checkRunTime);
+                this.eventServices.get(index)
+                        .post(new MetricEvent(check.getCheckName(), checkRunTime));
+                watchdogs.get(index).metrics(checkRunTime)
+                        .forEach(this.eventServices.get(index)::post);
+            }
+        }
+        catch (final Exception e)
+        {
+            logger.error(String.format("%s failed to complete.", this.checks.isEmpty() ? ""
+                    : this.checks.get(0).getCheckName()), e);
+        }
+    }
+
+    private void post(final Check check, final EventService eventService, final CheckFlag flag)
+    {
+        eventService.post(new CheckFlagEvent(check.getCheckName(), flag));
+    }
+}
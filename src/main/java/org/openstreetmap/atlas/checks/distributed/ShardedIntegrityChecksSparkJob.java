@@ -1,8 +1,10 @@
 package org.openstreetmap.atlas.checks.distributed;
 
+import static org.openstreetmap.atlas.checks.distributed.IntegrityCheckSparkJob.COUNTERS_FILENAME;
 import static org.openstreetmap.atlas.checks.distributed.IntegrityCheckSparkJob.METRICS_FILENAME;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -24,6 +26,8 @@ import org.openstreetmap.atlas.checks.event.CheckFlagFileProcessor;
 import org.openstreetmap.atlas.checks.event.CheckFlagGeoJsonProcessor;
 import org.openstreetmap.atlas.checks.event.CheckFlagTippecanoeProcessor;
 import org.openstreetmap.atlas.checks.event.MetricFileGenerator;
+import org.openstreetmap.atlas.checks.utility.AtlasCache;
+import org.openstreetmap.atlas.checks.utility.EntityOrder;
 import org.openstreetmap.atlas.checks.utility.UniqueCheckFlagContainer;
 import org.openstreetmap.atlas.event.EventService;
 import org.openstreetmap.atlas.event.Processor;
@@ -88,13 +92,32 @@ public class ShardedIntegrityChecksSparkJob extends IntegrityChecksCommandArgume
             .getLogger(ShardedIntegrityChecksSparkJob.class);
     private static final long serialVersionUID = -8038802870994470017L;
 
-    private final MultiMap<String, Check> countryChecks = new MultiMap<>();
-
     public static void main(final String[] args)
     {
         new ShardedIntegrityChecksSparkJob().run(args);
     }
 
+    /**
+     * Get the fetcher to use for Atlas files. The fetcher uses a hadoop cache to reduce remote
+     * reads.
+     *
+     * @param input
+     *            {@link String} input folder path
+     * @param country
+     *            {@link String} country code
+     * @param configuration
+     *            {@link org.openstreetmap.atlas.generator.tools.spark.SparkJob} configuration map
+     * @return {@link Function} that fetches atlases/
+     */
+    private static Function<Shard, Optional<Atlas>> atlasFetcher(final String input,
+            final String country, final Map<String, String> configuration)
+    {
+        final HadoopAtlasFileCache cache = new HadoopAtlasFileCache(input, configuration);
+        final AtlasResourceLoader loader = new AtlasResourceLoader();
+        return (Function<Shard, Optional<Atlas>> & Serializable) shard -> cache.get(country, shard)
+                .map(loader::load);
+    }
+
     @Override
     public String getName()
     {
@@ -154,6 +177,7 @@ public class ShardedIntegrityChecksSparkJob extends IntegrityChecksCommandArgume
         {
             throw new CoreException("No countries found to run.");
         }
+        final Set<String> countriesWithChecks = new HashSet<>();
         for (final String country : countries)
         {
             final Set<Check> checksLoadedForCountry = checkLoader.loadChecksForCountry(country);
@@ -163,14 +187,18 @@ public class ShardedIntegrityChecksSparkJob extends IntegrityChecksCommandArgume
             }
             else
             {
-                checksLoadedForCountry.forEach(check -> this.countryChecks.add(country, check));
+                countriesWithChecks.add(country);
             }
         }
-        if (this.countryChecks.isEmpty())
+        if (countriesWithChecks.isEmpty())
         {
             throw new CoreException("No checks loaded for any of the countries provided.");
         }
 
+        // Send the configuration once to each executor, which instantiates and caches the checks
+        final Broadcast<ExecutorCheckCache> checksBroadcast = this.getContext()
+                .broadcast(new ExecutorCheckCache(checksConfiguration));
+
         // Find the shards for each country atlas files
         final MultiMap<String, Shard> countryShards = countryShardMapFromShardFiles(
                 countries.stream().collect(Collectors.toSet()), resolver, input, sparkContext);
@@ -194,13 +222,16 @@ public class ShardedIntegrityChecksSparkJob extends IntegrityChecksCommandArgume
         {
             for (final Map.Entry<String, List<Shard>> countryShard : countryShards.entrySet())
             {
+                if (!countriesWithChecks.contains(countryShard.getKey()))
+                {
+                    continue;
+                }
                 checkPool.queue(() ->
                 {
                     // Generate a task for each shard
                     final List<ShardedCheckFlagsTask> tasksForCountry = countryShard.getValue()
                             .stream()
-                            .map(shard -> new ShardedCheckFlagsTask(countryShard.getKey(), shard,
-                                    this.countryChecks.get(countryShard.getKey())))
+                            .map(shard -> new ShardedCheckFlagsTask(countryShard.getKey(), shard))
                             .collect(Collectors.toList());
 
                     // Set spark UI job title
@@ -209,8 +240,9 @@ public class ShardedIntegrityChecksSparkJob extends IntegrityChecksCommandArgume
 
                     this.getContext().parallelize(tasksForCountry, tasksForCountry.size())
                             .mapToPair(produceFlags(input, output, this.configurationMap(),
-                                    fileHelper, shardingBroadcast, distanceToLoadShards,
-                                    (Boolean) commandMap.get(MULTI_ATLAS)))
+                                    fileHelper, shardingBroadcast, checksBroadcast,
+                                    distanceToLoadShards, (Boolean) commandMap.get(MULTI_ATLAS),
+                                    (EntityOrder) commandMap.get(ENTITY_ORDER)))
                             .reduceByKey(UniqueCheckFlagContainer::combine)
                             // Generate outputs
                             .foreach(processFlags(output, fileHelper, outputFormats));
@@ -227,27 +259,6 @@ public class ShardedIntegrityChecksSparkJob extends IntegrityChecksCommandArgume
         return super.switches().with(EXPANSION_DISTANCE, MULTI_ATLAS, SHARDING);
     }
 
-    /**
-     * Get the fetcher to use for Atlas files. The fetcher uses a hadoop cache to reduce remote
-     * reads.
-     *
-     * @param input
-     *            {@link String} input folder path
-     * @param country
-     *            {@link String} country code
-     * @param configuration
-     *            {@link org.openstreetmap.atlas.generator.tools.spark.SparkJob} configuration map
-     * @return {@link Function} that fetches atlases/
-     */
-    private Function<Shard, Optional<Atlas>> atlasFetcher(final String input, final String country,
-            final Map<String, String> configuration)
-    {
-        final HadoopAtlasFileCache cache = new HadoopAtlasFileCache(input, configuration);
-        final AtlasResourceLoader loader = new AtlasResourceLoader();
-        return (Function<Shard, Optional<Atlas>> & Serializable) shard -> cache.get(country, shard)
-                .map(loader::load);
-    }
-
     /**
      * Process {@link org.openstreetmap.atlas.checks.flag.CheckFlag}s through an event service to
      * produce output files.
@@ -310,10 +321,14 @@ public class ShardedIntegrityChecksSparkJob extends IntegrityChecksCommandArgume
      *            {@link SparkFileHelper}
      * @param sharding
      *            spark {@link Broadcast} of the current {@link Sharding}
+     * @param checks
+     *            spark {@link Broadcast} of the {@link ExecutorCheckCache} providing the checks
      * @param shardDistanceExpansion
      *            {@link Distance} to expand the shard group
      * @param multiAtlas
      *            boolean whether to use a multi or dynamic Atlas
+     * @param entityOrder
+     *            the {@link EntityOrder} in which the checks visit the entities
      * @return {@link PairFunction} that takes {@link ShardedCheckFlagsTask} and returns a
      *         {@link Tuple2} of a {@link String} country code and {@link UniqueCheckFlagContainer}
      */
@@ -321,12 +336,13 @@ public class ShardedIntegrityChecksSparkJob extends IntegrityChecksCommandArgume
     private PairFunction<ShardedCheckFlagsTask, String, UniqueCheckFlagContainer> produceFlags(
             final String input, final String output, final Map<String, String> configurationMap,
             final SparkFileHelper fileHelper, final Broadcast<Sharding> sharding,
-            final Distance shardDistanceExpansion, final boolean multiAtlas)
+            final Broadcast<ExecutorCheckCache> checks, final Distance shardDistanceExpansion,
+            final boolean multiAtlas, final EntityOrder entityOrder)
     {
         return task ->
         {
             // Get the atlas
-            final Function<Shard, Optional<Atlas>> fetcher = this.atlasFetcher(input,
+            final Function<Shard, Optional<Atlas>> fetcher = atlasFetcher(input,
                     task.getCountry(), configurationMap);
             final Atlas atlas;
 
@@ -376,21 +392,31 @@ public class ShardedIntegrityChecksSparkJob extends IntegrityChecksCommandArgume
                 }
             });
             // Metrics are output on a per shard level
+            final String metricFolder = SparkFileHelper.combine(output, OUTPUT_METRIC_FOLDER,
+                    task.getCountry());
             final MetricFileGenerator metricFileGenerator = new MetricFileGenerator(
-                    task.getShard().getName() + "_" + METRICS_FILENAME, fileHelper,
-                    SparkFileHelper.combine(output, OUTPUT_METRIC_FOLDER, task.getCountry()));
+                    task.getShard().getName() + "_" + METRICS_FILENAME, fileHelper, metricFolder);
             eventService.register(metricFileGenerator);
+            eventService.register(MetricFileGenerator.counters(
+                    task.getShard().getName() + "_" + COUNTERS_FILENAME, fileHelper,
+                    metricFolder));
 
             // Run all checks in parallel
-            try (Pool checkPool = new Pool(task.getChecks().size(),
-                    "Sharded Checks Execution Pool"))
+            final List<Check> checksToRun = checks.getValue().borrow(task.getCountry());
+            try (Pool checkPool = new Pool(checksToRun.size(), "Sharded Checks Execution Pool"))
             {
-                for (final Check check : task.getChecks())
+                for (final Check check : checksToRun)
                 {
                     checkPool.queue(new RunnableCheck(task.getCountry(), check,
-                            objectsToCheck(atlas, check, boundaryFilter), eventService));
+                            objectsToCheck(atlas, check, boundaryFilter, entityOrder),
+                            eventService));
                 }
             }
+            finally
+            {
+                checks.getValue().release(task.getCountry(), checksToRun);
+                AtlasCache.releaseAll(atlas);
+            }
 
             eventService.complete();
             return new Tuple2<>(task.getCountry(), container);
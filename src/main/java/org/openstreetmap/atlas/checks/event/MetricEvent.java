@@ -3,9 +3,10 @@ package org.openstreetmap.atlas.checks.event;
 import org.openstreetmap.atlas.utilities.scalars.Duration;
 
 /**
- * A wrapper around a timed metric with a name and a {@link Duration}. This class is useful to
- * generate in-memory metric events from integrity checks to the processors of integrity check
- * results.
+ * A wrapper around a timed metric with a name and a {@link Duration}, or a counter with a name and
+ * a count. This class is useful to generate in-memory metric events from integrity checks to the
+ * processors of integrity check results. Timed metrics and counters are written to separate
+ * files, see {@link MetricFileGenerator}.
  *
  * @author mkalender
  */
@@ -13,9 +14,19 @@ public final class MetricEvent extends org.openstreetmap.atlas.event.Event
 {
     private final String name;
     private final Duration duration;
+    // The count of a counter, or -1 for a timed metric
+    private final long count;
 
     /**
-     * @return header following {@code toString()} method format
+     * @return header following {@code toString()} method format for counters
+     */
+    public static String counterHeader()
+    {
+        return "name,count";
+    }
+
+    /**
+     * @return header following {@code toString()} method format for timed metrics
      */
     public static String header()
     {
@@ -34,10 +45,34 @@ public final class MetricEvent extends org.openstreetmap.atlas.event.Event
     {
         this.name = name;
         this.duration = duration;
+        this.count = -1;
+    }
+
+    /**
+     * Counter constructor
+     *
+     * @param name
+     *            name of metric
+     * @param count
+     *            the count, positive or 0
+     */
+    public MetricEvent(final String name, final long count)
+    {
+        this.name = name;
+        this.duration = Duration.ZERO;
+        this.count = count;
+    }
+
+    /**
+     * @return the count of a counter, or -1 for a timed metric
+     */
+    public long getCount()
+    {
+        return this.count;
     }
 
     /**
-     * @return {@link Duration} of the metric
+     * @return {@link Duration} of the metric, {@link Duration#ZERO} for a counter
      */
     public Duration getDuration()
     {
@@ -52,9 +87,18 @@ public final class MetricEvent extends org.openstreetmap.atlas.event.Event
         return this.name;
     }
 
+    /**
+     * @return {@code true} if this metric is a counter
+     */
+    public boolean isCounter()
+    {
+        return this.count >= 0;
+    }
+
     @Override
     public String toString()
     {
-        return String.format("%s,%s", this.getName(), this.getDuration().asMilliseconds());
+        return this.isCounter() ? String.format("%s,%s", this.getName(), this.count)
+                : String.format("%s,%s", this.getName(), this.getDuration().asMilliseconds());
     }
 }
@@ -17,6 +17,9 @@ import com.google.common.eventbus.Subscribe;
  * files. By default this supports maximum {@code FileProcessor.BATCH_SIZE} metrics. If number of
  * metrics go beyond that limit, the newest metrics will override the previous ones in the file,
  * because the file name is going to be the same for both write operations.
+ * <p>
+ * A generator writes either the timed metrics or the counters, see {@link #counters}, so each file
+ * keeps a single format.
  *
  * @author mkalender
  */
@@ -26,9 +29,27 @@ public final class MetricFileGenerator extends FileProcessor<MetricEvent>
 
     private final String label;
     private final FileSuffix suffix;
+    private final boolean counters;
 
     /**
-     * Default constructor
+     * Creates a generator of the counters, the timed metrics being ignored
+     *
+     * @param label
+     *            label for the counter file
+     * @param fileHelper
+     *            {@link SparkFileHelper} for I/O operations
+     * @param outputFolder
+     *            output folder path to write files to
+     * @return the {@link MetricFileGenerator}
+     */
+    public static MetricFileGenerator counters(final String label,
+            final SparkFileHelper fileHelper, final String outputFolder)
+    {
+        return new MetricFileGenerator(label, fileHelper, outputFolder, true);
+    }
+
+    /**
+     * Default constructor, for a generator of the timed metrics, the counters being ignored
      *
      * @param label
      *            label for the metric file
@@ -39,8 +60,15 @@ public final class MetricFileGenerator extends FileProcessor<MetricEvent>
      */
     public MetricFileGenerator(final String label, final SparkFileHelper fileHelper,
             final String outputFolder)
+    {
+        this(label, fileHelper, outputFolder, false);
+    }
+
+    private MetricFileGenerator(final String label, final SparkFileHelper fileHelper,
+            final String outputFolder, final boolean counters)
     {
         super(fileHelper, outputFolder);
+        this.counters = counters;
         final Optional<FileSuffix> knownSuffix = Arrays.stream(FileSuffix.values())
                 .filter(suffix -> label.endsWith(suffix.toString()))
                 .filter(fileSuffix -> !FileSuffix.NONE.equals(fileSuffix)).findFirst();
@@ -56,7 +84,7 @@ public final class MetricFileGenerator extends FileProcessor<MetricEvent>
         }
 
         // This will make sure we have a header for the csv file
-        this.process(MetricEvent.header());
+        this.process(counters ? MetricEvent.counterHeader() : MetricEvent.header());
     }
 
     @Override
@@ -64,7 +92,10 @@ public final class MetricFileGenerator extends FileProcessor<MetricEvent>
     @AllowConcurrentEvents
     public void process(final MetricEvent event)
     {
-        this.process(event.toString());
+        if (event.isCounter() == this.counters)
+        {
+            this.process(event.toString());
+        }
     }
 
     @Override
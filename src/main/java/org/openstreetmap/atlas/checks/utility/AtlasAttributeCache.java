@@ -0,0 +1,128 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.tags.HighwayTag;
+
+/**
+ * Columnar cache of attributes that checks derive from the tags of {@link AtlasEntity}s over and
+ * over. It holds the {@link HighwayTag}, read again for every edge connected to a node. Each
+ * attribute is computed for all the entities of a type the first time it is requested for one of
+ * them, and kept in a primitive array indexed by {@link EntityPositions}, shared by all the checks
+ * running on the {@link Atlas}.
+ * <p>
+ * Invalidation rules:
+ * <ul>
+ * <li>Attributes are cached per {@link Atlas} instance, and entities use the cache of the
+ * {@link Atlas} returned by {@link AtlasEntity#getAtlas()}. A multi {@link Atlas} has its own
+ * cache, independent from the caches of the atlases it is made of.</li>
+ * <li>Packed and multi atlases are immutable, so their attributes stay valid until they are
+ * released with {@link AtlasCache#releaseAll(Atlas)}, which the check jobs do once all the checks
+ * are done with an {@link Atlas}.</li>
+ * <li>Entities a dynamic {@link Atlas} loads after the attributes of their type were cached have
+ * no position, and their attributes are computed directly from their tags each time. Release the
+ * dynamic {@link Atlas} after expanding it to cache its new entities too.</li>
+ * </ul>
+ *
+ * @author lucylu
+ */
+public final class AtlasAttributeCache
+{
+    private static final AtlasCache<AtlasAttributeCache> ATTRIBUTES = new AtlasCache<>(
+            "derived tag attributes");
+    // Highway tags are stored as their ordinal plus one, 0 meaning no highway tag
+    private static final byte NO_HIGHWAY = 0;
+    private static final HighwayTag[] HIGHWAY_TAGS = HighwayTag.values();
+    private static final Optional<HighwayTag>[] HIGHWAY_TAG_OPTIONALS = highwayTagOptionals();
+
+    private final EntityPositions positions;
+    // Highway columns by entity type, each one built under the lock of its type
+    private final AtomicReferenceArray<byte[]> highways;
+    private final Object[] locks;
+
+    /**
+     * Same as {@link HighwayTag#highwayTag(org.openstreetmap.atlas.tags.Taggable)}
+     *
+     * @param entity
+     *            the {@link AtlasEntity}
+     * @return the {@link HighwayTag} of the entity, if any
+     */
+    public static Optional<HighwayTag> highwayTag(final AtlasEntity entity)
+    {
+        final AtlasAttributeCache cache = forAtlas(entity.getAtlas());
+        final int position = cache.positions.position(entity);
+        if (position == EntityPositions.NO_POSITION)
+        {
+            return HighwayTag.highwayTag(entity);
+        }
+        return HIGHWAY_TAG_OPTIONALS[cache.highways(entity.getType())[position]];
+    }
+
+    private static AtlasAttributeCache forAtlas(final Atlas atlas)
+    {
+        return ATTRIBUTES.get(atlas, AtlasAttributeCache::new);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Optional<HighwayTag>[] highwayTagOptionals()
+    {
+        final Optional<HighwayTag>[] optionals = new Optional[HIGHWAY_TAGS.length + 1];
+        optionals[NO_HIGHWAY] = Optional.empty();
+        for (final HighwayTag highwayTag : HIGHWAY_TAGS)
+        {
+            optionals[highwayTag.ordinal() + 1] = Optional.of(highwayTag);
+        }
+        return optionals;
+    }
+
+    private AtlasAttributeCache(final Atlas atlas)
+    {
+        this.positions = EntityPositions.forAtlas(atlas);
+        this.highways = new AtomicReferenceArray<>(ItemType.values().length);
+        this.locks = new Object[ItemType.values().length];
+        for (int index = 0; index < this.locks.length; index++)
+        {
+            this.locks[index] = new Object();
+        }
+    }
+
+    private byte[] buildHighways(final ItemType type)
+    {
+        final byte[] values = new byte[this.positions.size(type)];
+        for (final AtlasEntity entity : this.positions.entities(type))
+        {
+            final int position = this.positions.position(entity);
+            if (position != EntityPositions.NO_POSITION)
+            {
+                values[position] = HighwayTag.highwayTag(entity)
+                        .map(tag -> (byte) (tag.ordinal() + 1)).orElse(NO_HIGHWAY);
+            }
+        }
+        return values;
+    }
+
+    private byte[] highways(final ItemType type)
+    {
+        final int index = type.ordinal();
+        byte[] values = this.highways.get(index);
+        if (values == null)
+        {
+            // Building a column goes over all the entities of a type, so only one thread does it,
+            // while columns of other types are built concurrently
+            synchronized (this.locks[index])
+            {
+                values = this.highways.get(index);
+                if (values == null)
+                {
+                    values = this.buildHighways(type);
+                    this.highways.set(index, values);
+                }
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,152 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * A thread-safe cache of values derived from an {@link Atlas}, like spatial orderings or indices,
+ * so they are computed once per {@link Atlas} and shared by all the checks running on it.
+ * <p>
+ * Atlases are compared by identity and weakly referenced. As cached values usually reference the
+ * {@link Atlas} they are derived from, which keeps it reachable, each cache is also bounded, and
+ * the values derived from an {@link Atlas} should be released with {@link #releaseAll(Atlas)} once
+ * all checks are done with it. Concurrent requests for the same {@link Atlas} compute the value
+ * only once.
+ * <p>
+ * Values that depend on the configuration of a check are kept in the run state of the check, in a
+ * cache of a single {@link Atlas}, since a check instance runs on one {@link Atlas} at a time.
+ * <p>
+ * A value is computed from the entities of the {@link Atlas} when it is first requested, and a
+ * dynamic {@link Atlas} can load more entities afterwards. Values that answer per entity tell
+ * which entities they cover, usually with a {@code covers} method, and the checks search the
+ * entities they do not cover the way they did before the value existed.
+ *
+ * @param <V>
+ *            the type of the cached values
+ * @author lucylu
+ */
+public final class AtlasCache<V>
+{
+    public static final long DEFAULT_MAXIMUM_ATLASES = 16;
+
+    // All the caches, to release the values of an atlas at once
+    private static final Set<AtlasCache<?>> CACHES = Collections
+            .synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final Cache<Atlas, V> cache;
+    private final String name;
+
+    /**
+     * Releases the values derived from an {@link Atlas} from all the caches
+     *
+     * @param atlas
+     *            the {@link Atlas} that is not used anymore
+     */
+    public static void releaseAll(final Atlas atlas)
+    {
+        synchronized (CACHES)
+        {
+            CACHES.forEach(cache -> cache.release(atlas));
+        }
+    }
+
+    /**
+     * @param name
+     *            the name of the cached values, used in error messages
+     */
+    public AtlasCache(final String name)
+    {
+        this(name, DEFAULT_MAXIMUM_ATLASES);
+    }
+
+    /**
+     * @param name
+     *            the name of the cached values, used in error messages
+     * @param maximumAtlases
+     *            the maximum number of {@link Atlas}es to keep values for
+     */
+    public AtlasCache(final String name, final long maximumAtlases)
+    {
+        this(name, maximumAtlases, value ->
+        {
+        });
+    }
+
+    /**
+     * @param name
+     *            the name of the cached values, used in error messages
+     * @param maximumAtlases
+     *            the maximum number of {@link Atlas}es to keep values for
+     * @param releaser
+     *            called with each value when it is released, evicted or its {@link Atlas} is
+     *            garbage collected
+     */
+    public AtlasCache(final String name, final long maximumAtlases, final Consumer<V> releaser)
+    {
+        this.name = name;
+        final RemovalListener<Atlas, V> listener = notification -> releaser
+                .accept(notification.getValue());
+        this.cache = CacheBuilder.newBuilder().weakKeys().maximumSize(maximumAtlases)
+                .removalListener(listener).build();
+        CACHES.add(this);
+    }
+
+    /**
+     * Gets the value derived from an {@link Atlas}, computing it if needed
+     *
+     * @param atlas
+     *            the {@link Atlas}
+     * @param loader
+     *            computes the value for an {@link Atlas}
+     * @return the cached value
+     */
+    public V get(final Atlas atlas, final Function<Atlas, V> loader)
+    {
+        // Checks look values up for each object, avoid allocating a loader when already cached
+        final V value = this.cache.getIfPresent(atlas);
+        if (value != null)
+        {
+            return value;
+        }
+        try
+        {
+            return this.cache.get(atlas, () -> loader.apply(atlas));
+        }
+        catch (final ExecutionException | UncheckedExecutionException exception)
+        {
+            throw new CoreException("Unable to compute {} for atlas {}", exception.getCause(),
+                    this.name, atlas.getName());
+        }
+    }
+
+    /**
+     * Releases the value derived from an {@link Atlas}
+     *
+     * @param atlas
+     *            the {@link Atlas} that is not used anymore
+     */
+    public void release(final Atlas atlas)
+    {
+        this.cache.invalidate(atlas);
+    }
+
+    /**
+     * @return the number of {@link Atlas}es with a cached value
+     */
+    public long size()
+    {
+        return this.cache.size();
+    }
+}
@@ -0,0 +1,135 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+
+/**
+ * Inclusion bitsets of the {@link AtlasEntity}s of an {@link Atlas} for entity filters, like the
+ * global polygon filter or the tag filters of the checks. Each filter is identified by a key
+ * built from its definition, and is evaluated once per entity, when the first entity of a type is
+ * tested; all the checks with an identical filter definition then share its bitset.
+ * <p>
+ * Entities are positioned in the bitsets by their {@link EntityPositions}. Entities without a
+ * position, like the entities a dynamic {@link Atlas} loads later, are tested with the filter
+ * directly.
+ *
+ * @author lucylu
+ */
+public final class AtlasInclusionIndex
+{
+    /**
+     * The result of a filter for the entities of a type
+     */
+    private static final class Inclusion
+    {
+        private final BitSet included;
+        // Entities the filter failed on, tested directly so the failure is reported for them
+        private final BitSet failed;
+
+        Inclusion(final int size)
+        {
+            this.included = new BitSet(size);
+            this.failed = new BitSet();
+        }
+    }
+
+    private static final AtlasCache<AtlasInclusionIndex> INDICES = new AtlasCache<>(
+            "entity filter inclusion bitsets");
+    private static final int ITEM_TYPES = ItemType.values().length;
+
+    private final EntityPositions positions;
+    // Results of each filter, by filter key and entity type
+    private final Map<String, AtomicReferenceArray<Inclusion>> inclusions;
+
+    /**
+     * Get the shared inclusion index of an {@link Atlas}. It should be released with
+     * {@link AtlasCache#releaseAll(Atlas)} once the checks are done with the {@link Atlas}.
+     *
+     * @param atlas
+     *            the {@link Atlas}
+     * @return the inclusion index of the {@link Atlas}
+     */
+    public static AtlasInclusionIndex forAtlas(final Atlas atlas)
+    {
+        return INDICES.get(atlas, AtlasInclusionIndex::new);
+    }
+
+    private AtlasInclusionIndex(final Atlas atlas)
+    {
+        this.positions = EntityPositions.forAtlas(atlas);
+        this.inclusions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Tests an entity of this index's {@link Atlas} with a filter, evaluating the filter for all
+     * the entities of the same type the first time
+     *
+     * @param entity
+     *            the {@link AtlasEntity} to test
+     * @param key
+     *            identifies the filter; filters with the same key must be identical
+     * @param filter
+     *            the filter
+     * @return {@code true} if the entity passes the filter
+     */
+    public boolean test(final AtlasEntity entity, final String key,
+            final Predicate<? super AtlasEntity> filter)
+    {
+        final int position = this.positions.position(entity);
+        if (position == EntityPositions.NO_POSITION)
+        {
+            return filter.test(entity);
+        }
+        final Inclusion inclusion = this.inclusion(entity.getType(), key, filter);
+        if (inclusion.failed.get(position))
+        {
+            return filter.test(entity);
+        }
+        return inclusion.included.get(position);
+    }
+
+    private Inclusion inclusion(final ItemType type, final String key,
+            final Predicate<? super AtlasEntity> filter)
+    {
+        final AtomicReferenceArray<Inclusion> typeInclusions = this.inclusions.computeIfAbsent(key,
+                value -> new AtomicReferenceArray<>(ITEM_TYPES));
+        Inclusion inclusion = typeInclusions.get(type.ordinal());
+        if (inclusion == null)
+        {
+            // Evaluating the filter can be expensive, so only one thread does it
+            synchronized (typeInclusions)
+            {
+                inclusion = typeInclusions.get(type.ordinal());
+                if (inclusion == null)
+                {
+                    inclusion = new Inclusion(this.positions.size(type));
+                    for (final AtlasEntity entity : this.positions.entities(type))
+                    {
+                        final int position = this.positions.position(entity);
+                        if (position == EntityPositions.NO_POSITION)
+                        {
+                            continue;
+                        }
+                        try
+                        {
+                            inclusion.included.set(position, filter.test(entity));
+                        }
+                        catch (final RuntimeException exception)
+                        {
+                            inclusion.failed.set(position);
+                        }
+                    }
+                    typeInclusions.set(type.ordinal(), inclusion);
+                }
+            }
+        }
+        return inclusion;
+    }
+}
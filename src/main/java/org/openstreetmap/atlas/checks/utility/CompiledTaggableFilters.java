@@ -0,0 +1,241 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.openstreetmap.atlas.tags.Taggable;
+import org.openstreetmap.atlas.tags.filters.TaggableFilter;
+
+/**
+ * A list of {@link TaggableFilter}s compiled into a table indexed by the tag keys they mention, so
+ * that testing an object only evaluates the filters mentioning one of its keys.
+ * <p>
+ * A filter only looks at the tags with the keys it mentions, so on an object with none of these
+ * keys it gives the same result as on an untagged object. That result is computed once when
+ * compiling, and the other filters are evaluated as usual, so the results are identical to the ones
+ * of the interpreted filters. Filters with the same definition are evaluated once per object.
+ * Filters whose keys can not be read from their definition are evaluated for every object.
+ *
+ * @author lucylu
+ */
+public final class CompiledTaggableFilters implements Predicate<Taggable>, Serializable
+{
+    private static final long serialVersionUID = 2843362702926330574L;
+    private static final String KEY_VALUE_SEPARATOR = "->";
+    private static final Pattern OPERATORS = Pattern.compile("[|&]+");
+    private static final Taggable UNTAGGED = Taggable.with(Collections.emptyMap());
+
+    private final List<TaggableFilter> filters;
+    // The distinct filter each filter evaluates to
+    private final int[] distinct;
+    private final List<TaggableFilter> distinctFilters;
+    private final Map<String, int[]> distinctFiltersByKey;
+    private final BitSet untaggedMatches;
+    private final BitSet alwaysEvaluated;
+
+    /**
+     * @param filters
+     *            the {@link TaggableFilter}s to compile
+     * @return the compiled filters
+     */
+    public static CompiledTaggableFilters compile(final List<TaggableFilter> filters)
+    {
+        return new CompiledTaggableFilters(filters);
+    }
+
+    /**
+     * @param filter
+     *            the {@link TaggableFilter} to compile
+     * @return the compiled filter
+     */
+    public static CompiledTaggableFilters compile(final TaggableFilter filter)
+    {
+        return new CompiledTaggableFilters(Collections.singletonList(filter));
+    }
+
+    /**
+     * Reads the keys a {@link TaggableFilter} mentions from its definition
+     *
+     * @return the keys, or {@code null} if the definition can not be read
+     */
+    static Set<String> keys(final TaggableFilter filter)
+    {
+        final Set<String> keys = new HashSet<>();
+        for (final String tag : OPERATORS.split(filter.toString()))
+        {
+            if (tag.isEmpty())
+            {
+                continue;
+            }
+            final int separator = tag.indexOf(KEY_VALUE_SEPARATOR);
+            if (separator <= 0)
+            {
+                return null;
+            }
+            final String key = tag.substring(0, separator);
+            if (!key.equals(key.trim()))
+            {
+                return null;
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    private CompiledTaggableFilters(final List<TaggableFilter> filters)
+    {
+        this.filters = new ArrayList<>(filters);
+        this.distinct = new int[filters.size()];
+        this.distinctFilters = new ArrayList<>();
+        this.untaggedMatches = new BitSet();
+        this.alwaysEvaluated = new BitSet();
+        final Map<String, Integer> distinctByDefinition = new HashMap<>();
+        final Map<String, List<Integer>> distinctByKey = new HashMap<>();
+        for (int index = 0; index < filters.size(); index++)
+        {
+            final TaggableFilter filter = filters.get(index);
+            final Integer existing = distinctByDefinition.get(filter.toString());
+            if (existing != null)
+            {
+                this.distinct[index] = existing;
+                continue;
+            }
+            final int distinctIndex = this.distinctFilters.size();
+            distinctByDefinition.put(filter.toString(), distinctIndex);
+            this.distinct[index] = distinctIndex;
+            this.distinctFilters.add(filter);
+            this.untaggedMatches.set(distinctIndex, filter.test(UNTAGGED));
+            final Set<String> keys = keys(filter);
+            if (keys == null)
+            {
+                this.alwaysEvaluated.set(distinctIndex);
+            }
+            else
+            {
+                keys.forEach(key -> distinctByKey.computeIfAbsent(key, value -> new ArrayList<>())
+                        .add(distinctIndex));
+            }
+        }
+        this.distinctFiltersByKey = new HashMap<>();
+        distinctByKey.forEach((key, indices) -> this.distinctFiltersByKey.put(key,
+                indices.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /**
+     * @param index
+     *            the index of a filter in the compiled list
+     * @return the filter
+     */
+    public TaggableFilter get(final int index)
+    {
+        return this.filters.get(index);
+    }
+
+    /**
+     * @param index
+     *            the index of a filter in the compiled list
+     * @return {@code true} if the filter is indexed by the keys it mentions, {@code false} if it
+     *         is evaluated for every object
+     */
+    public boolean isIndexed(final int index)
+    {
+        return !this.alwaysEvaluated.get(this.distinct[index]);
+    }
+
+    /**
+     * Tests an object with all the filters
+     *
+     * @param taggable
+     *            the object to test
+     * @return the indices of the filters matching the object, in the compiled list
+     */
+    public BitSet matches(final Taggable taggable)
+    {
+        final BitSet evaluated = this.evaluated(taggable);
+        final BitSet distinctMatches = (BitSet) this.untaggedMatches.clone();
+        distinctMatches.andNot(evaluated);
+        for (int index = evaluated.nextSetBit(0); index >= 0; index = evaluated
+                .nextSetBit(index + 1))
+        {
+            if (this.distinctFilters.get(index).test(taggable))
+            {
+                distinctMatches.set(index);
+            }
+        }
+        final BitSet matches = new BitSet(this.distinct.length);
+        for (int index = 0; index < this.distinct.length; index++)
+        {
+            if (distinctMatches.get(this.distinct[index]))
+            {
+                matches.set(index);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return the number of compiled filters
+     */
+    public int size()
+    {
+        return this.filters.size();
+    }
+
+    /**
+     * @return {@code true} if any of the filters matches the object
+     */
+    @Override
+    public boolean test(final Taggable taggable)
+    {
+        final BitSet evaluated = this.evaluated(taggable);
+        // Filters matching untagged objects match the objects they are not evaluated for
+        if (this.untaggedMatches.stream().anyMatch(index -> !evaluated.get(index)))
+        {
+            return true;
+        }
+        for (int index = evaluated.nextSetBit(0); index >= 0; index = evaluated
+                .nextSetBit(index + 1))
+        {
+            if (this.distinctFilters.get(index).test(taggable))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.filters.toString();
+    }
+
+    /**
+     * @return the distinct filters mentioning a key of the object
+     */
+    private BitSet evaluated(final Taggable taggable)
+    {
+        final BitSet evaluated = (BitSet) this.alwaysEvaluated.clone();
+        for (final String key : taggable.getTags().keySet())
+        {
+            final int[] indices = this.distinctFiltersByKey.get(key);
+            if (indices != null)
+            {
+                for (final int index : indices)
+                {
+                    evaluated.set(index);
+                }
+            }
+        }
+        return evaluated;
+    }
+}
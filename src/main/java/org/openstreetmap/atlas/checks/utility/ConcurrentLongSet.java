@@ -0,0 +1,207 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.Arrays;
+
+/**
+ * A thread-safe set of primitive {@code long}s, using about 12 to 24 bytes per value instead of
+ * the 60 to 90 bytes of a concurrent set of boxed {@link Long}s, and allocating nothing when
+ * values are added or looked up (apart from growing its tables).
+ * <p>
+ * Values are spread over lock-striped segments, each one an open addressing hash table with linear
+ * probing, so threads adding or looking up values of different segments don't contend.
+ *
+ * @author lucylu
+ */
+public final class ConcurrentLongSet
+{
+    /**
+     * An open addressing hash table of longs, guarded by its own monitor
+     */
+    private static final class Segment
+    {
+        private long[] table = new long[INITIAL_SEGMENT_CAPACITY];
+        private int size = 0;
+        // The empty slot marker can't be stored in the table
+        private boolean containsEmpty = false;
+
+        synchronized boolean add(final long value, final int hash)
+        {
+            if (value == EMPTY)
+            {
+                final boolean added = !this.containsEmpty;
+                this.containsEmpty = true;
+                return added;
+            }
+            final int slot = this.slot(value, hash);
+            if (this.table[slot] == value)
+            {
+                return false;
+            }
+            this.table[slot] = value;
+            this.size++;
+            if (this.size > this.table.length * MAXIMUM_LOAD_FACTOR)
+            {
+                this.grow();
+            }
+            return true;
+        }
+
+        synchronized void clear()
+        {
+            this.table = new long[INITIAL_SEGMENT_CAPACITY];
+            this.size = 0;
+            this.containsEmpty = false;
+        }
+
+        synchronized boolean contains(final long value, final int hash)
+        {
+            if (value == EMPTY)
+            {
+                return this.containsEmpty;
+            }
+            return this.table[this.slot(value, hash)] == value;
+        }
+
+        synchronized long size()
+        {
+            return this.size + (this.containsEmpty ? 1 : 0);
+        }
+
+        private void grow()
+        {
+            final long[] previous = this.table;
+            this.table = new long[previous.length * 2];
+            for (final long value : previous)
+            {
+                if (value != EMPTY)
+                {
+                    this.table[this.slot(value, (int) mix(value))] = value;
+                }
+            }
+        }
+
+        /**
+         * @return the slot holding the value, or the empty slot where it should be added
+         */
+        private int slot(final long value, final int hash)
+        {
+            final int mask = this.table.length - 1;
+            int slot = hash & mask;
+            while (this.table[slot] != EMPTY && this.table[slot] != value)
+            {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+
+    private static final long EMPTY = 0L;
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+    private static final double MAXIMUM_LOAD_FACTOR = 0.6;
+    private static final int DEFAULT_SEGMENTS = 64;
+    private static final int SEGMENT_SHIFT = 32;
+    private static final int MIX_SHIFT = 33;
+    private static final long MIX_MULTIPLIER = 0xff51afd7ed558ccdL;
+    private static final long MIX_SECOND_MULTIPLIER = 0xc4ceb9fe1a85ec53L;
+
+    private final Segment[] segments;
+
+    /**
+     * Spreads the bits of a value, so that sequential identifiers are scattered over segments and
+     * slots (MurmurHash3 finalizer)
+     */
+    private static long mix(final long value)
+    {
+        long hash = value;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_SECOND_MULTIPLIER;
+        hash ^= hash >>> MIX_SHIFT;
+        return hash;
+    }
+
+    public ConcurrentLongSet()
+    {
+        this(DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * @param concurrency
+     *            the expected number of threads updating the set concurrently, rounded up to a
+     *            power of two
+     */
+    public ConcurrentLongSet(final int concurrency)
+    {
+        if (concurrency <= 0)
+        {
+            throw new IllegalArgumentException("Concurrency has to be positive");
+        }
+        final int segmentCount = Integer.highestOneBit(concurrency) == concurrency ? concurrency
+                : Integer.highestOneBit(concurrency) << 1;
+        this.segments = new Segment[segmentCount];
+        Arrays.setAll(this.segments, index -> new Segment());
+    }
+
+    /**
+     * Adds a value
+     *
+     * @param value
+     *            the value to add
+     * @return {@code true} if the value was not already in the set
+     */
+    public boolean add(final long value)
+    {
+        final long hash = mix(value);
+        return this.segment(hash).add(value, (int) hash);
+    }
+
+    /**
+     * Removes all the values
+     */
+    public void clear()
+    {
+        for (final Segment segment : this.segments)
+        {
+            segment.clear();
+        }
+    }
+
+    /**
+     * @param value
+     *            the value to look up
+     * @return {@code true} if the value is in the set
+     */
+    public boolean contains(final long value)
+    {
+        final long hash = mix(value);
+        return this.segment(hash).contains(value, (int) hash);
+    }
+
+    /**
+     * @return {@code true} if the set has no values
+     */
+    public boolean isEmpty()
+    {
+        return this.size() == 0;
+    }
+
+    /**
+     * @return the number of values in the set
+     */
+    public long size()
+    {
+        long size = 0;
+        for (final Segment segment : this.segments)
+        {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segment(final long hash)
+    {
+        // The slots use the low half of the hash, the segments use the high half
+        return this.segments[(int) (hash >>> SEGMENT_SHIFT) & (this.segments.length - 1)];
+    }
+}
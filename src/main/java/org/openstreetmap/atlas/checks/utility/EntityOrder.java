@@ -0,0 +1,179 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongBiFunction;
+
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.Rectangle;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+
+/**
+ * Order in which the {@link AtlasEntity}s of an {@link Atlas} are visited by the checks. Visiting
+ * entities in a spatially coherent order, along a Hilbert or Z-order curve of the centre of their
+ * bounds, makes consecutive spatial queries of a check hit neighbouring parts of the spatial
+ * indices, which are then more likely to be in the CPU caches.
+ * <p>
+ * Spatial orders are computed once per {@link Atlas} and shared by all the checks; they should be
+ * released with {@link AtlasCache#releaseAll(Atlas)} once the checks are done with the
+ * {@link Atlas}.
+ *
+ * @author lucylu
+ */
+public enum EntityOrder
+{
+    /**
+     * The order of the {@link Atlas} indices
+     */
+    INDEX(null),
+    /**
+     * Hilbert curve order, which keeps consecutive entities close to each other
+     */
+    HILBERT(EntityOrder::hilbertIndex),
+    /**
+     * Z-order (Morton) curve order, cheaper to compute but with larger jumps than Hilbert
+     */
+    Z_ORDER(EntityOrder::zOrderIndex);
+
+    // Each coordinate is quantized on 16 bits, so curve indices fit in 32 bits
+    private static final int CURVE_BITS = 16;
+    private static final int CURVE_SIZE = 1 << CURVE_BITS;
+    private static final int HILBERT_QUADRANT_FACTOR = 3;
+    // Entities without bounds are visited last
+    private static final long NO_BOUNDS_INDEX = Long.MAX_VALUE;
+
+    private final ToLongBiFunction<Integer, Integer> curve;
+    private final AtlasCache<AtlasEntity[]> orderedEntities;
+
+    /**
+     * Computes the index of a cell on a Hilbert curve
+     *
+     * @param column
+     *            the cell column, in [0, 2^16)
+     * @param row
+     *            the cell row, in [0, 2^16)
+     * @return the index of the cell along the curve
+     */
+    static long hilbertIndex(final int column, final int row)
+    {
+        int xValue = column;
+        int yValue = row;
+        long index = 0;
+        for (int size = CURVE_SIZE / 2; size > 0; size /= 2)
+        {
+            final int rotateX = (xValue & size) > 0 ? 1 : 0;
+            final int rotateY = (yValue & size) > 0 ? 1 : 0;
+            index += (long) size * size * ((HILBERT_QUADRANT_FACTOR * rotateX) ^ rotateY);
+            // Rotate the quadrant so the curve stays continuous
+            if (rotateY == 0)
+            {
+                if (rotateX == 1)
+                {
+                    xValue = CURVE_SIZE - 1 - xValue;
+                    yValue = CURVE_SIZE - 1 - yValue;
+                }
+                final int swap = xValue;
+                xValue = yValue;
+                yValue = swap;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Computes the index of a cell on a Z-order curve, interleaving the bits of the column and row
+     *
+     * @param column
+     *            the cell column, in [0, 2^16)
+     * @param row
+     *            the cell row, in [0, 2^16)
+     * @return the index of the cell along the curve
+     */
+    static long zOrderIndex(final int column, final int row)
+    {
+        long index = 0;
+        for (int bit = 0; bit < CURVE_BITS; bit++)
+        {
+            index |= (long) ((column >> bit) & 1) << (2 * bit);
+            index |= (long) ((row >> bit) & 1) << (2 * bit + 1);
+        }
+        return index;
+    }
+
+    private static int cell(final double value, final double minimum, final double extent)
+    {
+        if (extent <= 0)
+        {
+            return 0;
+        }
+        final int cell = (int) ((value - minimum) / extent * (CURVE_SIZE - 1));
+        return Math.max(0, Math.min(CURVE_SIZE - 1, cell));
+    }
+
+    EntityOrder(final ToLongBiFunction<Integer, Integer> curve)
+    {
+        this.curve = curve;
+        this.orderedEntities = curve == null ? null
+                : new AtlasCache<>(this.name() + " entity order");
+    }
+
+    /**
+     * Get the {@link AtlasEntity}s of an {@link Atlas} in this order
+     *
+     * @param atlas
+     *            the {@link Atlas}
+     * @return the {@link AtlasEntity}s
+     */
+    public Iterable<AtlasEntity> entities(final Atlas atlas)
+    {
+        if (this.curve == null)
+        {
+            return atlas.entities();
+        }
+        return Arrays.asList(this.orderedEntities.get(atlas, this::order));
+    }
+
+    private long curveIndex(final AtlasEntity entity, final Rectangle atlasBounds)
+    {
+        final Rectangle bounds = entity.bounds();
+        if (bounds == null)
+        {
+            return NO_BOUNDS_INDEX;
+        }
+        final Location center = bounds.center();
+        final Location lowerLeft = atlasBounds.lowerLeft();
+        final Location upperRight = atlasBounds.upperRight();
+        final double minimumLongitude = lowerLeft.getLongitude().asDegrees();
+        final double minimumLatitude = lowerLeft.getLatitude().asDegrees();
+        return this.curve.applyAsLong(
+                cell(center.getLongitude().asDegrees(), minimumLongitude,
+                        upperRight.getLongitude().asDegrees() - minimumLongitude),
+                cell(center.getLatitude().asDegrees(), minimumLatitude,
+                        upperRight.getLatitude().asDegrees() - minimumLatitude));
+    }
+
+    private AtlasEntity[] order(final Atlas atlas)
+    {
+        final Rectangle atlasBounds = atlas.bounds();
+        final List<AtlasEntity> entities = new ArrayList<>();
+        atlas.entities().forEach(entities::add);
+        final long[] indices = new long[entities.size()];
+        final Integer[] positions = new Integer[entities.size()];
+        for (int position = 0; position < positions.length; position++)
+        {
+            indices[position] = this.curveIndex(entities.get(position), atlasBounds);
+            positions[position] = position;
+        }
+        // The sort is stable, so entities in the same cell keep their index order
+        Arrays.sort(positions, Comparator.comparingLong(position -> indices[position]));
+        final AtlasEntity[] ordered = new AtlasEntity[positions.length];
+        for (int position = 0; position < positions.length; position++)
+        {
+            ordered[position] = entities.get(positions[position]);
+        }
+        return ordered;
+    }
+}
@@ -0,0 +1,141 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.StreamSupport;
+
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+
+/**
+ * Dense positions of the {@link AtlasEntity}s of an {@link Atlas}, per entity type, so that values
+ * derived from the entities can be kept in primitive arrays or bitsets. An entity's position is
+ * the rank of its identifier among the entities of the same type, which does not depend on how
+ * the {@link Atlas} stores its entities, so positions work for any {@link Atlas} implementation.
+ * <p>
+ * The positions of a type are computed the first time they are needed. Entities added to the
+ * {@link Atlas} later, like the entities a
+ * {@link org.openstreetmap.atlas.geography.atlas.dynamic.DynamicAtlas} loads when it expands, have
+ * no position; values derived from them have to be computed directly.
+ *
+ * @author lucylu
+ */
+public final class EntityPositions
+{
+    /**
+     * The position of entities that were not in the {@link Atlas} when the positions were computed
+     */
+    public static final int NO_POSITION = -1;
+
+    private static final AtlasCache<EntityPositions> POSITIONS = new AtlasCache<>(
+            "entity positions");
+    private static final int ITEM_TYPES = ItemType.values().length;
+
+    private final Atlas atlas;
+    // Sorted identifiers of the entities of each type
+    private final AtomicReferenceArray<long[]> identifiers = new AtomicReferenceArray<>(
+            ITEM_TYPES);
+
+    /**
+     * Get the shared entity positions of an {@link Atlas}. They should be released with
+     * {@link AtlasCache#releaseAll(Atlas)} once the checks are done with the {@link Atlas}.
+     *
+     * @param atlas
+     *            the {@link Atlas}
+     * @return the entity positions of the {@link Atlas}
+     */
+    public static EntityPositions forAtlas(final Atlas atlas)
+    {
+        return POSITIONS.get(atlas, EntityPositions::new);
+    }
+
+    private EntityPositions(final Atlas atlas)
+    {
+        this.atlas = atlas;
+    }
+
+    /**
+     * Get the entities of a type
+     *
+     * @param type
+     *            the entity type
+     * @return the entities of the {@link Atlas} with this type
+     */
+    public Iterable<? extends AtlasEntity> entities(final ItemType type)
+    {
+        switch (type)
+        {
+            case NODE:
+                return this.atlas.nodes();
+            case EDGE:
+                return this.atlas.edges();
+            case AREA:
+                return this.atlas.areas();
+            case LINE:
+                return this.atlas.lines();
+            case POINT:
+                return this.atlas.points();
+            case RELATION:
+                return this.atlas.relations();
+            default:
+                return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Get the identifier of the entity at a position
+     *
+     * @param type
+     *            the entity type
+     * @param position
+     *            a position of this type, see {@link #size(ItemType)}
+     * @return the identifier of the entity at this position
+     */
+    public long identifier(final ItemType type, final int position)
+    {
+        return this.identifiers(type)[position];
+    }
+
+    /**
+     * Get the position of an entity among the entities of its type
+     *
+     * @param entity
+     *            the {@link AtlasEntity}
+     * @return its position, or {@link #NO_POSITION} if the entity was not in the {@link Atlas}
+     *         when the positions were computed
+     */
+    public int position(final AtlasEntity entity)
+    {
+        final int position = Arrays.binarySearch(this.identifiers(entity.getType()),
+                entity.getIdentifier());
+        return position < 0 ? NO_POSITION : position;
+    }
+
+    /**
+     * @param type
+     *            the entity type
+     * @return the number of positions of this type
+     */
+    public int size(final ItemType type)
+    {
+        return this.identifiers(type).length;
+    }
+
+    private long[] identifiers(final ItemType type)
+    {
+        long[] typeIdentifiers = this.identifiers.get(type.ordinal());
+        if (typeIdentifiers == null)
+        {
+            typeIdentifiers = StreamSupport.stream(this.entities(type).spliterator(), false)
+                    .mapToLong(AtlasEntity::getIdentifier).sorted().toArray();
+            // Concurrent computations give identical arrays, keep the first one
+            if (!this.identifiers.compareAndSet(type.ordinal(), null, typeIdentifiers))
+            {
+                typeIdentifiers = this.identifiers.get(type.ordinal());
+            }
+        }
+        return typeIdentifiers;
+    }
+}
@@ -0,0 +1,377 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.MultiPolygon;
+import org.openstreetmap.atlas.geography.Polygon;
+import org.openstreetmap.atlas.geography.Surface;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.Area;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.geography.atlas.items.LineItem;
+import org.openstreetmap.atlas.geography.atlas.items.complex.RelationOrAreaToMultiPolygonConverter;
+import org.openstreetmap.atlas.geography.converters.jts.JtsPolygonConverter;
+import org.openstreetmap.atlas.utilities.maps.MultiMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * A bounded, thread-safe cache of the geometries converted from {@link AtlasEntity}s, shared by
+ * all the checks running on an {@link Atlas}, so that a large water relation, for example, is
+ * converted to a {@link MultiPolygon} once rather than once per check touching it.
+ * <p>
+ * Conversions are keyed by their {@link Atlas} and the type and identifier of the entity and the
+ * conversion, as atlases create a new entity object on each access. The conversions of all the
+ * atlases share a single bound of {@link #MAXIMUM_BYTES} of estimated geometry sizes, set with the
+ * {@value #MAXIMUM_BYTES_PROPERTY} system property and a sixteenth of the maximum heap by default,
+ * and the least recently used conversions are evicted first. Failed conversions are not cached,
+ * they fail again with the same exception. The conversions of an {@link Atlas} are released, and
+ * their statistics logged, with {@link AtlasCache#releaseAll(Atlas)}.
+ * <p>
+ * {@link Polygon}s, {@link Surface}s and {@link PreparedPolyLine}s cannot be modified, so the
+ * cached ones are returned. The other geometries can be, so each caller gets its own copy: a JTS
+ * polygon is copied, and a {@link MultiPolygon} gets its own map of the shared outer and inner
+ * {@link Polygon}s.
+ *
+ * @author lucylu
+ */
+public final class GeometryCache
+{
+    /**
+     * The cached conversions
+     */
+    public enum Conversion
+    {
+        POLYGON,
+        MULTI_POLYGON,
+        JTS_POLYGON,
+        SURFACE,
+        PREPARED_POLYLINE
+    }
+
+    /**
+     * A snapshot of the statistics of a cache
+     */
+    public static final class Statistics
+    {
+        private final long hits;
+        private final long misses;
+        private final long retainedBytes;
+
+        Statistics(final long hits, final long misses, final long retainedBytes)
+        {
+            this.hits = hits;
+            this.misses = misses;
+            this.retainedBytes = retainedBytes;
+        }
+
+        public double getHitRate()
+        {
+            final long requests = this.hits + this.misses;
+            return requests == 0 ? 1.0 : (double) this.hits / requests;
+        }
+
+        public long getHits()
+        {
+            return this.hits;
+        }
+
+        public long getMisses()
+        {
+            return this.misses;
+        }
+
+        /**
+         * @return the estimated size of the cached geometries, in bytes
+         */
+        public long getRetainedBytes()
+        {
+            return this.retainedBytes;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%d hits, %d misses (%.1f%% hit rate), %d bytes retained",
+                    this.hits, this.misses, this.getHitRate() * PERCENT, this.retainedBytes);
+        }
+    }
+
+    /**
+     * Identifies the conversion of an entity
+     */
+    private static final class Key
+    {
+        // Identifies the geometry cache of the atlas of the entity
+        private final long cache;
+        private final Conversion conversion;
+        private final ItemType type;
+        private final long identifier;
+
+        Key(final long cache, final Conversion conversion, final AtlasEntity entity)
+        {
+            this.cache = cache;
+            this.conversion = conversion;
+            this.type = entity.getType();
+            this.identifier = entity.getIdentifier();
+        }
+
+        @Override
+        public boolean equals(final Object other)
+        {
+            if (this == other)
+            {
+                return true;
+            }
+            if (!(other instanceof Key))
+            {
+                return false;
+            }
+            final Key that = (Key) other;
+            return this.identifier == that.identifier && this.cache == that.cache
+                    && this.conversion == that.conversion && this.type == that.type;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return ((this.conversion.ordinal() * ItemType.values().length + this.type.ordinal())
+                    * HASH_MULTIPLIER + Long.hashCode(this.cache)) * HASH_MULTIPLIER
+                    + Long.hashCode(this.identifier);
+        }
+    }
+
+    /**
+     * A cached geometry, with its estimated size, counted in the retained bytes of its atlas
+     */
+    private static final class Value
+    {
+        private final Object geometry;
+        private final int bytes;
+        private final AtomicLong retainedBytes;
+
+        Value(final Object geometry, final AtomicLong retainedBytes)
+        {
+            this.geometry = geometry;
+            this.bytes = estimateBytes(geometry);
+            this.retainedBytes = retainedBytes;
+            retainedBytes.addAndGet(this.bytes);
+        }
+
+        void release()
+        {
+            this.retainedBytes.addAndGet(-this.bytes);
+        }
+    }
+
+    /**
+     * The system property setting {@link #MAXIMUM_BYTES}, in bytes
+     */
+    public static final String MAXIMUM_BYTES_PROPERTY = "atlas.checks.geometryCache.maximumBytes";
+
+    /**
+     * The maximum estimated size of the geometries cached for all the atlases
+     */
+    public static final long MAXIMUM_BYTES = Long.getLong(MAXIMUM_BYTES_PROPERTY,
+            Runtime.getRuntime().maxMemory() / 16);
+
+    private static final Logger logger = LoggerFactory.getLogger(GeometryCache.class);
+    private static final AtlasCache<GeometryCache> CACHES = new AtlasCache<>(
+            "geometry conversions", AtlasCache.DEFAULT_MAXIMUM_ATLASES, GeometryCache::release);
+    private static final RelationOrAreaToMultiPolygonConverter MULTI_POLYGON_CONVERTER = new RelationOrAreaToMultiPolygonConverter();
+    private static final JtsPolygonConverter JTS_POLYGON_CONVERTER = new JtsPolygonConverter();
+    private static final double PERCENT = 100.0;
+    private static final int HASH_MULTIPLIER = 31;
+    // Rough retained sizes: a Location and its Latitude and Longitude, a JTS Coordinate, and the
+    // fixed overhead of a geometry; a Segment, its Envelope and its share of an R-tree node
+    private static final int LOCATION_BYTES = 80;
+    private static final int COORDINATE_BYTES = 48;
+    private static final int INDEXED_SEGMENT_BYTES = 160;
+    private static final int GEOMETRY_BYTES = 64;
+    private static final Cache<Key, Value> CONVERSIONS = CacheBuilder.newBuilder()
+            .maximumWeight(MAXIMUM_BYTES).weigher((Weigher<Key, Value>) (key, value) -> value.bytes)
+            .removalListener((RemovalListener<Key, Value>) notification -> notification.getValue()
+                    .release())
+            .build();
+    private static final AtomicLong NEXT_IDENTIFIER = new AtomicLong();
+
+    private final String atlasName;
+    private final long identifier = NEXT_IDENTIFIER.incrementAndGet();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong retainedBytes = new AtomicLong();
+
+    /**
+     * @param area
+     *            the {@link Area}
+     * @return a copy of the JTS polygon of the {@link Area}
+     */
+    public static org.locationtech.jts.geom.Polygon jtsPolygon(final Area area)
+    {
+        final org.locationtech.jts.geom.Polygon polygon = get(area, Conversion.JTS_POLYGON,
+                () -> JTS_POLYGON_CONVERTER.convert(polygon(area)));
+        return (org.locationtech.jts.geom.Polygon) polygon.copy();
+    }
+
+    /**
+     * @param relationOrArea
+     *            a multipolygon {@link org.openstreetmap.atlas.geography.atlas.items.Relation} or
+     *            an {@link Area}
+     * @return a copy of the {@link MultiPolygon} of the entity, as converted by
+     *         {@link RelationOrAreaToMultiPolygonConverter}
+     */
+    public static MultiPolygon multiPolygon(final AtlasEntity relationOrArea)
+    {
+        final MultiPolygon multiPolygon = get(relationOrArea, Conversion.MULTI_POLYGON,
+                () -> MULTI_POLYGON_CONVERTER.convert(relationOrArea));
+        final MultiMap<Polygon, Polygon> outerToInners = new MultiMap<>();
+        multiPolygon.getOuterToInners()
+                .forEach((outer, inners) -> outerToInners.put(outer, new ArrayList<>(inners)));
+        return new MultiPolygon(outerToInners);
+    }
+
+    /**
+     * @param area
+     *            the {@link Area}
+     * @return the {@link Polygon} of the {@link Area}
+     */
+    public static Polygon polygon(final Area area)
+    {
+        return get(area, Conversion.POLYGON, area::asPolygon);
+    }
+
+    /**
+     * @param areaOrLineItem
+     *            an {@link Area} or a {@link LineItem}
+     * @return the {@link PreparedPolyLine} of the {@link Polygon} of the {@link Area}, or of the
+     *         {@link org.openstreetmap.atlas.geography.PolyLine} of the {@link LineItem}
+     */
+    public static PreparedPolyLine preparedPolyLine(final AtlasEntity areaOrLineItem)
+    {
+        return get(areaOrLineItem, Conversion.PREPARED_POLYLINE,
+                () -> new PreparedPolyLine(areaOrLineItem instanceof Area
+                        ? polygon((Area) areaOrLineItem)
+                        : ((LineItem) areaOrLineItem).asPolyLine()));
+    }
+
+    /**
+     * Get the statistics of the conversions cached for an {@link Atlas}
+     *
+     * @param atlas
+     *            the {@link Atlas}
+     * @return the statistics
+     */
+    public static Statistics statistics(final Atlas atlas)
+    {
+        return forAtlas(atlas).statistics();
+    }
+
+    /**
+     * @param area
+     *            the {@link Area}
+     * @return the {@link Surface} of the {@link Area}
+     */
+    public static Surface surface(final Area area)
+    {
+        return get(area, Conversion.SURFACE, () -> polygon(area).surface());
+    }
+
+    private static int estimateBytes(final Object geometry)
+    {
+        long bytes = GEOMETRY_BYTES;
+        if (geometry instanceof Polygon)
+        {
+            bytes += (long) ((Polygon) geometry).size() * LOCATION_BYTES;
+        }
+        else if (geometry instanceof MultiPolygon)
+        {
+            final MultiPolygon multiPolygon = (MultiPolygon) geometry;
+            for (final Map.Entry<Polygon, List<Polygon>> outerToInners : multiPolygon
+                    .getOuterToInners().entrySet())
+            {
+                bytes += GEOMETRY_BYTES + (long) outerToInners.getKey().size() * LOCATION_BYTES;
+                for (final Polygon inner : outerToInners.getValue())
+                {
+                    bytes += GEOMETRY_BYTES + (long) inner.size() * LOCATION_BYTES;
+                }
+            }
+        }
+        else if (geometry instanceof PreparedPolyLine)
+        {
+            final PreparedPolyLine prepared = (PreparedPolyLine) geometry;
+            bytes += (long) prepared.getPolyLine().size() * LOCATION_BYTES
+                    + (long) prepared.size() * INDEXED_SEGMENT_BYTES;
+        }
+        else if (geometry instanceof org.locationtech.jts.geom.Geometry)
+        {
+            bytes += (long) ((org.locationtech.jts.geom.Geometry) geometry).getNumPoints()
+                    * COORDINATE_BYTES;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static GeometryCache forAtlas(final Atlas atlas)
+    {
+        return CACHES.get(atlas, GeometryCache::new);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <G> G get(final AtlasEntity entity, final Conversion conversion,
+            final Supplier<G> converter)
+    {
+        final GeometryCache geometryCache = forAtlas(entity.getAtlas());
+        final Key key = new Key(geometryCache.identifier, conversion, entity);
+        final Value cached = CONVERSIONS.getIfPresent(key);
+        if (cached != null)
+        {
+            geometryCache.hits.incrementAndGet();
+            return (G) cached.geometry;
+        }
+        geometryCache.misses.incrementAndGet();
+        try
+        {
+            return (G) CONVERSIONS.get(key,
+                    () -> new Value(converter.get(), geometryCache.retainedBytes)).geometry;
+        }
+        catch (final ExecutionException | UncheckedExecutionException exception)
+        {
+            // Report the conversion failure as if the conversion was not cached
+            if (exception.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw new CoreException("Unable to convert {} {} to {}", exception.getCause(),
+                    entity.getType(), entity.getIdentifier(), conversion);
+        }
+    }
+
+    private static void release(final GeometryCache geometryCache)
+    {
+        logger.info("Geometry cache of atlas {}: {}", geometryCache.atlasName,
+                geometryCache.statistics());
+        CONVERSIONS.asMap().keySet().removeIf(key -> key.cache == geometryCache.identifier);
+    }
+
+    private GeometryCache(final Atlas atlas)
+    {
+        this.atlasName = atlas.getName();
+    }
+
+    private Statistics statistics()
+    {
+        return new Statistics(this.hits.get(), this.misses.get(), this.retainedBytes.get());
+    }
+}
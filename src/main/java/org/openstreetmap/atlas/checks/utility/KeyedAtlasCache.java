@@ -0,0 +1,92 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+
+/**
+ * A thread-safe cache of values derived from an {@link Atlas} and identified by a key, like the
+ * spatial indices of different subsets of the {@link Atlas}, so each value is computed once per
+ * {@link Atlas} and key, and shared by all the checks running on it.
+ * <p>
+ * A value is computed by the first caller, while callers needing the same value wait for it;
+ * values with different keys are computed concurrently. A value that fails to compute is not kept:
+ * the callers waiting for it fail, errors are rethrown to the computing caller, and the next caller
+ * computes it again. The values are released
+ * with the other values derived from the {@link Atlas} by {@link AtlasCache#releaseAll(Atlas)}.
+ *
+ * @param <V>
+ *            the type of the cached values
+ * @author lucylu
+ */
+public final class KeyedAtlasCache<V>
+{
+    private final AtlasCache<ConcurrentMap<String, CompletableFuture<V>>> values;
+    private final String name;
+
+    /**
+     * @param name
+     *            the name of the cached values, used in error messages
+     */
+    public KeyedAtlasCache(final String name)
+    {
+        this.name = name;
+        this.values = new AtlasCache<>(name);
+    }
+
+    /**
+     * Gets the value derived from an {@link Atlas} for a key, computing it if needed
+     *
+     * @param atlas
+     *            the {@link Atlas}
+     * @param key
+     *            names the value; loaders with the same key must compute the same value
+     * @param loader
+     *            computes the value for an {@link Atlas}
+     * @return the cached value
+     */
+    public V get(final Atlas atlas, final String key, final Function<Atlas, V> loader)
+    {
+        final ConcurrentMap<String, CompletableFuture<V>> atlasValues = this.values.get(atlas,
+                value -> new ConcurrentHashMap<>());
+        CompletableFuture<V> value = atlasValues.get(key);
+        if (value == null)
+        {
+            final CompletableFuture<V> newValue = new CompletableFuture<>();
+            value = atlasValues.putIfAbsent(key, newValue);
+            if (value == null)
+            {
+                // This caller computes the value, outside of the map so other keys are not blocked
+                value = newValue;
+                try
+                {
+                    newValue.complete(loader.apply(atlas));
+                }
+                catch (final Throwable exception)
+                {
+                    // Callers waiting for this value fail, later callers compute it again
+                    atlasValues.remove(key, newValue);
+                    newValue.completeExceptionally(exception);
+                    if (exception instanceof Error)
+                    {
+                        throw (Error) exception;
+                    }
+                }
+            }
+        }
+        try
+        {
+            return value.join();
+        }
+        catch (final CompletionException exception)
+        {
+            throw new CoreException("Unable to compute the {} {} of atlas {}",
+                    exception.getCause(), key, this.name, atlas.getName());
+        }
+    }
+}
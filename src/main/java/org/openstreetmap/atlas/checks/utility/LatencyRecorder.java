@@ -0,0 +1,87 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.Arrays;
+
+/**
+ * A thread-safe recorder for the latencies of the most recent calls, used to report percentiles
+ * (p50, p99, ...). Only the last {@code capacity} samples are kept.
+ *
+ * @author lucylu
+ */
+public class LatencyRecorder
+{
+    private static final double NANOSECONDS_PER_MILLISECOND = 1_000_000.0;
+    private static final double MAXIMUM_PERCENTILE = 100.0;
+    private static final double MEDIAN = 50.0;
+    private static final double P99 = 99.0;
+
+    private final long[] samples;
+    private long count = 0;
+
+    /**
+     * @param capacity
+     *            number of most recent samples used to compute percentiles
+     */
+    public LatencyRecorder(final int capacity)
+    {
+        if (capacity <= 0)
+        {
+            throw new IllegalArgumentException("Capacity has to be positive");
+        }
+        this.samples = new long[capacity];
+    }
+
+    /**
+     * @return the total number of samples recorded so far
+     */
+    public synchronized long count()
+    {
+        return this.count;
+    }
+
+    /**
+     * Computes a percentile of the most recent samples, using the nearest rank method.
+     *
+     * @param percentile
+     *            the percentile, in [0, 100]
+     * @return the latency at this percentile in milliseconds, or 0 if nothing was recorded
+     */
+    public double percentileMilliseconds(final double percentile)
+    {
+        if (percentile < 0 || percentile > MAXIMUM_PERCENTILE)
+        {
+            throw new IllegalArgumentException("Percentile has to be in [0, 100]");
+        }
+        final long[] sorted;
+        synchronized (this)
+        {
+            if (this.count == 0)
+            {
+                return 0;
+            }
+            sorted = Arrays.copyOf(this.samples, (int) Math.min(this.count, this.samples.length));
+        }
+        Arrays.sort(sorted);
+        final int rank = (int) Math.ceil(percentile / MAXIMUM_PERCENTILE * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / NANOSECONDS_PER_MILLISECOND;
+    }
+
+    /**
+     * Records a latency
+     *
+     * @param nanoseconds
+     *            the latency in nanoseconds
+     */
+    public synchronized void record(final long nanoseconds)
+    {
+        this.samples[(int) (this.count % this.samples.length)] = nanoseconds;
+        this.count++;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("count=%d, p50=%.3fms, p99=%.3fms", this.count(),
+                this.percentileMilliseconds(MEDIAN), this.percentileMilliseconds(P99));
+    }
+}
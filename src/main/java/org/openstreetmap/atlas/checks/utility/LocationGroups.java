@@ -0,0 +1,235 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.geography.atlas.items.LocationItem;
+
+/**
+ * The groups of {@link LocationItem}s of an {@link Atlas} sharing the exact same {@link Location},
+ * computed in one pass over the {@link Atlas} instead of a spatial query per item.
+ * <p>
+ * Locations are compared by their {@link Location#asConcatenation()} value, so the items are
+ * grouped by sorting primitive {@code long}s, without boxing anything per item. Only the groups of
+ * two items or more are kept, in compressed rows indexed by {@link EntityPositions}, and cached
+ * per {@link Atlas} in an {@link AtlasCache}.
+ * <p>
+ * {@link #firstRepeatedLocation(Iterable)} finds duplicate locations within a single shape the
+ * same way, with a primitive hash set of the concatenated locations.
+ *
+ * @author lucylu
+ */
+public final class LocationGroups
+{
+    private static final int NO_GROUP = -1;
+    private static final double MAXIMUM_LOAD_FACTOR = 0.5;
+    private static final int HASH_SHIFT = 32;
+    private static final long HASH_MULTIPLIER = 0x9e3779b97f4a7c15L;
+    private static final AtlasCache<LocationGroups> NODE_GROUPS = new AtlasCache<>(
+            "node location groups");
+    private static final AtlasCache<LocationGroups> POINT_GROUPS = new AtlasCache<>(
+            "point location groups");
+
+    private final Atlas atlas;
+    private final ItemType type;
+    private final EntityPositions positions;
+    // Group of each item, NO_GROUP when no other item has its location
+    private final int[] groups;
+    // The items of group g are between groupStarts[g] and groupStarts[g + 1]
+    private final int[] groupStarts;
+    private final int[] groupItems;
+
+    /**
+     * Finds the first location of a shape that repeats a previous location of the shape
+     *
+     * @param locations
+     *            the locations of the shape
+     * @return the first repeated {@link Location}, empty if all the locations are unique
+     */
+    public static Optional<Location> firstRepeatedLocation(final Iterable<Location> locations)
+    {
+        // An open addressing hash set, with its own flags for used slots so any value can be held
+        int capacity = 2;
+        long[] table = new long[capacity];
+        boolean[] used = new boolean[capacity];
+        int size = 0;
+        for (final Location location : locations)
+        {
+            if (size + 1 > capacity * MAXIMUM_LOAD_FACTOR)
+            {
+                final long[] previousTable = table;
+                final boolean[] previousUsed = used;
+                capacity *= 2;
+                table = new long[capacity];
+                used = new boolean[capacity];
+                for (int index = 0; index < previousTable.length; index++)
+                {
+                    if (previousUsed[index])
+                    {
+                        final int slot = slot(table, used, previousTable[index]);
+                        table[slot] = previousTable[index];
+                        used[slot] = true;
+                    }
+                }
+            }
+            final long value = location.asConcatenation();
+            final int slot = slot(table, used, value);
+            if (used[slot])
+            {
+                return Optional.of(location);
+            }
+            table[slot] = value;
+            used[slot] = true;
+            size++;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Get the shared location groups of the
+     * {@link org.openstreetmap.atlas.geography.atlas.items.Node}s of an {@link Atlas}, computing
+     * them the first time
+     *
+     * @param atlas
+     *            the {@link Atlas}
+     * @return the location groups of the nodes of the {@link Atlas}
+     */
+    public static LocationGroups forNodes(final Atlas atlas)
+    {
+        return NODE_GROUPS.get(atlas, value -> new LocationGroups(value, ItemType.NODE));
+    }
+
+    /**
+     * Get the shared location groups of the
+     * {@link org.openstreetmap.atlas.geography.atlas.items.Point}s of an {@link Atlas}, computing
+     * them the first time
+     *
+     * @param atlas
+     *            the {@link Atlas}
+     * @return the location groups of the points of the {@link Atlas}
+     */
+    public static LocationGroups forPoints(final Atlas atlas)
+    {
+        return POINT_GROUPS.get(atlas, value -> new LocationGroups(value, ItemType.POINT));
+    }
+
+    /**
+     * @return the slot holding the value, or the unused slot where it should be added
+     */
+    private static int slot(final long[] table, final boolean[] used, final long value)
+    {
+        final int mask = table.length - 1;
+        final long hash = value * HASH_MULTIPLIER;
+        int slot = (int) (hash ^ hash >>> HASH_SHIFT) & mask;
+        while (used[slot] && table[slot] != value)
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private LocationGroups(final Atlas atlas, final ItemType type)
+    {
+        this.atlas = atlas;
+        this.type = type;
+        this.positions = EntityPositions.forAtlas(atlas);
+        final int size = this.positions.size(type);
+
+        // The concatenated location of each item, and the locations held by more than one item
+        final long[] locations = new long[size];
+        for (int position = 0; position < size; position++)
+        {
+            locations[position] = this.item(position).getLocation().asConcatenation();
+        }
+        final long[] sortedLocations = locations.clone();
+        Arrays.sort(sortedLocations);
+        long[] duplicates = new long[0];
+        int duplicateCount = 0;
+        for (int index = 1; index < size; index++)
+        {
+            if (sortedLocations[index] == sortedLocations[index - 1] && (duplicateCount == 0
+                    || duplicates[duplicateCount - 1] != sortedLocations[index]))
+            {
+                if (duplicateCount == duplicates.length)
+                {
+                    duplicates = Arrays.copyOf(duplicates, duplicateCount * 2 + 1);
+                }
+                duplicates[duplicateCount++] = sortedLocations[index];
+            }
+        }
+        final long[] duplicateLocations = Arrays.copyOf(duplicates, duplicateCount);
+
+        // Group the items holding the duplicate locations
+        this.groups = new int[size];
+        this.groupStarts = new int[duplicateCount + 1];
+        for (int position = 0; position < size; position++)
+        {
+            final int group = Arrays.binarySearch(duplicateLocations, locations[position]);
+            this.groups[position] = group < 0 ? NO_GROUP : group;
+            if (group >= 0)
+            {
+                this.groupStarts[group + 1]++;
+            }
+        }
+        for (int group = 0; group < duplicateCount; group++)
+        {
+            this.groupStarts[group + 1] += this.groupStarts[group];
+        }
+        this.groupItems = new int[this.groupStarts[duplicateCount]];
+        final int[] filled = Arrays.copyOf(this.groupStarts, duplicateCount);
+        for (int position = 0; position < size; position++)
+        {
+            if (this.groups[position] != NO_GROUP)
+            {
+                this.groupItems[filled[this.groups[position]]++] = position;
+            }
+        }
+    }
+
+    /**
+     * @param item
+     *            an item of the {@link Atlas}, of the type of the groups
+     * @return {@code true} if the item was in the {@link Atlas} when the groups were computed
+     */
+    public boolean covers(final LocationItem item)
+    {
+        return item.getAtlas() == this.atlas && item.getType() == this.type
+                && this.positions.position(item) != EntityPositions.NO_POSITION;
+    }
+
+    /**
+     * @param <T>
+     *            the type of the items
+     * @param item
+     *            a covered item, see {@link #covers(LocationItem)}
+     * @return the items at the exact location of the item, including the item, or only the item
+     *         if no other item has its location
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends LocationItem> List<T> group(final T item)
+    {
+        final int group = this.groups[this.positions.position(item)];
+        if (group == NO_GROUP)
+        {
+            return Collections.singletonList(item);
+        }
+        final List<T> items = new ArrayList<>();
+        for (int index = this.groupStarts[group]; index < this.groupStarts[group + 1]; index++)
+        {
+            items.add((T) this.item(this.groupItems[index]));
+        }
+        return items;
+    }
+
+    private LocationItem item(final int position)
+    {
+        return (LocationItem) this.type.entityForIdentifier(this.atlas,
+                this.positions.identifier(this.type, position));
+    }
+}
@@ -0,0 +1,140 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.PolyLine;
+import org.openstreetmap.atlas.geography.Polygon;
+import org.openstreetmap.atlas.geography.Segment;
+
+/**
+ * A {@link PolyLine} prepared for repeated intersection tests against many small features, like
+ * the roads crossing a large water body. The segments of the {@link PolyLine} are indexed in an
+ * R-tree by their bounds, so that an intersection test only compares the segments of the feature
+ * with the few segments around them, instead of with all the segments of the {@link PolyLine}.
+ * <p>
+ * Two segments can only intersect if their bounds do, so the results are the same as the ones of
+ * the {@link PolyLine}. Small {@link PolyLine}s are not indexed, as comparing all their segments is
+ * faster than querying an index. Prepared {@link PolyLine}s are immutable and thread-safe; use
+ * {@link GeometryCache#preparedPolyLine(org.openstreetmap.atlas.geography.atlas.items.AtlasEntity)}
+ * to share them between checks.
+ *
+ * @author lucylu
+ */
+public final class PreparedPolyLine
+{
+    /**
+     * The minimum number of segments of an indexed {@link PolyLine}
+     */
+    public static final int MINIMUM_INDEXED_SEGMENTS = 64;
+
+    private final PolyLine polyLine;
+    private final List<Segment> segments;
+    // Null when the segments are not indexed
+    private final STRtree index;
+
+    private static Envelope envelope(final Segment segment)
+    {
+        return new Envelope(segment.start().getLongitude().asDm7(),
+                segment.end().getLongitude().asDm7(), segment.start().getLatitude().asDm7(),
+                segment.end().getLatitude().asDm7());
+    }
+
+    /**
+     * @param polyLine
+     *            the {@link PolyLine} to prepare; for a {@link Polygon} the closing segment is
+     *            included, as in {@link Polygon#segments()}
+     */
+    public PreparedPolyLine(final PolyLine polyLine)
+    {
+        this.polyLine = polyLine;
+        this.segments = polyLine.segments();
+        if (this.segments.size() < MINIMUM_INDEXED_SEGMENTS)
+        {
+            this.index = null;
+        }
+        else
+        {
+            this.index = new STRtree();
+            this.segments.forEach(segment -> this.index.insert(envelope(segment), segment));
+            // Built before being shared, so that queries only read the tree
+            this.index.build();
+        }
+    }
+
+    /**
+     * Same as {@code candidate.intersections(polyLine)}, the intersections computed from the
+     * segments of the candidate
+     *
+     * @param candidate
+     *            the {@link PolyLine} to intersect
+     * @return the {@link Location}s where the candidate intersects the prepared {@link PolyLine}
+     */
+    public Set<Location> candidateIntersections(final PolyLine candidate)
+    {
+        final Set<Location> intersections = new HashSet<>();
+        for (final Segment candidateSegment : candidate.segments())
+        {
+            for (final Segment segment : this.segmentsAround(candidateSegment))
+            {
+                final Location intersection = candidateSegment.intersection(segment);
+                if (intersection != null)
+                {
+                    intersections.add(intersection);
+                }
+            }
+        }
+        return intersections;
+    }
+
+    public PolyLine getPolyLine()
+    {
+        return this.polyLine;
+    }
+
+    /**
+     * Same as {@code polyLine.intersections(candidate)}
+     *
+     * @param candidate
+     *            the {@link PolyLine} to intersect
+     * @return the {@link Location}s where the prepared {@link PolyLine} intersects the candidate
+     */
+    public Set<Location> intersections(final PolyLine candidate)
+    {
+        final Set<Location> intersections = new HashSet<>();
+        for (final Segment candidateSegment : candidate.segments())
+        {
+            for (final Segment segment : this.segmentsAround(candidateSegment))
+            {
+                final Location intersection = segment.intersection(candidateSegment);
+                if (intersection != null)
+                {
+                    intersections.add(intersection);
+                }
+            }
+        }
+        return intersections;
+    }
+
+    /**
+     * @return the number of segments of the prepared {@link PolyLine}
+     */
+    public int size()
+    {
+        return this.segments.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Segment> segmentsAround(final Segment candidateSegment)
+    {
+        if (this.index == null)
+        {
+            return this.segments;
+        }
+        return this.index.query(envelope(candidateSegment));
+    }
+}
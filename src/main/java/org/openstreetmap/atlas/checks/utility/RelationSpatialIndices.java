@@ -0,0 +1,80 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.function.Predicate;
+
+import org.openstreetmap.atlas.geography.Rectangle;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.Relation;
+import org.openstreetmap.atlas.geography.index.PackedSpatialIndex;
+import org.openstreetmap.atlas.geography.index.RTree;
+import org.openstreetmap.atlas.geography.index.SpatialIndex;
+
+/**
+ * Spatial indices of the {@link Relation}s of an {@link Atlas} matching a predicate, shared by all
+ * the checks running on the {@link Atlas}. Pre-filtering the relations, for example to building
+ * multipolygons, keeps very large unrelated relations out of the index, which makes queries much
+ * faster than querying all the relations of the {@link Atlas} and then filtering them.
+ * <p>
+ * An index is identified by the {@link Atlas} and a key naming its predicate, and built lazily
+ * once, see {@link KeyedAtlasCache}. Indices are released with the other values derived from the
+ * {@link Atlas} by {@link AtlasCache#releaseAll(Atlas)}, once a country or shard is done.
+ *
+ * @author lucylu
+ */
+public final class RelationSpatialIndices
+{
+    private static final KeyedAtlasCache<SpatialIndex<Relation>> INDICES = new KeyedAtlasCache<>(
+            "relation index");
+
+    /**
+     * Get the spatial index of the relations of an {@link Atlas} matching a predicate, building it
+     * if needed
+     *
+     * @param atlas
+     *            the {@link Atlas}
+     * @param key
+     *            names the predicate; predicates with the same key must be identical
+     * @param predicate
+     *            selects the relations to index
+     * @return the spatial index
+     */
+    public static SpatialIndex<Relation> get(final Atlas atlas, final String key,
+            final Predicate<Relation> predicate)
+    {
+        return INDICES.get(atlas, key, value -> build(value, predicate));
+    }
+
+    private static SpatialIndex<Relation> build(final Atlas atlas,
+            final Predicate<Relation> predicate)
+    {
+        // Same as the relation index of AbstractAtlas, restoring relations from their identifier
+        final SpatialIndex<Relation> index = new PackedSpatialIndex<Relation, Long>(new RTree<>())
+        {
+            private static final long serialVersionUID = -3139831928323333246L;
+
+            @Override
+            protected Long compress(final Relation item)
+            {
+                return item.getIdentifier();
+            }
+
+            @Override
+            protected boolean isValid(final Relation item, final Rectangle bounds)
+            {
+                return item.intersects(bounds);
+            }
+
+            @Override
+            protected Relation restore(final Long packed)
+            {
+                return atlas.relation(packed);
+            }
+        };
+        atlas.relations(predicate).forEach(index::add);
+        return index;
+    }
+
+    private RelationSpatialIndices()
+    {
+    }
+}
@@ -0,0 +1,50 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.complex.ComplexEntity;
+import org.openstreetmap.atlas.geography.atlas.items.complex.Finder;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
+
+/**
+ * A {@link Finder} sharing its results between all the checks running on an {@link Atlas}, so that
+ * checks using the same {@link Finder}, like the ones working on big nodes, run it once per
+ * {@link Atlas} instead of once per check.
+ * <p>
+ * Results are identified by the {@link Atlas} and a key naming the {@link Finder}, and found once,
+ * see {@link KeyedAtlasCache}. They are released with the other values derived from the
+ * {@link Atlas} by {@link AtlasCache#releaseAll(Atlas)}.
+ *
+ * @param <T>
+ *            the type of {@link ComplexEntity} found
+ * @author lucylu
+ */
+public final class SharedFinder<T extends ComplexEntity> implements Finder<T>
+{
+    private static final KeyedAtlasCache<List<?>> RESULTS = new KeyedAtlasCache<>("results");
+
+    private final String key;
+    private final Supplier<Finder<T>> finder;
+
+    /**
+     * @param key
+     *            names the {@link Finder}; finders with the same key must find the same entities
+     * @param finder
+     *            creates the {@link Finder}, only called when the results are not shared yet
+     */
+    public SharedFinder(final String key, final Supplier<Finder<T>> finder)
+    {
+        this.key = key;
+        this.finder = finder;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterable<T> find(final Atlas atlas)
+    {
+        return (List<T>) RESULTS.get(atlas, this.key,
+                value -> Iterables.asList(this.finder.get().find(value)));
+    }
+}
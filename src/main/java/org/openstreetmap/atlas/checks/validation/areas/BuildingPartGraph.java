@@ -0,0 +1,215 @@
+package org.openstreetmap.atlas.checks.validation.areas;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.openstreetmap.atlas.checks.base.ObjectTimeBudget;
+import org.openstreetmap.atlas.checks.utility.EntityPositions;
+import org.openstreetmap.atlas.geography.Rectangle;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.Area;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.geography.atlas.items.Relation;
+
+/**
+ * The building parts of an {@link Atlas} touching each other in 3D, as {@link ShadowDetectionCheck}
+ * walks them, so the parts connected to a part are found without a spatial query of the
+ * {@link Atlas} each time a part is reached from another part.
+ * <p>
+ * The parts are {@link Area}s and {@link Relation}s, numbered by their {@link EntityPositions}, and
+ * their bounds are indexed in an R-tree when the graph is created. The neighbors of a part are only
+ * computed the first time the part is reached, by testing the parts with intersecting bounds, so
+ * only the components walked by the check are compared. Each direction is tested on its own, since
+ * a part walked from and a part walked to do not default their heights the same way. The neighbors
+ * of each part are then kept as a primitive array.
+ *
+ * @author lucylu
+ */
+final class BuildingPartGraph
+{
+    private static final int NO_PART = -1;
+
+    private final Atlas atlas;
+    private final EntityPositions positions;
+    private final int areaCount;
+    private final BiPredicate<AtlasObject, AtlasObject> neighboring;
+    // The part of each area, then of each relation, NO_PART when it is not a building part
+    private final int[] slotParts;
+    // The area or relation of each part
+    private final int[] partSlots;
+    // The bounds of each part, in dm7
+    private final Envelope[] bounds;
+    private final STRtree index = new STRtree();
+    // The neighbors of each part, once the part has been reached
+    private final AtomicReferenceArray<int[]> neighbors;
+
+    /**
+     * Indexes the building parts of an {@link Atlas}
+     *
+     * @param atlas
+     *            the {@link Atlas}
+     * @param part
+     *            the {@link Area}s and {@link Relation}s that are building parts
+     * @param neighboring
+     *            tests if the first building part is a neighbor of the second one, the part the
+     *            walk comes from
+     */
+    BuildingPartGraph(final Atlas atlas, final Predicate<AtlasObject> part,
+            final BiPredicate<AtlasObject, AtlasObject> neighboring)
+    {
+        this.atlas = atlas;
+        this.positions = EntityPositions.forAtlas(atlas);
+        this.areaCount = this.positions.size(ItemType.AREA);
+        this.neighboring = neighboring;
+        final int slots = this.areaCount + this.positions.size(ItemType.RELATION);
+
+        this.slotParts = new int[slots];
+        Arrays.fill(this.slotParts, NO_PART);
+        final int[] slotsOfParts = new int[slots];
+        final Envelope[] partBounds = new Envelope[slots];
+        int partCount = 0;
+        for (int slot = 0; slot < slots; slot++)
+        {
+            final AtlasEntity entity = this.entity(slot);
+            if (entity != null && part.test(entity))
+            {
+                final Rectangle rectangle = entity.bounds();
+                partBounds[partCount] = new Envelope(
+                        rectangle.lowerLeft().getLongitude().asDm7(),
+                        rectangle.upperRight().getLongitude().asDm7(),
+                        rectangle.lowerLeft().getLatitude().asDm7(),
+                        rectangle.upperRight().getLatitude().asDm7());
+                this.index.insert(partBounds[partCount], partCount);
+                slotsOfParts[partCount] = slot;
+                this.slotParts[slot] = partCount++;
+            }
+        }
+        this.index.build();
+        this.partSlots = Arrays.copyOf(slotsOfParts, partCount);
+        this.bounds = Arrays.copyOf(partBounds, partCount);
+        this.neighbors = new AtomicReferenceArray<>(partCount);
+    }
+
+    /**
+     * Gathers the building parts connected to a building part, following the neighbors of each
+     * part reached
+     *
+     * @param start
+     *            a covered building part, see {@link #covers(AtlasObject)}
+     * @return the building parts reached from {@code start}, starting with {@code start}
+     */
+    List<AtlasObject> connectedParts(final AtlasObject start)
+    {
+        // Components are usually a few parts, keep the reached parts in a bitset and a growing
+        // queue rather than arrays of all the parts
+        final BitSet reached = new BitSet();
+        int[] toCheck = new int[1];
+        final int startPart = this.slotParts[this.slot((AtlasEntity) start)];
+        reached.set(startPart);
+        toCheck[0] = startPart;
+        int checked = 0;
+        int found = 1;
+        while (checked < found)
+        {
+            ObjectTimeBudget.check();
+            final int checking = toCheck[checked++];
+            for (final int neighbor : this.neighbors(checking))
+            {
+                if (!reached.get(neighbor))
+                {
+                    reached.set(neighbor);
+                    if (found == toCheck.length)
+                    {
+                        toCheck = Arrays.copyOf(toCheck, found * 2);
+                    }
+                    toCheck[found++] = neighbor;
+                }
+            }
+        }
+        final List<AtlasObject> parts = new ArrayList<>(found);
+        for (int index = 0; index < found; index++)
+        {
+            parts.add(this.entity(this.partSlots[toCheck[index]]));
+        }
+        return parts;
+    }
+
+    /**
+     * @param object
+     *            an {@link AtlasObject} of the {@link Atlas}
+     * @return {@code true} if the {@link AtlasObject} was a building part of the {@link Atlas} when
+     *         the graph was created
+     */
+    boolean covers(final AtlasObject object)
+    {
+        if (object.getAtlas() != this.atlas
+                || !(object instanceof Area || object instanceof Relation))
+        {
+            return false;
+        }
+        final int slot = this.slot((AtlasEntity) object);
+        return slot != EntityPositions.NO_POSITION && this.slotParts[slot] != NO_PART;
+    }
+
+    /**
+     * @return the neighbors of a part, computing them the first time the part is reached
+     */
+    private int[] neighbors(final int part)
+    {
+        int[] partNeighbors = this.neighbors.get(part);
+        if (partNeighbors == null)
+        {
+            final AtlasObject from = this.entity(this.partSlots[part]);
+            partNeighbors = new int[0];
+            int count = 0;
+            for (final Object candidate : this.index.query(this.bounds[part]))
+            {
+                final int other = (Integer) candidate;
+                if (other != part
+                        && this.neighboring.test(this.entity(this.partSlots[other]), from))
+                {
+                    if (count == partNeighbors.length)
+                    {
+                        partNeighbors = Arrays.copyOf(partNeighbors, count * 2 + 1);
+                    }
+                    partNeighbors[count++] = other;
+                }
+            }
+            partNeighbors = Arrays.copyOf(partNeighbors, count);
+            // Parts reached concurrently compute the same neighbors
+            this.neighbors.compareAndSet(part, null, partNeighbors);
+        }
+        return partNeighbors;
+    }
+
+    private AtlasEntity entity(final int slot)
+    {
+        return slot < this.areaCount
+                ? this.atlas.area(this.positions.identifier(ItemType.AREA, slot))
+                : this.atlas.relation(this.positions.identifier(ItemType.RELATION,
+                        slot - this.areaCount));
+    }
+
+    /**
+     * @return the slot of an {@link Area} or a {@link Relation},
+     *         {@link EntityPositions#NO_POSITION} if it has no position
+     */
+    private int slot(final AtlasEntity entity)
+    {
+        final int position = this.positions.position(entity);
+        if (position == EntityPositions.NO_POSITION)
+        {
+            return EntityPositions.NO_POSITION;
+        }
+        return entity instanceof Area ? position : this.areaCount + position;
+    }
+}
@@ -6,6 +6,7 @@ import java.util.Optional;
 
 import org.openstreetmap.atlas.checks.base.BaseCheck;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.GeometryCache;
 import org.openstreetmap.atlas.geography.atlas.items.Area;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
 import org.openstreetmap.atlas.tags.LeisureTag;
@@ -82,7 +83,7 @@ public class PoolSizeCheck extends BaseCheck<Long>
         // this could be done in the ValidCheckForObject as well, doesn't change things too much
         if (Validators.isOfType(object, LeisureTag.class, LeisureTag.SWIMMING_POOL))
         {
-            final double surfaceArea = area.asPolygon().surface().asMeterSquared();
+            final double surfaceArea = GeometryCache.surface(area).asMeterSquared();
             // we are purposefully separating our if statements to have more specific instructions
             if (surfaceArea > this.maximumSize)
             {
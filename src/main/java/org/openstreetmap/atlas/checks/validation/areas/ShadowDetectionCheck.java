@@ -2,30 +2,29 @@ package org.openstreetmap.atlas.checks.validation.areas;
 
 import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.openstreetmap.atlas.checks.base.BaseCheck;
+import org.openstreetmap.atlas.checks.base.ObjectTimeBudget;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.AtlasCache;
+import org.openstreetmap.atlas.checks.utility.GeometryCache;
+import org.openstreetmap.atlas.checks.utility.RelationSpatialIndices;
 import org.openstreetmap.atlas.exception.CoreException;
 import org.openstreetmap.atlas.geography.Altitude;
 import org.openstreetmap.atlas.geography.GeometricSurface;
 import org.openstreetmap.atlas.geography.MultiPolygon;
 import org.openstreetmap.atlas.geography.Polygon;
 import org.openstreetmap.atlas.geography.Rectangle;
-import org.openstreetmap.atlas.geography.atlas.Atlas;
 import org.openstreetmap.atlas.geography.atlas.items.Area;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
 import org.openstreetmap.atlas.geography.atlas.items.Relation;
-import org.openstreetmap.atlas.geography.atlas.items.complex.RelationOrAreaToMultiPolygonConverter;
-import org.openstreetmap.atlas.geography.index.PackedSpatialIndex;
-import org.openstreetmap.atlas.geography.index.RTree;
-import org.openstreetmap.atlas.geography.index.SpatialIndex;
 import org.openstreetmap.atlas.tags.BuildingLevelsTag;
 import org.openstreetmap.atlas.tags.BuildingMinLevelTag;
 import org.openstreetmap.atlas.tags.BuildingPartTag;
@@ -60,9 +59,12 @@ public class ShadowDetectionCheck extends BaseCheck<Long>
     // OSM standard level conversion factor
     private static final double LEVEL_TO_METERS_CONVERSION = 3.5;
     private static final String ZERO_STRING = "0";
-    private static final RelationOrAreaToMultiPolygonConverter MULTI_POLYGON_CONVERTER = new RelationOrAreaToMultiPolygonConverter();
-
-    private final Map<Atlas, SpatialIndex<Relation>> relationSpatialIndices = new HashMap<>();
+    // Pre-filtering building relations drastically decreases the runtime of the relation queries,
+    // by eliminating very large non-building relations
+    private static final String BUILDING_RELATIONS = "building multipolygons";
+    private static final Predicate<Relation> IS_BUILDING_RELATION = relation -> relation
+            .isMultiPolygon() && BuildingTag.isBuilding(relation);
+    private static final String BUILDING_PARTS_STATE = "buildingParts";
 
     /**
      * The default constructor that must be supplied. The Atlas Checks framework will generate the
@@ -152,43 +154,22 @@ public class ShadowDetectionCheck extends BaseCheck<Long>
     }
 
     /**
-     * Create a new spatial index that pre filters building relations. Pre-filtering drastically
-     * decreases runtime by eliminating very large non-building relations. Copied from
-     * {@link org.openstreetmap.atlas.geography.atlas.AbstractAtlas}.
-     *
-     * @return A newly created spatial index
+     * @param object
+     *            an {@link AtlasObject} of the atlas being checked
+     * @return the building parts of the atlas of {@code object}, indexing them the first time
      */
-    private SpatialIndex<Relation> buildRelationSpatialIndex(final Atlas atlas)
+    private BuildingPartGraph buildingParts(final AtlasObject object)
     {
-        final SpatialIndex<Relation> index = new PackedSpatialIndex<Relation, Long>(new RTree<>())
-        {
-            private static final long serialVersionUID = -3139831928323333246L;
-
-            @Override
-            protected Long compress(final Relation item)
-            {
-                return item.getIdentifier();
-            }
-
-            @Override
-            protected boolean isValid(final Relation item, final Rectangle bounds)
-            {
-                return item.intersects(bounds);
-            }
-
-            @Override
-            protected Relation restore(final Long packed)
-            {
-                return atlas.relation(packed);
-            }
-        };
-        atlas.relations(relation -> relation.isMultiPolygon() && BuildingTag.isBuilding(relation))
-                .forEach(index::add);
-        return index;
+        final AtlasCache<BuildingPartGraph> buildingParts = this.getRunState(
+                BUILDING_PARTS_STATE, () -> new AtlasCache<>("building parts", 1));
+        return buildingParts.get(object.getAtlas(),
+                atlas -> new BuildingPartGraph(atlas, this::isBuildingPart, this::neighboringPart));
     }
 
     /**
-     * Uses a BFS to gather all connected building parts and check for a connection to the ground.
+     * Gathers all connected building parts and checks for a connection to the ground. The parts
+     * are walked in the building part graph of the atlas, or searched for parts the graph does not
+     * cover.
      *
      * @param startingPart
      *            {@link AtlasObject} to start the walker from
@@ -197,42 +178,15 @@ public class ShadowDetectionCheck extends BaseCheck<Long>
      */
     private Tuple<Set<AtlasObject>, Boolean> getConnectedParts(final AtlasObject startingPart)
     {
-        final Set<AtlasObject> connectedParts = new HashSet<>();
-        final ArrayDeque<AtlasObject> toCheck = new ArrayDeque<>();
-        boolean isFloating = true;
-        connectedParts.add(startingPart);
-        toCheck.add(startingPart);
-
-        while (!toCheck.isEmpty())
+        final BuildingPartGraph buildingParts = this.buildingParts(startingPart);
+        if (buildingParts.covers(startingPart))
         {
-            final AtlasObject checking = toCheck.poll();
-
-            // If a connection to the ground is found the parts are not floating
-            if (!isOffGround(checking))
-            {
-                isFloating = false;
-            }
-            // Get parts connected in 3D
-            final Set<AtlasObject> neighboringParts = new HashSet<>();
-            final Rectangle checkingBounds = checking.bounds();
-            // Get Areas
-            neighboringParts
-                    .addAll(Iterables.asSet(checking.getAtlas().areasIntersecting(checkingBounds,
-                            area -> this.neighboringPart(area, checking, connectedParts))));
-            // Get Relations
-            if (!this.relationSpatialIndices.containsKey(checking.getAtlas()))
-            {
-                this.relationSpatialIndices.put(checking.getAtlas(),
-                        this.buildRelationSpatialIndex(checking.getAtlas()));
-            }
-            neighboringParts.addAll(Iterables
-                    .asSet(this.relationSpatialIndices.get(checking.getAtlas()).get(checkingBounds,
-                            relation -> this.neighboringPart(relation, checking, connectedParts))));
-            // Add the parts to the Set and Queue
-            connectedParts.addAll(neighboringParts);
-            toCheck.addAll(neighboringParts);
+            final Set<AtlasObject> connectedParts = new HashSet<>(
+                    buildingParts.connectedParts(startingPart));
+            return Tuple.createTuple(connectedParts,
+                    connectedParts.stream().allMatch(this::isOffGround));
         }
-        return Tuple.createTuple(connectedParts, isFloating);
+        return this.searchConnectedParts(startingPart);
     }
 
     /**
@@ -264,6 +218,21 @@ public class ShadowDetectionCheck extends BaseCheck<Long>
                 || Validators.isNotOfType(object, BuildingPartTag.class, BuildingPartTag.NO);
     }
 
+    /**
+     * Checks if an {@link AtlasObject} is an {@link Area} or a multipolygon {@link Relation} that
+     * is a building, a building part, or a member of a building relation.
+     *
+     * @param object
+     *            {@link AtlasObject} to check
+     * @return true if {@code object} can be part of a building
+     */
+    private boolean isBuildingPart(final AtlasObject object)
+    {
+        return (object instanceof Area
+                || (object instanceof Relation && ((Relation) object).isMultiPolygon()))
+                && (this.isBuildingOrPart(object) || this.isBuildingRelationMember(object));
+    }
+
     /**
      * Checks if an {@link AtlasObject} is a outline or part member of a building relation. This is
      * an equivalent tagging to building=* or building:part=yes.
@@ -316,19 +285,20 @@ public class ShadowDetectionCheck extends BaseCheck<Long>
      *            a known building part to check against
      * @return true if {@code object} is a building part and overlaps {@code part}
      */
-    private boolean neighboringPart(final AtlasObject object, final AtlasObject part,
-            final Set<AtlasObject> checked)
+    private boolean neighboringPart(final AtlasObject object, final AtlasObject part)
     {
         try
         {
             // Get the polygons of the parts, either single or multi
-            final GeometricSurface partPolygon = part instanceof Area ? ((Area) part).asPolygon()
-                    : MULTI_POLYGON_CONVERTER.convert((Relation) part);
+            final GeometricSurface partPolygon = part instanceof Area
+                    ? GeometryCache.polygon((Area) part)
+                    : GeometryCache.multiPolygon((Relation) part);
             final GeometricSurface objectPolygon = object instanceof Area
-                    ? ((Area) object).asPolygon()
-                    : MULTI_POLYGON_CONVERTER.convert((Relation) object);
-            // Check if it is a building part, and overlaps.
-            return !checked.contains(object)
+                    ? GeometryCache.polygon((Area) object)
+                    : GeometryCache.multiPolygon((Relation) object);
+            // Check if it is a building part, and overlaps. Relations have to be building
+            // multipolygons, like the relations searched for neighbors.
+            return (object instanceof Area || IS_BUILDING_RELATION.test((Relation) object))
                     && (this.isBuildingOrPart(object) || this.isBuildingRelationMember(object))
                     // Check 2D overlap
                     && (partPolygon instanceof Polygon
@@ -407,4 +377,52 @@ public class ShadowDetectionCheck extends BaseCheck<Long>
             return false;
         }
     }
+
+    /**
+     * Uses a BFS to gather all connected building parts and check for a connection to the ground,
+     * searching the atlas for the neighbors of each part.
+     *
+     * @param startingPart
+     *            {@link AtlasObject} to start the walker from
+     * @return a {@link Tuple} of a {@link Set} of connected {@link AtlasObject} building parts and
+     *         a {@link Boolean} indicating if they are floating
+     */
+    private Tuple<Set<AtlasObject>, Boolean> searchConnectedParts(final AtlasObject startingPart)
+    {
+        final Set<AtlasObject> connectedParts = new HashSet<>();
+        final ArrayDeque<AtlasObject> toCheck = new ArrayDeque<>();
+        boolean isFloating = true;
+        connectedParts.add(startingPart);
+        toCheck.add(startingPart);
+
+        while (!toCheck.isEmpty())
+        {
+            ObjectTimeBudget.check();
+            final AtlasObject checking = toCheck.poll();
+
+            // If a connection to the ground is found the parts are not floating
+            if (!this.isOffGround(checking))
+            {
+                isFloating = false;
+            }
+            // Get parts connected in 3D
+            final Set<AtlasObject> neighboringParts = new HashSet<>();
+            final Rectangle checkingBounds = checking.bounds();
+            // Get Areas
+            neighboringParts
+                    .addAll(Iterables.asSet(checking.getAtlas().areasIntersecting(checkingBounds,
+                            area -> !connectedParts.contains(area)
+                                    && this.neighboringPart(area, checking))));
+            // Get Relations
+            neighboringParts.addAll(Iterables.asSet(RelationSpatialIndices
+                    .get(checking.getAtlas(), BUILDING_RELATIONS, IS_BUILDING_RELATION)
+                    .get(checkingBounds,
+                            relation -> !connectedParts.contains(relation)
+                                    && this.neighboringPart(relation, checking))));
+            // Add the parts to the Set and Queue
+            connectedParts.addAll(neighboringParts);
+            toCheck.addAll(neighboringParts);
+        }
+        return Tuple.createTuple(connectedParts, isFloating);
+    }
 }
@@ -10,6 +10,7 @@ import java.util.stream.Collectors;
 import org.openstreetmap.atlas.checks.atlas.predicates.TagPredicates;
 import org.openstreetmap.atlas.checks.base.BaseCheck;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.GeometryCache;
 import org.openstreetmap.atlas.geography.atlas.items.Area;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
 import org.openstreetmap.atlas.geography.atlas.items.Relation;
@@ -131,7 +132,7 @@ public class WaterbodyAndIslandSizeCheck extends BaseCheck
         if (object instanceof Area)
         {
             final Area area = (Area) object;
-            final Surface surfaceArea = area.asPolygon().surface();
+            final Surface surfaceArea = GeometryCache.surface(area);
             final double surfaceAreaMeters = surfaceArea.asMeterSquared();
             final double surfaceAreaKilometers = surfaceArea.asKilometerSquared();
             // Mark each object because we could potentially run into Multipolygon entities that get
@@ -222,7 +223,7 @@ public class WaterbodyAndIslandSizeCheck extends BaseCheck
 
         for (final RelationMember member : relationMembers)
         {
-            final Surface surfaceArea = ((Area) member.getEntity()).asPolygon().surface();
+            final Surface surfaceArea = GeometryCache.surface((Area) member.getEntity());
             final double surfaceAreaMeters = surfaceArea.asMeterSquared();
             final double surfaceAreaKilometers = surfaceArea.asKilometerSquared();
             final long memberOsmId = member.getEntity().getOsmIdentifier();
@@ -8,6 +8,8 @@ import java.util.stream.Collectors;
 
 import org.openstreetmap.atlas.checks.base.BaseCheck;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.AtlasAttributeCache;
+import org.openstreetmap.atlas.checks.utility.SharedFinder;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
 import org.openstreetmap.atlas.geography.atlas.items.Edge;
 import org.openstreetmap.atlas.geography.atlas.items.complex.Finder;
@@ -23,23 +25,30 @@ import org.openstreetmap.atlas.utilities.configuration.Configuration;
  * the number of paths through the big node are over a threshold - the number of junction nodes are
  * over a threshold. The BigNode is first filtered based on the highway types of the connected
  * edges. The highway types of the connected edges should be within the minimum amd maximum highway
- * types set in the configuration.
+ * types set in the configuration. Paths are counted without building them, see
+ * {@link BigNodePaths}, and counting stops past {@code max.number.paths.counted}, or the paths
+ * threshold if larger.
  *
  * @author cameronfrenette
  */
 public class BigNodeBadDataCheck extends BaseCheck<Long>
 {
+    // Big nodes are shared by the checks using them
+    private static final String BIG_NODES = "big nodes";
     private static final List<String> FALLBACK_INSTRUCTIONS = Arrays.asList(
             "This complex intersection has too many junction edges ({0}).",
             "This complex intersection has too many paths ({0}).  "
                     + "There are {1,number,#} restricted paths and their OSM ids are: {2} ");
     private static final long MAX_NUMBER_JUNCTION_EDGES_THRESHOLD_DEFAULT = 12;
     private static final long MAX_NUMBER_PATHS_THRESHOLD_DEFAULT = 1000;
+    private static final long MAX_NUMBER_PATHS_COUNTED_DEFAULT = 100_000;
     private static final String MINIMUM_HIGHWAY_TYPE_DEFAULT = HighwayTag.TOLL_GANTRY.toString();
     private static final String MAXIMUM_HIGHWAY_TYPE_DEFAULT = HighwayTag.MOTORWAY.toString();
     private static final long serialVersionUID = 6311899117562612121L;
     private final long maxNumberJunctionEdgesThreshold;
     private final long maxNumberPathsThreshold;
+    // Paths are counted up to this number, or the threshold if larger
+    private final long maxNumberPathsCounted;
     private final HighwayTag minimumHighwayType;
     private final HighwayTag maximumHighwayType;
 
@@ -48,6 +57,8 @@ public class BigNodeBadDataCheck extends BaseCheck<Long>
         super(configuration);
         this.maxNumberPathsThreshold = configurationValue(configuration,
                 "max.number.paths.threshold", MAX_NUMBER_PATHS_THRESHOLD_DEFAULT);
+        this.maxNumberPathsCounted = configurationValue(configuration,
+                "max.number.paths.counted", MAX_NUMBER_PATHS_COUNTED_DEFAULT);
         this.maxNumberJunctionEdgesThreshold = configurationValue(configuration,
                 "max.number.junction.edges.threshold", MAX_NUMBER_JUNCTION_EDGES_THRESHOLD_DEFAULT);
         this.minimumHighwayType = this.configurationValue(configuration, "highway.type.minimum",
@@ -61,7 +72,7 @@ public class BigNodeBadDataCheck extends BaseCheck<Long>
     @Override
     public Optional<Finder> finder()
     {
-        return Optional.of(new BigNodeFinder());
+        return Optional.of(new SharedFinder<>(BIG_NODES, BigNodeFinder::new));
     }
 
     @Override
@@ -93,19 +104,24 @@ public class BigNodeBadDataCheck extends BaseCheck<Long>
         }
         else
         {
-            final int allPathsCount = bigNode.allPaths().size();
-            final Set<RestrictedPath> turnRestrictions = bigNode.turnRestrictions();
-            final int turnRestrictionCount = turnRestrictions.size();
-            // Get list of restricted path OSM ids
-            final List<Long> restrictedPathOsmIds = turnRestrictions.stream()
-                    .flatMap(restrictedPath -> Iterables.asList(restrictedPath.getRoute()).stream()
-                            .map(Edge::getOsmIdentifier))
-                    .collect(Collectors.toList());
-
-            if (allPathsCount > maxNumberPathsThreshold)
+            // Count the paths without building them, stopping past the counted maximum
+            final long countLimit = Math.max(this.maxNumberPathsThreshold,
+                    this.maxNumberPathsCounted);
+            final long allPathsCount = BigNodePaths.count(bigNode, countLimit);
+
+            if (allPathsCount > this.maxNumberPathsThreshold)
             {
+                final Set<RestrictedPath> turnRestrictions = bigNode.turnRestrictions();
+                final int turnRestrictionCount = turnRestrictions.size();
+                // Get list of restricted path OSM ids
+                final List<Long> restrictedPathOsmIds = turnRestrictions.stream()
+                        .flatMap(restrictedPath -> Iterables.asList(restrictedPath.getRoute())
+                                .stream().map(Edge::getOsmIdentifier))
+                        .collect(Collectors.toList());
+                final Object allPaths = allPathsCount > countLimit ? "more than " + countLimit
+                        : allPathsCount;
                 final CheckFlag flag = createFlag(bigNode, this.getLocalizedInstruction(1,
-                        allPathsCount, turnRestrictionCount, restrictedPathOsmIds.toString()));
+                        allPaths, turnRestrictionCount, restrictedPathOsmIds.toString()));
 
                 bigNode.edges().forEach(flag::addObject);
                 // Add map pin at each BigNode Node
@@ -135,11 +151,10 @@ public class BigNodeBadDataCheck extends BaseCheck<Long>
      */
     private boolean containsNonPriorityHighways(final BigNode bigNode)
     {
-        return bigNode.edges().stream()
-                .anyMatch(edge -> !(HighwayTag.highwayTag(edge).isPresent()
-                        && HighwayTag.highwayTag(edge).get()
-                                .isMoreImportantThanOrEqualTo(this.minimumHighwayType)
-                        && HighwayTag.highwayTag(edge).get()
+        return bigNode.edges().stream().map(AtlasAttributeCache::highwayTag)
+                .anyMatch(highwayTag -> !(highwayTag.isPresent()
+                        && highwayTag.get().isMoreImportantThanOrEqualTo(this.minimumHighwayType)
+                        && highwayTag.get()
                                 .isLessImportantThanOrEqualTo(this.maximumHighwayType)));
     }
 }
@@ -0,0 +1,92 @@
+package org.openstreetmap.atlas.checks.validation.intersections;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openstreetmap.atlas.checks.base.ObjectTimeBudget;
+import org.openstreetmap.atlas.geography.atlas.items.Edge;
+import org.openstreetmap.atlas.geography.atlas.items.complex.bignode.BigNode;
+
+/**
+ * Counts the paths through a {@link BigNode}, the same paths as {@link BigNode#allPaths()}, without
+ * building their {@link org.openstreetmap.atlas.geography.atlas.routing.Route}s. A path enters the
+ * {@link BigNode} through one of its in edges, follows junction edges without going through the
+ * same edge twice, and leaves it through one of its out edges.
+ * <p>
+ * The paths are enumerated by a depth first search over the junction edges, keeping only the
+ * current path, and each step counts the out edges leaving from where it ends. The search stops as
+ * soon as the count exceeds a limit, so large interchanges are not enumerated further than needed.
+ *
+ * @author lucylu
+ */
+final class BigNodePaths
+{
+    /**
+     * Counts the paths through a {@link BigNode}
+     *
+     * @param bigNode
+     *            the {@link BigNode}
+     * @param limit
+     *            the count above which the search stops
+     * @return the number of paths, or a number greater than the limit if there are more paths
+     */
+    static long count(final BigNode bigNode, final long limit)
+    {
+        // The junction edges and out edges starting from each node
+        final Map<Long, List<Edge>> junctionEdges = new HashMap<>();
+        final Map<Long, Integer> outEdgeCounts = new HashMap<>();
+        bigNode.junctionEdges().forEach(edge -> junctionEdges
+                .computeIfAbsent(edge.start().getIdentifier(), value -> new ArrayList<>())
+                .add(edge));
+        bigNode.outEdges().forEach(
+                edge -> outEdgeCounts.merge(edge.start().getIdentifier(), 1, Integer::sum));
+
+        long count = 0;
+        final Set<Long> onPath = new HashSet<>();
+        final List<Edge> path = new ArrayList<>();
+        final List<Integer> cursors = new ArrayList<>();
+        for (final Edge inEdge : bigNode.inEdges())
+        {
+            count += outEdgeCounts.getOrDefault(inEdge.end().getIdentifier(), 0);
+            path.add(inEdge);
+            cursors.add(0);
+            while (!path.isEmpty() && count <= limit)
+            {
+                ObjectTimeBudget.check();
+                final int depth = path.size() - 1;
+                final List<Edge> nextEdges = junctionEdges.getOrDefault(
+                        path.get(depth).end().getIdentifier(), Collections.emptyList());
+                final int cursor = cursors.get(depth);
+                if (cursor == nextEdges.size())
+                {
+                    // Back track
+                    onPath.remove(path.remove(depth).getIdentifier());
+                    cursors.remove(depth);
+                    continue;
+                }
+                cursors.set(depth, cursor + 1);
+                final Edge nextEdge = nextEdges.get(cursor);
+                if (onPath.add(nextEdge.getIdentifier()))
+                {
+                    count += outEdgeCounts.getOrDefault(nextEdge.end().getIdentifier(), 0);
+                    path.add(nextEdge);
+                    cursors.add(0);
+                }
+            }
+            if (count > limit)
+            {
+                break;
+            }
+        }
+        return count;
+    }
+
+    private BigNodePaths()
+    {
+    }
+}
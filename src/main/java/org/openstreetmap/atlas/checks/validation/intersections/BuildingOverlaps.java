@@ -0,0 +1,200 @@
+package org.openstreetmap.atlas.checks.validation.intersections;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.TopologyException;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.openstreetmap.atlas.checks.utility.AtlasCache;
+import org.openstreetmap.atlas.checks.utility.EntityPositions;
+import org.openstreetmap.atlas.checks.utility.GeometryCache;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.Area;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.tags.BuildingTag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The overlaps between the buildings of an {@link Atlas}, found by a self-join of the building
+ * polygons in an R-tree, in place of a spatial query per building, and cached in an
+ * {@link AtlasCache}.
+ * <p>
+ * Each unordered pair of buildings with intersecting envelopes is evaluated once, with the JTS
+ * polygons cached by {@link GeometryCache}. The overlap of a pair is the area of the intersection
+ * of the two buildings, as a proportion of the area of the smaller one, as in
+ * {@link org.openstreetmap.atlas.checks.utility.IntersectionUtilities#findIntersectionPercentage};
+ * pairs that do not overlap are not kept.
+ *
+ * @author lucylu
+ */
+final class BuildingOverlaps
+{
+    // Minimum number of points for a polygon
+    private static final int MINIMUM_POINT_COUNT_FOR_POLYGON = 3;
+    // Floating point areas of identical rings can differ in their last digits
+    private static final double AREA_TOLERANCE = 1e-9;
+    private static final Logger logger = LoggerFactory.getLogger(BuildingOverlaps.class);
+    private static final AtlasCache<BuildingOverlaps> OVERLAPS = new AtlasCache<>(
+            "building overlaps");
+
+    private final Atlas atlas;
+    private final EntityPositions positions;
+    // The buildings overlapping building b are between overlapStarts[b] and overlapStarts[b + 1]
+    private final int[] overlapStarts;
+    private final int[] overlappingBuildings;
+    private final double[] overlaps;
+
+    /**
+     * Get the shared building overlaps of an {@link Atlas}, computing them the first time
+     *
+     * @param atlas
+     *            the {@link Atlas}
+     * @return the building overlaps of the {@link Atlas}
+     */
+    static BuildingOverlaps forAtlas(final Atlas atlas)
+    {
+        return OVERLAPS.get(atlas, BuildingOverlaps::new);
+    }
+
+    /**
+     * @return the intersection area as a proportion of the smaller area, 0 if unable to intersect
+     */
+    private static double overlap(final Polygon polygon, final Polygon otherPolygon)
+    {
+        final double intersectionArea;
+        try
+        {
+            if (!polygon.intersects(otherPolygon))
+            {
+                return 0.0;
+            }
+            intersectionArea = polygon.intersection(otherPolygon).getArea();
+        }
+        catch (final TopologyException e)
+        {
+            logger.warn(String.format("Skipping intersection check. Error clipping [%s] and [%s].",
+                    polygon, otherPolygon), e);
+            return 0.0;
+        }
+        // Avoid division by zero
+        if (intersectionArea == 0)
+        {
+            return 0.0;
+        }
+        final double baselineArea = Math.min(polygon.getArea(), otherPolygon.getArea());
+        // A building covered by the other one is fully overlapped
+        return intersectionArea >= baselineArea * (1 - AREA_TOLERANCE) ? 1.0
+                : intersectionArea / baselineArea;
+    }
+
+    private BuildingOverlaps(final Atlas atlas)
+    {
+        this.atlas = atlas;
+        this.positions = EntityPositions.forAtlas(atlas);
+        final int size = this.positions.size(ItemType.AREA);
+
+        // Index the buildings with valid polygons
+        final Polygon[] polygons = new Polygon[size];
+        final STRtree index = new STRtree();
+        for (final Area area : atlas.areas(BuildingTag::isBuilding))
+        {
+            final int position = this.positions.position(area);
+            if (position != EntityPositions.NO_POSITION
+                    && GeometryCache.polygon(area).size() >= MINIMUM_POINT_COUNT_FOR_POLYGON)
+            {
+                polygons[position] = GeometryCache.jtsPolygon(area);
+                index.insert(polygons[position].getEnvelopeInternal(), position);
+            }
+        }
+        index.build();
+
+        // Evaluate each pair with intersecting envelopes once, from its lower position
+        int[] pairs = new int[0];
+        double[] pairOverlaps = new double[0];
+        int pairCount = 0;
+        final int[] degrees = new int[size + 1];
+        for (int position = 0; position < size; position++)
+        {
+            if (polygons[position] == null)
+            {
+                continue;
+            }
+            for (final Object candidate : index.query(polygons[position].getEnvelopeInternal()))
+            {
+                final int other = (Integer) candidate;
+                if (other <= position)
+                {
+                    continue;
+                }
+                final double overlap = overlap(polygons[position], polygons[other]);
+                if (overlap > 0)
+                {
+                    if (pairCount == pairOverlaps.length)
+                    {
+                        pairs = Arrays.copyOf(pairs, pairCount * 4 + 2);
+                        pairOverlaps = Arrays.copyOf(pairOverlaps, pairCount * 2 + 1);
+                    }
+                    pairs[pairCount * 2] = position;
+                    pairs[pairCount * 2 + 1] = other;
+                    pairOverlaps[pairCount++] = overlap;
+                    degrees[position + 1]++;
+                    degrees[other + 1]++;
+                }
+            }
+        }
+
+        // Keep the pairs from both sides, in compressed rows
+        for (int position = 0; position < size; position++)
+        {
+            degrees[position + 1] += degrees[position];
+        }
+        this.overlapStarts = degrees;
+        this.overlappingBuildings = new int[pairCount * 2];
+        this.overlaps = new double[pairCount * 2];
+        final int[] filled = Arrays.copyOf(this.overlapStarts, size);
+        for (int pair = 0; pair < pairCount; pair++)
+        {
+            final int first = pairs[pair * 2];
+            final int second = pairs[pair * 2 + 1];
+            this.overlappingBuildings[filled[first]] = second;
+            this.overlaps[filled[first]++] = pairOverlaps[pair];
+            this.overlappingBuildings[filled[second]] = first;
+            this.overlaps[filled[second]++] = pairOverlaps[pair];
+        }
+    }
+
+    /**
+     * @param building
+     *            a building {@link Area} of the {@link Atlas}
+     * @return {@code true} if the building was in the {@link Atlas} when the overlaps were
+     *         computed
+     */
+    boolean covers(final Area building)
+    {
+        return building.getAtlas() == this.atlas
+                && this.positions.position(building) != EntityPositions.NO_POSITION;
+    }
+
+    /**
+     * @param building
+     *            a covered building, see {@link #covers(Area)}
+     * @return the buildings overlapping the building, with their overlap
+     */
+    Map<Area, Double> overlaps(final Area building)
+    {
+        final int position = this.positions.position(building);
+        final Map<Area, Double> buildings = new LinkedHashMap<>();
+        for (int index = this.overlapStarts[position]; index < this.overlapStarts[position
+                + 1]; index++)
+        {
+            buildings.put(
+                    this.atlas.area(this.positions.identifier(ItemType.AREA,
+                            this.overlappingBuildings[index])),
+                    this.overlaps[index]);
+        }
+        return buildings;
+    }
+}
@@ -12,6 +12,7 @@ import org.openstreetmap.atlas.checks.atlas.predicates.TagPredicates;
 import org.openstreetmap.atlas.checks.atlas.predicates.TypePredicates;
 import org.openstreetmap.atlas.checks.base.BaseCheck;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.AtlasCache;
 import org.openstreetmap.atlas.geography.Location;
 import org.openstreetmap.atlas.geography.PolyLine;
 import org.openstreetmap.atlas.geography.Rectangle;
@@ -31,6 +32,9 @@ import scala.Tuple2;
  * Flags edges that are crossing other edges invalidly. If two edges are crossing each other, then
  * they should have an intersection location shared in both edges. Otherwise, their layer tag should
  * tell the difference.
+ * <p>
+ * The invalid crossings of all the edges of an atlas are computed once, see {@link EdgeCrossings},
+ * and the walkers gathering connected invalid crossings follow them.
  *
  * @author mkalender, gpogulsky, bbreithaupt
  */
@@ -48,6 +52,7 @@ public class EdgeCrossingEdgeCheck extends BaseCheck<Long>
         }
     }
 
+    private static final String CROSSINGS_STATE = "crossings";
     private static final String INSTRUCTION_FORMAT = "The road with id {0} has invalid crossings with {1}."
             + " If two roads are crossing each other, then they should have nodes at intersection"
             + " locations unless they are explicitly marked as crossing. Otherwise, crossing roads"
@@ -88,6 +93,20 @@ public class EdgeCrossingEdgeCheck extends BaseCheck<Long>
                         && !edgeLayer.get().equals(crossingEdgeLayer.get());
     }
 
+    /**
+     * Gets the layer of an {@link Edge}
+     *
+     * @param edge
+     *            an {@link Edge}
+     * @return the value of its layer tag if present, the OSM default otherwise, empty if the tag
+     *         is invalid
+     */
+    private static Optional<Long> layer(final Edge edge)
+    {
+        return Validators.hasValuesFor(edge, LayerTag.class) ? LayerTag.getTaggedValue(edge)
+                : Optional.of(OSM_LAYER_DEFAULT);
+    }
+
     public EdgeCrossingEdgeCheck(final Configuration configuration)
     {
         super(configuration);
@@ -152,6 +171,62 @@ public class EdgeCrossingEdgeCheck extends BaseCheck<Long>
         return FALLBACK_INSTRUCTIONS;
     }
 
+    /**
+     * Gets the invalid crossings of the atlas of an edge, computing them the first time
+     *
+     * @param edge
+     *            an edge of the atlas
+     * @return the invalid crossings of its atlas
+     */
+    EdgeCrossings crossings(final Edge edge)
+    {
+        final AtlasCache<EdgeCrossings> crossings = this.getRunState(CROSSINGS_STATE,
+                () -> new AtlasCache<>("edge crossings", 1));
+        return crossings.get(edge.getAtlas(), atlas -> new EdgeCrossings(atlas,
+                this::isValidCrossingEdge, EdgeCrossingEdgeCheck::layer));
+    }
+
+    /**
+     * Searches the edges crossing an edge invalidly
+     *
+     * @param edge
+     *            the {@link Edge} being crossed
+     * @return the invalid crossing {@link Edge}s
+     */
+    Stream<Edge> searchInvalidCrossingEdges(final Edge edge)
+    {
+        // Prepare the edge being tested for checks
+        final PolyLine edgeAsPolyLine = edge.asPolyLine();
+        final Rectangle edgeBounds = edge.bounds();
+        final Optional<Long> edgeLayer = layer(edge);
+
+        // Retrieve crossing edges
+        final Atlas atlas = edge.getAtlas();
+        return Iterables.asList(atlas.edgesIntersecting(edgeBounds,
+                // filter out the same edge and non-valid crossing edges
+                crossingEdge -> edge.getIdentifier() != crossingEdge.getIdentifier()
+                        && this.isValidCrossingEdge(crossingEdge)))
+                .stream()
+                .filter(crossingEdge -> crossingEdge.getOsmIdentifier() != edge
+                        .getOsmIdentifier())
+                // Go through crossing items and collect invalid crossings
+                // NOTE: Due to way sectioning same OSM way could be marked multiple times here.
+                // However,
+                // MapRoulette will display way-sectioned edges in case there is an invalid
+                // crossing.
+                // Therefore, if an OSM way crosses another OSM way multiple times in separate
+                // edges,
+                // then each edge will be marked explicitly.
+                .filter(crossingEdge ->
+                {
+                    final PolyLine crossingEdgeAsPolyLine = crossingEdge.asPolyLine();
+                    final Optional<Long> crossingEdgeLayer = layer(crossingEdge);
+                    return edgeAsPolyLine.intersections(crossingEdgeAsPolyLine).stream()
+                            .anyMatch(intersection -> !canCross(edgeAsPolyLine, edgeLayer,
+                                    crossingEdgeAsPolyLine, crossingEdgeLayer, intersection));
+                });
+    }
+
     /**
      * Function creates edge cross check flag.
      * 
@@ -202,42 +277,9 @@ public class EdgeCrossingEdgeCheck extends BaseCheck<Long>
     {
         return edge ->
         {
-            // Prepare the edge being tested for checks
-            final PolyLine edgeAsPolyLine = edge.asPolyLine();
-            final Rectangle edgeBounds = edge.bounds();
-            // If layer tag is present use its value, else use the OSM default
-            final Optional<Long> edgeLayer = Validators.hasValuesFor(edge, LayerTag.class)
-                    ? LayerTag.getTaggedValue(edge)
-                    : Optional.of(OSM_LAYER_DEFAULT);
-
-            // Retrieve crossing edges
-            final Atlas atlas = edge.getAtlas();
-            return Iterables.asList(atlas.edgesIntersecting(edgeBounds,
-                    // filter out the same edge and non-valid crossing edges
-                    crossingEdge -> edge.getIdentifier() != crossingEdge.getIdentifier()
-                            && this.isValidCrossingEdge(crossingEdge)))
-                    .stream()
-                    .filter(crossingEdge -> crossingEdge.getOsmIdentifier() != edge
-                            .getOsmIdentifier())
-                    // Go through crossing items and collect invalid crossings
-                    // NOTE: Due to way sectioning same OSM way could be marked multiple times here.
-                    // However,
-                    // MapRoulette will display way-sectioned edges in case there is an invalid
-                    // crossing.
-                    // Therefore, if an OSM way crosses another OSM way multiple times in separate
-                    // edges,
-                    // then each edge will be marked explicitly.
-                    .filter(crossingEdge ->
-                    {
-                        final PolyLine crossingEdgeAsPolyLine = crossingEdge.asPolyLine();
-                        final Optional<Long> crossingEdgeLayer = Validators
-                                .hasValuesFor(crossingEdge, LayerTag.class)
-                                        ? LayerTag.getTaggedValue(crossingEdge)
-                                        : Optional.of(OSM_LAYER_DEFAULT);
-                        return edgeAsPolyLine.intersections(crossingEdgeAsPolyLine).stream()
-                                .anyMatch(intersection -> !canCross(edgeAsPolyLine, edgeLayer,
-                                        crossingEdgeAsPolyLine, crossingEdgeLayer, intersection));
-                    });
+            final EdgeCrossings crossings = this.crossings(edge);
+            return crossings.covers(edge) ? crossings.invalidCrossings(edge).stream()
+                    : this.searchInvalidCrossingEdges(edge);
         };
     }
 
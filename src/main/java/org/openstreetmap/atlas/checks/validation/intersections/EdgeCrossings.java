@@ -0,0 +1,294 @@
+package org.openstreetmap.atlas.checks.validation.intersections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.openstreetmap.atlas.checks.utility.ConcurrentLongSet;
+import org.openstreetmap.atlas.checks.utility.EntityPositions;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.PolyLine;
+import org.openstreetmap.atlas.geography.Segment;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.Edge;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+
+/**
+ * The invalid crossings between the {@link Edge}s of an {@link Atlas}, found by a join of the
+ * segments of all the {@link Edge}s instead of a spatial query and polyline intersections per
+ * {@link Edge}.
+ * <p>
+ * Segments are bucketed in a grid by their bounds, and the segments of each cell are swept by
+ * longitude, so only segments with overlapping bounds are intersected. A pair of segments is only
+ * intersected in the cell holding the lower corner of the overlap of their bounds, so each pair is
+ * intersected once. Pairs of {@link Edge}s with different layers can never cross invalidly, and
+ * are not intersected at all. The buckets are sorted primitive keys, and the crossing pairs are
+ * packed in primitive {@code long}s, so the join does not box anything per segment or pair.
+ * <p>
+ * Crossings are symmetric, so the result is an undirected graph of the {@link Edge}s, kept in
+ * compressed rows indexed by {@link EntityPositions}.
+ *
+ * @author lucylu
+ */
+final class EdgeCrossings
+{
+    // About 1 km, so that most segments fall in a single cell
+    private static final long CELL_SIZE = 100_000L;
+    private static final long LONGITUDE_OFFSET = 1_800_000_000L;
+    private static final long LATITUDE_OFFSET = 900_000_000L;
+    // Bucket keys are made of the cell longitude and latitude indices and the segment index
+    private static final int SEGMENT_BITS = 31;
+    private static final int CELL_BITS = 16;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+    private static final long CELL_MASK = (1L << CELL_BITS) - 1;
+    private static final int PAIR_SHIFT = 32;
+    private static final long PAIR_MASK = (1L << PAIR_SHIFT) - 1;
+
+    private final Atlas atlas;
+    private final EntityPositions positions;
+    // The crossing edges of edge e are between crossingStarts[e] and crossingStarts[e + 1]
+    private final int[] crossingStarts;
+    private final int[] crossings;
+
+    /**
+     * Edges with different valid layers cross validly wherever they cross
+     */
+    private static boolean canCrossInvalidly(final Long layer, final Long otherLayer)
+    {
+        return layer == null || otherLayer == null || layer.equals(otherLayer);
+    }
+
+    private static long cell(final long longitude, final long latitude)
+    {
+        return (longitude + LONGITUDE_OFFSET) / CELL_SIZE << CELL_BITS
+                | (latitude + LATITUDE_OFFSET) / CELL_SIZE;
+    }
+
+    private static long maximumLatitude(final Segment segment)
+    {
+        return Math.max(segment.start().getLatitude().asDm7(),
+                segment.end().getLatitude().asDm7());
+    }
+
+    private static long maximumLongitude(final Segment segment)
+    {
+        return Math.max(segment.start().getLongitude().asDm7(),
+                segment.end().getLongitude().asDm7());
+    }
+
+    private static long minimumLatitude(final Segment segment)
+    {
+        return Math.min(segment.start().getLatitude().asDm7(),
+                segment.end().getLatitude().asDm7());
+    }
+
+    private static long minimumLongitude(final Segment segment)
+    {
+        return Math.min(segment.start().getLongitude().asDm7(),
+                segment.end().getLongitude().asDm7());
+    }
+
+    /**
+     * Computes the invalid crossings of an {@link Atlas}
+     *
+     * @param atlas
+     *            the {@link Atlas}
+     * @param crossingEdge
+     *            the {@link Edge}s that can cross
+     * @param layer
+     *            the layer of an {@link Edge}, empty if it has an invalid layer tag
+     */
+    EdgeCrossings(final Atlas atlas, final Predicate<Edge> crossingEdge,
+            final Function<Edge, Optional<Long>> layer)
+    {
+        this.atlas = atlas;
+        this.positions = EntityPositions.forAtlas(atlas);
+        final int size = this.positions.size(ItemType.EDGE);
+
+        // The segments of the crossing edges, and the edge position of each segment
+        final List<Segment> segments = new ArrayList<>();
+        int[] segmentEdges = new int[size];
+        final PolyLine[] polyLines = new PolyLine[size];
+        final long[] osmIdentifiers = new long[size];
+        final Long[] layers = new Long[size];
+        for (int position = 0; position < size; position++)
+        {
+            final Edge edge = this.edge(position);
+            if (edge == null || !crossingEdge.test(edge))
+            {
+                continue;
+            }
+            polyLines[position] = edge.asPolyLine();
+            osmIdentifiers[position] = edge.getOsmIdentifier();
+            layers[position] = layer.apply(edge).orElse(null);
+            for (final Segment segment : polyLines[position].segments())
+            {
+                if (segments.size() == segmentEdges.length)
+                {
+                    segmentEdges = Arrays.copyOf(segmentEdges, segments.size() * 2 + 1);
+                }
+                segmentEdges[segments.size()] = position;
+                segments.add(segment);
+            }
+        }
+
+        // Bucket the segments in the cells their bounds cover
+        long[] buckets = new long[segments.size()];
+        int bucketCount = 0;
+        for (int index = 0; index < segments.size(); index++)
+        {
+            final Segment segment = segments.get(index);
+            final long lower = cell(minimumLongitude(segment), minimumLatitude(segment));
+            final long upper = cell(maximumLongitude(segment), maximumLatitude(segment));
+            for (long cellX = lower >>> CELL_BITS; cellX <= upper >>> CELL_BITS; cellX++)
+            {
+                for (long cellY = lower & CELL_MASK; cellY <= (upper & CELL_MASK); cellY++)
+                {
+                    if (bucketCount == buckets.length)
+                    {
+                        buckets = Arrays.copyOf(buckets, bucketCount * 2 + 1);
+                    }
+                    buckets[bucketCount++] = (cellX << CELL_BITS | cellY) << SEGMENT_BITS
+                            | index;
+                }
+            }
+        }
+        Arrays.sort(buckets, 0, bucketCount);
+
+        // Join the segments of each cell
+        // The crossing pairs found, to skip the other segments of a pair, and in finding order
+        final ConcurrentLongSet invalidPairs = new ConcurrentLongSet(1);
+        long[] pairs = new long[0];
+        int pairCount = 0;
+        long[] cellSegments = new long[0];
+        int start = 0;
+        while (start < bucketCount)
+        {
+            final long cell = buckets[start] >>> SEGMENT_BITS;
+            int end = start;
+            while (end < bucketCount && buckets[end] >>> SEGMENT_BITS == cell)
+            {
+                end++;
+            }
+            // Sort the segments of the cell by minimum longitude, keeping the segment index
+            if (cellSegments.length < end - start)
+            {
+                cellSegments = new long[end - start];
+            }
+            for (int index = start; index < end; index++)
+            {
+                final int segment = (int) (buckets[index] & SEGMENT_MASK);
+                cellSegments[index - start] = (minimumLongitude(segments.get(segment))
+                        + LONGITUDE_OFFSET) << SEGMENT_BITS | segment;
+            }
+            Arrays.sort(cellSegments, 0, end - start);
+            for (int first = 0; first < end - start; first++)
+            {
+                final int firstIndex = (int) (cellSegments[first] & SEGMENT_MASK);
+                final Segment firstSegment = segments.get(firstIndex);
+                final int firstEdge = segmentEdges[firstIndex];
+                final long firstMaximumLongitude = maximumLongitude(firstSegment);
+                for (int second = first + 1; second < end - start; second++)
+                {
+                    final int secondIndex = (int) (cellSegments[second] & SEGMENT_MASK);
+                    final Segment secondSegment = segments.get(secondIndex);
+                    if (minimumLongitude(secondSegment) > firstMaximumLongitude)
+                    {
+                        break;
+                    }
+                    final int secondEdge = segmentEdges[secondIndex];
+                    if (firstEdge == secondEdge
+                            || osmIdentifiers[firstEdge] == osmIdentifiers[secondEdge]
+                            || !canCrossInvalidly(layers[firstEdge], layers[secondEdge])
+                            || maximumLatitude(firstSegment) < minimumLatitude(secondSegment)
+                            || maximumLatitude(secondSegment) < minimumLatitude(firstSegment)
+                            // Intersect the pair only in the cell of the lower corner of the
+                            // overlap of their bounds
+                            || cell(minimumLongitude(secondSegment),
+                                    Math.max(minimumLatitude(firstSegment),
+                                            minimumLatitude(secondSegment))) != cell)
+                    {
+                        continue;
+                    }
+                    final long pair = (long) Math.min(firstEdge, secondEdge) << PAIR_SHIFT
+                            | Math.max(firstEdge, secondEdge);
+                    if (invalidPairs.contains(pair))
+                    {
+                        continue;
+                    }
+                    final Location intersection = firstSegment.intersection(secondSegment);
+                    // Edges crossing at a location they both have cross validly
+                    if (intersection != null && !(polyLines[firstEdge].contains(intersection)
+                            && polyLines[secondEdge].contains(intersection)))
+                    {
+                        invalidPairs.add(pair);
+                        if (pairCount == pairs.length)
+                        {
+                            pairs = Arrays.copyOf(pairs, pairCount * 2 + 1);
+                        }
+                        pairs[pairCount++] = pair;
+                    }
+                }
+            }
+            start = end;
+        }
+
+        // Build the undirected crossing graph
+        this.crossingStarts = new int[size + 1];
+        for (int index = 0; index < pairCount; index++)
+        {
+            this.crossingStarts[(int) (pairs[index] >>> PAIR_SHIFT) + 1]++;
+            this.crossingStarts[(int) (pairs[index] & PAIR_MASK) + 1]++;
+        }
+        for (int position = 0; position < size; position++)
+        {
+            this.crossingStarts[position + 1] += this.crossingStarts[position];
+        }
+        this.crossings = new int[this.crossingStarts[size]];
+        final int[] filled = Arrays.copyOf(this.crossingStarts, size);
+        for (int index = 0; index < pairCount; index++)
+        {
+            final int first = (int) (pairs[index] >>> PAIR_SHIFT);
+            final int second = (int) (pairs[index] & PAIR_MASK);
+            this.crossings[filled[first]++] = second;
+            this.crossings[filled[second]++] = first;
+        }
+    }
+
+    /**
+     * @param edge
+     *            an {@link Edge} of the {@link Atlas}
+     * @return {@code true} if the {@link Edge} was in the {@link Atlas} when the crossings were
+     *         computed
+     */
+    boolean covers(final Edge edge)
+    {
+        return edge.getAtlas() == this.atlas
+                && this.positions.position(edge) != EntityPositions.NO_POSITION;
+    }
+
+    /**
+     * @param edge
+     *            a covered {@link Edge}, see {@link #covers(Edge)}
+     * @return the {@link Edge}s crossing the {@link Edge} invalidly
+     */
+    List<Edge> invalidCrossings(final Edge edge)
+    {
+        final int position = this.positions.position(edge);
+        final List<Edge> edges = new ArrayList<>();
+        for (int index = this.crossingStarts[position]; index < this.crossingStarts[position
+                + 1]; index++)
+        {
+            edges.add(this.edge(this.crossings[index]));
+        }
+        return edges;
+    }
+
+    private Edge edge(final int position)
+    {
+        return this.atlas.edge(this.positions.identifier(ItemType.EDGE, position));
+    }
+}
@@ -1,11 +1,14 @@
 package org.openstreetmap.atlas.checks.validation.intersections;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.openstreetmap.atlas.checks.base.BaseCheck;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.GeometryCache;
 import org.openstreetmap.atlas.checks.utility.IntersectionUtilities;
 import org.openstreetmap.atlas.geography.Polygon;
 import org.openstreetmap.atlas.geography.atlas.items.Area;
@@ -17,7 +20,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Flags the buildings that intersect/overlap with other buildings.
+ * Flags the buildings that intersect/overlap with other buildings. The overlaps of all the
+ * buildings of an atlas are computed once, see {@link BuildingOverlaps}.
  *
  * @author sid
  * @author mkalender
@@ -111,12 +115,11 @@ public class IntersectingBuildingsCheck extends BaseCheck<String>
             return Optional.empty();
         }
 
-        // Fetch possibly intersecting buildings
-        final Iterable<Area> possiblyIntersectingBuildings = object.getAtlas().areasIntersecting(
-                building.bounds(),
-                area -> BuildingTag.isBuilding(area)
-                        && building.getIdentifier() != area.getIdentifier()
-                        && area.intersects(buildingPolygon));
+        // Fetch the overlaps of the building, computed for the whole atlas
+        final BuildingOverlaps overlaps = BuildingOverlaps.forAtlas(building.getAtlas());
+        final Map<Area, Double> buildingOverlaps = overlaps.covers(building)
+                ? overlaps.overlaps(building)
+                : this.searchOverlaps(building, buildingPolygon);
 
         // Assuming that we'd find intersections/overlaps below, create a flag
         final CheckFlag flag = new CheckFlag(this.getTaskIdentifier(object));
@@ -124,33 +127,28 @@ public class IntersectingBuildingsCheck extends BaseCheck<String>
         boolean hadIntersection = false;
 
         // Go over possible intersections
-        for (final Area otherBuilding : possiblyIntersectingBuildings)
+        for (final Map.Entry<Area, Double> buildingOverlap : buildingOverlaps.entrySet())
         {
-            // Fetch other building's area as polygon and make sure it has at least 3 points
-            final Polygon otherBuildingsPolygon = otherBuilding.asPolygon();
-            if (otherBuildingsPolygon.size() < MINIMUM_POINT_COUNT_FOR_POLYGON)
-            {
-                continue;
-            }
+            final Area otherBuilding = buildingOverlap.getKey();
 
             // Create a unique identifier for building tuple to avoid processing same buildings more
             // than once
             final String uniqueIdentifier = getIdentifierTuple(building, otherBuilding);
-            if (this.isFlagged(getIdentifierTuple(building, otherBuilding)))
+            if (this.isFlagged(uniqueIdentifier))
             {
                 continue;
             }
 
             // Find intersection type
-            final IntersectionType resultType = this.findIntersectionType(buildingPolygon,
-                    otherBuildingsPolygon);
+            final IntersectionType resultType = this
+                    .findIntersectionType(buildingOverlap.getValue());
 
             // Flag based on intersection type
             if (resultType == IntersectionType.OVERLAP)
             {
                 // Get object and otherBuilding as a Surfaces
-                final Surface objectAsSurface = ((Area) object).asPolygon().surface();
-                final Surface otherBuildingAsSurface = otherBuilding.asPolygon().surface();
+                final Surface objectAsSurface = GeometryCache.surface(building);
+                final Surface otherBuildingAsSurface = GeometryCache.surface(otherBuilding);
                 // If object is larger than otherBuilding, the instruction states object contains
                 // otherBuilding
                 if (objectAsSurface.isLargerThan(otherBuildingAsSurface))
@@ -198,20 +196,16 @@ public class IntersectingBuildingsCheck extends BaseCheck<String>
     }
 
     /**
-     * Find {@link IntersectionType} for given {@link Polygon}s. There are some edge cases where
-     * there are minor boundary intersections. So we do additional area check to filter off the
-     * false positives.
+     * Find {@link IntersectionType} for the overlap of two buildings. There are some edge cases
+     * where there are minor boundary intersections. So we do additional area check to filter off
+     * the false positives.
      *
-     * @param polygon
-     *            {@link Polygon} to check for intersection
-     * @param otherPolygon
-     *            Another {@link Polygon} to check against for intersection
-     * @return {@link IntersectionType} between given {@link Polygon}s
+     * @param proportion
+     *            the intersection area of the buildings, as a proportion of the smaller one
+     * @return {@link IntersectionType} between the buildings
      */
-    private IntersectionType findIntersectionType(final Polygon polygon, final Polygon otherPolygon)
+    private IntersectionType findIntersectionType(final double proportion)
     {
-        final double proportion = IntersectionUtilities.findIntersectionPercentage(polygon,
-                otherPolygon);
         if (proportion >= OVERLAP_LOWER_LIMIT)
         {
             return IntersectionType.OVERLAP;
@@ -223,4 +217,33 @@ public class IntersectingBuildingsCheck extends BaseCheck<String>
 
         return IntersectionType.NONE;
     }
+
+    /**
+     * Searches the buildings overlapping a building
+     *
+     * @param building
+     *            the building
+     * @param buildingPolygon
+     *            its {@link Polygon}
+     * @return the overlapping buildings, with the intersection area as a proportion of the smaller
+     *         building
+     */
+    private Map<Area, Double> searchOverlaps(final Area building, final Polygon buildingPolygon)
+    {
+        final Map<Area, Double> overlaps = new LinkedHashMap<>();
+        for (final Area otherBuilding : building.getAtlas().areasIntersecting(building.bounds(),
+                area -> BuildingTag.isBuilding(area)
+                        && building.getIdentifier() != area.getIdentifier()
+                        && area.intersects(buildingPolygon)))
+        {
+            // Fetch other building's area as polygon and make sure it has at least 3 points
+            final Polygon otherBuildingsPolygon = otherBuilding.asPolygon();
+            if (otherBuildingsPolygon.size() >= MINIMUM_POINT_COUNT_FOR_POLYGON)
+            {
+                overlaps.put(otherBuilding, IntersectionUtilities
+                        .findIntersectionPercentage(buildingPolygon, otherBuildingsPolygon));
+            }
+        }
+        return overlaps;
+    }
 }
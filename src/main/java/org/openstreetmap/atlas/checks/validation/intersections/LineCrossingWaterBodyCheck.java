@@ -14,8 +14,11 @@ import java.util.stream.Stream;
 
 import org.openstreetmap.atlas.checks.atlas.predicates.TypePredicates;
 import org.openstreetmap.atlas.checks.base.BaseCheck;
+import org.openstreetmap.atlas.checks.base.ObjectTimeBudget;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.GeometryCache;
 import org.openstreetmap.atlas.checks.utility.IntersectionUtilities;
+import org.openstreetmap.atlas.checks.utility.PreparedPolyLine;
 import org.openstreetmap.atlas.geography.GeometricSurface;
 import org.openstreetmap.atlas.geography.Location;
 import org.openstreetmap.atlas.geography.MultiPolygon;
@@ -31,7 +34,6 @@ import org.openstreetmap.atlas.geography.atlas.items.Line;
 import org.openstreetmap.atlas.geography.atlas.items.LineItem;
 import org.openstreetmap.atlas.geography.atlas.items.Node;
 import org.openstreetmap.atlas.geography.atlas.items.Relation;
-import org.openstreetmap.atlas.geography.atlas.items.complex.RelationOrAreaToMultiPolygonConverter;
 import org.openstreetmap.atlas.tags.AdministrativeLevelTag;
 import org.openstreetmap.atlas.tags.BridgeTag;
 import org.openstreetmap.atlas.tags.BuildingTag;
@@ -256,8 +258,9 @@ public class LineCrossingWaterBodyCheck extends BaseCheck<Long>
         // Immediately mark as processed so other shards do not pick this up
         this.markAsFlagged(object.getOsmIdentifier());
         // First convert the waterbody to a GeometricSurface for use in querying
-        final GeometricSurface waterbody = object instanceof Area ? ((Area) object).asPolygon()
-                : new RelationOrAreaToMultiPolygonConverter().convert((Relation) object);
+        final GeometricSurface waterbody = object instanceof Area
+                ? GeometryCache.polygon((Area) object)
+                : GeometryCache.multiPolygon((Relation) object);
 
         if (waterbody instanceof MultiPolygon)
         {
@@ -391,6 +394,7 @@ public class LineCrossingWaterBodyCheck extends BaseCheck<Long>
     {
         return atlas.lineItemsIntersecting(waterbody, lineItem ->
         {
+            ObjectTimeBudget.check();
             if (isOffendingLineItem(object).test(lineItem))
             {
                 // All potentially flaggable interactions (intersect,within) between the lineItem
@@ -431,8 +435,8 @@ public class LineCrossingWaterBodyCheck extends BaseCheck<Long>
     {
         if (waterbody instanceof Polygon)
         {
-            final Set<Location> intersectionLocations = ((Polygon) waterbody)
-                    .intersections(intersectingFeature);
+            final Set<Location> intersectionLocations = GeometryCache
+                    .preparedPolyLine((Area) object).intersections(intersectingFeature);
             if (intersectionLocations.isEmpty())
             {
                 return Set.of(Tuple.createTuple((Polygon) waterbody, Set.of()));
@@ -450,11 +454,10 @@ public class LineCrossingWaterBodyCheck extends BaseCheck<Long>
                 // and intersectingFeature)
                 .map(member ->
                 {
-                    final PolyLine waterbodyComponentGeometry = member.getEntity() instanceof Area
-                            ? new Polygon((Area) member.getEntity())
-                            : new PolyLine((LineItem) member.getEntity());
-                    return new Tuple<>(waterbodyComponentGeometry,
-                            intersectingFeature.intersections(waterbodyComponentGeometry));
+                    final PreparedPolyLine waterbodyComponentGeometry = GeometryCache
+                            .preparedPolyLine(member.getEntity());
+                    return new Tuple<>(waterbodyComponentGeometry.getPolyLine(),
+                            waterbodyComponentGeometry.candidateIntersections(intersectingFeature));
                 })
                 // Only retain members that have intersections with the intersectingFeature OR are
                 // have the intersectingFeature entirely within them and not touching any inner
@@ -11,12 +11,15 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.openstreetmap.atlas.checks.base.BaseCheck;
+import org.openstreetmap.atlas.checks.base.ObjectTimeBudget;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.GeometryCache;
 import org.openstreetmap.atlas.checks.utility.IntersectionUtilities;
+import org.openstreetmap.atlas.checks.utility.PreparedPolyLine;
 import org.openstreetmap.atlas.geography.Location;
-import org.openstreetmap.atlas.geography.PolyLine;
 import org.openstreetmap.atlas.geography.Polygon;
 import org.openstreetmap.atlas.geography.atlas.items.Area;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
 import org.openstreetmap.atlas.geography.atlas.items.Edge;
 import org.openstreetmap.atlas.geography.atlas.items.LineItem;
@@ -121,8 +124,10 @@ public class OceanBleedingCheck extends BaseCheck<Long>
         final boolean oceanIsArea = object instanceof Area;
 
         // Ocean boundary, make it a closed polygon
-        final Polygon oceanBoundary = oceanIsArea ? ((Area) object).asPolygon()
+        final Polygon oceanBoundary = oceanIsArea ? GeometryCache.polygon((Area) object)
                 : new Polygon(((LineItem) object).asPolyLine());
+        // The ocean feature geometry, prepared for the intersection tests of all the land features
+        final PreparedPolyLine oceanFeature = GeometryCache.preparedPolyLine((AtlasEntity) object);
 
         // Differentiate between a coastline area (sometimes seen as islands) and a waterbody area
         final boolean oceanFeatureIsAWaterBody = this.validOceanTags.test(object);
@@ -144,7 +149,7 @@ public class OceanBleedingCheck extends BaseCheck<Long>
             // feature
             final Iterable<LineItem> intersectingLinearFeatures = object.getAtlas()
                     .lineItemsIntersecting(oceanBoundary,
-                            isInvalidlyInteractingWithOcean(oceanBoundary));
+                            isInvalidlyInteractingWithOcean(oceanFeature));
             final Iterable<Area> intersectingBuildingFeatures = object.getAtlas()
                     .areasIntersecting(oceanBoundary, BuildingTag::isBuilding);
             intersectingLinearFeatures.forEach(offendingLineItems::add);
@@ -159,9 +164,7 @@ public class OceanBleedingCheck extends BaseCheck<Long>
                             && !oceanBoundary.fullyGeometricallyEncloses(lineItem.asPolyLine())
                             || object instanceof LineItem && ((LineItem) object).asPolyLine()
                                     .intersects(lineItem.asPolyLine()))
-                            && isInvalidlyInteractingWithOcean(
-                                    oceanIsArea ? oceanBoundary : ((LineItem) object).asPolyLine())
-                                            .test(lineItem));
+                            && isInvalidlyInteractingWithOcean(oceanFeature).test(lineItem));
             final Iterable<Area> intersectingBuildingFeatures = object.getAtlas().areasIntersecting(
                     oceanBoundary,
                     area -> (oceanIsArea
@@ -224,12 +227,16 @@ public class OceanBleedingCheck extends BaseCheck<Long>
      * bridge and is either an edge with the correct highway type that is not explicitly connected
      * to a ferry terminal, or a Line that has at least one of the configurable offending tags
      *
+     * @param oceanFeature
+     *            the prepared geometry of the ocean feature
      * @return true if lineItem should be flagged, false otherwise
      */
-    private Predicate<LineItem> isInvalidlyInteractingWithOcean(final PolyLine oceanFeature)
+    private Predicate<LineItem> isInvalidlyInteractingWithOcean(
+            final PreparedPolyLine oceanFeature)
     {
         return lineItem ->
         {
+            ObjectTimeBudget.check();
             if (BridgeTag.isBridge(lineItem))
             {
                 return false;
@@ -242,12 +249,12 @@ public class OceanBleedingCheck extends BaseCheck<Long>
             {
                 return false;
             }
-            if (IntersectionUtilities.haveExplicitLocationsForIntersections(oceanFeature, lineItem))
+            final Set<Location> intersections = oceanFeature.intersections(lineItem.asPolyLine());
+            if (IntersectionUtilities.haveExplicitLocationsForIntersections(
+                    oceanFeature.getPolyLine(), lineItem, intersections))
             {
                 // All intersections are explicit (or there are none -> full containment), so make
                 // sure they're marked as ferry terminals
-                final Set<Location> intersections = oceanFeature
-                        .intersections(lineItem.asPolyLine());
 
                 if (!intersections.contains(((Edge) lineItem).start().getLocation())
                         && !intersections.contains(((Edge) lineItem).end().getLocation()))
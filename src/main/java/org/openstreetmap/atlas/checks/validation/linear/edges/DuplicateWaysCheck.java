@@ -7,7 +7,6 @@ import java.util.Optional;
 import org.openstreetmap.atlas.checks.base.BaseCheck;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
 import org.openstreetmap.atlas.geography.PolyLine;
-import org.openstreetmap.atlas.geography.Rectangle;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
 import org.openstreetmap.atlas.geography.atlas.items.Edge;
 import org.openstreetmap.atlas.tags.AreaTag;
@@ -56,11 +55,13 @@ public class DuplicateWaysCheck extends BaseCheck
         final Edge edge = (Edge) object;
         final PolyLine edgePoly = edge.asPolyLine();
 
-        final Rectangle bounds = edge.asPolyLine().bounds();
-        // Get Edges which are contained by or intersect the bounds, and then filter
-        // Out the non-master Edges as the bounds Edges are not guaranteed to be uni-directional
-        final Iterable<Edge> edgesInBounds = edge.getAtlas().edgesIntersecting(bounds,
-                Edge::isMasterEdge);
+        // An Edge can only overlap the shape of Edges it shares a segment with, which are indexed
+        // once per atlas. Otherwise, get Edges which are contained by or intersect the bounds,
+        // and then filter Out the non-master Edges as the bounds Edges are not guaranteed to be
+        // uni-directional
+        final EdgeSegments segments = EdgeSegments.forAtlas(edge.getAtlas());
+        final Iterable<Edge> edgesInBounds = segments.covers(edge) ? segments.sharingSegments(edge)
+                : edge.getAtlas().edgesIntersecting(edgePoly.bounds(), Edge::isMasterEdge);
 
         for (final Edge edgeInBounds : edgesInBounds)
         {
@@ -0,0 +1,239 @@
+package org.openstreetmap.atlas.checks.validation.linear.edges;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.openstreetmap.atlas.checks.utility.AtlasCache;
+import org.openstreetmap.atlas.checks.utility.EntityPositions;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.Edge;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+
+/**
+ * The segments shared by the master {@link Edge}s of an {@link Atlas}, kept in an
+ * {@link AtlasCache} in place of a spatial query and polyline comparisons per {@link Edge}.
+ * <p>
+ * Each segment is normalized so that it does not depend on its direction, by ordering the
+ * concatenated values of its two {@link Location}s, and hashed into a sorted primitive key made of
+ * the upper bits of its hash and of the segment index. Segments with the same hash bits are
+ * compared exactly, and the segments held by more than one {@link Edge} are kept in groups, so the
+ * {@link Edge}s sharing a segment with an {@link Edge} are found by looking up the groups of its
+ * segments.
+ *
+ * @author lucylu
+ */
+final class EdgeSegments
+{
+    private static final int NO_GROUP = -1;
+    // Bucket keys are made of the upper bits of the segment hash and the segment index
+    private static final int SEGMENT_BITS = 31;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+    private static final int MIX_SHIFT = 33;
+    private static final long MIX_MULTIPLIER = 0xff51afd7ed558ccdL;
+    private static final long MIX_SECOND_MULTIPLIER = 0xc4ceb9fe1a85ec53L;
+    private static final AtlasCache<EdgeSegments> SEGMENTS = new AtlasCache<>("edge segments");
+
+    private final Atlas atlas;
+    private final EntityPositions positions;
+    // The segments of edge e are between segmentStarts[e] and segmentStarts[e + 1]
+    private final int[] segmentStarts;
+    // The edge of each segment, and its group when it is shared with other segments
+    private final int[] segmentEdges;
+    private final int[] segmentGroups;
+    // The segments of group g are between groupStarts[g] and groupStarts[g + 1]
+    private final int[] groupStarts;
+    private final int[] groupSegments;
+
+    /**
+     * Get the shared edge segments of an {@link Atlas}, computing them the first time
+     *
+     * @param atlas
+     *            the {@link Atlas}
+     * @return the edge segments of the {@link Atlas}
+     */
+    static EdgeSegments forAtlas(final Atlas atlas)
+    {
+        return SEGMENTS.get(atlas, EdgeSegments::new);
+    }
+
+    /**
+     * Spreads the bits of a value (MurmurHash3 finalizer)
+     */
+    private static long mix(final long value)
+    {
+        long hash = value;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_SECOND_MULTIPLIER;
+        hash ^= hash >>> MIX_SHIFT;
+        return hash;
+    }
+
+    private EdgeSegments(final Atlas atlas)
+    {
+        this.atlas = atlas;
+        this.positions = EntityPositions.forAtlas(atlas);
+        final int size = this.positions.size(ItemType.EDGE);
+
+        // The normalized segments of the master edges
+        this.segmentStarts = new int[size + 1];
+        long[] lowLocations = new long[size];
+        long[] highLocations = new long[size];
+        int[] edges = new int[size];
+        int segmentCount = 0;
+        for (int position = 0; position < size; position++)
+        {
+            this.segmentStarts[position] = segmentCount;
+            final Edge edge = this.edge(position);
+            if (edge == null || !edge.isMasterEdge())
+            {
+                continue;
+            }
+            Location start = null;
+            for (final Location end : edge.asPolyLine())
+            {
+                if (start != null)
+                {
+                    if (segmentCount == edges.length)
+                    {
+                        lowLocations = Arrays.copyOf(lowLocations, segmentCount * 2 + 1);
+                        highLocations = Arrays.copyOf(highLocations, segmentCount * 2 + 1);
+                        edges = Arrays.copyOf(edges, segmentCount * 2 + 1);
+                    }
+                    lowLocations[segmentCount] = Math.min(start.asConcatenation(),
+                            end.asConcatenation());
+                    highLocations[segmentCount] = Math.max(start.asConcatenation(),
+                            end.asConcatenation());
+                    edges[segmentCount++] = position;
+                }
+                start = end;
+            }
+        }
+        this.segmentStarts[size] = segmentCount;
+        this.segmentEdges = Arrays.copyOf(edges, segmentCount);
+
+        // Sort the segments by hash, so identical segments are next to each other
+        final long[] keys = new long[segmentCount];
+        for (int segment = 0; segment < segmentCount; segment++)
+        {
+            final long hash = mix(lowLocations[segment] ^ mix(highLocations[segment]));
+            keys[segment] = hash & ~SEGMENT_MASK | segment;
+        }
+        Arrays.sort(keys);
+
+        // Group identical segments, within each run of keys with the same hash bits
+        this.segmentGroups = new int[segmentCount];
+        Arrays.fill(this.segmentGroups, NO_GROUP);
+        int[] groupSizes = new int[0];
+        int groupCount = 0;
+        int runStart = 0;
+        while (runStart < segmentCount)
+        {
+            int runEnd = runStart + 1;
+            while (runEnd < segmentCount
+                    && (keys[runEnd] & ~SEGMENT_MASK) == (keys[runStart] & ~SEGMENT_MASK))
+            {
+                runEnd++;
+            }
+            for (int first = runStart; first < runEnd; first++)
+            {
+                final int segment = (int) (keys[first] & SEGMENT_MASK);
+                if (this.segmentGroups[segment] != NO_GROUP)
+                {
+                    continue;
+                }
+                int groupSize = 1;
+                for (int second = first + 1; second < runEnd; second++)
+                {
+                    final int other = (int) (keys[second] & SEGMENT_MASK);
+                    if (lowLocations[other] == lowLocations[segment]
+                            && highLocations[other] == highLocations[segment])
+                    {
+                        if (groupSize == 1)
+                        {
+                            if (groupCount == groupSizes.length)
+                            {
+                                groupSizes = Arrays.copyOf(groupSizes, groupCount * 2 + 1);
+                            }
+                            this.segmentGroups[segment] = groupCount++;
+                        }
+                        this.segmentGroups[other] = this.segmentGroups[segment];
+                        groupSize++;
+                    }
+                }
+                if (groupSize > 1)
+                {
+                    groupSizes[this.segmentGroups[segment]] = groupSize;
+                }
+            }
+            runStart = runEnd;
+        }
+
+        // Keep the segments of each group, in compressed rows
+        this.groupStarts = new int[groupCount + 1];
+        for (int group = 0; group < groupCount; group++)
+        {
+            this.groupStarts[group + 1] = this.groupStarts[group] + groupSizes[group];
+        }
+        this.groupSegments = new int[this.groupStarts[groupCount]];
+        final int[] filled = Arrays.copyOf(this.groupStarts, groupCount);
+        for (int segment = 0; segment < segmentCount; segment++)
+        {
+            if (this.segmentGroups[segment] != NO_GROUP)
+            {
+                this.groupSegments[filled[this.segmentGroups[segment]]++] = segment;
+            }
+        }
+    }
+
+    /**
+     * @param edge
+     *            a master {@link Edge} of the {@link Atlas}
+     * @return {@code true} if the {@link Edge} was in the {@link Atlas} when the segments were
+     *         computed
+     */
+    boolean covers(final Edge edge)
+    {
+        return edge.getAtlas() == this.atlas && edge.isMasterEdge()
+                && this.positions.position(edge) != EntityPositions.NO_POSITION;
+    }
+
+    /**
+     * @param edge
+     *            a covered {@link Edge}, see {@link #covers(Edge)}
+     * @return the other master {@link Edge}s having at least one of the segments of the
+     *         {@link Edge}, in either direction
+     */
+    Set<Edge> sharingSegments(final Edge edge)
+    {
+        final int position = this.positions.position(edge);
+        final Set<Edge> edges = new LinkedHashSet<>();
+        for (int segment = this.segmentStarts[position]; segment < this.segmentStarts[position
+                + 1]; segment++)
+        {
+            final int group = this.segmentGroups[segment];
+            if (group == NO_GROUP)
+            {
+                continue;
+            }
+            for (int index = this.groupStarts[group]; index < this.groupStarts[group
+                    + 1]; index++)
+            {
+                final int other = this.segmentEdges[this.groupSegments[index]];
+                if (other != position)
+                {
+                    edges.add(this.edge(other));
+                }
+            }
+        }
+        return edges;
+    }
+
+    private Edge edge(final int position)
+    {
+        return this.atlas.edge(this.positions.identifier(ItemType.EDGE, position));
+    }
+}
@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.openstreetmap.atlas.checks.base.BaseCheck;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
@@ -80,27 +81,13 @@ public class OverlappingEdgeCheck extends BaseCheck<Long>
     {
         if (!this.isFlagged(object.getIdentifier()))
         {
-            final Atlas atlas = object.getAtlas();
-            final Set<AtlasObject> overlappingItems = new HashSet<>();
-            Location start = null;
-            for (final Location end : ((Edge) object).asPolyLine())
-            {
-                if (start != null)
-                {
-                    // we only have to check one end for intersecting edges
-                    final Rectangle box = start.boxAround(Distance.meters(0));
-                    // add all overlapping edges not yet flagged and not pedestrian areas
-                    overlappingItems.addAll(Iterables
-                            .stream(atlas.edgesIntersecting(box, Edge::isMasterEdge))
-                            .filter(notEqual(object).and(notIn(object))
-                                    .and(this.overlapsSegment(start, end))
-                                    .and(this.filterPedestrianAreas ? edge -> !this.edgeIsArea(edge)
-                                            : this.notPedestrianAreas((Edge) object))
-                                    .and(this.haveSameLevels(object)))
-                            .collectToSet());
-                }
-                start = end;
-            }
+            final Edge edge = (Edge) object;
+            final EdgeSegments segments = EdgeSegments.forAtlas(object.getAtlas());
+            // The edges sharing segments are indexed once per atlas
+            final Set<AtlasObject> overlappingItems = segments.covers(edge)
+                    ? segments.sharingSegments(edge).stream().filter(this.overlapping(edge))
+                            .collect(Collectors.<AtlasObject> toSet())
+                    : this.searchOverlappingEdges(edge);
             if (!overlappingItems.isEmpty())
             {
                 this.markAsFlagged(object.getIdentifier());
@@ -236,6 +223,20 @@ public class OverlappingEdgeCheck extends BaseCheck<Long>
                 .collectToList();
     }
 
+    /**
+     * @param object
+     *            the {@link Edge} being checked
+     * @return a filter of the {@link Edge}s sharing a segment with {@code object} that overlap it:
+     *         not {@code object} itself, not pedestrian areas and on the same level
+     */
+    private Predicate<Edge> overlapping(final Edge object)
+    {
+        return notEqual(object).and(notIn(object))
+                .and(this.filterPedestrianAreas ? edge -> !this.edgeIsArea(edge)
+                        : this.notPedestrianAreas(object))
+                .and(this.haveSameLevels(object));
+    }
+
     private Predicate<Edge> overlapsSegment(final Location start, final Location end)
     {
         return edge ->
@@ -245,4 +246,35 @@ public class OverlappingEdgeCheck extends BaseCheck<Long>
                     || polyLine.contains(new Segment(end, start));
         };
     }
+
+    /**
+     * Searches the {@link Edge}s overlapping an {@link Edge} that the {@link EdgeSegments} do not
+     * cover
+     *
+     * @param object
+     *            the {@link Edge} being checked
+     * @return the overlapping {@link Edge}s
+     */
+    private Set<AtlasObject> searchOverlappingEdges(final Edge object)
+    {
+        final Atlas atlas = object.getAtlas();
+        final Set<AtlasObject> overlappingItems = new HashSet<>();
+        Location start = null;
+        for (final Location end : object.asPolyLine())
+        {
+            if (start != null)
+            {
+                // we only have to check one end for intersecting edges
+                final Rectangle box = start.boxAround(Distance.meters(0));
+                // add all overlapping edges not yet flagged and not pedestrian areas
+                overlappingItems.addAll(
+                        Iterables.stream(atlas.edgesIntersecting(box, Edge::isMasterEdge))
+                                .filter(this.overlapsSegment(start, end)
+                                        .and(this.overlapping(object)))
+                                .collectToSet());
+            }
+            start = end;
+        }
+        return overlappingItems;
+    }
 }
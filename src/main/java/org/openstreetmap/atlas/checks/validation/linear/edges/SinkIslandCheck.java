@@ -13,7 +13,9 @@ import java.util.stream.StreamSupport;
 
 import org.openstreetmap.atlas.checks.atlas.predicates.TagPredicates;
 import org.openstreetmap.atlas.checks.base.BaseCheck;
+import org.openstreetmap.atlas.checks.base.ObjectTimeBudget;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.AtlasCache;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
 import org.openstreetmap.atlas.geography.atlas.items.Edge;
 import org.openstreetmap.atlas.tags.AccessTag;
@@ -32,6 +34,16 @@ import org.openstreetmap.atlas.utilities.configuration.Configuration;
 /**
  * This check flags islands of roads where it is impossible to get out. The simplest is a one-way
  * that dead-ends; that would be a one-edge island.
+ * <p>
+ * By default islands are found by a search around each edge, bounded by {@code tree.size}. With
+ * {@code engine} set to {@code components}, they are computed once per atlas from the strongly
+ * connected components of the road graph, see {@link SinkIslandComponents}, which finds islands up
+ * to {@code components.island.size.maximum} edges.
+ * <p>
+ * The search does not count a {@code motor_vehicle=yes} edge leading to pedestrian ways among the
+ * sink edges of an island searched from another edge, but flags it when the search starts from it.
+ * The components do not depend on where a search starts, so the components engine always flags
+ * such an edge when it leads to no other navigable edge.
  *
  * @author matthieun
  * @author cuthbertm
@@ -44,6 +56,15 @@ import org.openstreetmap.atlas.utilities.configuration.Configuration;
  */
 public class SinkIslandCheck extends BaseCheck<Long>
 {
+    /**
+     * The engine searching around each edge
+     */
+    public static final String ENGINE_SEARCH = "search";
+    /**
+     * The engine computing the strongly connected components of the whole atlas
+     */
+    public static final String ENGINE_COMPONENTS = "components";
+
     private static final AmenityTag[] AMENITY_VALUES_TO_EXCLUDE = { AmenityTag.PARKING,
             AmenityTag.PARKING_SPACE, AmenityTag.MOTORCYCLE_PARKING, AmenityTag.PARKING_ENTRANCE };
     private static final String DEFAULT_MINIMUM_HIGHWAY_TYPE = "SERVICE";
@@ -63,7 +84,11 @@ public class SinkIslandCheck extends BaseCheck<Long>
             .highwayTag().isMoreImportantThanOrEqualTo(HighwayTag.SERVICE);
     private static final long TREE_SIZE_DEFAULT = 50;
     private static final boolean DEFAULT_SERVICE_IN_PEDESTRIAN_FILTER = false;
+    private static final long DEFAULT_ISLAND_SIZE_MAXIMUM = 500;
+    private static final String COMPONENTS_STATE = "components";
     private static final long serialVersionUID = -1432150496331502258L;
+    private final boolean componentsEngine;
+    private final int islandSizeMaximum;
     private final HighwayTag minimumHighwayType;
     private final int storeSize;
     private final int treeSize;
@@ -91,6 +116,10 @@ public class SinkIslandCheck extends BaseCheck<Long>
         this.storeSize = (int) (this.treeSize / LOAD_FACTOR);
         this.serviceInPedestrianNetworkFilter = configurationValue(configuration,
                 "filter.pedestrian.network", DEFAULT_SERVICE_IN_PEDESTRIAN_FILTER);
+        this.componentsEngine = ENGINE_COMPONENTS
+                .equalsIgnoreCase(configurationValue(configuration, "engine", ENGINE_SEARCH));
+        this.islandSizeMaximum = configurationValue(configuration,
+                "components.island.size.maximum", DEFAULT_ISLAND_SIZE_MAXIMUM, Math::toIntExact);
     }
 
     @Override
@@ -107,95 +136,22 @@ public class SinkIslandCheck extends BaseCheck<Long>
     @Override
     protected Optional<CheckFlag> flag(final AtlasObject object)
     {
-        // Flag to keep track of whether we found an issue or not
-        boolean haltedSearch = false;
-
-        // The current edge to be explored
-        Edge candidate = (Edge) object;
-
-        // A set of all edges that we have already explored
-        final Set<AtlasObject> explored = new HashSet<>(this.storeSize, LOAD_FACTOR);
-        // A set of all sink edges
-        final Set<AtlasObject> terminal = new HashSet<>();
-        // Current queue of candidates that we can draw from
-        final Queue<Edge> candidates = new ArrayDeque<>(this.storeSize);
-
-        // Start edge always explored
-        explored.add(candidate);
-
-        // Keep looping while we still have a valid candidate to explore
-        while (candidate != null)
+        if (this.componentsEngine)
         {
-            // If this edge has certain characteristics, we can be sure that we don't want to
-            // flag it.
-            if (this.edgeCharacteristicsToIgnore(candidate))
-            {
-                haltedSearch = true;
-                explored.add(candidate);
-                break;
-            }
-
-            // Retrieve all the valid outgoing edges to explore
-            final List<Edge> outEdges = candidate.outEdges().stream().filter(this::validEdge)
-                    .distinct().sorted().collect(Collectors.toList());
-
-            // Validate highway=pedestrian edges connected to candidate if candidate is
-            // motor_vehicle=yes (add to outEdges)
-            if (candidate.getTag(MotorVehicleTag.KEY).orElse(MotorVehicleTag.NO.name())
-                    .equals(MotorVehicleTag.YES.name()))
-            {
-                outEdges.addAll(candidate.outEdges().stream()
-                        .filter(HighwayTag::isPedestrianNavigableHighway).distinct().sorted()
-                        .collect(Collectors.toList()));
-            }
-
-            if (outEdges.isEmpty())
-            {
-                // Sink edge. Don't mark the edge explored until we know how big the tree is
-                terminal.add(candidate);
-            }
-
-            else
+            final Edge edge = (Edge) object;
+            final SinkIslandComponents components = this.components(edge);
+            if (components.covers(edge))
             {
-                // Add the current candidate to the set of already explored edges
-                explored.add(candidate);
-
-                // From the list of outgoing edges from the current candidate filter out any
-                // highway=pedestrian edges that were picked up and filter out any edges that have
-                // already been explored and add all the rest to the queue of possible candidates
-                outEdges.stream().filter(this::validEdge)
-                        .filter(outEdge -> !explored.contains(outEdge)).forEach(candidates::add);
-
-                // If the number of available candidates and the size of the currently explored
-                // items is larger then the configurable tree size, then we can break out of the
-                // loop and assume that this is not a SinkIsland
-                if (candidates.size() + explored.size() > this.treeSize)
+                final Set<Edge> island = components.island(edge);
+                if (island.isEmpty())
                 {
-                    haltedSearch = true;
-                    break;
+                    return Optional.empty();
                 }
+                island.forEach(marked -> this.markAsFlagged(marked.getIdentifier()));
+                return Optional.of(createFlag(island, this.getLocalizedInstruction(0)));
             }
-
-            // Get the next candidate
-            candidate = candidates.poll();
-        }
-
-        // Unify all explored edges and mark them so we don't process them more than once
-        explored.addAll(terminal);
-        explored.forEach(marked -> this.markAsFlagged(marked.getIdentifier()));
-
-        if (!haltedSearch)
-        {
-            // Include all touched edges
-            return Optional.of(createFlag(explored, this.getLocalizedInstruction(0)));
-        }
-        else if (!terminal.isEmpty())
-        {
-            // Include only edges explicitly marked as sink islands during processing
-            return Optional.of(createFlag(terminal, this.getLocalizedInstruction(0)));
         }
-        // No encountered sink edges, and a stop criteria was met.
-        return Optional.empty();
+        return this.searchIsland(object);
     }
 
     @Override
@@ -204,6 +160,22 @@ public class SinkIslandCheck extends BaseCheck<Long>
         return FALLBACK_INSTRUCTIONS;
     }
 
+    /**
+     * Gets the sink islands of the atlas of an edge, computing them the first time
+     *
+     * @param edge
+     *            an edge of the atlas
+     * @return the sink islands of its atlas
+     */
+    private SinkIslandComponents components(final Edge edge)
+    {
+        final AtlasCache<SinkIslandComponents> components = this.getRunState(COMPONENTS_STATE,
+                () -> new AtlasCache<>("sink island components", 1));
+        return components.get(edge.getAtlas(),
+                atlas -> new SinkIslandComponents(atlas, this::validEdge, this::isExit,
+                        this.islandSizeMaximum));
+    }
+
     /**
      * This function checks an edge to determine whether it has certain characteristics that signify
      * to us that we do not want to keep examining this component of the network.
@@ -217,21 +189,7 @@ public class SinkIslandCheck extends BaseCheck<Long>
     {
         // If the edge has already been flagged by another process then we can break out of the
         // loop and assume that whether the check was a flag or not was handled by the other process
-        return this.isFlagged(edge.getIdentifier())
-                // We don't want to handle certain types of parking amenities
-                || this.endOrStartNodeHasAmenityTypeToExclude(edge)
-                // Ignore edges that have been way sectioned at the border, as has high probability
-                // of creating a false positive due to the sectioning of the way
-                || SyntheticBoundaryNodeTag.isBoundaryNode(edge.end())
-                || SyntheticBoundaryNodeTag.isBoundaryNode(edge.start())
-                // If the serviceInPedestrianNetworkFilter switch is off, ignore edges that are of
-                // type at least service and are surrounded by pedestrian navigable ways. To flag
-                // such edges, the filter must be on and it's implied that the edge must not have
-                // the motor_vehicle tag.
-                || !this.serviceInPedestrianNetworkFilter && IS_AT_LEAST_SERVICE_ROAD.test(edge)
-                        && this.isConnectedToPedestrianNavigableHighway(edge)
-                // Ignore service edges that end in a building or are within an airport polygon
-                || SERVICE_ROAD.test(edge) && this.intersectsAirportOrBuilding(edge);
+        return this.isFlagged(edge.getIdentifier()) || this.isExit(edge);
     }
 
     /**
@@ -297,6 +255,33 @@ public class SinkIslandCheck extends BaseCheck<Long>
         return edge.connectedEdges().stream().anyMatch(HighwayTag::isPedestrianNavigableHighway);
     }
 
+    /**
+     * Checks if it is considered possible to get out of the road network from an edge, because of
+     * its characteristics
+     *
+     * @param edge
+     *            An Edge we're examining
+     * @return {@code true} if the edge has an amenity type we want to exclude, or ends in a
+     *         boundary node, {@code false} otherwise
+     */
+    private boolean isExit(final Edge edge)
+    {
+        // We don't want to handle certain types of parking amenities
+        return this.endOrStartNodeHasAmenityTypeToExclude(edge)
+                // Ignore edges that have been way sectioned at the border, as has high probability
+                // of creating a false positive due to the sectioning of the way
+                || SyntheticBoundaryNodeTag.isBoundaryNode(edge.end())
+                || SyntheticBoundaryNodeTag.isBoundaryNode(edge.start())
+                // If the serviceInPedestrianNetworkFilter switch is off, ignore edges that are of
+                // type at least service and are surrounded by pedestrian navigable ways. To flag
+                // such edges, the filter must be on and it's implied that the edge must not have
+                // the motor_vehicle tag.
+                || !this.serviceInPedestrianNetworkFilter && IS_AT_LEAST_SERVICE_ROAD.test(edge)
+                        && this.isConnectedToPedestrianNavigableHighway(edge)
+                // Ignore service edges that end in a building or are within an airport polygon
+                || SERVICE_ROAD.test(edge) && this.intersectsAirportOrBuilding(edge);
+    }
+
     /**
      * Checks if the edge is car navigable in terms of {@link MotorVehicleTag}, {@link MotorcarTag}
      * and {@link VehicleTag}. Edge is navigable if 1) MotorVehicleTag, MotorcarTag and VehicleTag
@@ -333,6 +318,107 @@ public class SinkIslandCheck extends BaseCheck<Long>
                 .anyMatch(area -> area.asPolygon().fullyGeometricallyEncloses(edge.asPolyLine()));
     }
 
+    /**
+     * Searches the island of an edge, up to the configured tree size
+     *
+     * @param object
+     *            the edge to start from
+     * @return a flag of the island or of the sink edges found, if any
+     */
+    private Optional<CheckFlag> searchIsland(final AtlasObject object)
+    {
+        // Flag to keep track of whether we found an issue or not
+        boolean haltedSearch = false;
+
+        // The current edge to be explored
+        Edge candidate = (Edge) object;
+
+        // A set of all edges that we have already explored
+        final Set<AtlasObject> explored = new HashSet<>(this.storeSize, LOAD_FACTOR);
+        // A set of all sink edges
+        final Set<AtlasObject> terminal = new HashSet<>();
+        // Current queue of candidates that we can draw from
+        final Queue<Edge> candidates = new ArrayDeque<>(this.storeSize);
+
+        // Start edge always explored
+        explored.add(candidate);
+
+        // Keep looping while we still have a valid candidate to explore
+        while (candidate != null)
+        {
+            ObjectTimeBudget.check();
+            // If this edge has certain characteristics, we can be sure that we don't want to
+            // flag it.
+            if (this.edgeCharacteristicsToIgnore(candidate))
+            {
+                haltedSearch = true;
+                explored.add(candidate);
+                break;
+            }
+
+            // Retrieve all the valid outgoing edges to explore
+            final List<Edge> outEdges = candidate.outEdges().stream().filter(this::validEdge)
+                    .distinct().sorted().collect(Collectors.toList());
+
+            // Validate highway=pedestrian edges connected to candidate if candidate is
+            // motor_vehicle=yes (add to outEdges)
+            if (candidate.getTag(MotorVehicleTag.KEY).orElse(MotorVehicleTag.NO.name())
+                    .equals(MotorVehicleTag.YES.name()))
+            {
+                outEdges.addAll(candidate.outEdges().stream()
+                        .filter(HighwayTag::isPedestrianNavigableHighway).distinct().sorted()
+                        .collect(Collectors.toList()));
+            }
+
+            if (outEdges.isEmpty())
+            {
+                // Sink edge. Don't mark the edge explored until we know how big the tree is
+                terminal.add(candidate);
+            }
+
+            else
+            {
+                // Add the current candidate to the set of already explored edges
+                explored.add(candidate);
+
+                // From the list of outgoing edges from the current candidate filter out any
+                // highway=pedestrian edges that were picked up and filter out any edges that have
+                // already been explored and add all the rest to the queue of possible candidates
+                outEdges.stream().filter(this::validEdge)
+                        .filter(outEdge -> !explored.contains(outEdge)).forEach(candidates::add);
+
+                // If the number of available candidates and the size of the currently explored
+                // items is larger then the configurable tree size, then we can break out of the
+                // loop and assume that this is not a SinkIsland
+                if (candidates.size() + explored.size() > this.treeSize)
+                {
+                    haltedSearch = true;
+                    break;
+                }
+            }
+
+            // Get the next candidate
+            candidate = candidates.poll();
+        }
+
+        // Unify all explored edges and mark them so we don't process them more than once
+        explored.addAll(terminal);
+        explored.forEach(marked -> this.markAsFlagged(marked.getIdentifier()));
+
+        if (!haltedSearch)
+        {
+            // Include all touched edges
+            return Optional.of(createFlag(explored, this.getLocalizedInstruction(0)));
+        }
+        else if (!terminal.isEmpty())
+        {
+            // Include only edges explicitly marked as sink islands during processing
+            return Optional.of(createFlag(terminal, this.getLocalizedInstruction(0)));
+        }
+        // No encountered sink edges, and a stop criteria was met.
+        return Optional.empty();
+    }
+
     /**
      * This function will check various elements of the edge to make sure that we should be looking
      * at it.
@@ -0,0 +1,393 @@
+package org.openstreetmap.atlas.checks.validation.linear.edges;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.openstreetmap.atlas.checks.utility.EntityPositions;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.Edge;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+
+/**
+ * The sink islands of the navigable edges of an {@link Atlas}, derived from the strongly connected
+ * components of the directed edge graph instead of searching around each edge.
+ * <p>
+ * The components are computed with an iterative version of Tarjan's algorithm, which completes a
+ * component after all the components it leads to. An edge can get out if its component contains
+ * an exit edge, or leads to a component that can get out, or if more than the maximum island size
+ * edges can be reached from it. The edges reached from a component are first bounded by the sum of
+ * the edges reached from the components it leads to; only when that sum is above the maximum
+ * island size, edges reachable through several paths being counted more than once, are the
+ * distinct edges counted by a search of the components, which stops past the maximum island size.
+ * The edges that can not get out are grouped into islands of connected components.
+ * <p>
+ * Edges are numbered by their {@link EntityPositions}, and the graph, the components and the
+ * islands are kept in primitive arrays, so the memory used is linear in the number of edges and
+ * connections, and the recursion depth does not depend on the size of the network.
+ *
+ * @author lucylu
+ */
+final class SinkIslandComponents
+{
+    private static final int NO_COMPONENT = -1;
+    private static final int NO_ISLAND = -1;
+
+    private final Atlas atlas;
+    private final EntityPositions positions;
+    // Island of each edge, NO_ISLAND when the edge can get out or is not navigable
+    private final int[] islands;
+    // Edges sorted by island, the edges of island i are between islandStarts[i] and
+    // islandStarts[i + 1]
+    private final int[] islandStarts;
+    private final int[] islandEdges;
+
+    /**
+     * Finds the strongly connected components of the graph, with an iterative version of Tarjan's
+     * algorithm, and the components that can get out
+     *
+     * @return the number of components
+     */
+    private static int components(final BitSet navigableEdges, final BitSet exits,
+            final int[] successorStarts, final int[] successors, final int maximumIslandSize,
+            final int[] components, final BitSet escapingComponents)
+    {
+        final int size = components.length;
+        Arrays.fill(components, NO_COMPONENT);
+        // Discovery order of each edge starting from 1, 0 for edges not discovered yet
+        final int[] order = new int[size];
+        final int[] lowLinks = new int[size];
+        // The next successor to visit from each edge on the search path
+        final int[] cursors = new int[size];
+        final int[] path = new int[size];
+        final int[] stack = new int[size];
+        final BitSet onStack = new BitSet(size);
+        // Reached edges of each component, capped above the maximum island size
+        final int[] reached = new int[size];
+        // The last component a successor component was counted for
+        final int[] counted = new int[size];
+        Arrays.fill(counted, NO_COMPONENT);
+        // The members of component c are between memberStarts[c] and memberStarts[c + 1]
+        final int[] memberStarts = new int[size + 1];
+        final int[] members = new int[size];
+        // The last component a search of the distinct reached edges visited a component for
+        final int[] visited = new int[size];
+        Arrays.fill(visited, NO_COMPONENT);
+        final int[] queue = new int[size];
+        int discovered = 0;
+        int stackSize = 0;
+        int componentCount = 0;
+
+        for (int root = navigableEdges.nextSetBit(0); root >= 0; root = navigableEdges
+                .nextSetBit(root + 1))
+        {
+            if (order[root] != 0)
+            {
+                continue;
+            }
+            int depth = 0;
+            order[root] = ++discovered;
+            lowLinks[root] = discovered;
+            cursors[root] = successorStarts[root];
+            stack[stackSize++] = root;
+            onStack.set(root);
+            path[depth++] = root;
+            while (depth > 0)
+            {
+                final int edge = path[depth - 1];
+                if (cursors[edge] < successorStarts[edge + 1])
+                {
+                    final int successor = successors[cursors[edge]++];
+                    if (order[successor] == 0)
+                    {
+                        order[successor] = ++discovered;
+                        lowLinks[successor] = discovered;
+                        cursors[successor] = successorStarts[successor];
+                        stack[stackSize++] = successor;
+                        onStack.set(successor);
+                        path[depth++] = successor;
+                    }
+                    else if (onStack.get(successor))
+                    {
+                        lowLinks[edge] = Math.min(lowLinks[edge], order[successor]);
+                    }
+                    continue;
+                }
+                depth--;
+                if (depth > 0)
+                {
+                    final int parent = path[depth - 1];
+                    lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[edge]);
+                }
+                if (lowLinks[edge] != order[edge])
+                {
+                    continue;
+                }
+
+                // The edge is the root of a component, made of the edges above it on the stack
+                final int component = componentCount++;
+                int start = stackSize;
+                do
+                {
+                    start--;
+                    components[stack[start]] = component;
+                    onStack.clear(stack[start]);
+                }
+                while (stack[start] != edge);
+                System.arraycopy(stack, start, members, memberStarts[component],
+                        stackSize - start);
+                memberStarts[component + 1] = memberStarts[component] + stackSize - start;
+                boolean escaping = false;
+                long componentReached = stackSize - start;
+                for (int index = start; index < stackSize && !escaping; index++)
+                {
+                    final int member = stack[index];
+                    escaping = exits.get(member);
+                    final int end = successorStarts[member + 1];
+                    for (int successorIndex = successorStarts[member]; successorIndex < end
+                            && !escaping; successorIndex++)
+                    {
+                        // Successors in other components are in completed components
+                        final int successorComponent = components[successors[successorIndex]];
+                        if (successorComponent != component
+                                && counted[successorComponent] != component)
+                        {
+                            counted[successorComponent] = component;
+                            escaping = escapingComponents.get(successorComponent);
+                            componentReached += reached[successorComponent];
+                        }
+                    }
+                }
+                if (!escaping && componentReached > maximumIslandSize)
+                {
+                    componentReached = distinctReached(component, components, memberStarts,
+                            members, successorStarts, successors, maximumIslandSize, visited,
+                            queue);
+                }
+                escaping |= componentReached > maximumIslandSize;
+                escapingComponents.set(component, escaping);
+                reached[component] = (int) Math.min(componentReached, maximumIslandSize + 1L);
+                stackSize = start;
+            }
+        }
+        return componentCount;
+    }
+
+    /**
+     * Counts the distinct edges reached from a component, searching the components it leads to
+     * until more than the maximum island size edges are reached
+     *
+     * @return the number of distinct reached edges, capped above the maximum island size
+     */
+    private static long distinctReached(final int component, final int[] components,
+            final int[] memberStarts, final int[] members, final int[] successorStarts,
+            final int[] successors, final int maximumIslandSize, final int[] visited,
+            final int[] queue)
+    {
+        long reached = 0;
+        int head = 0;
+        int tail = 0;
+        visited[component] = component;
+        queue[tail++] = component;
+        while (head < tail && reached <= maximumIslandSize)
+        {
+            final int current = queue[head++];
+            reached += memberStarts[current + 1] - memberStarts[current];
+            for (int index = memberStarts[current]; index < memberStarts[current + 1]; index++)
+            {
+                final int member = members[index];
+                final int end = successorStarts[member + 1];
+                for (int successorIndex = successorStarts[member]; successorIndex < end;
+                        successorIndex++)
+                {
+                    final int successorComponent = components[successors[successorIndex]];
+                    if (visited[successorComponent] != component)
+                    {
+                        visited[successorComponent] = component;
+                        queue[tail++] = successorComponent;
+                    }
+                }
+            }
+        }
+        return Math.min(reached, maximumIslandSize + 1L);
+    }
+
+    private static int find(final int[] parents, final int component)
+    {
+        int root = component;
+        while (parents[root] != root)
+        {
+            root = parents[root];
+        }
+        // Path compression
+        int current = component;
+        while (parents[current] != root)
+        {
+            final int next = parents[current];
+            parents[current] = root;
+            current = next;
+        }
+        return root;
+    }
+
+    private static void union(final int[] parents, final int first, final int second)
+    {
+        final int firstRoot = find(parents, first);
+        final int secondRoot = find(parents, second);
+        if (firstRoot != secondRoot)
+        {
+            parents[Math.max(firstRoot, secondRoot)] = Math.min(firstRoot, secondRoot);
+        }
+    }
+
+    /**
+     * Computes the sink islands of an {@link Atlas}
+     *
+     * @param atlas
+     *            the {@link Atlas}
+     * @param navigable
+     *            the edges of the graph
+     * @param exit
+     *            the edges from which it is considered possible to get out
+     * @param maximumIslandSize
+     *            the number of edges above which edges are considered able to get out
+     */
+    SinkIslandComponents(final Atlas atlas, final Predicate<Edge> navigable,
+            final Predicate<Edge> exit, final int maximumIslandSize)
+    {
+        this.atlas = atlas;
+        this.positions = EntityPositions.forAtlas(atlas);
+        final int size = this.positions.size(ItemType.EDGE);
+
+        // The graph, in compressed rows: the successors of edge e are between
+        // successorStarts[e] and successorStarts[e + 1]
+        final BitSet navigableEdges = new BitSet(size);
+        final BitSet exits = new BitSet(size);
+        final int[] successorStarts = new int[size + 1];
+        int[] successors = new int[size];
+        int successorCount = 0;
+        for (int position = 0; position < size; position++)
+        {
+            successorStarts[position] = successorCount;
+            final Edge edge = this.edge(position);
+            if (edge == null || !navigable.test(edge))
+            {
+                continue;
+            }
+            navigableEdges.set(position);
+            exits.set(position, exit.test(edge));
+            for (final Edge outEdge : edge.outEdges())
+            {
+                final int successor = this.positions.position(outEdge);
+                if (successor != EntityPositions.NO_POSITION && navigable.test(outEdge))
+                {
+                    if (successorCount == successors.length)
+                    {
+                        successors = Arrays.copyOf(successors, successorCount * 2 + 1);
+                    }
+                    successors[successorCount++] = successor;
+                }
+            }
+        }
+        successorStarts[size] = successorCount;
+
+        final int[] components = new int[size];
+        final BitSet escapingComponents = new BitSet();
+        final int componentCount = components(navigableEdges, exits, successorStarts, successors,
+                maximumIslandSize, components, escapingComponents);
+
+        // Group the components that can not get out into islands
+        final int[] parents = new int[componentCount];
+        Arrays.setAll(parents, component -> component);
+        for (int position = navigableEdges.nextSetBit(0); position >= 0; position = navigableEdges
+                .nextSetBit(position + 1))
+        {
+            if (!escapingComponents.get(components[position]))
+            {
+                for (int index = successorStarts[position]; index < successorStarts[position
+                        + 1]; index++)
+                {
+                    union(parents, components[position], components[successors[index]]);
+                }
+            }
+        }
+        final int[] componentIslands = new int[componentCount];
+        Arrays.fill(componentIslands, NO_ISLAND);
+        int islandCount = 0;
+        this.islands = new int[size];
+        Arrays.fill(this.islands, NO_ISLAND);
+        int[] islandSizes = new int[0];
+        for (int position = navigableEdges.nextSetBit(0); position >= 0; position = navigableEdges
+                .nextSetBit(position + 1))
+        {
+            if (escapingComponents.get(components[position]))
+            {
+                continue;
+            }
+            final int root = find(parents, components[position]);
+            if (componentIslands[root] == NO_ISLAND)
+            {
+                componentIslands[root] = islandCount++;
+                if (islandCount > islandSizes.length)
+                {
+                    islandSizes = Arrays.copyOf(islandSizes, islandCount * 2);
+                }
+            }
+            this.islands[position] = componentIslands[root];
+            islandSizes[componentIslands[root]]++;
+        }
+        this.islandStarts = new int[islandCount + 1];
+        for (int island = 0; island < islandCount; island++)
+        {
+            this.islandStarts[island + 1] = this.islandStarts[island] + islandSizes[island];
+        }
+        this.islandEdges = new int[this.islandStarts[islandCount]];
+        final int[] filled = Arrays.copyOf(this.islandStarts, islandCount);
+        for (int position = 0; position < size; position++)
+        {
+            if (this.islands[position] != NO_ISLAND)
+            {
+                this.islandEdges[filled[this.islands[position]]++] = position;
+            }
+        }
+    }
+
+    /**
+     * @param edge
+     *            an {@link Edge} of the {@link Atlas}
+     * @return {@code true} if the {@link Edge} was in the {@link Atlas} when the islands were
+     *         computed
+     */
+    boolean covers(final Edge edge)
+    {
+        return edge.getAtlas() == this.atlas
+                && this.positions.position(edge) != EntityPositions.NO_POSITION;
+    }
+
+    /**
+     * @param edge
+     *            a covered {@link Edge}, see {@link #covers(Edge)}
+     * @return the {@link Edge}s of the sink island of the {@link Edge}, empty if it can get out
+     */
+    Set<Edge> island(final Edge edge)
+    {
+        final Set<Edge> edges = new HashSet<>();
+        final int island = this.islands[this.positions.position(edge)];
+        if (island != NO_ISLAND)
+        {
+            for (int index = this.islandStarts[island]; index < this.islandStarts[island
+                    + 1]; index++)
+            {
+                edges.add(this.edge(this.islandEdges[index]));
+            }
+        }
+        return edges;
+    }
+
+    private Edge edge(final int position)
+    {
+        return this.atlas.edge(this.positions.identifier(ItemType.EDGE, position));
+    }
+}
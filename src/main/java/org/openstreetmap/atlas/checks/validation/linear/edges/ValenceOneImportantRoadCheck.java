@@ -11,6 +11,7 @@ import java.util.Set;
 
 import org.openstreetmap.atlas.checks.base.BaseCheck;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.AtlasAttributeCache;
 import org.openstreetmap.atlas.geography.Location;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
 import org.openstreetmap.atlas.geography.atlas.items.Edge;
@@ -60,7 +61,8 @@ public class ValenceOneImportantRoadCheck extends BaseCheck<Long>
     @Override
     public boolean validCheckForObject(final AtlasObject object)
     {
-        return object instanceof Edge && IMPORTANT_ROADS.contains(((Edge) object).highwayTag());
+        return object instanceof Edge && AtlasAttributeCache.highwayTag((Edge) object)
+                .filter(IMPORTANT_ROADS::contains).isPresent();
     }
 
     @Override
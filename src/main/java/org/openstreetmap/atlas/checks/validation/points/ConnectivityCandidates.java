@@ -0,0 +1,233 @@
+package org.openstreetmap.atlas.checks.validation.points;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.openstreetmap.atlas.checks.utility.EntityPositions;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.Rectangle;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.Edge;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.geography.atlas.items.Node;
+import org.openstreetmap.atlas.tags.LayerTag;
+import org.openstreetmap.atlas.utilities.scalars.Distance;
+
+/**
+ * The nearby {@link Node}s {@link ConnectivityCheck} considers for each {@link Node} of an
+ * {@link Atlas}, found with a grid instead of a spatial query per {@link Node}, with the layers of
+ * each {@link Node} read once instead of once per query.
+ * <p>
+ * The candidate {@link Node}s are bucketed in a grid of cells about the size of the search box,
+ * so the {@link Node}s near a {@link Node} are found in the few cells its box covers. A pair is
+ * kept when the nearby {@link Node} is in the box of the {@link Node} and both have a connected
+ * {@link Edge} on the same layer. The pairs only depend on the {@link Atlas} and the
+ * configuration, while the geometric layer tests and the connection searches are left to the
+ * check, for the pairs that survive.
+ * <p>
+ * {@link Node}s are numbered by their {@link EntityPositions}, and the layers and pairs are kept
+ * in compressed rows of primitive arrays.
+ *
+ * @author lucylu
+ */
+final class ConnectivityCandidates
+{
+    private static final long LONGITUDE_OFFSET = 1_800_000_000L;
+    private static final long LATITUDE_OFFSET = 900_000_000L;
+    // Large enough for any cell latitude index
+    private static final long CELL_ROWS = 1L << 32;
+
+    private final Atlas atlas;
+    private final EntityPositions positions;
+    // The nearby nodes of node n are between nearbyStarts[n] and nearbyStarts[n + 1]
+    private final int[] nearbyStarts;
+    private final int[] nearbyNodes;
+
+    private static long cell(final Location location, final long cellSize)
+    {
+        return (location.getLongitude().asDm7() + LONGITUDE_OFFSET) / cellSize * CELL_ROWS
+                + (location.getLatitude().asDm7() + LATITUDE_OFFSET) / cellSize;
+    }
+
+    /**
+     * @return {@code true} if both sorted layer rows have a layer in common
+     */
+    private static boolean shareLayer(final int[] layerStarts, final long[] layers,
+            final int first, final int second)
+    {
+        int firstIndex = layerStarts[first];
+        int secondIndex = layerStarts[second];
+        while (firstIndex < layerStarts[first + 1] && secondIndex < layerStarts[second + 1])
+        {
+            if (layers[firstIndex] == layers[secondIndex])
+            {
+                return true;
+            }
+            if (layers[firstIndex] < layers[secondIndex])
+            {
+                firstIndex++;
+            }
+            else
+            {
+                secondIndex++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes the nearby {@link Node}s of an {@link Atlas}
+     *
+     * @param atlas
+     *            the {@link Atlas}
+     * @param candidate
+     *            the {@link Node}s that can be checked and flagged
+     * @param threshold
+     *            the distance around a {@link Node} its box extends to
+     */
+    ConnectivityCandidates(final Atlas atlas, final Predicate<Node> candidate,
+            final Distance threshold)
+    {
+        this.atlas = atlas;
+        this.positions = EntityPositions.forAtlas(atlas);
+        final int size = this.positions.size(ItemType.NODE);
+        final Rectangle referenceBox = Location.CENTER.boxAround(threshold);
+        final long cellSize = Math.max(1L, referenceBox.upperRight().getLatitude().asDm7()
+                - referenceBox.lowerLeft().getLatitude().asDm7());
+
+        // The locations, cells and distinct sorted layers of the candidate nodes
+        final Location[] locations = new Location[size];
+        final long[] cells = new long[size];
+        final int[] layerStarts = new int[size + 1];
+        long[] layers = new long[size];
+        int candidateCount = 0;
+        for (int position = 0; position < size; position++)
+        {
+            final Node node = this.node(position);
+            if (node != null && candidate.test(node))
+            {
+                locations[position] = node.getLocation();
+                cells[candidateCount++] = cell(locations[position], cellSize);
+                final long[] nodeLayers = node.connectedEdges().stream()
+                        .mapToLong(edge -> LayerTag.getTaggedOrImpliedValue(edge, LayerTag.ZERO))
+                        .distinct().sorted().toArray();
+                if (layerStarts[position] + nodeLayers.length > layers.length)
+                {
+                    layers = Arrays.copyOf(layers,
+                            (layerStarts[position] + nodeLayers.length) * 2);
+                }
+                System.arraycopy(nodeLayers, 0, layers, layerStarts[position],
+                        nodeLayers.length);
+                layerStarts[position + 1] = layerStarts[position] + nodeLayers.length;
+            }
+            else
+            {
+                layerStarts[position + 1] = layerStarts[position];
+            }
+        }
+
+        // Bucket the candidate nodes by cell, the nodes of cell c are between cellStarts[c] and
+        // cellStarts[c + 1]
+        final long[] cellKeys = Arrays.stream(cells, 0, candidateCount).sorted().distinct()
+                .toArray();
+        final int[] cellStarts = new int[cellKeys.length + 1];
+        for (int index = 0; index < candidateCount; index++)
+        {
+            cellStarts[Arrays.binarySearch(cellKeys, cells[index]) + 1]++;
+        }
+        for (int bucket = 0; bucket < cellKeys.length; bucket++)
+        {
+            cellStarts[bucket + 1] += cellStarts[bucket];
+        }
+        final int[] cellNodes = new int[candidateCount];
+        final int[] filled = Arrays.copyOf(cellStarts, cellKeys.length);
+        for (int position = 0; position < size; position++)
+        {
+            if (locations[position] != null)
+            {
+                cellNodes[filled[Arrays.binarySearch(cellKeys,
+                        cell(locations[position], cellSize))]++] = position;
+            }
+        }
+
+        // Find the nearby nodes in the cells covered by the box of each node
+        this.nearbyStarts = new int[size + 1];
+        int[] nearby = new int[0];
+        int nearbyCount = 0;
+        for (int position = 0; position < size; position++)
+        {
+            this.nearbyStarts[position] = nearbyCount;
+            if (locations[position] == null)
+            {
+                continue;
+            }
+            final Rectangle box = locations[position].boxAround(threshold);
+            final long lower = cell(box.lowerLeft(), cellSize);
+            final long upper = cell(box.upperRight(), cellSize);
+            for (long cellX = lower / CELL_ROWS; cellX <= upper / CELL_ROWS; cellX++)
+            {
+                for (long cellY = lower % CELL_ROWS; cellY <= upper % CELL_ROWS; cellY++)
+                {
+                    final int bucket = Arrays.binarySearch(cellKeys, cellX * CELL_ROWS + cellY);
+                    if (bucket < 0)
+                    {
+                        continue;
+                    }
+                    for (int index = cellStarts[bucket]; index < cellStarts[bucket + 1]; index++)
+                    {
+                        final int other = cellNodes[index];
+                        if (other != position
+                                && box.fullyGeometricallyEncloses(locations[other])
+                                && shareLayer(layerStarts, layers, position, other))
+                        {
+                            if (nearbyCount == nearby.length)
+                            {
+                                nearby = Arrays.copyOf(nearby, nearbyCount * 2 + 1);
+                            }
+                            nearby[nearbyCount++] = other;
+                        }
+                    }
+                }
+            }
+        }
+        this.nearbyStarts[size] = nearbyCount;
+        this.nearbyNodes = Arrays.copyOf(nearby, nearbyCount);
+    }
+
+    /**
+     * @param node
+     *            a {@link Node} of the {@link Atlas}
+     * @return {@code true} if the {@link Node} was in the {@link Atlas} when the nearby
+     *         {@link Node}s were computed
+     */
+    boolean covers(final Node node)
+    {
+        return node.getAtlas() == this.atlas
+                && this.positions.position(node) != EntityPositions.NO_POSITION;
+    }
+
+    /**
+     * @param node
+     *            a covered {@link Node}, see {@link #covers(Node)}
+     * @return the candidate {@link Node}s in the box of the {@link Node}, with a connected
+     *         {@link Edge} on the same layer as one of its connected {@link Edge}s
+     */
+    List<Node> nearbyNodes(final Node node)
+    {
+        final int position = this.positions.position(node);
+        final List<Node> nodes = new ArrayList<>();
+        for (int index = this.nearbyStarts[position]; index < this.nearbyStarts[position
+                + 1]; index++)
+        {
+            nodes.add(this.node(this.nearbyNodes[index]));
+        }
+        return nodes;
+    }
+
+    private Node node(final int position)
+    {
+        return this.atlas.node(this.positions.identifier(ItemType.NODE, position));
+    }
+}
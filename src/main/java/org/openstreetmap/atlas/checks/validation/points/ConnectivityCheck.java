@@ -13,6 +13,7 @@ import java.util.Set;
 
 import org.openstreetmap.atlas.checks.base.BaseCheck;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.AtlasCache;
 import org.openstreetmap.atlas.geography.Heading;
 import org.openstreetmap.atlas.geography.Location;
 import org.openstreetmap.atlas.geography.PolyLine;
@@ -52,6 +53,7 @@ public class ConnectivityCheck extends BaseCheck<Long>
     private static final int MAXIMUM_ANGLE = 180;
     // Highways to be ignored
     private static final String DEFAULT_BLACKLISTED_HIGHWAYS_TAG_FILTER = "highway->no";
+    private static final String CANDIDATES_STATE = "candidates";
     private static final long serialVersionUID = -380675222726130708L;
     private final TaggableFilter blacklistedHighwaysTaggableFilter;
     private final Distance threshold;
@@ -69,12 +71,8 @@ public class ConnectivityCheck extends BaseCheck<Long>
     @Override
     public boolean validCheckForObject(final AtlasObject object)
     {
-        return object instanceof Node && !SyntheticBoundaryNodeTag.isSyntheticBoundaryNode(object)
-                && !this.isFlagged(object.getOsmIdentifier()) && !BarrierTag.isBarrier(object)
-                && !Validators.isOfType(object, NoExitTag.class, NoExitTag.YES)
-                && !this.connectedEdgesHaveLevelTags((Node) object)
-                // Node is part of a valid road, for this check
-                && ((Node) object).connectedEdges().stream().anyMatch(this::validEdgeFilter);
+        return object instanceof Node && !this.isFlagged(object.getOsmIdentifier())
+                && this.isCandidate((Node) object);
     }
 
     @Override
@@ -98,11 +96,7 @@ public class ConnectivityCheck extends BaseCheck<Long>
         connectivityFlag.addObject(object);
         // Check nearby Nodes, ignoring ones that have connected Edges that have level tags or cross
         // over or under connected edges of the object node
-        for (final Node nodeNearby : object.getAtlas().nodesWithin(box,
-                nearbyNode -> !this.connectedEdgesHaveLevelTags(nearbyNode)
-                        && !this.differentLayersIntersect(nodeLayerMap, nearbyNode.connectedEdges())
-                        && this.getLayerMap(nearbyNode).keySet().stream()
-                                .anyMatch(nodeLayerMap::containsKey)))
+        for (final Node nodeNearby : this.nearbyNodes(node, box, nodeLayerMap))
         {
             // Flag nearby nodes if they are neither synthetic boundary node nor a start node, are
             // not a
@@ -151,6 +145,21 @@ public class ConnectivityCheck extends BaseCheck<Long>
         return FALLBACK_INSTRUCTIONS;
     }
 
+    /**
+     * Gets the nearby {@link Node}s of the atlas of a {@link Node}, computing them the first time
+     *
+     * @param node
+     *            a {@link Node} of the atlas
+     * @return the nearby {@link Node}s of its atlas
+     */
+    private ConnectivityCandidates candidates(final Node node)
+    {
+        final AtlasCache<ConnectivityCandidates> candidates = this.getRunState(CANDIDATES_STATE,
+                () -> new AtlasCache<>("connectivity candidates", 1));
+        return candidates.get(node.getAtlas(),
+                atlas -> new ConnectivityCandidates(atlas, this::isCandidate, this.threshold));
+    }
+
     /**
      * Check if any of a {@link Node}s connected {@link Edge}s have {@link LevelTag}s.
      *
@@ -421,6 +430,26 @@ public class ConnectivityCheck extends BaseCheck<Long>
         return false;
     }
 
+    /**
+     * Check if a {@link Node} can be checked, and flagged as disconnected from another
+     * {@link Node}.
+     *
+     * @param node
+     *            the {@link Node} to check
+     * @return true if the {@link Node} is part of a valid road and is not a synthetic boundary
+     *         node, a barrier or a dead end, and none of its connected {@link Edge}s have a
+     *         {@link LevelTag}
+     */
+    private boolean isCandidate(final Node node)
+    {
+        return !SyntheticBoundaryNodeTag.isSyntheticBoundaryNode(node)
+                && !BarrierTag.isBarrier(node)
+                && !Validators.isOfType(node, NoExitTag.class, NoExitTag.YES)
+                && !this.connectedEdgesHaveLevelTags(node)
+                // Node is part of a valid road, for this check
+                && node.connectedEdges().stream().anyMatch(this::validEdgeFilter);
+    }
+
     /**
      * If all headings exist, get the sum of the angles formed by the headings, as rays from their
      * originating locations. If this sum is less than 180 the rays form a triangle.
@@ -520,6 +549,39 @@ public class ConnectivityCheck extends BaseCheck<Long>
         return false;
     }
 
+    /**
+     * Gets the {@link Node}s within the box around a {@link Node} that have a connected
+     * {@link Edge} on a layer of the {@link Node}, and whose connected {@link Edge}s have no
+     * {@link LevelTag} and do not cross over or under connected {@link Edge}s of the {@link Node}.
+     * The {@link Node}s near the {@link Node}s of the atlas are computed once, so only the nearby
+     * {@link Node}s that can be flagged have their crossings checked.
+     *
+     * @param node
+     *            the {@link Node} to get the nearby {@link Node}s of
+     * @param box
+     *            the box around the {@link Node}
+     * @param nodeLayerMap
+     *            a {@link Map} layer value keys and values of {@link Set}s of {@link Edge}s
+     * @return the nearby {@link Node}s
+     */
+    private Iterable<Node> nearbyNodes(final Node node, final Rectangle box,
+            final Map<Long, Set<Edge>> nodeLayerMap)
+    {
+        final ConnectivityCandidates candidates = this.candidates(node);
+        if (candidates.covers(node))
+        {
+            final List<Node> nearbyNodes = candidates.nearbyNodes(node);
+            nearbyNodes.removeIf(nearbyNode -> this.differentLayersIntersect(nodeLayerMap,
+                    nearbyNode.connectedEdges()));
+            return nearbyNodes;
+        }
+        return node.getAtlas().nodesWithin(box,
+                nearbyNode -> !this.connectedEdgesHaveLevelTags(nearbyNode)
+                        && !this.differentLayersIntersect(nodeLayerMap, nearbyNode.connectedEdges())
+                        && this.getLayerMap(nearbyNode).keySet().stream()
+                                .anyMatch(nodeLayerMap::containsKey));
+    }
+
     /**
      * Helper function for filtering {@link Edge}s. This is to detect {@link Edge}s that are too
      * complex to currently be handled by this check.
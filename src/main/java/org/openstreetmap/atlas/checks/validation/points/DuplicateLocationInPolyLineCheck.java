@@ -1,14 +1,12 @@
 package org.openstreetmap.atlas.checks.validation.points;
 
 import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import org.openstreetmap.atlas.checks.base.BaseCheck;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.LocationGroups;
 import org.openstreetmap.atlas.geography.Location;
 import org.openstreetmap.atlas.geography.PolyLine;
 import org.openstreetmap.atlas.geography.atlas.items.Area;
@@ -43,22 +41,13 @@ public class DuplicateLocationInPolyLineCheck extends BaseCheck<Long>
     @Override
     protected Optional<CheckFlag> flag(final AtlasObject object)
     {
-        final Set<Location> visitedLocations = new HashSet<>();
-        final Iterator<Location> locations = ((AtlasItem) object).getRawGeometry().iterator();
-        while (locations.hasNext())
+        final Optional<Location> repeatedLocation = LocationGroups
+                .firstRepeatedLocation(((AtlasItem) object).getRawGeometry());
+        if (repeatedLocation.isPresent() && !this.isFlagged(object.getOsmIdentifier()))
         {
-            final Location currentLocation = locations.next();
-            if (visitedLocations.contains(currentLocation)
-                    && !this.isFlagged(object.getOsmIdentifier()))
-            {
-                this.markAsFlagged(object.getOsmIdentifier());
-                return Optional.of(createFlag(object, this.getLocalizedInstruction(0,
-                        currentLocation.toString(), object.getIdentifier())));
-            }
-            else
-            {
-                visitedLocations.add(currentLocation);
-            }
+            this.markAsFlagged(object.getOsmIdentifier());
+            return Optional.of(createFlag(object, this.getLocalizedInstruction(0,
+                    repeatedLocation.get().toString(), object.getIdentifier())));
         }
 
         // If we reach here, all locations for this PolyLine are unique
@@ -9,6 +9,7 @@ import java.util.stream.Collectors;
 
 import org.openstreetmap.atlas.checks.base.BaseCheck;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.LocationGroups;
 import org.openstreetmap.atlas.geography.Location;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
@@ -49,23 +50,18 @@ public class DuplicateNodeCheck extends BaseCheck<Location>
     protected Optional<CheckFlag> flag(final AtlasObject object)
     {
         final Node node = (Node) object;
-        this.markAsFlagged(node.getLocation());
-
-        final List<Node> duplicates = Iterables
-                .asList(object.getAtlas().nodesAt(node.getLocation()));
+        final LocationGroups groups = LocationGroups.forNodes(object.getAtlas());
+        if (!groups.covers(node))
+        {
+            return this.searchDuplicates(node);
+        }
+        final List<Node> duplicates = groups.group(node);
         if (duplicates.size() > 1)
         {
-            final List<Long> duplicateIdentifiers = duplicates.stream()
-                    .map(AtlasEntity::getOsmIdentifier).collect(Collectors.toList());
-            final Optional<Long> minIdentifier = duplicateIdentifiers.stream()
-                    .min(Comparator.comparingLong(Long::valueOf));
-            if (minIdentifier.isPresent() && object.getOsmIdentifier() == minIdentifier.get())
-            {
-                return Optional.of(this.createFlag(new HashSet<>(duplicates),
-                        this.getLocalizedInstruction(0, duplicateIdentifiers, node.getLocation())));
-            }
+            // The whole group is known, so it is flagged once, from whichever node comes first
+            this.markAsFlagged(node.getLocation());
+            return Optional.of(this.duplicateFlag(duplicates, node.getLocation()));
         }
-
         return Optional.empty();
     }
 
@@ -74,4 +70,47 @@ public class DuplicateNodeCheck extends BaseCheck<Location>
     {
         return FALLBACK_INSTRUCTIONS;
     }
+
+    /**
+     * Flags a group of duplicate {@link Node}s
+     *
+     * @param duplicates
+     *            the {@link Node}s at the location
+     * @param location
+     *            the duplicated {@link Location}
+     * @return a flag of the duplicates
+     */
+    private CheckFlag duplicateFlag(final List<Node> duplicates, final Location location)
+    {
+        final List<Long> duplicateIdentifiers = duplicates.stream()
+                .map(AtlasEntity::getOsmIdentifier).collect(Collectors.toList());
+        return this.createFlag(new HashSet<>(duplicates),
+                this.getLocalizedInstruction(0, duplicateIdentifiers, location));
+    }
+
+    /**
+     * Looks for the duplicates of a {@link Node} that the {@link LocationGroups} do not cover
+     *
+     * @param node
+     *            the {@link Node} to look for duplicates of
+     * @return a flag of the duplicates, only from the node with the smallest OSM identifier
+     */
+    private Optional<CheckFlag> searchDuplicates(final Node node)
+    {
+        this.markAsFlagged(node.getLocation());
+
+        final List<Node> duplicates = Iterables.asList(node.getAtlas().nodesAt(node.getLocation()));
+        if (duplicates.size() > 1)
+        {
+            final Optional<Long> minIdentifier = duplicates.stream()
+                    .map(AtlasEntity::getOsmIdentifier)
+                    .min(Comparator.comparingLong(Long::valueOf));
+            if (minIdentifier.isPresent() && node.getOsmIdentifier() == minIdentifier.get())
+            {
+                return Optional.of(this.duplicateFlag(duplicates, node.getLocation()));
+            }
+        }
+
+        return Optional.empty();
+    }
 }
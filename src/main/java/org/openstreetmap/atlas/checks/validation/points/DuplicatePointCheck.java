@@ -7,6 +7,7 @@ import java.util.stream.Collectors;
 
 import org.openstreetmap.atlas.checks.base.BaseCheck;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.LocationGroups;
 import org.openstreetmap.atlas.geography.Location;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
@@ -48,8 +49,10 @@ public class DuplicatePointCheck extends BaseCheck<Location>
     {
         final Point point = (Point) object;
 
-        final List<Point> duplicates = Iterables
-                .asList(object.getAtlas().pointsAt(point.getLocation()));
+        // Points at the same location are grouped once per atlas
+        final LocationGroups groups = LocationGroups.forPoints(object.getAtlas());
+        final List<Point> duplicates = groups.covers(point) ? groups.group(point)
+                : Iterables.asList(object.getAtlas().pointsAt(point.getLocation()));
         if (duplicates.size() > 1)
         {
             this.markAsFlagged(point.getLocation());
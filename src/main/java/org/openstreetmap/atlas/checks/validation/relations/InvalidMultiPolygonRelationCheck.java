@@ -13,7 +13,10 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.openstreetmap.atlas.checks.base.BaseCheck;
+import org.openstreetmap.atlas.checks.base.ObjectTimeBudget;
+import org.openstreetmap.atlas.checks.base.TimeBudgetExceededException;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.GeometryCache;
 import org.openstreetmap.atlas.exception.CoreException;
 import org.openstreetmap.atlas.geography.Location;
 import org.openstreetmap.atlas.geography.MultiPolygon;
@@ -24,7 +27,6 @@ import org.openstreetmap.atlas.geography.atlas.items.ItemType;
 import org.openstreetmap.atlas.geography.atlas.items.Line;
 import org.openstreetmap.atlas.geography.atlas.items.Relation;
 import org.openstreetmap.atlas.geography.atlas.items.RelationMember;
-import org.openstreetmap.atlas.geography.atlas.items.complex.RelationOrAreaToMultiPolygonConverter;
 import org.openstreetmap.atlas.geography.converters.MultiplePolyLineToPolygonsConverter;
 import org.openstreetmap.atlas.geography.converters.jts.JtsPolygonConverter;
 import org.openstreetmap.atlas.tags.RelationTypeTag;
@@ -79,7 +81,6 @@ public class InvalidMultiPolygonRelationCheck extends BaseCheck<Long>
             MISSING_OUTER_INSTRUCTION_FORMAT, INVALID_ROLE_INSTRUCTION_FORMAT,
             INVALID_OSM_TYPE_INSTRUCTION_FORMAT, INVALID_OVERLAP_INSTRUCTION_FORMAT,
             INNER_MISSING_OUTER_INSTRUCTION_FORMAT, GENERIC_INVALID_GEOMETRY_INSTRUCTION_FORMAT);
-    private static final RelationOrAreaToMultiPolygonConverter RELATION_OR_AREA_TO_MULTI_POLYGON_CONVERTER = new RelationOrAreaToMultiPolygonConverter();
     private static final EnumMap<ItemType, String> atlasToOsmType = new EnumMap<>(ItemType.class);
     private static final Logger logger = LoggerFactory
             .getLogger(InvalidMultiPolygonRelationCheck.class);
@@ -198,8 +199,7 @@ public class InvalidMultiPolygonRelationCheck extends BaseCheck<Long>
         // don't overlap.
         try
         {
-            final MultiPolygon multiPolygon = RELATION_OR_AREA_TO_MULTI_POLYGON_CONVERTER
-                    .convert(multipolygonRelation);
+            final MultiPolygon multiPolygon = GeometryCache.multiPolygon(multipolygonRelation);
             // Skip the overlap checks for multipolygons outside the configurable range of shape
             // points
             final long shapePoints = multiPolygon.getOuterToInners().entrySet().stream()
@@ -240,6 +240,11 @@ public class InvalidMultiPolygonRelationCheck extends BaseCheck<Long>
                         multipolygonRelation, openLocations);
             }
         }
+        // The object is out of time, let the check skip it rather than ignore the failure
+        catch (final TimeBudgetExceededException exception)
+        {
+            throw exception;
+        }
         catch (final CoreException exception)
         {
             // Catch multipolygon relations with no outer members
@@ -295,6 +300,7 @@ public class InvalidMultiPolygonRelationCheck extends BaseCheck<Long>
             {
                 for (int index2 = index1 + 1; index2 < value.size(); index2++)
                 {
+                    ObjectTimeBudget.check(1);
                     final Polygon polygon1 = value.get(index1);
                     final Polygon polygon2 = value.get(index2);
                     final org.locationtech.jts.geom.Polygon jtsPolygon1 = JTS_POLYGON_CONVERTER
@@ -339,6 +345,7 @@ public class InvalidMultiPolygonRelationCheck extends BaseCheck<Long>
         {
             for (int index2 = index1 + 1; index2 < outersList.size(); index2++)
             {
+                ObjectTimeBudget.check(1);
                 final Polygon polygon1 = outersList.get(index1);
                 final Polygon polygon2 = outersList.get(index2);
                 if (polygon1.overlaps(polygon2)
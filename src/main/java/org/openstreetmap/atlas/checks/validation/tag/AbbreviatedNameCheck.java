@@ -60,7 +60,7 @@ public class AbbreviatedNameCheck extends BaseCheck<String>
     public boolean validCheckForObject(final AtlasObject object)
     {
         return object instanceof AtlasEntity
-                && !this.isFlagged(this.getUniqueOSMIdentifier(object));
+                && !this.isFlagged(object);
     }
 
     /**
@@ -70,7 +70,7 @@ public class AbbreviatedNameCheck extends BaseCheck<String>
     protected Optional<CheckFlag> flag(final AtlasObject object)
     {
         // Mark OSM identifier as we are processing it
-        this.markAsFlagged(this.getUniqueOSMIdentifier(object));
+        this.markAsFlagged(object);
 
         // Fetch the name
         final Optional<String> optionalName = NameTag.getNameOf(object);
@@ -99,7 +99,7 @@ public class ConflictingTagCombinationCheck extends BaseCheck<String>
     {
         return ((object instanceof Edge && HighwayTag.isCarNavigableHighway(object)
                 && ((Edge) object).isMasterEdge()) || (object instanceof Line))
-                && !this.isFlagged(this.getUniqueOSMIdentifier(object));
+                && !this.isFlagged(object);
     }
 
     @Override
@@ -110,7 +110,7 @@ public class ConflictingTagCombinationCheck extends BaseCheck<String>
         {
             if (this.conflictingTagFilters.get(filterIndex).test(object))
             {
-                this.markAsFlagged(this.getUniqueOSMIdentifier(object));
+                this.markAsFlagged(object);
                 instructions.add(this.getLocalizedInstruction(0, object.getOsmIdentifier(),
                         this.filterKeys.get(filterIndex)));
             }
@@ -3,9 +3,12 @@ package org.openstreetmap.atlas.checks.validation.tag;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 import org.openstreetmap.atlas.checks.base.BaseCheck;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.GeometryCache;
+import org.openstreetmap.atlas.checks.utility.RelationSpatialIndices;
 import org.openstreetmap.atlas.geography.MultiPolygon;
 import org.openstreetmap.atlas.geography.PolyLine;
 import org.openstreetmap.atlas.geography.atlas.items.Area;
@@ -14,7 +17,6 @@ import org.openstreetmap.atlas.geography.atlas.items.Edge;
 import org.openstreetmap.atlas.geography.atlas.items.Line;
 import org.openstreetmap.atlas.geography.atlas.items.LineItem;
 import org.openstreetmap.atlas.geography.atlas.items.Relation;
-import org.openstreetmap.atlas.geography.atlas.items.complex.RelationOrAreaToMultiPolygonConverter;
 import org.openstreetmap.atlas.geography.atlas.walker.OsmWayWalker;
 import org.openstreetmap.atlas.geography.converters.MultiplePolyLineToPolygonsConverter;
 import org.openstreetmap.atlas.tags.AccessTag;
@@ -41,6 +43,10 @@ public class InvalidAccessTagCheck extends BaseCheck<Long>
     private static final List<String> FALLBACK_INSTRUCTIONS = Arrays.asList(
             "This way {0,number,#} has an invalid access tag value, resulting from improper tag combinations. Investigate ground truth and properly correct them.");
     private static final long serialVersionUID = 5197703822744690835L;
+    private static final String MILITARY_RELATIONS = "military multipolygons";
+    private static final Predicate<Relation> IS_MILITARY_RELATION = relation -> (Validators
+            .isOfType(relation, LandUseTag.class, LandUseTag.MILITARY)
+            || Validators.hasValuesFor(relation, MilitaryTag.class)) && relation.isMultiPolygon();
     private final HighwayTag minimumHighwayType;
 
     /**
@@ -130,16 +136,13 @@ public class InvalidAccessTagCheck extends BaseCheck<Long>
         {
             return true;
         }
-        for (final Relation relation : object.getAtlas().relationsWithEntitiesIntersecting(
-                object.bounds(),
-                relation -> (Validators.isOfType(relation, LandUseTag.class, LandUseTag.MILITARY)
-                        || Validators.hasValuesFor(relation, MilitaryTag.class))
-                        && relation.isMultiPolygon()))
+        for (final Relation relation : RelationSpatialIndices
+                .get(object.getAtlas(), MILITARY_RELATIONS, IS_MILITARY_RELATION)
+                .get(object.bounds()))
         {
             try
             {
-                final MultiPolygon relationPolygon = new RelationOrAreaToMultiPolygonConverter()
-                        .convert(relation);
+                final MultiPolygon relationPolygon = GeometryCache.multiPolygon(relation);
                 if (object.intersects(relationPolygon)
                         || relationPolygon.fullyGeometricallyEncloses(object.asPolyLine()))
                 {
@@ -5,6 +5,8 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.openstreetmap.atlas.checks.base.BaseCheck;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
@@ -35,11 +37,11 @@ public class InvalidLanesTagCheck extends BaseCheck<Long>
     private static final int MAX_TOLL_PLAZA_EDGES = 20;
     // Valid values of the lanes OSM key
     private static final String LANES_FILTER_DEFAULT = "lanes->1,1.5,2,3,4,5,6,7,8,9,10";
+    // Run state key for edges that can skip the toll booth test, because they have already been
+    // checked.
+    private static final String CHECKED_EDGES_STATE = "checkedEdges";
     private final TaggableFilter lanesFilter;
 
-    // Edges that can skip the toll booth test, because they have already been checked.
-    private final HashSet<Long> isChecked = new HashSet<>();
-
     /**
      * The default constructor that must be supplied. The Atlas Checks framework will generate the
      * checks with this constructor, supplying a configuration that can be used to adjust any
@@ -81,7 +83,7 @@ public class InvalidLanesTagCheck extends BaseCheck<Long>
     @Override
     protected Optional<CheckFlag> flag(final AtlasObject object)
     {
-        if (this.isChecked.contains(object.getIdentifier()) || !partOfTollBooth(object))
+        if (this.checkedEdges().contains(object.getIdentifier()) || !partOfTollBooth(object))
         {
             this.markAsFlagged(object.getOsmIdentifier());
 
@@ -98,6 +100,14 @@ public class InvalidLanesTagCheck extends BaseCheck<Long>
         return FALLBACK_INSTRUCTIONS;
     }
 
+    /**
+     * @return the identifiers of the {@link Edge}s already checked for toll booths in this run
+     */
+    private Set<Long> checkedEdges()
+    {
+        return this.getRunState(CHECKED_EDGES_STATE, ConcurrentHashMap::newKeySet);
+    }
+
     /**
      * Gets the {@link Edge}s that are connected to the input {@link Edge} and have an otherwise
      * invalid {@code lanes} tag.
@@ -169,7 +179,7 @@ public class InvalidLanesTagCheck extends BaseCheck<Long>
         }
         // If not a toll booth, mark for flagging so they can skip this toll booth check.
         connectedInvalidEdges
-                .forEach(invalidEdge -> this.isChecked.add(invalidEdge.getIdentifier()));
+                .forEach(invalidEdge -> this.checkedEdges().add(invalidEdge.getIdentifier()));
         return false;
     }
 }
@@ -7,9 +7,12 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -17,6 +20,7 @@ import java.util.stream.StreamSupport;
 
 import org.openstreetmap.atlas.checks.base.BaseCheck;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.CompiledTaggableFilters;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
 import org.openstreetmap.atlas.geography.atlas.items.Edge;
@@ -57,6 +61,10 @@ public class InvalidTagsCheck extends BaseCheck<String>
     private static final Logger logger = LoggerFactory.getLogger(InvalidTagsCheck.class);
 
     private final List<Tuple<? extends Class<AtlasEntity>, List<TaggableFilter>>> classTagFilters;
+    // The filters of each entity type, compiled so that entities are only tested with the filters
+    // mentioning their keys
+    private final Map<ItemType, CompiledTaggableFilters> compiledTypeFilters = new EnumMap<>(
+            ItemType.class);
 
     /**
      * @return a List of Tuple containing AtlasEntity and a list of TaggableFilters read from the
@@ -178,6 +186,15 @@ public class InvalidTagsCheck extends BaseCheck<String>
             defaultFilters.addAll(this.getFiltersFromConfiguration(configuration));
             this.classTagFilters = defaultFilters;
         }
+        for (final ItemType type : ItemType.values())
+        {
+            this.compiledTypeFilters.put(type, CompiledTaggableFilters.compile(this.classTagFilters
+                    .stream()
+                    .filter(classTagFilter -> classTagFilter.getFirst()
+                            .isAssignableFrom(type.getMemberClass()))
+                    .map(Tuple::getSecond).flatMap(Collection::stream)
+                    .collect(Collectors.toList())));
+        }
     }
 
     /**
@@ -190,7 +207,7 @@ public class InvalidTagsCheck extends BaseCheck<String>
     @Override
     public boolean validCheckForObject(final AtlasObject object)
     {
-        return !this.isFlagged(this.getUniqueOSMIdentifier(object));
+        return !this.isFlagged(object);
     }
 
     /**
@@ -204,20 +221,22 @@ public class InvalidTagsCheck extends BaseCheck<String>
     protected Optional<CheckFlag> flag(final AtlasObject object)
     {
         // Test against each filter and create an instruction if the object passes
-        final List<String> instructions = this.classTagFilters.stream()
-                // Test that the object is one of the given AtlasEntity classes
-                .filter(classTagFilter -> classTagFilter.getFirst().isInstance(object))
-                .map(Tuple::getSecond).flatMap(Collection::stream)
-                .filter(filter -> filter.test(object))
-                // Map the filters that were passed to instructions
-                .map(taggableFilter -> this.getLocalizedInstruction(1,
-                        getFilterKeys(taggableFilter)))
-                .collect(Collectors.toList());
+        final List<String> instructions = object instanceof AtlasEntity
+                ? this.compiledInstructions((AtlasEntity) object)
+                : this.classTagFilters.stream()
+                        // Test that the object is one of the given AtlasEntity classes
+                        .filter(classTagFilter -> classTagFilter.getFirst().isInstance(object))
+                        .map(Tuple::getSecond).flatMap(Collection::stream)
+                        .filter(filter -> filter.test(object))
+                        // Map the filters that were passed to instructions
+                        .map(taggableFilter -> this.getLocalizedInstruction(1,
+                                getFilterKeys(taggableFilter)))
+                        .collect(Collectors.toList());
         if (!instructions.isEmpty())
         {
             // Mark objects flagged by their class and id to allow for the same id in different
             // object types
-            this.markAsFlagged(this.getUniqueOSMIdentifier(object));
+            this.markAsFlagged(object);
 
             // Create a flag with generic instructions
             final String instruction = this.getLocalizedInstruction(0, object.getOsmIdentifier());
@@ -240,6 +259,25 @@ public class InvalidTagsCheck extends BaseCheck<String>
         return FALLBACK_INSTRUCTIONS;
     }
 
+    /**
+     * Tests an entity with the compiled filters of its type
+     *
+     * @param entity
+     *            the {@link AtlasEntity} to test
+     * @return the instructions of the filters the entity passes, in the order of the filters
+     */
+    private List<String> compiledInstructions(final AtlasEntity entity)
+    {
+        final CompiledTaggableFilters filters = this.compiledTypeFilters.get(entity.getType());
+        final BitSet matches = filters.matches(entity);
+        final List<String> instructions = new ArrayList<>(matches.cardinality());
+        for (int index = matches.nextSetBit(0); index >= 0; index = matches.nextSetBit(index + 1))
+        {
+            instructions.add(this.getLocalizedInstruction(1, getFilterKeys(filters.get(index))));
+        }
+        return instructions;
+    }
+
     /**
      * From the config file, create a list of Tuples with atlas entity and corresponding list of
      * taggable filters
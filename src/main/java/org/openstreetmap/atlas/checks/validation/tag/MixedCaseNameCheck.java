@@ -120,7 +120,7 @@ public class MixedCaseNameCheck extends BaseCheck<String>
     {
         // Valid objects are items that were OSM nodes or ways (Equivalent to Atlas nodes, points,
         // edges, lines and areas)
-        return !(object instanceof Relation) && !this.isFlagged(this.getUniqueOSMIdentifier(object))
+        return !(object instanceof Relation) && !this.isFlagged(object)
                 && (object.getTags().containsKey(ISOCountryTag.KEY)
                         // Must have an ISO code that is in checkNameCountries...
                         && this.checkNameCountries
@@ -167,7 +167,7 @@ public class MixedCaseNameCheck extends BaseCheck<String>
         // If mix case id detected, flag
         if (!mixedCaseNameTags.isEmpty())
         {
-            this.markAsFlagged(this.getUniqueOSMIdentifier(object));
+            this.markAsFlagged(object);
 
             // Instruction includes type of OSM object and list of flagged tags
             final String instruction = this.getLocalizedInstruction(0,
@@ -0,0 +1,114 @@
+package org.openstreetmap.atlas.checks.validation.tag;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+
+/**
+ * An index of the road names of an {@link Atlas}, finding the names of a search area with a
+ * spelling inconsistent with a given name without comparing it to every name of the area. It is
+ * built once per {@link Atlas} and then only read, so it is shared by the searches of a run.
+ * <p>
+ * This is a symmetric delete index: each name is indexed under itself and under each of the
+ * strings obtained by deleting one of its characters. Names at an edit distance of 1 share one of
+ * these keys, so looking up the keys derived from a name gives candidate names in a number of
+ * lookups that only depends on its length. Candidates are then confirmed with
+ * {@link RoadNameSpellingConsistencyCheckWalker#isInconsistentSpelling(String, String)}, so the
+ * names found are the ones the check has always found.
+ * <p>
+ * When the start name is the longer one, the edit distance comparison of the check ignores the
+ * last character of the other name once a character has been skipped. To still find these names,
+ * the lookup also uses the keys obtained by deleting one character and the last character of the
+ * start name, matching the other name without its last character.
+ * <p>
+ * A dynamic {@link Atlas} can load edges after the index is built; the names of a search area
+ * that are not indexed are compared to the start name directly.
+ *
+ * @author lucylu
+ */
+final class RoadNameIndex
+{
+    // The names indexed under each key
+    private final Map<String, Set<String>> names = new HashMap<>();
+
+    private static String delete(final String name, final int index)
+    {
+        return new StringBuilder(name).deleteCharAt(index).toString();
+    }
+
+    /**
+     * @param names
+     *            the road names of the {@link Atlas}
+     */
+    RoadNameIndex(final Iterable<String> names)
+    {
+        for (final String name : names)
+        {
+            this.index(name, name);
+            for (int index = 0; index < name.length(); index++)
+            {
+                this.index(delete(name, index), name);
+            }
+        }
+    }
+
+    /**
+     * Finds the names of a search area with a spelling inconsistent with a name
+     *
+     * @param startEdgeName
+     *            the name of the edge from which the search started
+     * @param areaNames
+     *            the road names of the search area
+     * @return the names of the search area that are at an edit distance of 1 from the name
+     *         (discounting identifier substrings)
+     */
+    Set<String> inconsistentSpellings(final String startEdgeName, final Set<String> areaNames)
+    {
+        final Set<String> candidates = new HashSet<>();
+        // Names loaded after the index was built are compared directly
+        for (final String name : areaNames)
+        {
+            if (!this.isIndexed(name))
+            {
+                candidates.add(name);
+            }
+        }
+        this.lookUp(startEdgeName, candidates);
+        for (int index = 0; index < startEdgeName.length(); index++)
+        {
+            final String deleted = delete(startEdgeName, index);
+            this.lookUp(deleted, candidates);
+            if (!deleted.isEmpty())
+            {
+                this.lookUp(delete(deleted, deleted.length() - 1), candidates);
+            }
+        }
+        candidates.removeIf(candidate -> !areaNames.contains(candidate)
+                || !RoadNameSpellingConsistencyCheckWalker.isInconsistentSpelling(candidate,
+                        startEdgeName));
+        return candidates;
+    }
+
+    private void index(final String key, final String name)
+    {
+        this.names.computeIfAbsent(key, value -> new HashSet<>()).add(name);
+    }
+
+    private boolean isIndexed(final String name)
+    {
+        final Set<String> keyNames = this.names.get(name);
+        return keyNames != null && keyNames.contains(name);
+    }
+
+    private void lookUp(final String key, final Set<String> candidates)
+    {
+        final Set<String> keyNames = this.names.get(key);
+        if (keyNames != null)
+        {
+            candidates.addAll(keyNames);
+        }
+    }
+}
@@ -3,18 +3,22 @@ package org.openstreetmap.atlas.checks.validation.tag;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.openstreetmap.atlas.checks.base.BaseCheck;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.AtlasCache;
+import org.openstreetmap.atlas.checks.utility.ConcurrentLongSet;
 import org.openstreetmap.atlas.geography.Location;
 import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
 import org.openstreetmap.atlas.geography.atlas.items.Edge;
 import org.openstreetmap.atlas.geography.atlas.items.Node;
 import org.openstreetmap.atlas.tags.HighwayTag;
 import org.openstreetmap.atlas.tags.names.NameTag;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
 import org.openstreetmap.atlas.utilities.configuration.Configuration;
 import org.openstreetmap.atlas.utilities.scalars.Distance;
 
@@ -29,6 +33,8 @@ public class RoadNameSpellingConsistencyCheck extends BaseCheck<Long>
 {
     private static final long serialVersionUID = 1L;
 
+    private static final String EXPLORED_EDGES_STATE = "exploredEdges";
+    private static final String ROAD_NAMES_STATE = "roadNames";
     private static final HighwayTag MINIMUM_NAME_PRIORITY_DEFAULT = HighwayTag.SERVICE;
     private static final double MAXIMUM_SEARCH_DISTANCE_DEFAULT = 500.0;
     private static final List<String> FALLBACK_INSTRUCTIONS = Collections.singletonList(
@@ -73,14 +79,18 @@ public class RoadNameSpellingConsistencyCheck extends BaseCheck<Long>
     protected Optional<CheckFlag> flag(final AtlasObject object)
     {
         final Edge edge = (Edge) object;
-        // Collect all of the Edges within a search distance, then filter those that have NameTags
-        // that are slightly different than edge
-        final Set<Edge> inconsistentEdgeSet = new RoadNameSpellingConsistencyCheckWalker(edge,
-                this.maximumSearchDistance).collectEdges().stream()
-                        .filter(incomingEdge -> !this.isFlagged(incomingEdge.getIdentifier()))
-                        .filter(RoadNameSpellingConsistencyCheckWalker
-                                .isEdgeWithInconsistentSpelling(edge))
-                        .collect(Collectors.toSet());
+        // Collect all of the Edges within a search distance, grouped by name, then look up the
+        // names that are slightly different than the name of edge
+        final Map<String, List<Edge>> namedEdges = new RoadNameSpellingConsistencyCheckWalker(
+                edge, this.maximumSearchDistance, this.exploredEdges(edge)).collectEdges()
+                        .stream()
+                        .filter(incomingEdge -> !this.isFlagged(incomingEdge.getIdentifier())
+                                && incomingEdge.getName().isPresent())
+                        .collect(Collectors
+                                .groupingBy(incomingEdge -> incomingEdge.getName().get()));
+        final Set<Edge> inconsistentEdgeSet = this.roadNames(edge)
+                .inconsistentSpellings(edge.getName().get(), namedEdges.keySet()).stream()
+                .flatMap(name -> namedEdges.get(name).stream()).collect(Collectors.toSet());
 
         // If the Walker found any inconsistent NameTag spellings
         if (!inconsistentEdgeSet.isEmpty())
@@ -123,4 +133,36 @@ public class RoadNameSpellingConsistencyCheck extends BaseCheck<Long>
         return FALLBACK_INSTRUCTIONS;
     }
 
+    /**
+     * Gets the edges searches already started from in the atlas of an edge. They are kept for the
+     * atlas of this run, and released with it.
+     *
+     * @param edge
+     *            an edge of the atlas
+     * @return the master edge identifiers of the edges searches already started from
+     */
+    private ConcurrentLongSet exploredEdges(final Edge edge)
+    {
+        final AtlasCache<ConcurrentLongSet> exploredEdges = this.getRunState(EXPLORED_EDGES_STATE,
+                () -> new AtlasCache<>("explored edges", 1));
+        return exploredEdges.get(edge.getAtlas(), atlas -> new ConcurrentLongSet());
+    }
+
+    /**
+     * Gets the index of the road names in the atlas of an edge. It is built once for the atlas of
+     * this run, and released with it.
+     *
+     * @param edge
+     *            an edge of the atlas
+     * @return the index of the names of the master edges of the atlas
+     */
+    private RoadNameIndex roadNames(final Edge edge)
+    {
+        final AtlasCache<RoadNameIndex> roadNames = this.getRunState(ROAD_NAMES_STATE,
+                () -> new AtlasCache<>("road names", 1));
+        return roadNames.get(edge.getAtlas(),
+                atlas -> new RoadNameIndex(Iterables.stream(atlas.edges(Edge::isMasterEdge))
+                        .map(Edge::getName).filter(Optional::isPresent).map(Optional::get)
+                        .collectToSet()));
+    }
 }
@@ -2,14 +2,12 @@ package org.openstreetmap.atlas.checks.validation.tag;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
-import java.util.TreeSet;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.openstreetmap.atlas.checks.utility.ConcurrentLongSet;
 import org.openstreetmap.atlas.geography.atlas.items.Edge;
 import org.openstreetmap.atlas.geography.atlas.walker.EdgeWalker;
 import org.openstreetmap.atlas.tags.names.NameTag;
@@ -58,7 +56,6 @@ class RoadNameSpellingConsistencyCheckWalker extends EdgeWalker
         }
     }
 
-    private static final Set<Long> exploredEdges = new TreeSet<>();
     // Matches identifiers sometimes found in road names. E.g. the 'A' in Road A, the "12c" in 12c
     // Street, and the "Y6" in Y6 Drive.
     // Identifiers are defined to be any space-delimited string that either contains at least one
@@ -78,29 +75,21 @@ class RoadNameSpellingConsistencyCheckWalker extends EdgeWalker
 
     /**
      * Evaluate the {@link NameTag}s of the startingEdge and an incomingEdge to see if their
-     * spellings are inconsistent with one another. NOSONAR because startingEdges are guaranteed to
-     * have a name by way of validCheckForObject.
+     * spellings are inconsistent with one another.
      *
-     * @param startEdge
-     *            the edge from which the search started
-     * @return true if incomingEdge's name exists and is at an edit distance of 1 from the start
-     *         edge's name (discounting identifier substrings); false otherwise
+     * @param incomingEdgeName
+     *            the name of the next edge in the search area
+     * @param startEdgeName
+     *            the name of the edge from which the search started
+     * @return true if the incoming name is at an edit distance of 1 from the start edge's name
+     *         (discounting identifier substrings); false otherwise
      */
-    @SuppressWarnings("squid:S3655")
-    static Predicate<Edge> isEdgeWithInconsistentSpelling(final Edge startEdge)
+    static boolean isInconsistentSpelling(final String incomingEdgeName,
+            final String startEdgeName)
     {
-        return incomingEdge ->
-        {
-            if (!incomingEdge.getName().isPresent())
-            {
-                return false;
-            }
-            final String startEdgeName = startEdge.getName().get();
-            final String incomingEdgeName = incomingEdge.getName().get();
-            return similarLengthDifferentCharacters(incomingEdgeName, startEdgeName)
-                    && editDistanceIsOne(incomingEdgeName, startEdgeName)
-                    && identifierSubstringsAreEqual(incomingEdgeName, startEdgeName);
-        };
+        return similarLengthDifferentCharacters(incomingEdgeName, startEdgeName)
+                && editDistanceIsOne(incomingEdgeName, startEdgeName)
+                && identifierSubstringsAreEqual(incomingEdgeName, startEdgeName);
     }
 
     /**
@@ -111,10 +100,13 @@ class RoadNameSpellingConsistencyCheckWalker extends EdgeWalker
      * @param maximumSearchDistance
      *            the maximum distance from the end of the incoming edge to the start of the
      *            starting edge
+     * @param exploredEdges
+     *            the master edge identifiers of the edges searches already started from
      * @return A stream of edges that fall in the search area
      */
     private static Function<Edge, Stream<Edge>> edgesWithinMaximumSearchDistance(
-            final Edge startEdge, final Distance maximumSearchDistance)
+            final Edge startEdge, final Distance maximumSearchDistance,
+            final ConcurrentLongSet exploredEdges)
     {
         return incomingEdge -> incomingEdge.end().getLocation().distanceTo(startEdge.start()
                 .getLocation()).isLessThanOrEqualTo(maximumSearchDistance) ? incomingEdge
@@ -268,11 +260,15 @@ class RoadNameSpellingConsistencyCheckWalker extends EdgeWalker
      * @param maximumSearchDistance
      *            the maximum distance from the end of the incoming edge to the start of the
      *            starting edge
+     * @param exploredEdges
+     *            the master edge identifiers of the edges searches already started from in the
+     *            same atlas, which are not explored again; the start edge is added to them
      */
     RoadNameSpellingConsistencyCheckWalker(final Edge startEdge,
-            final Distance maximumSearchDistance)
+            final Distance maximumSearchDistance, final ConcurrentLongSet exploredEdges)
     {
-        super(startEdge, edgesWithinMaximumSearchDistance(startEdge, maximumSearchDistance));
+        super(startEdge, edgesWithinMaximumSearchDistance(startEdge, maximumSearchDistance,
+                exploredEdges));
         exploredEdges.add(startEdge.getMasterEdgeIdentifier());
     }
 }
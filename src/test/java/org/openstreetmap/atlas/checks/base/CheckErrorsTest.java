@@ -0,0 +1,102 @@
+package org.openstreetmap.atlas.checks.base;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.atlas.checks.base.checks.BaseTestRule;
+import org.openstreetmap.atlas.checks.base.checks.FailingTestCheck;
+import org.openstreetmap.atlas.checks.configuration.ConfigurationResolver;
+import org.openstreetmap.atlas.checks.event.MetricEvent;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
+import org.openstreetmap.atlas.geography.atlas.items.Edge;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
+import org.openstreetmap.atlas.utilities.configuration.Configuration;
+
+/**
+ * Tests for {@link CheckErrors}
+ *
+ * @author lucylu
+ */
+public class CheckErrorsTest
+{
+    /**
+     * A {@link FailingTestCheck} only looking at {@link Edge}s
+     */
+    public static class EdgeFailingTestCheck extends FailingTestCheck
+    {
+        public EdgeFailingTestCheck(final Configuration configuration)
+        {
+            super(configuration);
+        }
+
+        @Override
+        public boolean validCheckForObject(final AtlasObject object)
+        {
+            return object instanceof Edge;
+        }
+    }
+
+    @Rule
+    public BaseTestRule setup = new BaseTestRule();
+
+    @Test
+    public void testBreakerDisablesCheck()
+    {
+        final FailingTestCheck check = new FailingTestCheck(ConfigurationResolver
+                .inlineConfiguration("{\"FailingTestCheck.errors.breaker.rate\": 0.5,"
+                        + "\"FailingTestCheck.errors.breaker.minimum\": 4}"));
+        Assert.assertEquals(0, Iterables.size(check.flags(this.setup.getAtlas())));
+        Assert.assertTrue(check.getErrors().isDisabled());
+        // The objects after the breaker tripped are not checked
+        Assert.assertEquals(4, check.getErrors().getChecked());
+        Assert.assertEquals(4, check.getErrors().getFailed());
+        Assert.assertTrue(check.metrics().stream()
+                .anyMatch(metric -> metric.getName().equals("FailingTestCheck disabled")));
+
+        check.clear();
+        Assert.assertFalse(check.getErrors().isDisabled());
+    }
+
+    @Test
+    public void testBreakerIgnoresFilteredObjects()
+    {
+        final EdgeFailingTestCheck check = new EdgeFailingTestCheck(ConfigurationResolver
+                .inlineConfiguration("{\"EdgeFailingTestCheck.errors.breaker.rate\": 0.5,"
+                        + "\"EdgeFailingTestCheck.errors.breaker.minimum\": 3}"));
+        // The nodes come first, so counting them would keep the failure rate under the breaker
+        this.setup.getAtlas().nodes().forEach(check::check);
+        this.setup.getAtlas().edges().forEach(check::check);
+        Assert.assertTrue(check.getErrors().isDisabled());
+        Assert.assertEquals(this.setup.getAtlas().numberOfEdges(), check.getErrors().getChecked());
+        Assert.assertEquals(this.setup.getAtlas().numberOfEdges(), check.getErrors().getFailed());
+    }
+
+    @Test
+    public void testFailuresAreCounted()
+    {
+        final FailingTestCheck check = new FailingTestCheck(ConfigurationResolver
+                .inlineConfiguration("{\"FailingTestCheck.errors.traces.maximum\": 1}"));
+        final long objects = Iterables.size(this.setup.getAtlas().items())
+                + Iterables.size(this.setup.getAtlas().relations());
+        Assert.assertEquals(0, Iterables.size(check.flags(this.setup.getAtlas())));
+        Assert.assertFalse(check.getErrors().isDisabled());
+        Assert.assertEquals(objects, check.getErrors().getChecked());
+
+        final List<MetricEvent> metrics = check.metrics();
+        Assert.assertTrue(metrics.stream().allMatch(MetricEvent::isCounter));
+        final Map<String, Long> counts = metrics.stream()
+                .collect(Collectors.toMap(MetricEvent::getName, MetricEvent::getCount));
+        Assert.assertEquals(Long.valueOf(objects), counts.get("FailingTestCheck failures"));
+        // All the failures come from the same place
+        Assert.assertEquals(2, counts.size());
+        Assert.assertTrue(counts.keySet().stream().anyMatch(name -> name.startsWith(
+                "FailingTestCheck failures IllegalStateException at "
+                        + FailingTestCheck.class.getName() + ".flag:")));
+        Assert.assertEquals("FailingTestCheck failures," + objects,
+                metrics.get(0).toString());
+    }
+}
@@ -0,0 +1,85 @@
+package org.openstreetmap.atlas.checks.base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.atlas.checks.base.checks.BaseTestRule;
+import org.openstreetmap.atlas.checks.base.checks.DeduplicatingTestCheck;
+import org.openstreetmap.atlas.checks.configuration.ConfigurationResolver;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
+
+/**
+ * Unit tests for {@link CheckValidator}.
+ *
+ * @author lucylu
+ */
+public class CheckValidatorTest
+{
+    @Rule
+    public BaseTestRule setup = new BaseTestRule();
+
+    @Test
+    public void testConcurrentCallsAreIsolated() throws InterruptedException, ExecutionException
+    {
+        final CheckValidator validator = new CheckValidator(Collections.singleton(
+                new DeduplicatingTestCheck(ConfigurationResolver.emptyConfiguration())));
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            final List<Future<Integer>> results = new ArrayList<>();
+            for (int call = 0; call < 20; call++)
+            {
+                results.add(executor
+                        .submit(() -> validator.validateToList(this.setup.getAtlas()).size()));
+            }
+            for (final Future<Integer> result : results)
+            {
+                Assert.assertEquals(8, result.get().intValue());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        Assert.assertEquals(20, validator.getLatency().count());
+    }
+
+    @Test
+    public void testDeduplicationStateIsPerCall()
+    {
+        final DeduplicatingTestCheck check = new DeduplicatingTestCheck(
+                ConfigurationResolver.emptyConfiguration());
+        final CheckValidator validator = new CheckValidator(Collections.singleton(check));
+
+        Assert.assertEquals(8, validator.validateToList(this.setup.getAtlas()).size());
+        Assert.assertEquals(8, validator.validateToList(this.setup.getAtlas()).size());
+        Assert.assertEquals(8,
+                validator.validate(this.setup.getAtlas()).get("DeduplicatingTestCheck").size());
+
+        // Outside of a validator call the check keeps its own state
+        Assert.assertEquals(8, Iterables.size(check.flags(this.setup.getAtlas())));
+        Assert.assertEquals(0, Iterables.size(check.flags(this.setup.getAtlas())));
+    }
+
+    @Test
+    public void testLatencies()
+    {
+        final CheckValidator validator = new CheckValidator(Collections.singleton(
+                new DeduplicatingTestCheck(ConfigurationResolver.emptyConfiguration())));
+        validator.validate(this.setup.getAtlas());
+        validator.validate(this.setup.getAtlas());
+
+        Assert.assertEquals(2, validator.getLatency().count());
+        Assert.assertEquals(2,
+                validator.getCheckLatencies().get("DeduplicatingTestCheck").count());
+        Assert.assertTrue(validator.getLatency().percentileMilliseconds(99) > 0);
+    }
+}
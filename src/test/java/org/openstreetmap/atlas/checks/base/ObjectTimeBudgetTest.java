@@ -0,0 +1,78 @@
+package org.openstreetmap.atlas.checks.base;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.atlas.checks.base.checks.BaseTestRule;
+import org.openstreetmap.atlas.checks.base.checks.SlowTestCheck;
+import org.openstreetmap.atlas.checks.configuration.ConfigurationResolver;
+import org.openstreetmap.atlas.checks.event.MetricEvent;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
+
+/**
+ * Tests for {@link ObjectTimeBudget} and {@link SkippedSlowObjects}
+ *
+ * @author lucylu
+ */
+public class ObjectTimeBudgetTest
+{
+    @Rule
+    public BaseTestRule setup = new BaseTestRule();
+
+    @Test
+    public void testCheckWithoutBudget()
+    {
+        // No budget is running on this thread, so checking it never throws
+        for (int index = 0; index < ObjectTimeBudget.CLOCK_INTERVAL * 2; index++)
+        {
+            ObjectTimeBudget.check();
+        }
+    }
+
+    @Test
+    public void testCheckEveryCall()
+    {
+        final ObjectTimeBudget budget = ObjectTimeBudget.start(1);
+        try
+        {
+            while (budget.elapsed().asMilliseconds() <= 1)
+            {
+                // Spend the budget without checking it
+                Thread.onSpinWait();
+            }
+            // The default interval does not read the clock on the first call, an interval of 1 does
+            ObjectTimeBudget.check();
+            ObjectTimeBudget.check(1);
+            Assert.fail("The budget is spent");
+        }
+        catch (final TimeBudgetExceededException exception)
+        {
+            Assert.assertTrue(exception.getElapsed().asMilliseconds() > 1);
+        }
+        finally
+        {
+            budget.stop();
+        }
+    }
+
+    @Test
+    public void testSlowObjectsAreSkipped()
+    {
+        final SlowTestCheck check = new SlowTestCheck(ConfigurationResolver
+                .inlineConfiguration("{\"SlowTestCheck.budget.object.milliseconds\": 1}"));
+        final long nodes = this.setup.getAtlas().numberOfNodes();
+        final long objects = Iterables.size(this.setup.getAtlas().items())
+                + Iterables.size(this.setup.getAtlas().relations());
+        Assert.assertEquals(objects - nodes, Iterables.size(check.flags(this.setup.getAtlas())));
+        Assert.assertEquals(nodes, check.getSkippedSlowObjects().getSkipped());
+        Assert.assertEquals(0, check.getErrors().getFailed());
+
+        // The skipped objects are logged, the metrics only count them
+        final List<MetricEvent> metrics = check.metrics();
+        Assert.assertEquals(1, metrics.size());
+        Assert.assertEquals("SlowTestCheck skipped slow objects," + nodes,
+                metrics.get(0).toString());
+    }
+}
@@ -0,0 +1,42 @@
+package org.openstreetmap.atlas.checks.base.checks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.openstreetmap.atlas.checks.base.BaseCheck;
+import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
+import org.openstreetmap.atlas.utilities.configuration.Configuration;
+
+/**
+ * A test check that flags each object once, using the flagged identifiers of {@link BaseCheck}
+ *
+ * @author lucylu
+ */
+public class DeduplicatingTestCheck extends BaseCheck<String>
+{
+    public DeduplicatingTestCheck(final Configuration configuration)
+    {
+        super(configuration);
+    }
+
+    @Override
+    public boolean validCheckForObject(final AtlasObject object)
+    {
+        return !this.isFlagged(this.getUniqueObjectIdentifier(object));
+    }
+
+    @Override
+    protected Optional<CheckFlag> flag(final AtlasObject object)
+    {
+        this.markAsFlagged(this.getUniqueObjectIdentifier(object));
+        return Optional.of(this.createFlag(object, this.getLocalizedInstruction(0)));
+    }
+
+    @Override
+    protected List<String> getFallbackInstructions()
+    {
+        return Arrays.asList("Default Instruction");
+    }
+}
@@ -0,0 +1,41 @@
+package org.openstreetmap.atlas.checks.base.checks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.openstreetmap.atlas.checks.base.BaseCheck;
+import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
+import org.openstreetmap.atlas.utilities.configuration.Configuration;
+
+/**
+ * A test check that fails on every object
+ *
+ * @author lucylu
+ */
+public class FailingTestCheck extends BaseCheck<Long>
+{
+    public FailingTestCheck(final Configuration configuration)
+    {
+        super(configuration);
+    }
+
+    @Override
+    public boolean validCheckForObject(final AtlasObject object)
+    {
+        return true;
+    }
+
+    @Override
+    protected Optional<CheckFlag> flag(final AtlasObject object)
+    {
+        throw new IllegalStateException("Failing on " + object.getIdentifier());
+    }
+
+    @Override
+    protected List<String> getFallbackInstructions()
+    {
+        return Arrays.asList("Default Instruction");
+    }
+}
@@ -0,0 +1,48 @@
+package org.openstreetmap.atlas.checks.base.checks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.openstreetmap.atlas.checks.base.BaseCheck;
+import org.openstreetmap.atlas.checks.base.ObjectTimeBudget;
+import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
+import org.openstreetmap.atlas.geography.atlas.items.Node;
+import org.openstreetmap.atlas.utilities.configuration.Configuration;
+
+/**
+ * A test check that never finishes checking {@link Node}s, unless its time budget stops it, and
+ * flags all the other objects
+ *
+ * @author lucylu
+ */
+public class SlowTestCheck extends BaseCheck<Long>
+{
+    public SlowTestCheck(final Configuration configuration)
+    {
+        super(configuration);
+    }
+
+    @Override
+    public boolean validCheckForObject(final AtlasObject object)
+    {
+        return true;
+    }
+
+    @Override
+    protected Optional<CheckFlag> flag(final AtlasObject object)
+    {
+        while (object instanceof Node)
+        {
+            ObjectTimeBudget.check();
+        }
+        return Optional.of(this.createFlag(object, this.getLocalizedInstruction(0)));
+    }
+
+    @Override
+    protected List<String> getFallbackInstructions()
+    {
+        return Arrays.asList("Default Instruction");
+    }
+}
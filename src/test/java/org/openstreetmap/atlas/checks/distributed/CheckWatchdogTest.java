@@ -0,0 +1,58 @@
+package org.openstreetmap.atlas.checks.distributed;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.checks.base.checks.BaseTestCheck;
+import org.openstreetmap.atlas.checks.configuration.ConfigurationResolver;
+import org.openstreetmap.atlas.checks.event.MetricEvent;
+import org.openstreetmap.atlas.utilities.scalars.Duration;
+
+/**
+ * Unit tests for {@link CheckWatchdog}.
+ *
+ * @author lucylu
+ */
+public class CheckWatchdogTest
+{
+    private static final long NANOSECONDS_PER_MILLISECOND = 1_000_000L;
+
+    @Test
+    public void testCheckIsStoppedAtItsTimeLimit()
+    {
+        final BaseTestCheck check = new BaseTestCheck(ConfigurationResolver
+                .inlineConfiguration("{\"BaseTestCheck.budget.check.milliseconds\": 50}"));
+        Assert.assertEquals(50, check.getTimeLimit().get().asMilliseconds());
+
+        final CheckWatchdog watchdog = new CheckWatchdog(check);
+        Assert.assertTrue(watchdog.proceed(0));
+        watchdog.processed();
+        Assert.assertTrue(watchdog.proceed(49 * NANOSECONDS_PER_MILLISECOND));
+        watchdog.processed();
+        Assert.assertFalse(watchdog.proceed(50 * NANOSECONDS_PER_MILLISECOND));
+        // Once stopped, the check stays stopped
+        Assert.assertFalse(watchdog.proceed(0));
+        Assert.assertTrue(watchdog.isTimedOut());
+        Assert.assertEquals(2, watchdog.getProcessed());
+
+        final List<MetricEvent> metrics = watchdog.metrics(Duration.milliseconds(60));
+        Assert.assertEquals(2, metrics.size());
+        Assert.assertEquals("BaseTestCheck objects processed,2", metrics.get(0).toString());
+        Assert.assertEquals("BaseTestCheck timed out", metrics.get(1).getName());
+        Assert.assertFalse(metrics.get(1).isCounter());
+    }
+
+    @Test
+    public void testCheckWithoutTimeLimit()
+    {
+        final BaseTestCheck check = new BaseTestCheck(ConfigurationResolver.emptyConfiguration());
+        Assert.assertFalse(check.getTimeLimit().isPresent());
+
+        final CheckWatchdog watchdog = new CheckWatchdog(check);
+        Assert.assertTrue(watchdog.proceed());
+        Assert.assertTrue(watchdog.proceed(Long.MAX_VALUE - 1));
+        Assert.assertFalse(watchdog.isTimedOut());
+        Assert.assertEquals(1, watchdog.metrics(Duration.ZERO).size());
+    }
+}
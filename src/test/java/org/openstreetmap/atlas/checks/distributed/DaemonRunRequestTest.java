@@ -0,0 +1,55 @@
+package org.openstreetmap.atlas.checks.distributed;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.checks.distributed.IntegrityChecksCommandArguments.OutputFormats;
+import org.openstreetmap.atlas.exception.CoreException;
+
+/**
+ * Unit tests for {@link DaemonRunRequest}.
+ *
+ * @author lucylu
+ */
+public class DaemonRunRequestTest
+{
+    @Test
+    public void testDefaults()
+    {
+        final DaemonRunRequest request = DaemonRunRequest
+                .fromJson("{\"input\":\"file:///in\",\"output\":\"file:///out\","
+                        + "\"countries\":[\"BLZ\"]}");
+        Assert.assertEquals("file:///in", request.getInput());
+        Assert.assertEquals("file:///out", request.getOutput());
+        Assert.assertEquals(Arrays.asList("BLZ"), request.getCountries());
+        Assert.assertEquals(EnumSet.of(OutputFormats.FLAGS, OutputFormats.METRICS),
+                request.getOutputFormats());
+        Assert.assertFalse(request.getChecks().isPresent());
+        Assert.assertFalse(request.getConfiguration().isPresent());
+        Assert.assertFalse(request.isReload());
+    }
+
+    @Test(expected = CoreException.class)
+    public void testMissingCountries()
+    {
+        DaemonRunRequest.fromJson("{\"input\":\"file:///in\",\"output\":\"file:///out\"}");
+    }
+
+    @Test
+    public void testOverrides()
+    {
+        final DaemonRunRequest request = DaemonRunRequest
+                .fromJson("{\"input\":\"file:///in\",\"output\":\"file:///out\","
+                        + "\"countries\":[\"BLZ\",\"MEX\"],\"outputFormats\":[\"geojson\"],"
+                        + "\"checks\":[\"SinkIslandCheck\"],"
+                        + "\"configuration\":{\"SinkIslandCheck\":{\"tree.size\":80}},"
+                        + "\"reload\":true}");
+        Assert.assertEquals(EnumSet.of(OutputFormats.GEOJSON), request.getOutputFormats());
+        Assert.assertEquals(Arrays.asList("SinkIslandCheck"), request.getChecks().get());
+        Assert.assertEquals("{\"SinkIslandCheck\":{\"tree.size\":80}}",
+                request.getConfiguration().get());
+        Assert.assertTrue(request.isReload());
+    }
+}
@@ -0,0 +1,69 @@
+package org.openstreetmap.atlas.checks.distributed;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.checks.base.Check;
+import org.openstreetmap.atlas.checks.configuration.ConfigurationResolver;
+
+/**
+ * Unit tests for {@link ExecutorCheckCache}.
+ *
+ * @author lucylu
+ */
+public class ExecutorCheckCacheTest
+{
+    private static final String CONFIGURATION = "{\"CheckResourceLoader.scanUrls\": [\"org.openstreetmap.atlas.checks.base.checks\"],\"CheckResourceLoaderTestCheck\":{\"enabled\": true, \"countries.blacklist\":[\"ABC\"]}}";
+
+    @Test
+    public void testBorrowForCountry()
+    {
+        final ExecutorCheckCache cache = new ExecutorCheckCache(
+                ConfigurationResolver.inlineConfiguration(CONFIGURATION));
+        Assert.assertTrue(cache.borrow("ABC").isEmpty());
+        Assert.assertEquals(1, cache.borrow("DEF").size());
+    }
+
+    @Test
+    public void testConcurrentBorrowsAreNotShared()
+    {
+        final ExecutorCheckCache cache = new ExecutorCheckCache(
+                ConfigurationResolver.inlineConfiguration(CONFIGURATION));
+        final List<Check> first = cache.borrow("DEF");
+        final List<Check> second = cache.borrow("DEF");
+        Assert.assertNotSame(first.get(0), second.get(0));
+    }
+
+    @Test
+    public void testReleasedChecksAreReused()
+    {
+        final ExecutorCheckCache cache = new ExecutorCheckCache(
+                ConfigurationResolver.inlineConfiguration(CONFIGURATION));
+        final List<Check> first = cache.borrow("DEF");
+        cache.release("DEF", first);
+        Assert.assertSame(first, cache.borrow("DEF"));
+    }
+
+    @Test
+    public void testSerializedCacheLoadsChecks() throws IOException, ClassNotFoundException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes))
+        {
+            output.writeObject(new ExecutorCheckCache(
+                    ConfigurationResolver.inlineConfiguration(CONFIGURATION)));
+        }
+        try (ObjectInputStream input = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())))
+        {
+            final ExecutorCheckCache cache = (ExecutorCheckCache) input.readObject();
+            Assert.assertEquals(1, cache.borrow("DEF").size());
+        }
+    }
+}
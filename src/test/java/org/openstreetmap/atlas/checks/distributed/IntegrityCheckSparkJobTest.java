@@ -0,0 +1,68 @@
+package org.openstreetmap.atlas.checks.distributed;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.exception.CoreException;
+import org.openstreetmap.atlas.generator.tools.spark.utilities.SparkFileHelper;
+
+/**
+ * Tests for the configuration variants of {@link IntegrityCheckSparkJob}
+ *
+ * @author lucylu
+ */
+public class IntegrityCheckSparkJobTest
+{
+    @Test(expected = CoreException.class)
+    public void testDuplicateVariant()
+    {
+        IntegrityCheckSparkJob
+                .parseVariants("strict=file:///strict.json;strict=file:///other.json");
+    }
+
+    @Test
+    public void testMalformedVariants()
+    {
+        for (final String malformed : Arrays.asList("strict", "=file:///strict.json", "strict=",
+                " =file:///strict.json", "strict= "))
+        {
+            try
+            {
+                IntegrityCheckSparkJob.parseVariants(malformed);
+                Assert.fail("Variant " + malformed + " should be rejected");
+            }
+            catch (final CoreException exception)
+            {
+                Assert.assertTrue(exception.getMessage().contains("expected <Name>=<URI>"));
+            }
+        }
+    }
+
+    @Test
+    public void testVariantFolders()
+    {
+        final Map<String, String> variants = IntegrityCheckSparkJob
+                .parseVariants("strict=file:///strict.json");
+        final String strict = variants.keySet().iterator().next();
+        Assert.assertEquals(SparkFileHelper.combine("strict",
+                IntegrityChecksCommandArguments.OUTPUT_FLAG_FOLDER),
+                IntegrityCheckSparkJob.variantFolder(strict,
+                        IntegrityChecksCommandArguments.OUTPUT_FLAG_FOLDER));
+        // A run without variants writes to the usual folders
+        Assert.assertEquals(IntegrityChecksCommandArguments.OUTPUT_FLAG_FOLDER,
+                IntegrityCheckSparkJob.variantFolder("",
+                        IntegrityChecksCommandArguments.OUTPUT_FLAG_FOLDER));
+    }
+
+    @Test
+    public void testVariantsKeepTheirOrder()
+    {
+        final Map<String, String> variants = IntegrityCheckSparkJob
+                .parseVariants("strict=file:///strict.json; lenient = file:///lenient.json");
+        Assert.assertEquals(Arrays.asList("strict", "lenient"),
+                Arrays.asList(variants.keySet().toArray()));
+        Assert.assertEquals("file:///lenient.json", variants.get("lenient"));
+    }
+}
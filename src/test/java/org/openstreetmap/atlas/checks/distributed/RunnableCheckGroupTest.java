@@ -0,0 +1,148 @@
+package org.openstreetmap.atlas.checks.distributed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.atlas.checks.base.checks.BaseTestCheck;
+import org.openstreetmap.atlas.checks.base.checks.BaseTestRule;
+import org.openstreetmap.atlas.checks.base.checks.SlowTestCheck;
+import org.openstreetmap.atlas.checks.configuration.ConfigurationResolver;
+import org.openstreetmap.atlas.checks.event.CheckFlagEvent;
+import org.openstreetmap.atlas.checks.event.MetricEvent;
+import org.openstreetmap.atlas.event.EventService;
+import org.openstreetmap.atlas.event.Processor;
+import org.openstreetmap.atlas.event.ShutdownEvent;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
+
+import com.google.common.eventbus.AllowConcurrentEvents;
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * Tests for {@link RunnableCheckGroup}
+ *
+ * @author lucylu
+ */
+public class RunnableCheckGroupTest
+{
+    /**
+     * Collects the events posted to an {@link EventService}
+     */
+    private static final class CollectingProcessor implements Processor<MetricEvent>
+    {
+        private final List<CheckFlagEvent> flags = new ArrayList<>();
+        private final List<MetricEvent> metrics = new ArrayList<>();
+
+        @Subscribe
+        @AllowConcurrentEvents
+        public synchronized void process(final CheckFlagEvent event)
+        {
+            this.flags.add(event);
+        }
+
+        @Override
+        @Subscribe
+        @AllowConcurrentEvents
+        public synchronized void process(final MetricEvent event)
+        {
+            this.metrics.add(event);
+        }
+
+        @Override
+        @Subscribe
+        public void process(final ShutdownEvent event)
+        {
+            // Nothing to write
+        }
+
+        Map<String, MetricEvent> metricsByName()
+        {
+            return this.metrics.stream()
+                    .collect(Collectors.toMap(MetricEvent::getName, metric -> metric));
+        }
+    }
+
+    @Rule
+    public BaseTestRule setup = new BaseTestRule();
+
+    @Test
+    public void testInstancesPostToTheirOwnEventService()
+    {
+        final List<AtlasObject> objects = this.objects();
+        final BaseTestCheck first = new BaseTestCheck(ConfigurationResolver.emptyConfiguration());
+        final BaseTestCheck second = new BaseTestCheck(ConfigurationResolver.emptyConfiguration());
+        final CollectingProcessor firstEvents = new CollectingProcessor();
+        final CollectingProcessor secondEvents = new CollectingProcessor();
+        final EventService firstService = this.eventService("first", firstEvents);
+        final EventService secondService = this.eventService("second", secondEvents);
+
+        new RunnableCheckGroup(objects).add(first, firstService).add(second, secondService).run();
+        firstService.complete();
+        secondService.complete();
+
+        for (final CollectingProcessor events : new CollectingProcessor[] { firstEvents,
+                secondEvents })
+        {
+            Assert.assertEquals(objects.size(), events.flags.size());
+            final Map<String, MetricEvent> metrics = events.metricsByName();
+            Assert.assertEquals(objects.size(),
+                    metrics.get("BaseTestCheck objects processed").getCount());
+            Assert.assertFalse(metrics.get("BaseTestCheck").isCounter());
+            Assert.assertFalse(metrics.containsKey("BaseTestCheck timed out"));
+        }
+        // The instances are cleared once their metrics are posted
+        Assert.assertEquals(0, first.getErrors().getChecked());
+        Assert.assertEquals(0, second.getErrors().getChecked());
+    }
+
+    @Test
+    public void testTimedOutInstanceIsSkipped()
+    {
+        final List<AtlasObject> objects = this.objects();
+        final BaseTestCheck fast = new BaseTestCheck(ConfigurationResolver.emptyConfiguration());
+        // Every node takes the object budget, which is more than the check budget
+        final SlowTestCheck slow = new SlowTestCheck(ConfigurationResolver
+                .inlineConfiguration("{\"SlowTestCheck.budget.check.milliseconds\": 10,"
+                        + "\"SlowTestCheck.budget.object.milliseconds\": 20}"));
+        final CollectingProcessor fastEvents = new CollectingProcessor();
+        final CollectingProcessor slowEvents = new CollectingProcessor();
+        final EventService fastService = this.eventService("fast", fastEvents);
+        final EventService slowService = this.eventService("slow", slowEvents);
+
+        new RunnableCheckGroup(objects).add(slow, slowService).add(fast, fastService).run();
+        fastService.complete();
+        slowService.complete();
+
+        // The slow instance stops after its first node, the other one checks all the objects
+        final Map<String, MetricEvent> slowMetrics = slowEvents.metricsByName();
+        Assert.assertEquals(1, slowMetrics.get("SlowTestCheck objects processed").getCount());
+        Assert.assertTrue(slowMetrics.containsKey("SlowTestCheck timed out"));
+        Assert.assertTrue(slowEvents.flags.isEmpty());
+        Assert.assertEquals(objects.size(), fastEvents.flags.size());
+        Assert.assertEquals(objects.size(), fastEvents.metricsByName()
+                .get("BaseTestCheck objects processed").getCount());
+    }
+
+    private EventService eventService(final String name, final CollectingProcessor processor)
+    {
+        final EventService eventService = EventService
+                .get(RunnableCheckGroupTest.class.getSimpleName() + "_" + name);
+        eventService.register(processor);
+        return eventService;
+    }
+
+    /**
+     * @return the nodes of the test atlas, followed by its edges
+     */
+    private List<AtlasObject> objects()
+    {
+        final List<AtlasObject> objects = new ArrayList<>();
+        this.setup.getAtlas().nodes().forEach(objects::add);
+        this.setup.getAtlas().edges().forEach(objects::add);
+        return objects;
+    }
+}
@@ -1,13 +1,7 @@
 package org.openstreetmap.atlas.checks.distributed;
 
-import java.util.Collections;
-import java.util.List;
-
 import org.junit.Assert;
 import org.junit.Test;
-import org.openstreetmap.atlas.checks.base.Check;
-import org.openstreetmap.atlas.checks.configuration.ConfigurationResolver;
-import org.openstreetmap.atlas.checks.validation.tag.InvalidLanesTagCheck;
 import org.openstreetmap.atlas.geography.sharding.Shard;
 import org.openstreetmap.atlas.geography.sharding.SlippyTile;
 
@@ -20,16 +14,7 @@ public class ShardedCheckFlagsTaskTest
 {
     private static final String COUNTRY = "CAN";
     private static final Shard SHARD = new SlippyTile(0, 0, 0);
-    private static final List<Check> CHECKS = Collections
-            .singletonList(new InvalidLanesTagCheck(ConfigurationResolver.emptyConfiguration()));
-    private static final ShardedCheckFlagsTask TASK = new ShardedCheckFlagsTask(COUNTRY, SHARD,
-            CHECKS);
-
-    @Test
-    public void getChecks()
-    {
-        Assert.assertEquals(CHECKS, TASK.getChecks());
-    }
+    private static final ShardedCheckFlagsTask TASK = new ShardedCheckFlagsTask(COUNTRY, SHARD);
 
     @Test
     public void getCountry()
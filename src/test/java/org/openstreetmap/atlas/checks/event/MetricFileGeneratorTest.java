@@ -2,6 +2,7 @@ package org.openstreetmap.atlas.checks.event;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -14,6 +15,7 @@ import org.openstreetmap.atlas.event.ShutdownEvent;
 import org.openstreetmap.atlas.generator.tools.filesystem.FileSystemHelper;
 import org.openstreetmap.atlas.generator.tools.spark.utilities.SparkFileHelper;
 import org.openstreetmap.atlas.streaming.resource.Resource;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
 import org.openstreetmap.atlas.utilities.scalars.Duration;
 
 /**
@@ -35,6 +37,32 @@ public class MetricFileGeneratorTest
     @Rule
     public TemporaryFolder tempFolder = new TemporaryFolder();
 
+    @Test
+    public void testCountersAreWrittenSeparately() throws IOException
+    {
+        final File metricsDirectory = this.tempFolder.newFolder();
+        final File countersDirectory = this.tempFolder.newFolder();
+        final MetricFileGenerator metrics = new MetricFileGenerator("metrics.csv",
+                new SparkFileHelper(FILE_SYSTEM_CONFIG), metricsDirectory.getAbsolutePath());
+        final MetricFileGenerator counters = MetricFileGenerator.counters("counters.csv",
+                new SparkFileHelper(FILE_SYSTEM_CONFIG), countersDirectory.getAbsolutePath());
+        for (final MetricFileGenerator generator : Arrays.asList(metrics, counters))
+        {
+            generator.process(SAMPLE_EVENT);
+            generator.process(new MetricEvent("a-counter-name", 3));
+            generator.process(new ShutdownEvent());
+        }
+
+        Assert.assertEquals(Arrays.asList(MetricEvent.header(), "a-metric-name,60000"),
+                Iterables.asList(FileSystemHelper
+                        .resources(metricsDirectory.getAbsolutePath(), FILE_SYSTEM_CONFIG).get(0)
+                        .lines()));
+        Assert.assertEquals(Arrays.asList(MetricEvent.counterHeader(), "a-counter-name,3"),
+                Iterables.asList(FileSystemHelper
+                        .resources(countersDirectory.getAbsolutePath(), FILE_SYSTEM_CONFIG).get(0)
+                        .lines()));
+    }
+
     @Test
     public void testFileLabelWithKnownSuffix() throws IOException
     {
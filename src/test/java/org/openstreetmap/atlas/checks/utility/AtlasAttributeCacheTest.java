@@ -0,0 +1,104 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.atlas.checks.base.checks.BaseTestRule;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.geography.atlas.items.Edge;
+import org.openstreetmap.atlas.geography.atlas.items.ItemType;
+import org.openstreetmap.atlas.tags.HighwayTag;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
+import org.openstreetmap.atlas.utilities.scalars.Duration;
+import org.openstreetmap.atlas.utilities.time.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests for {@link AtlasAttributeCache} and {@link EntityPositions}
+ *
+ * @author lucylu
+ */
+public class AtlasAttributeCacheTest
+{
+    private static final int LOOKUPS = 100_000;
+    private static final Logger logger = LoggerFactory.getLogger(AtlasAttributeCacheTest.class);
+
+    @Rule
+    public BaseTestRule setup = new BaseTestRule();
+
+    @After
+    public void release()
+    {
+        AtlasCache.releaseAll(this.setup.getAtlas());
+    }
+
+    @Test
+    public void testAttributesMatchTags()
+    {
+        for (final AtlasEntity entity : this.setup.getAtlas().entities())
+        {
+            Assert.assertEquals(HighwayTag.highwayTag(entity),
+                    AtlasAttributeCache.highwayTag(entity));
+        }
+        Assert.assertEquals(HighwayTag.TRUNK,
+                AtlasAttributeCache.highwayTag(this.setup.getAtlas().edge(100L)).get());
+    }
+
+    @Test
+    public void testLookupsAgainstTags()
+    {
+        final List<Edge> edges = Iterables.asList(this.setup.getAtlas().edges());
+        // Build the column before timing the lookups
+        AtlasAttributeCache.highwayTag(edges.get(0));
+
+        final Time cachedTimer = Time.now();
+        int cachedTrunks = 0;
+        for (int index = 0; index < LOOKUPS; index++)
+        {
+            final Optional<HighwayTag> highway = AtlasAttributeCache
+                    .highwayTag(edges.get(index % edges.size()));
+            cachedTrunks += highway.isPresent() && highway.get() == HighwayTag.TRUNK ? 1 : 0;
+        }
+        final Duration cached = cachedTimer.elapsedSince();
+
+        final Time tagTimer = Time.now();
+        int tagTrunks = 0;
+        for (int index = 0; index < LOOKUPS; index++)
+        {
+            final Optional<HighwayTag> highway = HighwayTag
+                    .highwayTag(edges.get(index % edges.size()));
+            tagTrunks += highway.isPresent() && highway.get() == HighwayTag.TRUNK ? 1 : 0;
+        }
+        final Duration tags = tagTimer.elapsedSince();
+
+        logger.info("{} highway lookups: {} from the cache, {} from the tags", LOOKUPS, cached,
+                tags);
+        // All the edges of the test atlas are trunks
+        Assert.assertEquals(LOOKUPS, cachedTrunks);
+        Assert.assertEquals(tagTrunks, cachedTrunks);
+    }
+
+    @Test
+    public void testPositionsAreDense()
+    {
+        final EntityPositions positions = EntityPositions.forAtlas(this.setup.getAtlas());
+        Assert.assertEquals(this.setup.getAtlas().numberOfEdges(),
+                positions.size(ItemType.EDGE));
+        final BitSet seen = new BitSet();
+        for (final AtlasEntity edge : this.setup.getAtlas().edges())
+        {
+            final int position = positions.position(edge);
+            Assert.assertTrue(position >= 0 && position < positions.size(ItemType.EDGE));
+            Assert.assertFalse(seen.get(position));
+            seen.set(position);
+        }
+        Assert.assertEquals(0, positions.size(ItemType.AREA));
+        Assert.assertSame(positions, EntityPositions.forAtlas(this.setup.getAtlas()));
+    }
+}
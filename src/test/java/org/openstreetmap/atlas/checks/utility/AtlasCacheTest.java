@@ -0,0 +1,51 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.atlas.checks.base.checks.BaseTestRule;
+import org.openstreetmap.atlas.exception.CoreException;
+
+/**
+ * Tests for {@link AtlasCache}
+ *
+ * @author lucylu
+ */
+public class AtlasCacheTest
+{
+    @Rule
+    public BaseTestRule setup = new BaseTestRule();
+
+    @Test
+    public void testValueIsComputedOnce()
+    {
+        final AtlasCache<Integer> cache = new AtlasCache<>("test");
+        final AtomicInteger loads = new AtomicInteger();
+        Assert.assertEquals(1, cache.get(this.setup.getAtlas(), atlas -> loads.incrementAndGet())
+                .intValue());
+        Assert.assertEquals(1, cache.get(this.setup.getAtlas(), atlas -> loads.incrementAndGet())
+                .intValue());
+        Assert.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testReleaseAll()
+    {
+        final AtlasCache<Integer> cache = new AtlasCache<>("test");
+        cache.get(this.setup.getAtlas(), atlas -> 1);
+        Assert.assertEquals(1, cache.size());
+        AtlasCache.releaseAll(this.setup.getAtlas());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test(expected = CoreException.class)
+    public void testLoaderFailure()
+    {
+        new AtlasCache<Integer>("test").get(this.setup.getAtlas(), atlas ->
+        {
+            throw new IllegalStateException("failed");
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.atlas.checks.base.checks.BaseTestRule;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.tags.filters.TaggableFilter;
+
+/**
+ * Tests for {@link AtlasInclusionIndex}
+ *
+ * @author lucylu
+ */
+public class AtlasInclusionIndexTest
+{
+    @Rule
+    public BaseTestRule setup = new BaseTestRule();
+
+    @After
+    public void release()
+    {
+        AtlasCache.releaseAll(this.setup.getAtlas());
+    }
+
+    @Test
+    public void testFailingFilterIsTestedDirectly()
+    {
+        final AtlasInclusionIndex index = AtlasInclusionIndex.forAtlas(this.setup.getAtlas());
+        final Predicate<AtlasEntity> failing = entity ->
+        {
+            if (entity.getIdentifier() == 3L)
+            {
+                throw new IllegalStateException("failing filter");
+            }
+            return true;
+        };
+        Assert.assertTrue(index.test(this.setup.getAtlas().node(1L), "failing", failing));
+        try
+        {
+            index.test(this.setup.getAtlas().node(3L), "failing", failing);
+            Assert.fail("The filter failure should be reported for the failing entity");
+        }
+        catch (final IllegalStateException exception)
+        {
+            Assert.assertEquals("failing filter", exception.getMessage());
+        }
+    }
+
+    @Test
+    public void testFilterEvaluatedOncePerEntity()
+    {
+        final AtomicInteger evaluations = new AtomicInteger();
+        final TaggableFilter filter = TaggableFilter.forDefinition("whitelist->true");
+        final Predicate<AtlasEntity> countingFilter = entity ->
+        {
+            evaluations.incrementAndGet();
+            return filter.test(entity);
+        };
+        final AtlasInclusionIndex index = AtlasInclusionIndex.forAtlas(this.setup.getAtlas());
+        // Two checks sharing the same filter definition
+        for (int check = 0; check < 2; check++)
+        {
+            for (final AtlasEntity node : this.setup.getAtlas().nodes())
+            {
+                Assert.assertEquals(filter.test(node),
+                        index.test(node, "whitelist->true", countingFilter));
+            }
+        }
+        Assert.assertEquals(this.setup.getAtlas().numberOfNodes(), evaluations.get());
+        Assert.assertSame(index, AtlasInclusionIndex.forAtlas(this.setup.getAtlas()));
+    }
+
+    @Test
+    public void testFiltersAreKeyedByDefinition()
+    {
+        final AtlasInclusionIndex index = AtlasInclusionIndex.forAtlas(this.setup.getAtlas());
+        final AtlasEntity edge = this.setup.getAtlas().edge(101L);
+        Assert.assertTrue(
+                index.test(edge, "random->na", TaggableFilter.forDefinition("random->na")));
+        Assert.assertFalse(
+                index.test(edge, "random->!", TaggableFilter.forDefinition("random->!")));
+        Assert.assertFalse(index.test(this.setup.getAtlas().edge(100L), "random->na",
+                TaggableFilter.forDefinition("random->na")));
+    }
+}
@@ -0,0 +1,91 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.tags.Taggable;
+import org.openstreetmap.atlas.tags.filters.TaggableFilter;
+
+/**
+ * Tests for {@link CompiledTaggableFilters}
+ *
+ * @author lucylu
+ */
+public class CompiledTaggableFiltersTest
+{
+    private static final List<TaggableFilter> FILTERS = Arrays
+            .asList("highway->primary", "name->!", "highway->*&name->!",
+                    "building->yes|amenity->*", "highway->primary", "oneway->!no",
+                    "highway->residential&surface->!paved||access->no")
+            .stream().map(TaggableFilter::forDefinition).collect(Collectors.toList());
+
+    private static Taggable taggable(final String... tags)
+    {
+        final Map<String, String> map = new HashMap<>();
+        for (int index = 0; index + 1 < tags.length; index += 2)
+        {
+            map.put(tags[index], tags[index + 1]);
+        }
+        return Taggable.with(map);
+    }
+
+    @Test
+    public void testFiltersAreIndexedByKey()
+    {
+        Assert.assertEquals(new HashSet<>(Arrays.asList("highway", "surface", "access")),
+                CompiledTaggableFilters.keys(TaggableFilter
+                        .forDefinition("highway->residential&surface->!paved||access->no")));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("building", "amenity")),
+                CompiledTaggableFilters
+                        .keys(TaggableFilter.forDefinition("building->yes|amenity->*")));
+    }
+
+    @Test
+    public void testMatchesAreIdentical()
+    {
+        final CompiledTaggableFilters compiled = CompiledTaggableFilters.compile(FILTERS);
+        Assert.assertEquals(FILTERS.size(), compiled.size());
+        // Matches would be identical if every filter was evaluated for every object
+        for (int index = 0; index < FILTERS.size(); index++)
+        {
+            Assert.assertTrue(FILTERS.get(index).toString(), compiled.isIndexed(index));
+        }
+        for (final Taggable taggable : Arrays.asList(taggable(), taggable("natural", "water"),
+                taggable("highway", "primary"), taggable("highway", "primary", "name", "Main"),
+                taggable("building", "yes", "oneway", "no"), taggable("amenity", "cafe"),
+                taggable("highway", "residential", "surface", "gravel"),
+                taggable("highway", "residential", "access", "no"), taggable("oneway", "yes")))
+        {
+            final BitSet expected = new BitSet();
+            for (int index = 0; index < FILTERS.size(); index++)
+            {
+                expected.set(index, FILTERS.get(index).test(taggable));
+            }
+            Assert.assertEquals(taggable.getTags().toString(), expected,
+                    compiled.matches(taggable));
+            Assert.assertEquals(!expected.isEmpty(), compiled.test(taggable));
+        }
+    }
+
+    @Test
+    public void testSingleFilter()
+    {
+        final CompiledTaggableFilters compiled = CompiledTaggableFilters
+                .compile(TaggableFilter.forDefinition("highway->*&name->!"));
+        Assert.assertTrue(compiled.test(taggable("highway", "primary")));
+        Assert.assertFalse(compiled.test(taggable("highway", "primary", "name", "Main")));
+        Assert.assertFalse(compiled.test(taggable("natural", "water")));
+
+        final CompiledTaggableFilters empty = CompiledTaggableFilters
+                .compile(TaggableFilter.forDefinition(""));
+        Assert.assertEquals(TaggableFilter.forDefinition("").test(taggable("natural", "water")),
+                empty.test(taggable("natural", "water")));
+    }
+}
@@ -0,0 +1,110 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ConcurrentLongSet}
+ *
+ * @author lucylu
+ */
+public class ConcurrentLongSetTest
+{
+    @Test
+    public void testAddAndContains()
+    {
+        final ConcurrentLongSet set = new ConcurrentLongSet();
+        Assert.assertTrue(set.isEmpty());
+        Assert.assertTrue(set.add(0L));
+        Assert.assertTrue(set.add(-1L));
+        Assert.assertTrue(set.add(Long.MAX_VALUE));
+        Assert.assertTrue(set.add(Long.MIN_VALUE));
+        Assert.assertFalse(set.add(0L));
+        Assert.assertFalse(set.add(-1L));
+        Assert.assertTrue(set.contains(0L));
+        Assert.assertTrue(set.contains(-1L));
+        Assert.assertTrue(set.contains(Long.MAX_VALUE));
+        Assert.assertTrue(set.contains(Long.MIN_VALUE));
+        Assert.assertFalse(set.contains(1L));
+        Assert.assertEquals(4, set.size());
+    }
+
+    @Test
+    public void testClear()
+    {
+        final ConcurrentLongSet set = new ConcurrentLongSet(2);
+        for (long value = 0; value < 1000; value++)
+        {
+            set.add(value);
+        }
+        set.clear();
+        Assert.assertTrue(set.isEmpty());
+        Assert.assertFalse(set.contains(0L));
+        Assert.assertFalse(set.contains(500L));
+        Assert.assertTrue(set.add(500L));
+    }
+
+    @Test
+    public void testConcurrentAdds() throws Exception
+    {
+        final int threads = 8;
+        final long valuesPerThread = 50_000;
+        final ConcurrentLongSet set = new ConcurrentLongSet(threads);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<Long>> added = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++)
+        {
+            // Each thread adds the same values, only one of them adds each value
+            added.add(executor.submit(() ->
+            {
+                long count = 0;
+                for (long value = 0; value < valuesPerThread; value++)
+                {
+                    if (set.add(value * 1000))
+                    {
+                        count++;
+                    }
+                }
+                return count;
+            }));
+        }
+        long total = 0;
+        for (final Future<Long> future : added)
+        {
+            total += future.get();
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        Assert.assertEquals(valuesPerThread, total);
+        Assert.assertEquals(valuesPerThread, set.size());
+        for (long value = 0; value < valuesPerThread; value++)
+        {
+            Assert.assertTrue(set.contains(value * 1000));
+            Assert.assertFalse(set.contains(value * 1000 + 1));
+        }
+    }
+
+    @Test
+    public void testGrowth()
+    {
+        final ConcurrentLongSet set = new ConcurrentLongSet(1);
+        final int count = 100_000;
+        for (long value = 1; value <= count; value++)
+        {
+            Assert.assertTrue(set.add(value << 20));
+        }
+        Assert.assertEquals(count, set.size());
+        for (long value = 1; value <= count; value++)
+        {
+            Assert.assertTrue(set.contains(value << 20));
+            Assert.assertFalse(set.contains(-value));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.atlas.checks.base.checks.BaseTestRule;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasEntity;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
+
+/**
+ * Tests for {@link EntityOrder}
+ *
+ * @author lucylu
+ */
+public class EntityOrderTest
+{
+    @Rule
+    public BaseTestRule setup = new BaseTestRule();
+
+    @Test
+    public void testHilbertCurveIsContinuous()
+    {
+        // The first 256 cells of the curve are the 16x16 block at the origin, and consecutive
+        // cells are neighbours
+        final int size = 16;
+        final int[][] cells = new int[size * size][];
+        for (int column = 0; column < size; column++)
+        {
+            for (int row = 0; row < size; row++)
+            {
+                final long index = EntityOrder.hilbertIndex(column, row);
+                Assert.assertTrue(index < size * size);
+                Assert.assertNull(cells[(int) index]);
+                cells[(int) index] = new int[] { column, row };
+            }
+        }
+        for (int index = 1; index < cells.length; index++)
+        {
+            Assert.assertEquals(1, Math.abs(cells[index][0] - cells[index - 1][0])
+                    + Math.abs(cells[index][1] - cells[index - 1][1]));
+        }
+    }
+
+    @Test
+    public void testIndexOrder()
+    {
+        Assert.assertSame(this.setup.getAtlas().entities().iterator().next(), EntityOrder.INDEX
+                .entities(this.setup.getAtlas()).iterator().next());
+    }
+
+    @Test
+    public void testSpatialOrdersVisitAllEntitiesOnce()
+    {
+        final Set<AtlasEntity> expected = new HashSet<>();
+        this.setup.getAtlas().entities().forEach(expected::add);
+        for (final EntityOrder order : EntityOrder.values())
+        {
+            final Iterable<AtlasEntity> ordered = order.entities(this.setup.getAtlas());
+            Assert.assertEquals(expected.size(), Iterables.size(ordered));
+            final Set<AtlasEntity> actual = new HashSet<>();
+            ordered.forEach(actual::add);
+            Assert.assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testZOrderInterleavesBits()
+    {
+        Assert.assertEquals(0, EntityOrder.zOrderIndex(0, 0));
+        Assert.assertEquals(1, EntityOrder.zOrderIndex(1, 0));
+        Assert.assertEquals(2, EntityOrder.zOrderIndex(0, 1));
+        Assert.assertEquals(3, EntityOrder.zOrderIndex(1, 1));
+        Assert.assertEquals(4, EntityOrder.zOrderIndex(2, 0));
+    }
+}
@@ -0,0 +1,113 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.HashMap;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.CoordinateFilter;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.MultiPolygon;
+import org.openstreetmap.atlas.geography.Polygon;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.builder.AtlasBuilder;
+import org.openstreetmap.atlas.geography.atlas.items.Area;
+import org.openstreetmap.atlas.geography.atlas.packed.PackedAtlasBuilder;
+
+/**
+ * Tests for {@link GeometryCache}
+ *
+ * @author lucylu
+ */
+public class GeometryCacheTest
+{
+    private Atlas atlas;
+
+    @After
+    public void release()
+    {
+        AtlasCache.releaseAll(this.atlas);
+    }
+
+    @Before
+    public void setUp()
+    {
+        final AtlasBuilder builder = new PackedAtlasBuilder();
+        builder.addArea(1L,
+                new Polygon(Location.TEST_1, Location.TEST_2, Location.TEST_6, Location.TEST_1),
+                new HashMap<>());
+        this.atlas = builder.get();
+    }
+
+    @Test
+    public void testConversionsAreShared()
+    {
+        // Atlases create a new entity object on each access
+        final Area first = this.atlas.area(1L);
+        final Area second = this.atlas.area(1L);
+        final Polygon polygon = GeometryCache.polygon(first);
+        Assert.assertEquals(first.asPolygon(), polygon);
+        Assert.assertSame(polygon, GeometryCache.polygon(second));
+        Assert.assertEquals(first.asPolygon().surface(), GeometryCache.surface(second));
+        Assert.assertEquals(GeometryCache.multiPolygon(first).getOuterToInners().keySet(),
+                GeometryCache.multiPolygon(second).getOuterToInners().keySet());
+        Assert.assertTrue(GeometryCache.jtsPolygon(first)
+                .equalsExact(GeometryCache.jtsPolygon(second)));
+
+        final GeometryCache.Statistics statistics = GeometryCache.statistics(this.atlas);
+        // Polygon, surface, multipolygon and JTS polygon misses; the surface and JTS conversions
+        // reuse the cached polygon
+        Assert.assertEquals(4, statistics.getMisses());
+        Assert.assertEquals(5, statistics.getHits());
+        Assert.assertTrue(statistics.getRetainedBytes() > 0);
+    }
+
+    @Test
+    public void testModifiedCopiesDoNotChangeTheCache()
+    {
+        final Area area = this.atlas.area(1L);
+        final org.locationtech.jts.geom.Polygon jtsPolygon = GeometryCache.jtsPolygon(area);
+        final org.locationtech.jts.geom.Polygon expected = GeometryCache.jtsPolygon(area);
+        jtsPolygon.apply((CoordinateFilter) coordinate -> coordinate.x = 0);
+        jtsPolygon.geometryChanged();
+        Assert.assertTrue(expected.equalsExact(GeometryCache.jtsPolygon(area)));
+        Assert.assertFalse(jtsPolygon.equalsExact(GeometryCache.jtsPolygon(area)));
+
+        final MultiPolygon multiPolygon = GeometryCache.multiPolygon(area);
+        multiPolygon.getOuterToInners().clear();
+        Assert.assertEquals(1, GeometryCache.multiPolygon(area).getOuterToInners().size());
+    }
+
+    @Test
+    public void testReleaseKeepsOtherAtlases()
+    {
+        final AtlasBuilder builder = new PackedAtlasBuilder();
+        builder.addArea(1L,
+                new Polygon(Location.TEST_1, Location.TEST_2, Location.TEST_6, Location.TEST_1),
+                new HashMap<>());
+        final Atlas other = builder.get();
+        try
+        {
+            final Polygon polygon = GeometryCache.polygon(this.atlas.area(1L));
+            final Polygon otherPolygon = GeometryCache.polygon(other.area(1L));
+            Assert.assertNotSame(polygon, otherPolygon);
+            AtlasCache.releaseAll(this.atlas);
+            Assert.assertSame(otherPolygon, GeometryCache.polygon(other.area(1L)));
+            Assert.assertTrue(GeometryCache.statistics(other).getRetainedBytes() > 0);
+        }
+        finally
+        {
+            AtlasCache.releaseAll(other);
+        }
+    }
+
+    @Test
+    public void testReleaseDropsConversions()
+    {
+        final Polygon polygon = GeometryCache.polygon(this.atlas.area(1L));
+        AtlasCache.releaseAll(this.atlas);
+        Assert.assertNotSame(polygon, GeometryCache.polygon(this.atlas.area(1L)));
+        Assert.assertEquals(0, GeometryCache.statistics(this.atlas).getHits());
+    }
+}
@@ -0,0 +1,93 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.atlas.checks.base.checks.BaseTestRule;
+import org.openstreetmap.atlas.exception.CoreException;
+
+/**
+ * Tests for {@link KeyedAtlasCache}
+ *
+ * @author lucylu
+ */
+public class KeyedAtlasCacheTest
+{
+    @Rule
+    public BaseTestRule setup = new BaseTestRule();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @After
+    public void release()
+    {
+        AtlasCache.releaseAll(this.setup.getAtlas());
+    }
+
+    @Test
+    public void testFailedValueIsComputedAgain()
+    {
+        final KeyedAtlasCache<Integer> cache = new KeyedAtlasCache<>("test");
+        try
+        {
+            cache.get(this.setup.getAtlas(), "key", atlas ->
+            {
+                this.loads.incrementAndGet();
+                throw new IllegalStateException("failed");
+            });
+            Assert.fail("The value should not be computed");
+        }
+        catch (final CoreException exception)
+        {
+            Assert.assertTrue(exception.getCause() instanceof IllegalStateException);
+        }
+        Assert.assertEquals(2,
+                cache.get(this.setup.getAtlas(), "key", atlas -> this.loads.incrementAndGet())
+                        .intValue());
+    }
+
+    @Test
+    public void testValueFailedWithAnErrorIsComputedAgain()
+    {
+        final KeyedAtlasCache<Integer> cache = new KeyedAtlasCache<>("test");
+        try
+        {
+            cache.get(this.setup.getAtlas(), "key", atlas ->
+            {
+                this.loads.incrementAndGet();
+                throw new LinkageError("failed");
+            });
+            Assert.fail("The value should not be computed");
+        }
+        catch (final LinkageError error)
+        {
+            Assert.assertEquals("failed", error.getMessage());
+        }
+        Assert.assertEquals(2,
+                cache.get(this.setup.getAtlas(), "key", atlas -> this.loads.incrementAndGet())
+                        .intValue());
+    }
+
+    @Test
+    public void testValuesAreComputedOncePerKey()
+    {
+        final KeyedAtlasCache<Integer> cache = new KeyedAtlasCache<>("test");
+        Assert.assertEquals(1,
+                cache.get(this.setup.getAtlas(), "key", atlas -> this.loads.incrementAndGet())
+                        .intValue());
+        Assert.assertEquals(1,
+                cache.get(this.setup.getAtlas(), "key", atlas -> this.loads.incrementAndGet())
+                        .intValue());
+        Assert.assertEquals(2, cache
+                .get(this.setup.getAtlas(), "other", atlas -> this.loads.incrementAndGet())
+                .intValue());
+
+        AtlasCache.releaseAll(this.setup.getAtlas());
+        Assert.assertEquals(3,
+                cache.get(this.setup.getAtlas(), "key", atlas -> this.loads.incrementAndGet())
+                        .intValue());
+    }
+}
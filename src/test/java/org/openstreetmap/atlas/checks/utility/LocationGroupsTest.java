@@ -0,0 +1,48 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.geography.Location;
+
+/**
+ * Tests for {@link LocationGroups}
+ *
+ * @author lucylu
+ */
+public class LocationGroupsTest
+{
+    private static final int MANY_LOCATIONS = 1000;
+
+    @Test
+    public void testFirstRepeatedLocation()
+    {
+        Assert.assertEquals(Optional.of(Location.TEST_2),
+                LocationGroups.firstRepeatedLocation(Arrays.asList(Location.TEST_1,
+                        Location.TEST_2, Location.TEST_3, Location.TEST_2, Location.TEST_1)));
+        Assert.assertEquals(Optional.of(Location.CENTER), LocationGroups
+                .firstRepeatedLocation(Arrays.asList(Location.CENTER, Location.CENTER)));
+        Assert.assertEquals(Optional.empty(), LocationGroups.firstRepeatedLocation(
+                Arrays.asList(Location.TEST_1, Location.TEST_2, Location.TEST_3)));
+        Assert.assertEquals(Optional.empty(),
+                LocationGroups.firstRepeatedLocation(new ArrayList<>()));
+    }
+
+    @Test
+    public void testFirstRepeatedLocationInLongShape()
+    {
+        final List<Location> locations = new ArrayList<>();
+        for (int index = 0; index < MANY_LOCATIONS; index++)
+        {
+            locations.add(Location.forString(index % 90 + "," + index / 90));
+        }
+        Assert.assertEquals(Optional.empty(), LocationGroups.firstRepeatedLocation(locations));
+        locations.add(locations.get(MANY_LOCATIONS / 2));
+        Assert.assertEquals(Optional.of(locations.get(MANY_LOCATIONS / 2)),
+                LocationGroups.firstRepeatedLocation(locations));
+    }
+}
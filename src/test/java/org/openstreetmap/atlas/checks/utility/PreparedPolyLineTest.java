@@ -0,0 +1,76 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openstreetmap.atlas.geography.Latitude;
+import org.openstreetmap.atlas.geography.Location;
+import org.openstreetmap.atlas.geography.Longitude;
+import org.openstreetmap.atlas.geography.PolyLine;
+import org.openstreetmap.atlas.geography.Polygon;
+
+/**
+ * Tests for {@link PreparedPolyLine}
+ *
+ * @author lucylu
+ */
+public class PreparedPolyLineTest
+{
+    private static final int POLYGON_POINTS = 500;
+    private static final int CANDIDATES = 200;
+    private static final double RADIUS = 0.01;
+    private static final double INNER_RADIUS_RATIO = 0.9;
+    private static final long SEED = 42L;
+
+    @Test
+    public void testIndexedIntersectionsMatchPolyLine()
+    {
+        final List<Location> points = new ArrayList<>();
+        for (int index = 0; index < POLYGON_POINTS; index++)
+        {
+            final double angle = 2 * Math.PI * index / POLYGON_POINTS;
+            // A jagged circle, so that the candidates cross it several times
+            final double radius = RADIUS * (index % 2 == 0 ? 1.0 : INNER_RADIUS_RATIO);
+            points.add(new Location(Latitude.degrees(radius * Math.sin(angle)),
+                    Longitude.degrees(radius * Math.cos(angle))));
+        }
+        final Polygon polygon = new Polygon(points);
+        final PolyLine polyLine = new PolyLine(points);
+        final PreparedPolyLine preparedPolygon = new PreparedPolyLine(polygon);
+        final PreparedPolyLine preparedPolyLine = new PreparedPolyLine(polyLine);
+        Assert.assertEquals(POLYGON_POINTS, preparedPolygon.size());
+        Assert.assertEquals(POLYGON_POINTS - 1, preparedPolyLine.size());
+
+        final Random random = new Random(SEED);
+        for (int index = 0; index < CANDIDATES; index++)
+        {
+            final PolyLine candidate = new PolyLine(this.randomLocation(random),
+                    this.randomLocation(random), this.randomLocation(random));
+            Assert.assertEquals(polygon.intersections(candidate),
+                    preparedPolygon.intersections(candidate));
+            Assert.assertEquals(candidate.intersections(polygon),
+                    preparedPolygon.candidateIntersections(candidate));
+            Assert.assertEquals(polyLine.intersections(candidate),
+                    preparedPolyLine.intersections(candidate));
+        }
+    }
+
+    @Test
+    public void testSmallPolyLine()
+    {
+        final Polygon polygon = new Polygon(Location.TEST_1, Location.TEST_2, Location.TEST_6);
+        final PolyLine candidate = new PolyLine(Location.TEST_3, Location.TEST_4);
+        final PreparedPolyLine prepared = new PreparedPolyLine(polygon);
+        Assert.assertSame(polygon, prepared.getPolyLine());
+        Assert.assertEquals(polygon.intersections(candidate), prepared.intersections(candidate));
+    }
+
+    private Location randomLocation(final Random random)
+    {
+        return new Location(Latitude.degrees((random.nextDouble() * 2 - 1) * RADIUS * 2),
+                Longitude.degrees((random.nextDouble() * 2 - 1) * RADIUS * 2));
+    }
+}
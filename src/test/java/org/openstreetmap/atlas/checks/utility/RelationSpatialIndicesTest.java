@@ -0,0 +1,90 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.atlas.checks.flag.FlaggedRelationTestRule;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.Relation;
+import org.openstreetmap.atlas.geography.index.SpatialIndex;
+
+/**
+ * Tests for {@link RelationSpatialIndices}
+ *
+ * @author lucylu
+ */
+public class RelationSpatialIndicesTest
+{
+    private static final int THREADS = 8;
+
+    @Rule
+    public FlaggedRelationTestRule setup = new FlaggedRelationTestRule();
+
+    @After
+    public void release()
+    {
+        AtlasCache.releaseAll(this.setup.multipolygonAtlas());
+    }
+
+    @Test
+    public void testIndexIsBuiltOnce() throws Exception
+    {
+        final Atlas atlas = this.setup.multipolygonAtlas();
+        final AtomicInteger tests = new AtomicInteger();
+        final Predicate<Relation> predicate = relation -> tests.incrementAndGet() > 0;
+        final List<Callable<SpatialIndex<Relation>>> callers = new ArrayList<>();
+        for (int index = 0; index < THREADS; index++)
+        {
+            callers.add(() -> RelationSpatialIndices.get(atlas, "all", predicate));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try
+        {
+            final List<Future<SpatialIndex<Relation>>> indices = executor.invokeAll(callers);
+            for (final Future<SpatialIndex<Relation>> index : indices)
+            {
+                Assert.assertSame(indices.get(0).get(), index.get());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        // The predicate is tested once per relation, by the single build
+        Assert.assertEquals(atlas.numberOfRelations(), tests.get());
+    }
+
+    @Test
+    public void testIndexSelectsRelations()
+    {
+        final Atlas atlas = this.setup.multipolygonAtlas();
+        final Relation relation = atlas.relation(1000000L);
+        Assert.assertTrue(RelationSpatialIndices.get(atlas, "multipolygons",
+                Relation::isMultiPolygon).get(relation.bounds()).iterator().hasNext());
+        Assert.assertFalse(RelationSpatialIndices.get(atlas, "none", candidate -> false)
+                .get(relation.bounds()).iterator().hasNext());
+    }
+
+    @Test
+    public void testReleaseRebuildsIndices()
+    {
+        final Atlas atlas = this.setup.multipolygonAtlas();
+        final Predicate<Relation> predicate = Relation::isMultiPolygon;
+        final SpatialIndex<Relation> index = RelationSpatialIndices.get(atlas, "multipolygons",
+                predicate);
+        Assert.assertSame(index, RelationSpatialIndices.get(atlas, "multipolygons", predicate));
+        AtlasCache.releaseAll(atlas);
+        Assert.assertNotSame(index,
+                RelationSpatialIndices.get(atlas, "multipolygons", predicate));
+    }
+}
@@ -0,0 +1,55 @@
+package org.openstreetmap.atlas.checks.utility;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openstreetmap.atlas.checks.base.checks.BaseTestRule;
+import org.openstreetmap.atlas.geography.atlas.items.complex.ComplexEntity;
+import org.openstreetmap.atlas.geography.atlas.items.complex.Finder;
+
+/**
+ * Tests for {@link SharedFinder}
+ *
+ * @author lucylu
+ */
+public class SharedFinderTest
+{
+    @Rule
+    public BaseTestRule setup = new BaseTestRule();
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @After
+    public void release()
+    {
+        AtlasCache.releaseAll(this.setup.getAtlas());
+    }
+
+    @Test
+    public void testResultsAreShared()
+    {
+        final SharedFinder<ComplexEntity> finder = new SharedFinder<>("test", this::countingFinder);
+        final SharedFinder<ComplexEntity> otherFinder = new SharedFinder<>("test",
+                this::countingFinder);
+        Assert.assertSame(finder.find(this.setup.getAtlas()),
+                otherFinder.find(this.setup.getAtlas()));
+        Assert.assertEquals(1, this.runs.get());
+
+        new SharedFinder<>("other", this::countingFinder).find(this.setup.getAtlas());
+        Assert.assertEquals(2, this.runs.get());
+
+        AtlasCache.releaseAll(this.setup.getAtlas());
+        finder.find(this.setup.getAtlas());
+        Assert.assertEquals(3, this.runs.get());
+    }
+
+    private Finder<ComplexEntity> countingFinder()
+    {
+        this.runs.incrementAndGet();
+        return atlas -> Collections.emptyList();
+    }
+}
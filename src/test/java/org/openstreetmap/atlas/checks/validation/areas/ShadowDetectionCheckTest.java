@@ -1,10 +1,23 @@
 package org.openstreetmap.atlas.checks.validation.areas;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.openstreetmap.atlas.checks.configuration.ConfigurationResolver;
 import org.openstreetmap.atlas.checks.validation.verifier.ConsumerBasedExpectedCheckVerifier;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.AtlasObject;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
 
 /**
  * Unit tests for {@link ShadowDetectionCheck}.
@@ -18,6 +31,81 @@ public class ShadowDetectionCheckTest
     @Rule
     public ConsumerBasedExpectedCheckVerifier verifier = new ConsumerBasedExpectedCheckVerifier();
 
+    /**
+     * Walks building parts from a part, testing each part against every other part
+     */
+    private static Set<AtlasObject> reachableParts(final List<AtlasObject> parts,
+            final AtlasObject start, final BiPredicate<AtlasObject, AtlasObject> neighboring)
+    {
+        final Set<AtlasObject> reached = new HashSet<>();
+        final ArrayDeque<AtlasObject> toCheck = new ArrayDeque<>();
+        reached.add(start);
+        toCheck.add(start);
+        while (!toCheck.isEmpty())
+        {
+            final AtlasObject checking = toCheck.poll();
+            for (final AtlasObject part : parts)
+            {
+                if (!reached.contains(part) && neighboring.test(part, checking))
+                {
+                    reached.add(part);
+                    toCheck.add(part);
+                }
+            }
+        }
+        return reached;
+    }
+
+    @Test
+    public void buildingPartGraphFollowsNeighborDirectionTest()
+    {
+        // Parts only lead to touching parts with a larger identifier, so walks are directed
+        final BiPredicate<AtlasObject, AtlasObject> neighboring = (object,
+                part) -> object.getIdentifier() > part.getIdentifier()
+                        && object.bounds().overlaps(part.bounds());
+        for (final Atlas atlas : Arrays.asList(this.setup.invalidBuildingPartsManyFloatAtlas(),
+                this.setup.invalidBuildingPartsIntersectAtlas(),
+                this.setup.invalidBuildingRelationAndPartStackedAtlas(),
+                this.setup.validUntaggedAreasStackedBuildingRelationAtlas()))
+        {
+            final List<AtlasObject> parts = new ArrayList<>();
+            parts.addAll(Iterables.asList(atlas.areas()));
+            parts.addAll(Iterables.asList(atlas.relations()));
+            final BuildingPartGraph graph = new BuildingPartGraph(atlas, part -> true,
+                    neighboring);
+            for (final AtlasObject part : parts)
+            {
+                Assert.assertTrue(graph.covers(part));
+                final List<AtlasObject> connectedParts = graph.connectedParts(part);
+                Assert.assertEquals(part, connectedParts.get(0));
+                Assert.assertEquals(reachableParts(parts, part, neighboring),
+                        new HashSet<>(connectedParts));
+            }
+        }
+    }
+
+    @Test
+    public void buildingPartGraphComparesReachedPartsOnlyTest()
+    {
+        final AtomicInteger comparisons = new AtomicInteger();
+        final BiPredicate<AtlasObject, AtlasObject> neighboring = (object, part) ->
+        {
+            comparisons.incrementAndGet();
+            return false;
+        };
+        final Atlas atlas = this.setup.invalidBuildingPartsManyFloatAtlas();
+        final BuildingPartGraph graph = new BuildingPartGraph(atlas, part -> true, neighboring);
+        Assert.assertEquals(0, comparisons.get());
+
+        final AtlasObject start = atlas.areas().iterator().next();
+        Assert.assertEquals(Collections.singletonList(start), graph.connectedParts(start));
+        final int startComparisons = comparisons.get();
+        Assert.assertTrue(startComparisons > 0);
+        // The neighbors of a part are kept once computed
+        graph.connectedParts(start);
+        Assert.assertEquals(startComparisons, comparisons.get());
+    }
+
     @Test
     public void invalidBuildingAndPartStackedTest()
     {
@@ -43,6 +43,22 @@ public class BigNodeBadDataCheckTest
         Assert.assertTrue(runTest(this.setup.getBigNodeAtlas(), this.configNormalThreshold, 1));
     }
 
+    @Test
+    public void testPathCountsMatchAllPaths()
+    {
+        for (final Atlas atlas : new Atlas[] { this.setup.getAtlas(),
+                this.setup.getBigNodeAtlas() })
+        {
+            for (final BigNode bigNode : new BigNodeFinder().find(atlas))
+            {
+                final int allPaths = bigNode.allPaths().size();
+                Assert.assertEquals(allPaths, BigNodePaths.count(bigNode, Long.MAX_VALUE));
+                // The count stops once past the limit
+                Assert.assertTrue(BigNodePaths.count(bigNode, 0) <= allPaths);
+            }
+        }
+    }
+
     @Test
     public void testCheckBasedOnJunctionEdges()
     {
@@ -1,10 +1,18 @@
 package org.openstreetmap.atlas.checks.validation.intersections;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.openstreetmap.atlas.checks.configuration.ConfigurationResolver;
 import org.openstreetmap.atlas.checks.validation.verifier.ConsumerBasedExpectedCheckVerifier;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.Edge;
 import org.openstreetmap.atlas.utilities.configuration.Configuration;
 
 /**
@@ -18,6 +26,52 @@ public class EdgeCrossingEdgeCheckTest
     public ConsumerBasedExpectedCheckVerifier verifier = new ConsumerBasedExpectedCheckVerifier();
     private final Configuration configuration = ConfigurationResolver.emptyConfiguration();
 
+    @Test
+    public void testCrossingsAreSymmetric()
+    {
+        final Atlas atlas = this.setup.invalidCrossingItemsAtlas();
+        final EdgeCrossings crossings = new EdgeCrossings(atlas,
+                edge -> Edge.isMasterEdgeIdentifier(edge.getIdentifier()),
+                edge -> Optional.of(0L));
+        long crossingCount = 0;
+        for (final Edge edge : atlas.edges())
+        {
+            Assert.assertTrue(crossings.covers(edge));
+            for (final Edge crossingEdge : crossings.invalidCrossings(edge))
+            {
+                Assert.assertNotEquals(edge.getOsmIdentifier(), crossingEdge.getOsmIdentifier());
+                Assert.assertTrue(crossings.invalidCrossings(crossingEdge).contains(edge));
+                crossingCount++;
+            }
+        }
+        Assert.assertTrue(crossingCount > 0);
+    }
+
+    @Test
+    public void testCrossingsMatchSearch()
+    {
+        final EdgeCrossingEdgeCheck check = new EdgeCrossingEdgeCheck(this.configuration);
+        long crossingCount = 0;
+        for (final Atlas atlas : Arrays.asList(this.setup.invalidCrossingItemsAtlas(),
+                this.setup.invalidCrossingItemsWithDifferentLayerTagAtlas(),
+                this.setup.invalidCrossingItemsWithInvalidLayerTagAtlas(),
+                this.setup.invalidCrossingItemsWithSameLayerTagAtlas(),
+                this.setup.invalidCrossingNonMasterItemsAtlas(), this.setup.noCrossingItemsAtlas(),
+                this.setup.validCrossingItemsAtlas(), this.setup.validIntersectionItemsAtlas()))
+        {
+            for (final Edge edge : atlas.edges(check::validCheckForObject))
+            {
+                final EdgeCrossings crossings = check.crossings(edge);
+                Assert.assertTrue(crossings.covers(edge));
+                final Set<Edge> expected = check.searchInvalidCrossingEdges(edge)
+                        .collect(Collectors.toSet());
+                Assert.assertEquals(expected, new HashSet<>(crossings.invalidCrossings(edge)));
+                crossingCount += expected.size();
+            }
+        }
+        Assert.assertTrue(crossingCount > 0);
+    }
+
     @Test
     public void testInvalidCrossingItemsAtlas()
     {
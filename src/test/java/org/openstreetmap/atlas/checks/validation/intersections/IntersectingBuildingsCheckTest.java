@@ -23,6 +23,46 @@ public class IntersectingBuildingsCheckTest
     @Rule
     public ConsumerBasedExpectedCheckVerifier verifier = new ConsumerBasedExpectedCheckVerifier();
 
+    @Test
+    public void testAlmostContainedBuildingAtlas()
+    {
+        // Overlapping 99.99% of the smaller building is not containing it
+        this.verifier.actual(this.setup.almostContainedBuildingAtlas(), CHECK);
+        this.verifier.verifyExpectedSize(1);
+        this.verifier.verify(flag ->
+        {
+            Assert.assertEquals(2, flag.getFlaggedObjects().size());
+            Assert.assertTrue(flag.getInstructions().contains("intersects with another building"));
+        });
+    }
+
+    @Test
+    public void testContainedBuildingAlongSideAtlas()
+    {
+        // The intersection area can differ from the contained building area in its last digits
+        this.verifier.actual(this.setup.containedBuildingAlongSideAtlas(), CHECK);
+        this.verifier.verifyExpectedSize(1);
+        this.verifier.verify(flag ->
+        {
+            Assert.assertEquals(2, flag.getFlaggedObjects().size());
+            Assert.assertTrue(flag.getInstructions()
+                    .contains("Building (id=1234567) contains building (id=2234567)."));
+        });
+    }
+
+    @Test
+    public void testContainedBuildingInsideAtlas()
+    {
+        this.verifier.actual(this.setup.containedBuildingInsideAtlas(), CHECK);
+        this.verifier.verifyExpectedSize(1);
+        this.verifier.verify(flag ->
+        {
+            Assert.assertEquals(2, flag.getFlaggedObjects().size());
+            Assert.assertTrue(flag.getInstructions()
+                    .contains("Building (id=1234567) contains building (id=2234567)."));
+        });
+    }
+
     @Test
     public void testContainsBuildingAtlas()
     {
@@ -50,6 +90,25 @@ public class IntersectingBuildingsCheckTest
         });
     }
 
+    @Test
+    public void testJustAboveIntersectionLimitAtlas()
+    {
+        this.verifier.actual(this.setup.justAboveIntersectionLimitAtlas(), CHECK);
+        this.verifier.verifyExpectedSize(1);
+        this.verifier.verify(flag ->
+        {
+            Assert.assertEquals(2, flag.getFlaggedObjects().size());
+            Assert.assertTrue(flag.getInstructions().contains("intersects with another building"));
+        });
+    }
+
+    @Test
+    public void testJustBelowIntersectionLimitAtlas()
+    {
+        this.verifier.actual(this.setup.justBelowIntersectionLimitAtlas(), CHECK);
+        this.verifier.verifyEmpty();
+    }
+
     @Test
     public void testNeighborBuildingsAtlas()
     {
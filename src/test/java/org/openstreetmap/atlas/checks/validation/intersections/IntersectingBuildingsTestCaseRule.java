@@ -21,6 +21,27 @@ public class IntersectingBuildingsTestCaseRule extends CoreTestRule
     private static final String TEST_6 = "47.619522, -122.204926";
     private static final String TEST_7 = "47.620102, -122.206024";
     private static final String TEST_8 = "47.619583, -122.20594";
+    // A square building and the corners of the buildings overlapping it around the thresholds
+    private static final String TEST_9 = "10.000, 10.000";
+    private static final String TEST_10 = "10.002, 10.000";
+    private static final String TEST_11 = "10.002, 10.002";
+    private static final String TEST_12 = "10.000, 10.002";
+    private static final String TEST_13 = "10.000, 10.001981";
+    private static final String TEST_14 = "10.002, 10.001981";
+    private static final String TEST_15 = "10.002, 10.003981";
+    private static final String TEST_16 = "10.000, 10.003981";
+    private static final String TEST_17 = "10.000, 10.001979";
+    private static final String TEST_18 = "10.002, 10.001979";
+    private static final String TEST_19 = "10.002, 10.003979";
+    private static final String TEST_20 = "10.000, 10.003979";
+    private static final String TEST_21 = "10.0005, 10.001";
+    private static final String TEST_22 = "10.0015, 10.001";
+    private static final String TEST_23 = "10.0015, 10.002";
+    private static final String TEST_24 = "10.0005, 10.002";
+    private static final String TEST_25 = "10.0015, 10.0020001";
+    private static final String TEST_26 = "10.0005, 10.0020001";
+    private static final String TEST_27 = "10.0005, 10.0005";
+    private static final String TEST_28 = "10.0015, 10.0005";
 
     @TestAtlas(areas = {
             // a building
@@ -91,6 +112,71 @@ public class IntersectingBuildingsTestCaseRule extends CoreTestRule
                     @Loc(value = TEST_4), @Loc(value = TEST_3) }, tags = { "building=yes" }) })
     private Atlas containsBuildingAtlas;
 
+    @TestAtlas(areas = {
+            // a building
+            @Area(id = "1234567000000", coordinates = { @Loc(value = TEST_9), @Loc(value = TEST_10),
+                    @Loc(value = TEST_11), @Loc(value = TEST_12) }, tags = { "building=yes" }),
+            // another building of the same size overlapping 0.95% of it
+            @Area(id = "2234567000000", coordinates = { @Loc(value = TEST_13),
+                    @Loc(value = TEST_14), @Loc(value = TEST_15), @Loc(value = TEST_16) },
+                    tags = { "building=yes" }) })
+    private Atlas justBelowIntersectionLimitAtlas;
+
+    @TestAtlas(areas = {
+            // a building
+            @Area(id = "1234567000000", coordinates = { @Loc(value = TEST_9), @Loc(value = TEST_10),
+                    @Loc(value = TEST_11), @Loc(value = TEST_12) }, tags = { "building=yes" }),
+            // another building of the same size overlapping 1.05% of it
+            @Area(id = "2234567000000", coordinates = { @Loc(value = TEST_17),
+                    @Loc(value = TEST_18), @Loc(value = TEST_19), @Loc(value = TEST_20) },
+                    tags = { "building=yes" }) })
+    private Atlas justAboveIntersectionLimitAtlas;
+
+    @TestAtlas(areas = {
+            // a building
+            @Area(id = "1234567000000", coordinates = { @Loc(value = TEST_9), @Loc(value = TEST_10),
+                    @Loc(value = TEST_11), @Loc(value = TEST_12) }, tags = { "building=yes" }),
+            // a smaller building, 99.99% inside the first one
+            @Area(id = "2234567000000", coordinates = { @Loc(value = TEST_21),
+                    @Loc(value = TEST_22), @Loc(value = TEST_25), @Loc(value = TEST_26) },
+                    tags = { "building=yes" }) })
+    private Atlas almostContainedBuildingAtlas;
+
+    @TestAtlas(areas = {
+            // a building
+            @Area(id = "1234567000000", coordinates = { @Loc(value = TEST_9), @Loc(value = TEST_10),
+                    @Loc(value = TEST_11), @Loc(value = TEST_12) }, tags = { "building=yes" }),
+            // a smaller building inside the first one, along its east side
+            @Area(id = "2234567000000", coordinates = { @Loc(value = TEST_21),
+                    @Loc(value = TEST_22), @Loc(value = TEST_23), @Loc(value = TEST_24) },
+                    tags = { "building=yes" }) })
+    private Atlas containedBuildingAlongSideAtlas;
+
+    @TestAtlas(areas = {
+            // a building
+            @Area(id = "1234567000000", coordinates = { @Loc(value = TEST_9), @Loc(value = TEST_10),
+                    @Loc(value = TEST_11), @Loc(value = TEST_12) }, tags = { "building=yes" }),
+            // a smaller building strictly inside the first one
+            @Area(id = "2234567000000", coordinates = { @Loc(value = TEST_27),
+                    @Loc(value = TEST_28), @Loc(value = TEST_22), @Loc(value = TEST_21) },
+                    tags = { "building=yes" }) })
+    private Atlas containedBuildingInsideAtlas;
+
+    public Atlas almostContainedBuildingAtlas()
+    {
+        return this.almostContainedBuildingAtlas;
+    }
+
+    public Atlas containedBuildingAlongSideAtlas()
+    {
+        return this.containedBuildingAlongSideAtlas;
+    }
+
+    public Atlas containedBuildingInsideAtlas()
+    {
+        return this.containedBuildingInsideAtlas;
+    }
+
     public Atlas containsBuildingAtlas()
     {
         return this.containsBuildingAtlas;
@@ -101,6 +187,16 @@ public class IntersectingBuildingsTestCaseRule extends CoreTestRule
         return this.duplicateBuildingsAtlas;
     }
 
+    public Atlas justAboveIntersectionLimitAtlas()
+    {
+        return this.justAboveIntersectionLimitAtlas;
+    }
+
+    public Atlas justBelowIntersectionLimitAtlas()
+    {
+        return this.justBelowIntersectionLimitAtlas;
+    }
+
     public Atlas neighborBuildingsAtlas()
     {
         return this.neighborBuildingsAtlas;
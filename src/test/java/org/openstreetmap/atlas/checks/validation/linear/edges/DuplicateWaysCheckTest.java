@@ -1,10 +1,17 @@
 package org.openstreetmap.atlas.checks.validation.linear.edges;
 
+import java.util.Arrays;
+
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.openstreetmap.atlas.checks.configuration.ConfigurationResolver;
+import org.openstreetmap.atlas.checks.utility.AtlasCache;
 import org.openstreetmap.atlas.checks.validation.verifier.ConsumerBasedExpectedCheckVerifier;
+import org.openstreetmap.atlas.geography.PolyLine;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.Edge;
+import org.openstreetmap.atlas.utilities.scalars.Distance;
 
 /**
  * Tests for {@link DuplicateWaysCheck}
@@ -84,4 +91,50 @@ public class DuplicateWaysCheckTest
                 new DuplicateWaysCheck(ConfigurationResolver.emptyConfiguration()));
         this.verifier.globallyVerify(flags -> Assert.assertEquals(1, flags.size()));
     }
+
+    @Test
+    public void sharingSegmentsIncludeOverlappingEdgesInBounds()
+    {
+        long overlappingCount = 0;
+        for (final Atlas atlas : Arrays.asList(this.setup.duplicateEdgeCompleteCoverageThreeEdges(),
+                this.setup.duplicateEdgeCompleteCoverageTwoEdges(),
+                this.setup.duplicateEdgeCompleteCoverageTwoEdgesArea(),
+                this.setup.duplicateEdgeNoCoverageTwoEdges(),
+                this.setup.duplicateEdgePartialCoverageThreeEdges(),
+                this.setup.duplicateEdgePartialCoverageTwoEdges(),
+                this.setup.getDuplicateEdgeCompleteCoverageThreeEdgesAreaOneTag(),
+                this.setup.getDuplicateEdgeCompleteCoverageThreeEdgesAreaTwoTag()))
+        {
+            final EdgeSegments segments = EdgeSegments.forAtlas(atlas);
+            for (final Edge edge : atlas.edges(Edge::isMasterEdge))
+            {
+                Assert.assertTrue(segments.covers(edge));
+                final PolyLine edgePoly = edge.asPolyLine();
+                // The candidates the check used to get from the bounds, which overlap the shape
+                // of the edge, must all share a segment with it
+                for (final Edge edgeInBounds : atlas.edgesIntersecting(edgePoly.bounds(),
+                        Edge::isMasterEdge))
+                {
+                    final PolyLine edgeInBoundsPoly = edgeInBounds.asPolyLine();
+                    if (edge.getIdentifier() == edgeInBounds.getIdentifier()
+                            || edgeInBoundsPoly.length().equals(Distance.ZERO))
+                    {
+                        continue;
+                    }
+                    final PolyLine longerEdge = edgePoly.length()
+                            .isGreaterThan(edgeInBoundsPoly.length()) ? edgePoly
+                                    : edgeInBoundsPoly;
+                    final PolyLine subsetEdge = longerEdge == edgePoly ? edgeInBoundsPoly
+                            : edgePoly;
+                    if (longerEdge.overlapsShapeOf(subsetEdge))
+                    {
+                        Assert.assertTrue(segments.sharingSegments(edge).contains(edgeInBounds));
+                        overlappingCount++;
+                    }
+                }
+            }
+            AtlasCache.releaseAll(atlas);
+        }
+        Assert.assertTrue(overlappingCount > 0);
+    }
 }
@@ -1,12 +1,19 @@
 package org.openstreetmap.atlas.checks.validation.linear.edges;
 
+import java.util.Arrays;
+import java.util.Set;
+
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.openstreetmap.atlas.checks.configuration.ConfigurationResolver;
 import org.openstreetmap.atlas.checks.flag.CheckFlag;
+import org.openstreetmap.atlas.checks.utility.AtlasCache;
 import org.openstreetmap.atlas.checks.validation.verifier.ConsumerBasedExpectedCheckVerifier;
+import org.openstreetmap.atlas.geography.Segment;
 import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.Edge;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
 
 /**
  * @author brian_l_davis
@@ -133,6 +140,31 @@ public class OverlappingEdgeCheckTest
         this.verifier.verifyExpectedSize(1);
     }
 
+    @Test
+    public void testSegmentsMatchPolyLineContains()
+    {
+        for (final Atlas atlas : Arrays.asList(this.setup.getMultipleOverlappingAtlas(),
+                this.setup.getNonOverlappingAtlas(), this.setup.getOverlappingHeadAtlas(),
+                this.setup.getOverlappingMiddleAtlas(), this.setup.getOverlappingTailAtlas()))
+        {
+            final EdgeSegments segments = EdgeSegments.forAtlas(atlas);
+            for (final Edge edge : atlas.edges(Edge::isMasterEdge))
+            {
+                final Set<Edge> expected = Iterables
+                        .stream(atlas.edges(other -> other.isMasterEdge() && !other.equals(edge)
+                                && edge.asPolyLine().segments().stream()
+                                        .anyMatch(segment -> other.asPolyLine().contains(segment)
+                                                || other.asPolyLine().contains(
+                                                        new Segment(segment.end(),
+                                                                segment.start())))))
+                        .collectToSet();
+                Assert.assertTrue(segments.covers(edge));
+                Assert.assertEquals(expected, segments.sharingSegments(edge));
+            }
+            AtlasCache.releaseAll(atlas);
+        }
+    }
+
     @Test
     public void testServiceAreaOverlapEdgeAtlas()
     {
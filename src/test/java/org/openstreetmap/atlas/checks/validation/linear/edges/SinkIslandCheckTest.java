@@ -32,6 +32,66 @@ public class SinkIslandCheckTest
         this.verifier.verifyEmpty();
     }
 
+    @Test
+    public void testComponentsEngine()
+    {
+        // The cycle leads to more than 3 edges, the two edges leaving it and the cycle they lead
+        // to form the island
+        this.verifier.actual(this.setup.getTestAtlas(),
+                new SinkIslandCheck(ConfigurationResolver.inlineConfiguration(
+                        "{\"SinkIslandCheck.engine\": \"components\", "
+                                + "\"SinkIslandCheck.components.island.size.maximum\": 3}")));
+        this.verifier.verifyExpectedSize(1);
+        this.verifier.verify(flag -> Assert.assertEquals(4, flag.getFlaggedObjects().size()));
+    }
+
+    @Test
+    public void testComponentsEngineDiamondChain()
+    {
+        // The 12 edges form one island; counted per path, the first diamond reaches 14 edges
+        this.verifier.actual(this.setup.getDiamondChainSinkIsland(),
+                new SinkIslandCheck(ConfigurationResolver.inlineConfiguration(
+                        "{\"SinkIslandCheck.engine\": \"components\", "
+                                + "\"SinkIslandCheck.components.island.size.maximum\": 12}")));
+        this.verifier.verifyExpectedSize(1);
+        this.verifier.verify(flag -> Assert.assertEquals(12, flag.getFlaggedObjects().size()));
+    }
+
+    @Test
+    public void testComponentsEngineFindsLargeIslands()
+    {
+        this.verifier.actual(this.setup.getTestAtlas(), new SinkIslandCheck(ConfigurationResolver
+                .inlineConfiguration("{\"SinkIslandCheck.engine\": \"components\"}")));
+        this.verifier.verifyExpectedSize(1);
+        this.verifier.verify(flag -> Assert.assertEquals(10, flag.getFlaggedObjects().size()));
+    }
+
+    @Test
+    public void testComponentsEngineIgnoresExits()
+    {
+        this.verifier.actual(this.setup.getSingleEdgeWithAmenityAtlas(),
+                new SinkIslandCheck(ConfigurationResolver
+                        .inlineConfiguration("{\"SinkIslandCheck.engine\": \"components\"}")));
+        this.verifier.verifyEmpty();
+    }
+
+    @Test
+    public void testComponentsEngineMotorVehicleYesRoadToPedestrianRoad()
+    {
+        // Like the search started from it, the edge leading only to a pedestrian way is an island
+        this.verifier.actual(this.setup.getMotorVehicleYesRoadToPedestrianRoad(),
+                new SinkIslandCheck(ConfigurationResolver.inlineConfiguration(
+                        "{\"SinkIslandCheck.engine\": \"components\", "
+                                + "\"SinkIslandCheck.filter.pedestrian.network\": true}")));
+        this.verifier.verifyExpectedSize(1);
+        this.verifier.verify(flag ->
+        {
+            Assert.assertEquals(1, flag.getFlaggedObjects().size());
+            Assert.assertEquals("service",
+                    flag.getFlaggedObjects().iterator().next().getProperties().get("highway"));
+        });
+    }
+
     @Test
     public void testEdgesEndingInBuilding()
     {
@@ -74,6 +134,21 @@ public class SinkIslandCheckTest
         this.verifier.verify(flag -> Assert.assertEquals(3, flag.getFlaggedObjects().size()));
     }
 
+    @Test
+    public void testMotorVehicleYesRoadToPedestrianRoad()
+    {
+        this.verifier.actual(this.setup.getMotorVehicleYesRoadToPedestrianRoad(),
+                new SinkIslandCheck(ConfigurationResolver.inlineConfiguration(
+                        "{\"SinkIslandCheck.filter.pedestrian.network\": true}")));
+        this.verifier.verifyExpectedSize(1);
+        this.verifier.verify(flag ->
+        {
+            Assert.assertEquals(1, flag.getFlaggedObjects().size());
+            Assert.assertEquals("service",
+                    flag.getFlaggedObjects().iterator().next().getProperties().get("highway"));
+        });
+    }
+
     @Test
     public void testNonCarNavigableEdges()
     {
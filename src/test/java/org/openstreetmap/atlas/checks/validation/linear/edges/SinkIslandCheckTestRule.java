@@ -35,7 +35,17 @@ public class SinkIslandCheckTestRule extends CoreTestRule
     private static final String TEST_21 = "4.8721288, 114.9220754";
     private static final String TEST_22 = "4.8723897, 114.9224152";
     private static final String TEST_23 = "4.8721288, 114.9224435";
+    private static final String TEST_24 = "10.0000, 10.0000";
+    private static final String TEST_25 = "10.0010, 10.0010";
+    private static final String TEST_26 = "9.9990, 10.0010";
+    private static final String TEST_27 = "10.0000, 10.0020";
+    private static final String TEST_28 = "10.0010, 10.0030";
+    private static final String TEST_29 = "9.9990, 10.0030";
     private static final String TEST_3 = "37.317585,-122.052138";
+    private static final String TEST_30 = "10.0000, 10.0040";
+    private static final String TEST_31 = "10.0010, 10.0050";
+    private static final String TEST_32 = "9.9990, 10.0050";
+    private static final String TEST_33 = "10.0000, 10.0060";
     private static final String TEST_4 = "37.332451,-122.028932";
     private static final String TEST_5 = "37.390535,-122.031007";
     private static final String TEST_6 = "37.325440,-122.033948";
@@ -208,6 +218,57 @@ public class SinkIslandCheckTestRule extends CoreTestRule
                             "highway=service", "motor_vehicle=yes" }) })
     private Atlas pedestrianRoadAndMotorVehicleYesRoad;
 
+    @TestAtlas(nodes = {
+            @Node(coordinates = @Loc(value = TEST_1), tags = { "synthetic_boundary_node=yes" }),
+            @Node(coordinates = @Loc(value = TEST_2)), @Node(coordinates = @Loc(value = TEST_3)),
+            @Node(coordinates = @Loc(value = TEST_4)) }, edges = {
+                    @Edge(id = "1000000", coordinates = { @Loc(value = TEST_1),
+                            @Loc(value = TEST_2) }, tags = { "highway=primary", "oneway=yes" }),
+                    @Edge(id = "2000000", coordinates = { @Loc(value = TEST_2),
+                            @Loc(value = TEST_3) }, tags = { "highway=service", "oneway=yes",
+                                    "motor_vehicle=yes" }),
+                    @Edge(id = "3000000", coordinates = { @Loc(value = TEST_3),
+                            @Loc(value = TEST_4) }, tags = { "highway=pedestrian" }) })
+    private Atlas motorVehicleYesRoadToPedestrianRoad;
+
+    // A chain of three diamonds of one way edges, ending in a dead end
+    @TestAtlas(nodes = {
+            @Node(coordinates = @Loc(value = TEST_24)),
+            @Node(coordinates = @Loc(value = TEST_25)),
+            @Node(coordinates = @Loc(value = TEST_26)),
+            @Node(coordinates = @Loc(value = TEST_27)),
+            @Node(coordinates = @Loc(value = TEST_28)),
+            @Node(coordinates = @Loc(value = TEST_29)),
+            @Node(coordinates = @Loc(value = TEST_30)),
+            @Node(coordinates = @Loc(value = TEST_31)),
+            @Node(coordinates = @Loc(value = TEST_32)),
+            @Node(coordinates = @Loc(value = TEST_33)) }, edges = {
+                    @Edge(coordinates = { @Loc(value = TEST_24), @Loc(value = TEST_25) }, tags = {
+                            "highway=primary", "oneway=yes" }),
+                    @Edge(coordinates = { @Loc(value = TEST_24), @Loc(value = TEST_26) }, tags = {
+                            "highway=primary", "oneway=yes" }),
+                    @Edge(coordinates = { @Loc(value = TEST_25), @Loc(value = TEST_27) }, tags = {
+                            "highway=primary", "oneway=yes" }),
+                    @Edge(coordinates = { @Loc(value = TEST_26), @Loc(value = TEST_27) }, tags = {
+                            "highway=primary", "oneway=yes" }),
+                    @Edge(coordinates = { @Loc(value = TEST_27), @Loc(value = TEST_28) }, tags = {
+                            "highway=primary", "oneway=yes" }),
+                    @Edge(coordinates = { @Loc(value = TEST_27), @Loc(value = TEST_29) }, tags = {
+                            "highway=primary", "oneway=yes" }),
+                    @Edge(coordinates = { @Loc(value = TEST_28), @Loc(value = TEST_30) }, tags = {
+                            "highway=primary", "oneway=yes" }),
+                    @Edge(coordinates = { @Loc(value = TEST_29), @Loc(value = TEST_30) }, tags = {
+                            "highway=primary", "oneway=yes" }),
+                    @Edge(coordinates = { @Loc(value = TEST_30), @Loc(value = TEST_31) }, tags = {
+                            "highway=primary", "oneway=yes" }),
+                    @Edge(coordinates = { @Loc(value = TEST_30), @Loc(value = TEST_32) }, tags = {
+                            "highway=primary", "oneway=yes" }),
+                    @Edge(coordinates = { @Loc(value = TEST_31), @Loc(value = TEST_33) }, tags = {
+                            "highway=primary", "oneway=yes" }),
+                    @Edge(coordinates = { @Loc(value = TEST_32), @Loc(value = TEST_33) }, tags = {
+                            "highway=primary", "oneway=yes" }) })
+    private Atlas diamondChainSinkIsland;
+
     @TestAtlas(
             // nodes
             nodes = { @Node(coordinates = @Loc(value = TEST_1)),
@@ -234,6 +295,11 @@ public class SinkIslandCheckTestRule extends CoreTestRule
                             "highway=primary", "oneway=yes", "vehicle=permissive" }), })
     private Atlas permittedSelectAccessAtlas;
 
+    public Atlas getDiamondChainSinkIsland()
+    {
+        return this.diamondChainSinkIsland;
+    }
+
     public Atlas getEdgeConnectedToPedestrianNetwork()
     {
         return this.pedestrianNetwork;
@@ -259,6 +325,11 @@ public class SinkIslandCheckTestRule extends CoreTestRule
         return this.invalidEdges;
     }
 
+    public Atlas getMotorVehicleYesRoadToPedestrianRoad()
+    {
+        return this.motorVehicleYesRoadToPedestrianRoad;
+    }
+
     public Atlas getNonCarNavigableEdges()
     {
         return this.nonCarNavigableEdgesAtlas;
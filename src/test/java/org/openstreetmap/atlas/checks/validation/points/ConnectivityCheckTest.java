@@ -1,11 +1,21 @@
 package org.openstreetmap.atlas.checks.validation.points;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.openstreetmap.atlas.checks.configuration.ConfigurationResolver;
 import org.openstreetmap.atlas.checks.validation.verifier.ConsumerBasedExpectedCheckVerifier;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
+import org.openstreetmap.atlas.geography.atlas.items.Node;
+import org.openstreetmap.atlas.tags.LayerTag;
+import org.openstreetmap.atlas.utilities.collections.Iterables;
 import org.openstreetmap.atlas.utilities.configuration.Configuration;
+import org.openstreetmap.atlas.utilities.scalars.Distance;
 
 /**
  * Tests for {@link ConnectivityCheck}
@@ -23,6 +33,13 @@ public class ConnectivityCheckTest
             .inlineConfiguration(
                     "{\"ConnectivityCheck\":{\"blacklisted.highway.filter\":\"highway->secondary\"}}");
 
+    private static Set<Long> layers(final Node node)
+    {
+        return node.connectedEdges().stream()
+                .map(edge -> LayerTag.getTaggedOrImpliedValue(edge, LayerTag.ZERO))
+                .collect(Collectors.toSet());
+    }
+
     @Test
     public void highwayFilterOnInvalidDisconnectedEdgeCrossingTest()
     {
@@ -111,6 +128,30 @@ public class ConnectivityCheckTest
         this.verifier.globallyVerify(flags -> Assert.assertEquals(1, flags.size()));
     }
 
+    @Test
+    public void nearbyNodesMatchSpatialQueriesTest()
+    {
+        final Distance threshold = Distance.meters(2.0);
+        for (final Atlas atlas : Arrays.asList(this.setup.invalidDisconnectedNodesAtlas(),
+                this.setup.invalidDisconnectedNodesCrossingLayerAtlas(),
+                this.setup.validDisconnectedNodesLayerAtlas()))
+        {
+            final ConnectivityCandidates candidates = new ConnectivityCandidates(atlas,
+                    node -> true, threshold);
+            for (final Node node : atlas.nodes())
+            {
+                final Set<Long> layers = layers(node);
+                final Set<Node> expected = Iterables.stream(atlas.nodesWithin(
+                        node.getLocation().boxAround(threshold),
+                        nearbyNode -> !nearbyNode.equals(node)
+                                && layers(nearbyNode).stream().anyMatch(layers::contains)))
+                        .collectToSet();
+                Assert.assertTrue(candidates.covers(node));
+                Assert.assertEquals(expected, new HashSet<>(candidates.nearbyNodes(node)));
+            }
+        }
+    }
+
     @Test
     public void validConnectedEdges3Test()
     {
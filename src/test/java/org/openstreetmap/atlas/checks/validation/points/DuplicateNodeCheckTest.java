@@ -1,7 +1,11 @@
 package org.openstreetmap.atlas.checks.validation.points;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.Assert;
@@ -68,4 +72,29 @@ public class DuplicateNodeCheckTest
 
         Assert.assertEquals(1, Iterables.size(flags));
     }
+
+    @Test
+    public void testGroupsAreFlaggedOnce()
+    {
+        final Location first = Location.TEST_1;
+        final Location second = Location.TEST_2;
+        final PackedAtlasBuilder builder = new PackedAtlasBuilder();
+        // The node with the smallest identifier of the first group is not the first one
+        builder.addNode(3, first, RandomTagsSupplier.randomTags(5));
+        builder.addNode(1, first, RandomTagsSupplier.randomTags(5));
+        builder.addNode(2, first, RandomTagsSupplier.randomTags(5));
+        builder.addNode(4, second, RandomTagsSupplier.randomTags(5));
+        builder.addNode(5, second, RandomTagsSupplier.randomTags(5));
+        builder.addNode(6, Location.TEST_3, RandomTagsSupplier.randomTags(5));
+        final Atlas atlas = builder.get();
+
+        final List<Integer> groupSizes = new ArrayList<>();
+        for (final CheckFlag flag : new DuplicateNodeCheck(
+                ConfigurationResolver.emptyConfiguration()).flags(atlas))
+        {
+            groupSizes.add(flag.getFlaggedObjects().size());
+        }
+        Collections.sort(groupSizes);
+        Assert.assertEquals(Arrays.asList(2, 3), groupSizes);
+    }
 }
@@ -0,0 +1,62 @@
+package org.openstreetmap.atlas.checks.validation.tag;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link RoadNameIndex}
+ *
+ * @author lucylu
+ */
+public class RoadNameIndexTest
+{
+    private static final List<String> NAMES = Arrays.asList("", "A", "B", "ab", "xaZ", "Main St",
+            "Main st", "Mian St", "Man St", "Maain St", "Main St.", "Main", "Road A", "Road B",
+            "12c Street", "12d Street", "12c Streat", "Y6 Drive", "Y6 Drivee", "Rue Lépine",
+            "Rue Lepine", "四条通", "五条通", "四条道", "abc", "abd", "acb", "bc", "xab", "abcd");
+    private static final Set<String> AREA = new HashSet<>(NAMES);
+
+    @Test
+    public void testFindsInconsistentSpellings()
+    {
+        final RoadNameIndex index = new RoadNameIndex(NAMES);
+        // Swapped letters are two substitutions apart
+        Assert.assertEquals(
+                new HashSet<>(Arrays.asList("Main st", "Man St", "Maain St", "Main St.")),
+                index.inconsistentSpellings("Main St", AREA));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("Rue Lepine")),
+                index.inconsistentSpellings("Rue Lépine", AREA));
+        Assert.assertTrue(index.inconsistentSpellings("Road A", AREA).isEmpty());
+    }
+
+    @Test
+    public void testFindsOnlyNamesOfTheSearchArea()
+    {
+        final RoadNameIndex index = new RoadNameIndex(NAMES);
+        final Set<String> area = new HashSet<>(Arrays.asList("Main St", "Man St", "Main Sq"));
+        // Main Sq is not indexed, as if it had been loaded after the index was built
+        Assert.assertEquals(new HashSet<>(Arrays.asList("Man St", "Main Sq")),
+                index.inconsistentSpellings("Main St", area));
+    }
+
+    @Test
+    public void testMatchesPairwiseComparisons()
+    {
+        final RoadNameIndex index = new RoadNameIndex(NAMES);
+        for (final String startEdgeName : NAMES)
+        {
+            final Set<String> expected = NAMES.stream()
+                    .filter(name -> RoadNameSpellingConsistencyCheckWalker
+                            .isInconsistentSpelling(name, startEdgeName))
+                    .collect(Collectors.toSet());
+            Assert.assertEquals(startEdgeName, expected,
+                    index.inconsistentSpellings(startEdgeName, AREA));
+        }
+    }
+}
@@ -1,10 +1,22 @@
 package org.openstreetmap.atlas.checks.validation.tag;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.openstreetmap.atlas.checks.configuration.ConfigurationResolver;
+import org.openstreetmap.atlas.checks.flag.CheckFlag;
 import org.openstreetmap.atlas.checks.validation.verifier.ConsumerBasedExpectedCheckVerifier;
+import org.openstreetmap.atlas.geography.atlas.Atlas;
 
 /**
  * {@link RoadNameSpellingConsistencyCheck} unit tests. Note: More than one
@@ -15,6 +27,7 @@ import org.openstreetmap.atlas.checks.validation.verifier.ConsumerBasedExpectedC
  */
 public class RoadNameSpellingConsistencyCheckTest
 {
+    private static final int RUNS = 4;
 
     @Rule
     public RoadNameSpellingConsistencyCheckTestRule setup = new RoadNameSpellingConsistencyCheckTestRule();
@@ -22,6 +35,23 @@ public class RoadNameSpellingConsistencyCheckTest
     @Rule
     public ConsumerBasedExpectedCheckVerifier verifier = new ConsumerBasedExpectedCheckVerifier();
 
+    /**
+     * Runs a new check on an atlas
+     *
+     * @return the identifiers of the flags and of their flagged objects
+     */
+    private static Set<String> flags(final Atlas atlas)
+    {
+        final Set<String> identifiers = new TreeSet<>();
+        for (final CheckFlag flag : new RoadNameSpellingConsistencyCheck(
+                ConfigurationResolver.emptyConfiguration()).flags(atlas))
+        {
+            identifiers.add(flag.getIdentifier());
+            identifiers.addAll(flag.getUniqueIdentifiers());
+        }
+        return identifiers;
+    }
+
     @Test
     public void allSegmentsInconsistentSpelling()
     {
@@ -30,6 +60,40 @@ public class RoadNameSpellingConsistencyCheckTest
         this.verifier.globallyVerify(flags -> Assert.assertEquals(1, flags.size()));
     }
 
+    @Test
+    public void concurrentAtlasesMatchSequentialRuns() throws Exception
+    {
+        final List<Atlas> atlases = Arrays.asList(this.setup.getAllSegmentsInconsistentSpelling(),
+                this.setup.getMoreThanOneSegmentInconsistentSpelling(),
+                this.setup.getNoSegmentsInconsistentSpelling(),
+                this.setup.getOneSegmentInconsistentSpelling(),
+                this.setup.getOneSegmentInconsistentSpellingAccent());
+        final List<Set<String>> sequentialFlags = new ArrayList<>();
+        atlases.forEach(atlas -> sequentialFlags.add(flags(atlas)));
+
+        // The atlases share edge identifiers, so edges explored in one atlas must not be skipped
+        // in another one checked at the same time
+        final List<Callable<Set<String>>> runs = new ArrayList<>();
+        for (int run = 0; run < RUNS; run++)
+        {
+            atlases.forEach(atlas -> runs.add(() -> flags(atlas)));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(atlases.size());
+        try
+        {
+            final List<Future<Set<String>>> concurrentFlags = executor.invokeAll(runs);
+            for (int index = 0; index < concurrentFlags.size(); index++)
+            {
+                Assert.assertEquals(sequentialFlags.get(index % atlases.size()),
+                        concurrentFlags.get(index).get());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void moreThanOneSegmentInconsistentSpelling()
     {